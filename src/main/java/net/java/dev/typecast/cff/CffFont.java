@@ -32,75 +32,113 @@ import net.java.dev.typecast.ot.table.CffTable;
  */
 public class CffFont {
     
+    private static final int CHARSET = 15;
+    private static final int CHAR_STRINGS = 17;
+    private static final int PRIVATE = 18;
+    private static final int SUBRS = 19;
+    private static final int ROS = 12 << 8 | 30;
+    private static final int FD_ARRAY = 12 << 8 | 36;
+    private static final int FD_SELECT = 12 << 8 | 37;
+    
     private final CffTable _table;
     private final Dict _topDict;
     private final Index _charStringsIndex;
-    private final Dict _privateDict;
-    private final Index _localSubrIndex;
+    private final Dict[] _privateDicts;
+    private final Index[] _localSubrIndexes;
+    private final FdSelect _fdSelect;
     private final Charset _charset;
-    private final Charstring[] _charstrings;
+    private final int _index;
 
     public CffFont(
             CffTable table, byte[] buf,
             int index,
             Dict topDict) throws IOException {
         _table = table;
+        _index = index;
         _topDict = topDict;
 
         // Charstrings INDEX
         // We load this before Charsets because we may need to know the number
         // of glyphs
-        Integer charStringsOffset = (Integer) _topDict.getValue(17);
-        DataInput di = CffTable.getDataInputForOffset(buf, charStringsOffset);
+        Object charStringsOffset = _topDict.getValue(CHAR_STRINGS);
+        if (!(charStringsOffset instanceof Number)) {
+            throw new IOException("CFF font " + index + " has no CharStrings INDEX.");
+        }
+        DataInput di = CffTable.getDataInputForOffset(buf, ((Number) charStringsOffset).intValue());
         _charStringsIndex = new Index(di);
         int glyphCount = _charStringsIndex.getCount();
 
-        // Private DICT
-        List<Integer> privateSizeAndOffset = (List<Integer>) _topDict.getValue(18);
-        di = CffTable.getDataInputForOffset(buf, privateSizeAndOffset.get(1));
-        _privateDict = new Dict(di, privateSizeAndOffset.get(0));
+        if (isCidFont()) {
+            // A CID-keyed font has a Private DICT for each Font DICT in the
+            // FDArray, FDSelect assigns the glyphs to Font DICTs.
+            Object fdArrayOffset = _topDict.getValue(FD_ARRAY);
+            Object fdSelectOffset = _topDict.getValue(FD_SELECT);
+            if (!(fdArrayOffset instanceof Number) || !(fdSelectOffset instanceof Number)) {
+                throw new IOException("CID-keyed CFF font " + index + " has no FDArray or FDSelect.");
+            }
+            Index fdArray = new Index(CffTable.getDataInputForOffset(buf, ((Number) fdArrayOffset).intValue()));
+            int fdCount = fdArray.getCount();
+            _privateDicts = new Dict[fdCount];
+            _localSubrIndexes = new Index[fdCount];
+            for (int fd = 0; fd < fdCount; ++fd) {
+                int offset = fdArray.getOffset(fd) - 1;
+                Dict fontDict = new Dict(fdArray.getData(), offset, fdArray.getOffset(fd + 1) - 1 - offset);
+                readPrivateDict(buf, fontDict, fd);
+            }
+            _fdSelect = new FdSelect(
+                CffTable.getDataInputForOffset(buf, ((Number) fdSelectOffset).intValue()), glyphCount);
+        } else {
+            _privateDicts = new Dict[1];
+            _localSubrIndexes = new Index[1];
+            readPrivateDict(buf, _topDict, 0);
+            _fdSelect = null;
+        }
 
-        // Local Subrs INDEX
-        Integer localSubrsOffset = (Integer) _privateDict.getValue(19);
-        if (localSubrsOffset != null) {
-            di = CffTable.getDataInputForOffset(buf, privateSizeAndOffset.get(1) + localSubrsOffset);
-            _localSubrIndex = new Index(di);
+        // Charsets, offsets 0 to 2 denote the predefined charsets, which
+        // are not supported.
+        Object charsetOffset = _topDict.getValue(CHARSET);
+        if (charsetOffset instanceof Number && ((Number) charsetOffset).intValue() > 2) {
+            di = CffTable.getDataInputForOffset(buf, ((Number) charsetOffset).intValue());
+            int format = di.readUnsignedByte();
+            switch (format) {
+                case 0:
+                    _charset = new CharsetFormat0(di, glyphCount);
+                    break;
+                case 1:
+                    _charset = new CharsetFormat1(di, glyphCount);
+                    break;
+                case 2:
+                    _charset = new CharsetFormat2(di, glyphCount);
+                    break;
+                default:
+                    _charset = null;
+            }
         } else {
-            _localSubrIndex = null;
-            //throw new Exception();
+            _charset = null;
         }
+    }
 
-        // Charsets
-        Integer charsetOffset = (Integer) _topDict.getValue(15);
-        di = CffTable.getDataInputForOffset(buf, charsetOffset);
-        int format = di.readUnsignedByte();
-        switch (format) {
-            case 0:
-                _charset = new CharsetFormat0(di, glyphCount);
-                break;
-            case 1:
-                _charset = new CharsetFormat1(di, glyphCount);
-                break;
-            case 2:
-                _charset = new CharsetFormat2(di, glyphCount);
-                break;
-            default:
-                _charset = null;
-                //throw new Exception();
+    /**
+     * Reads the Private DICT and Local Subrs INDEX referenced by the given
+     * Top DICT or Font DICT.
+     */
+    private void readPrivateDict(byte[] buf, Dict dict, int fd) throws IOException {
+        Object privateSizeAndOffset = dict.getValue(PRIVATE);
+        if (!(privateSizeAndOffset instanceof List) || ((List<?>) privateSizeAndOffset).size() != 2) {
+            throw new IOException("CFF font " + _index + " has no Private DICT" 
+                + (isCidFont() ? " for Font DICT " + fd : "") + ".");
         }
+        int privateSize = ((Number) ((List<?>) privateSizeAndOffset).get(0)).intValue();
+        int privateOffset = ((Number) ((List<?>) privateSizeAndOffset).get(1)).intValue();
+        DataInput di = CffTable.getDataInputForOffset(buf, privateOffset);
+        Dict privateDict = new Dict(di, privateSize);
+        _privateDicts[fd] = privateDict;
 
-        // Create the charstrings
-        _charstrings = new Charstring[glyphCount];
-        for (int i = 0; i < glyphCount; ++i) {
-            int offset = _charStringsIndex.getOffset(i) - 1;
-            int len = _charStringsIndex.getOffset(i + 1) - offset - 1;
-            _charstrings[i] = new CharstringType2(
-                    this,
-                    index,
-                    _table.getStringIndex().getString(_charset.getSID(i)),
-                    _charStringsIndex.getData(),
-                    offset,
-                    len);
+        // Local Subrs INDEX, the offset is relative to the Private DICT.
+        Object localSubrsOffset = privateDict.getValue(SUBRS);
+        if (localSubrsOffset instanceof Number) {
+            di = CffTable.getDataInputForOffset(buf, privateOffset + ((Number) localSubrsOffset).intValue());
+            _localSubrIndexes[fd] = new Index(di);
         }
     }
 
@@ -108,27 +146,145 @@ public class CffFont {
         return _table;
     }
 
+    /**
+     * The index of this font in its {@link CffTable}.
+     */
+    public int getIndex() {
+        return _index;
+    }
+
     public Index getCharStringsIndex() {
         return _charStringsIndex;
     }
 
+    public Dict getTopDict() {
+        return _topDict;
+    }
+
+    /**
+     * Whether this is a CID-keyed font, which has a Top DICT with a ROS
+     * (Registry, Ordering, Supplement) entry and a Private DICT for each Font
+     * DICT in its FDArray.
+     */
+    public boolean isCidFont() {
+        return _topDict.getValue(ROS) != null;
+    }
+
+    /**
+     * The number of Private DICTs, one for a name-keyed font, one for each
+     * Font DICT of a CID-keyed font.
+     */
+    public int getFontDictCount() {
+        return _privateDicts.length;
+    }
+
+    /**
+     * The index of the Font DICT of the given glyph, always 0 for a
+     * name-keyed font.
+     */
+    public int getFontDictIndex(int gid) {
+        return _fdSelect == null ? 0 : _fdSelect.getFd(gid);
+    }
+
+    /**
+     * The Private DICT of a name-keyed font, or of the first Font DICT of a
+     * CID-keyed font.
+     * 
+     * @see #getPrivateDict(int)
+     */
     public Dict getPrivateDict() {
-        return _privateDict;
+        return _privateDicts[0];
+    }
+
+    /**
+     * The Private DICT of the Font DICT with the given index.
+     * 
+     * @see #getFontDictIndex(int)
+     */
+    public Dict getPrivateDict(int fd) {
+        return _privateDicts[fd];
     }
 
+    /**
+     * The Local Subrs INDEX of a name-keyed font, or of the first Font DICT
+     * of a CID-keyed font, <code>null</code> if there are no local
+     * subroutines.
+     * 
+     * @see #getLocalSubrIndex(int)
+     */
     public Index getLocalSubrIndex() {
-        return _localSubrIndex;
+        return _localSubrIndexes[0];
+    }
+
+    /**
+     * The Local Subrs INDEX of the Font DICT with the given index,
+     * <code>null</code> if there are no local subroutines.
+     * 
+     * @see #getFontDictIndex(int)
+     */
+    public Index getLocalSubrIndex(int fd) {
+        return _localSubrIndexes[fd];
     }
 
     public Charset getCharset() {
         return _charset;
     }
 
+    /**
+     * Creates the {@link Charstring} of the given glyph.
+     * 
+     * <p>
+     * Charstrings are not cached, each call creates a light-weight view of
+     * the glyph's data in the CharStrings INDEX. The glyph name is only
+     * resolved when requested.
+     * </p>
+     */
     public Charstring getCharstring(int gid) {
-        return _charstrings[gid];
+        int offset = _charStringsIndex.getOffset(gid) - 1;
+        int len = _charStringsIndex.getOffset(gid + 1) - offset - 1;
+        return new CharstringType2(
+                this,
+                gid,
+                null,
+                _charStringsIndex.getData(),
+                offset,
+                len);
     }
     
     public int getCharstringCount() {
-        return _charstrings.length;
+        return _charStringsIndex.getCount();
+    }
+
+    /**
+     * The name of the given glyph from the charset, or <code>null</code>, if
+     * the font has no supported charset.
+     * 
+     * <p>
+     * Glyphs of a CID-keyed font have no names, the charset maps glyphs to
+     * CIDs. Such glyphs are named <code>cid</code> followed by the CID
+     * with five digits (e.g. <code>cid00100</code>).
+     * </p>
+     * 
+     * @see #getCid(int)
+     */
+    public String getGlyphName(int gid) {
+        if (_charset == null) {
+            return null;
+        }
+        if (isCidFont()) {
+            return String.format("cid%05d", getCid(gid));
+        }
+        return _table.getStringIndex().getString(_charset.getSID(gid));
+    }
+
+    /**
+     * The CID of the given glyph in a CID-keyed font, or <code>-1</code>, if
+     * this is not a CID-keyed font or it has no supported charset.
+     */
+    public int getCid(int gid) {
+        if (_charset == null || !isCidFont()) {
+            return -1;
+        }
+        return _charset.getSID(gid);
     }
 }
@@ -40,8 +40,8 @@ public class CharstringType2 extends Charstring {
         "escape",
         "-Reserved-",
         "endchar",
-        "-Reserved-",
-        "-Reserved-",
+        "vsindex",
+        "blend",
         "-Reserved-",
         "hstemhm",
         "hintmask",
@@ -104,14 +104,15 @@ public class CharstringType2 extends Charstring {
     private final CffFont _font;
     private final int _index;
     private final String _name;
-    private final int[] _data;
+    private final byte[] _data;
     private final int _offset;
     private final int _length;
 
     /** Creates a new instance of CharstringType2
      * @param font
      * @param index
-     * @param name
+     * @param name the name of the charstring, or <code>null</code> to
+     *        look up the glyph name in the font's charset on demand
      * @param data
      * @param offset
      * @param length */
@@ -119,7 +120,7 @@ public class CharstringType2 extends Charstring {
             CffFont font,
             int index,
             String name,
-            int[] data,
+            byte[] data,
             int offset,
             int length) {
         _font = font;
@@ -139,8 +140,15 @@ public class CharstringType2 extends Charstring {
         return _index;
     }
 
+    /**
+     * The name of this charstring, resolved from the font's charset, if no
+     * explicit name was given.
+     */
     @Override
     public String getName() {
+        if (_name == null && _font != null) {
+            return _font.getGlyphName(_index);
+        }
         return _name;
     }
     
@@ -171,13 +179,28 @@ public class CharstringType2 extends Charstring {
         return _offset;
     }
 
+    /**
+     * The index after the last byte of this charstring.
+     */
+    public int getEndIndex() {
+        return _offset + _length;
+    }
+
+    /**
+     * The array containing this charstring from {@link #getFirstIndex()} to
+     * {@link #getEndIndex()}.
+     */
+    byte[] getData() {
+        return _data;
+    }
+
     public boolean isOperandAtIndex(int ip) {
-        int b0 = _data[ip];
+        int b0 = _data[ip] & 0xFF;
         return (32 <= b0 && b0 <= 255) || b0 == 28;
     }
 
     public Number operandAtIndex(int ip) {
-        int b0 = _data[ip];
+        int b0 = _data[ip] & 0xFF;
         if (32 <= b0 && b0 <= 246) {
 
             // 1 byte integer
@@ -185,26 +208,26 @@ public class CharstringType2 extends Charstring {
         } else if (247 <= b0 && b0 <= 250) {
 
             // 2 byte integer
-            int b1 = _data[ip + 1];
+            int b1 = _data[ip + 1] & 0xFF;
             return (b0 - 247) * 256 + b1 + 108;
         } else if (251 <= b0 && b0 <= 254) {
 
             // 2 byte integer
-            int b1 = _data[ip + 1];
+            int b1 = _data[ip + 1] & 0xFF;
             return -(b0 - 251) * 256 - b1 - 108;
         } else if (b0 == 28) {
 
             // 3 byte integer
-            int b1 = (byte)_data[ip + 1];
-            int b2 = _data[ip + 2];
+            int b1 = _data[ip + 1];
+            int b2 = _data[ip + 2] & 0xFF;
             return b1 << 8 | b2;
         } else if (b0 == 255) {
 
             // 16-bit signed integer with 16 bits of fraction
-            int b1 = (byte) _data[ip + 1];
-            int b2 = _data[ip + 2];
-            int b3 = _data[ip + 3];
-            int b4 = _data[ip + 4];
+            int b1 = _data[ip + 1];
+            int b2 = _data[ip + 2] & 0xFF;
+            int b3 = _data[ip + 3] & 0xFF;
+            int b4 = _data[ip + 4] & 0xFF;
             return (float) ((b1 << 8 | b2) + ((b3 << 8 | b4) / 65536.0));
         } else {
             return null;
@@ -212,7 +235,7 @@ public class CharstringType2 extends Charstring {
     }
 
     public int nextOperandIndex(int ip) {
-        int b0 = _data[ip];
+        int b0 = _data[ip] & 0xFF;
         if (32 <= b0 && b0 <= 246) {
 
             // 1 byte integer
@@ -238,7 +261,7 @@ public class CharstringType2 extends Charstring {
     }
     
     public int byteAtIndex(int ip) {
-        return _data[ip];
+        return _data[ip] & 0xFF;
     }
     
     public boolean moreBytes(int ip) {
@@ -30,10 +30,10 @@ import java.util.Map;
 public class Dict {
     
     private final Map<Integer, Object> _entries = new HashMap<>();
-    private final int[] _data;
+    private final byte[] _data;
     private int _index;
 
-    public Dict(int[] data, int offset, int length) {
+    public Dict(byte[] data, int offset, int length) {
         _data = data;
         _index = offset;
         while (_index < offset + length) {
@@ -42,10 +42,8 @@ public class Dict {
     }
 
     public Dict(DataInput di, int length) throws IOException {
-        _data = new int[length];
-        for (int i = 0; i < length; ++i) {
-            _data[i] = di.readUnsignedByte();
-        }
+        _data = new byte[length];
+        di.readFully(_data);
         _index = 0;
         while (_index < length) {
             addKeyAndValueEntry();
@@ -63,10 +61,10 @@ public class Dict {
             operand = nextOperand();
             operands.add(operand);
         }
-        int operator = _data[_index++];
+        int operator = byteAt(_index++);
         if (operator == 12) {
             operator <<= 8;
-            operator |= _data[_index++];
+            operator |= byteAt(_index++);
         }
         if (operands.size() == 1) {
             _entries.put(operator, operand);
@@ -76,7 +74,7 @@ public class Dict {
     }
 
     private boolean isOperandAtIndex() {
-        int b0 = _data[_index];
+        int b0 = byteAt(_index);
         return (32 <= b0 && b0 <= 254) || b0 == 28 || b0 == 29 || b0 == 30;
     }
 
@@ -84,34 +82,38 @@ public class Dict {
     //            int b0 = _data[_index];
     //            return 0 <= b0 && b0 <= 21;
     //        }
+    private int byteAt(int index) {
+        return _data[index] & 0xFF;
+    }
+
     private Object nextOperand() {
-        int b0 = _data[_index];
+        int b0 = byteAt(_index);
         if (32 <= b0 && b0 <= 246) {
             // 1 byte integer
             ++_index;
             return b0 - 139;
         } else if (247 <= b0 && b0 <= 250) {
             // 2 byte integer
-            int b1 = _data[_index + 1];
+            int b1 = byteAt(_index + 1);
             _index += 2;
             return (b0 - 247) * 256 + b1 + 108;
         } else if (251 <= b0 && b0 <= 254) {
             // 2 byte integer
-            int b1 = _data[_index + 1];
+            int b1 = byteAt(_index + 1);
             _index += 2;
             return -(b0 - 251) * 256 - b1 - 108;
         } else if (b0 == 28) {
             // 3 byte integer
-            int b1 = _data[_index + 1];
-            int b2 = _data[_index + 2];
+            int b1 = byteAt(_index + 1);
+            int b2 = byteAt(_index + 2);
             _index += 3;
             return b1 << 8 | b2;
         } else if (b0 == 29) {
             // 5 byte integer
-            int b1 = _data[_index + 1];
-            int b2 = _data[_index + 2];
-            int b3 = _data[_index + 3];
-            int b4 = _data[_index + 4];
+            int b1 = byteAt(_index + 1);
+            int b2 = byteAt(_index + 2);
+            int b3 = byteAt(_index + 3);
+            int b4 = byteAt(_index + 4);
             _index += 5;
             return b1 << 24 | b2 << 16 | b3 << 8 | b4;
         } else if (b0 == 30) {
@@ -121,8 +123,8 @@ public class Dict {
             int nibble2 = 0;
             ++_index;
             while ((nibble1 != 0xf) && (nibble2 != 0xf)) {
-                nibble1 = _data[_index] >> 4;
-                nibble2 = _data[_index] & 0xf;
+                nibble1 = byteAt(_index) >> 4;
+                nibble2 = byteAt(_index) & 0xf;
                 ++_index;
                 fString.append(decodeRealNibble(nibble1));
                 fString.append(decodeRealNibble(nibble2));
@@ -0,0 +1,107 @@
+/*
+ * Typecast - The Font Development Environment
+ *
+ * Copyright (c) 2004-2016 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.java.dev.typecast.cff;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * FDSelect: the association of glyphs to the Font DICTs of a CID-keyed or
+ * CFF2 font.
+ * 
+ * <p>
+ * Format 0 stores one Font DICT index per glyph, formats 3 and 4 (CFF2
+ * only) store ranges of glyphs sharing the same Font DICT.
+ * </p>
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class FdSelect {
+    
+    private final int _format;
+    
+    /**
+     * First glyph of each range, or each glyph in format 0.
+     */
+    private final int[] _first;
+    
+    /**
+     * Font DICT index for each range.
+     */
+    private final int[] _fd;
+
+    public FdSelect(DataInput di, int glyphCount) throws IOException {
+        _format = di.readUnsignedByte();
+        switch (_format) {
+            case 0:
+                _first = null;
+                _fd = new int[glyphCount];
+                for (int i = 0; i < glyphCount; ++i) {
+                    _fd[i] = di.readUnsignedByte();
+                }
+                break;
+            case 3: {
+                int rangeCount = di.readUnsignedShort();
+                _first = new int[rangeCount];
+                _fd = new int[rangeCount];
+                for (int i = 0; i < rangeCount; ++i) {
+                    _first[i] = di.readUnsignedShort();
+                    _fd[i] = di.readUnsignedByte();
+                }
+                break;
+            }
+            case 4: {
+                int rangeCount = di.readInt();
+                _first = new int[rangeCount];
+                _fd = new int[rangeCount];
+                for (int i = 0; i < rangeCount; ++i) {
+                    _first[i] = di.readInt();
+                    _fd[i] = di.readUnsignedShort();
+                }
+                break;
+            }
+            default:
+                throw new IOException("Unsupported FDSelect format " + _format + ".");
+        }
+    }
+
+    public int getFormat() {
+        return _format;
+    }
+
+    /**
+     * The index of the Font DICT of the given glyph.
+     */
+    public int getFd(int gid) {
+        if (_first == null) {
+            return _fd[gid];
+        }
+        int index = Arrays.binarySearch(_first, gid);
+        if (index < 0) {
+            // The range containing the glyph starts before the insertion point.
+            index = -index - 2;
+            if (index < 0) {
+                return 0;
+            }
+        }
+        return _fd[index];
+    }
+
+}
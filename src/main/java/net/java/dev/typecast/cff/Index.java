@@ -21,6 +21,12 @@ import java.io.DataInput;
 import java.io.IOException;
 
 /**
+ * CFF INDEX: an array of variable-sized objects.
+ * 
+ * <p>
+ * The data of all objects is stored in a single byte array. Bytes must be
+ * read as unsigned values (<code>getData()[i] &amp; 0xFF</code>).
+ * </p>
  *
  * @author dschweinsberg
  */
@@ -29,23 +35,38 @@ public class Index {
     private final int _count;
     private final int _offSize;
     private final int[] _offset;
-    private final int[] _data;
+    private final byte[] _data;
 
     public Index(DataInput di) throws IOException {
-        _count = di.readUnsignedShort();
+        this(di, di.readUnsignedShort());
+    }
+
+    private Index(DataInput di, int count) throws IOException {
+        _count = count;
         _offset = new int[_count + 1];
-        _offSize = di.readUnsignedByte();
-        for (int i = 0; i < _count + 1; ++i) {
-            int thisOffset = 0;
-            for (int j = 0; j < _offSize; ++j) {
-                thisOffset |= di.readUnsignedByte() << ((_offSize - j - 1) * 8);
+        if (_count == 0) {
+            // An empty INDEX consists of the count field only.
+            _offSize = 0;
+            _offset[0] = 1;
+        } else {
+            _offSize = di.readUnsignedByte();
+            for (int i = 0; i < _count + 1; ++i) {
+                int thisOffset = 0;
+                for (int j = 0; j < _offSize; ++j) {
+                    thisOffset |= di.readUnsignedByte() << ((_offSize - j - 1) * 8);
+                }
+                _offset[i] = thisOffset;
             }
-            _offset[i] = thisOffset;
-        }
-        _data = new int[getDataLength()];
-        for (int i = 0; i < getDataLength(); ++i) {
-            _data[i] = di.readUnsignedByte();
         }
+        _data = new byte[getDataLength()];
+        di.readFully(_data);
+    }
+
+    /**
+     * Reads a CFF2 INDEX, which has a 32 bit count field.
+     */
+    public static Index readCff2Index(DataInput di) throws IOException {
+        return new Index(di, di.readInt());
     }
 
     public final int getCount() {
@@ -60,10 +81,21 @@ public class Index {
         return _offset[_offset.length - 1] - 1;
     }
 
-    public final int[] getData() {
+    /**
+     * The data of all objects, object <code>i</code> starts at
+     * <code>getOffset(i) - 1</code>.
+     */
+    public final byte[] getData() {
         return _data;
     }
 
+    /**
+     * The unsigned value of the data byte at the given index.
+     */
+    public final int getUnsignedByte(int index) {
+        return _data[index] & 0xFF;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -80,7 +112,7 @@ public class Index {
             } else {
                 sb.append(" ");
             }
-            sb.append(_data[i]);
+            sb.append(_data[i] & 0xFF);
         }
         sb.append("\n");
         return sb.toString();
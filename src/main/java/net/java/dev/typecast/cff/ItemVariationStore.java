@@ -0,0 +1,182 @@
+/*
+ * Typecast - The Font Development Environment
+ *
+ * Copyright (c) 2004-2016 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.java.dev.typecast.cff;
+
+import java.io.DataInput;
+import java.io.IOException;
+
+import net.java.dev.typecast.ot.table.CffTable;
+
+/**
+ * Item variation store of a CFF2 font.
+ * 
+ * <p>
+ * CFF2 uses the variation regions and the region index lists of the item
+ * variation data tables only. The deltas themselves are stored as operands of
+ * the <code>blend</code> operator in the charstrings and DICTs, so the delta
+ * sets of the item variation data tables (which are empty in CFF2) are not
+ * read.
+ * </p>
+ * 
+ * @see <a href="https://docs.microsoft.com/en-us/typography/opentype/spec/otvarcommonformats#item-variation-store">Spec: Item Variation Store</a>
+ * @see <a href="https://docs.microsoft.com/en-us/typography/opentype/spec/cff2#variationstore-data-contents">Spec: CFF2 VariationStore Data Contents</a>
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class ItemVariationStore {
+    
+    private final int _format;
+    private final int _axisCount;
+    private final int _regionCount;
+    
+    /**
+     * Start, peak and end coordinate of each axis of each region.
+     */
+    private final float[] _regions;
+    
+    /**
+     * The region indices of each item variation data table.
+     */
+    private final int[][] _regionIndexes;
+
+    /**
+     * Reads an {@link ItemVariationStore}.
+     * 
+     * @param buf
+     *        The data of the table containing the store.
+     * @param offset
+     *        The offset of the store in the given data.
+     */
+    public ItemVariationStore(byte[] buf, int offset) throws IOException {
+        DataInput di = CffTable.getDataInputForOffset(buf, offset);
+        _format = di.readUnsignedShort();
+        int regionListOffset = di.readInt();
+        int dataCount = di.readUnsignedShort();
+        int[] dataOffsets = new int[dataCount];
+        for (int i = 0; i < dataCount; ++i) {
+            dataOffsets[i] = di.readInt();
+        }
+        
+        di = CffTable.getDataInputForOffset(buf, offset + regionListOffset);
+        _axisCount = di.readUnsignedShort();
+        _regionCount = di.readUnsignedShort();
+        _regions = new float[_regionCount * _axisCount * 3];
+        for (int i = 0; i < _regions.length; ++i) {
+            _regions[i] = di.readShort() / 16384f;
+        }
+        
+        _regionIndexes = new int[dataCount][];
+        for (int i = 0; i < dataCount; ++i) {
+            di = CffTable.getDataInputForOffset(buf, offset + dataOffsets[i]);
+            di.readUnsignedShort(); // itemCount
+            di.readUnsignedShort(); // wordDeltaCount
+            int regionIndexCount = di.readUnsignedShort();
+            int[] regionIndexes = new int[regionIndexCount];
+            for (int j = 0; j < regionIndexCount; ++j) {
+                regionIndexes[j] = di.readUnsignedShort();
+            }
+            _regionIndexes[i] = regionIndexes;
+        }
+    }
+
+    public int getFormat() {
+        return _format;
+    }
+
+    /**
+     * The number of variation axes, must match the axis count of the 'fvar'
+     * table.
+     */
+    public int getAxisCount() {
+        return _axisCount;
+    }
+
+    public int getRegionCount() {
+        return _regionCount;
+    }
+
+    /**
+     * The number of item variation data tables, the valid range of the
+     * <code>vsindex</code> operator.
+     */
+    public int getItemVariationDataCount() {
+        return _regionIndexes.length;
+    }
+
+    /**
+     * The number of regions referenced by the item variation data table with
+     * the given index. This is the number of deltas per blended value.
+     */
+    public int getRegionIndexCount(int vsindex) {
+        return _regionIndexes[vsindex].length;
+    }
+
+    /**
+     * Computes the scalars of all regions referenced by the item variation
+     * data table with the given index.
+     * 
+     * @param vsindex
+     *        The index of the item variation data table.
+     * @param coords
+     *        The normalized coordinates of the instance in the range
+     *        <code>-1..1</code>, one for each axis. Missing coordinates
+     *        are taken as zero (the default instance).
+     * @param scalars
+     *        The array to store the scalars in, must have at least
+     *        {@link #getRegionIndexCount(int)} entries.
+     */
+    public void getScalars(int vsindex, float[] coords, float[] scalars) {
+        int[] regionIndexes = _regionIndexes[vsindex];
+        for (int i = 0; i < regionIndexes.length; ++i) {
+            scalars[i] = getRegionScalar(regionIndexes[i], coords);
+        }
+    }
+
+    /**
+     * The scalar of the region with the given index for the instance with the
+     * given normalized coordinates.
+     */
+    public float getRegionScalar(int region, float[] coords) {
+        float scalar = 1;
+        for (int axis = 0, i = region * _axisCount * 3; axis < _axisCount; ++axis, i += 3) {
+            float start = _regions[i];
+            float peak = _regions[i + 1];
+            float end = _regions[i + 2];
+            if (peak == 0 || start > peak || peak > end || (start < 0 && end > 0)) {
+                // The axis does not restrict the region.
+                continue;
+            }
+            
+            float v = axis < coords.length ? coords[axis] : 0;
+            if (v == peak) {
+                continue;
+            }
+            if (v <= start || v >= end) {
+                return 0;
+            }
+            if (v < peak) {
+                scalar *= (v - start) / (peak - start);
+            } else {
+                scalar *= (end - v) / (end - peak);
+            }
+        }
+        return scalar;
+    }
+
+}
@@ -33,10 +33,10 @@ public class NameIndex extends Index {
         int offset = getOffset(index) - 1;
         int len = getOffset(index + 1) - offset - 1;
         // Ensure the name hasn't been deleted
-        if (getData()[offset] != 0) {
+        if (getUnsignedByte(offset) != 0) {
             StringBuilder sb = new StringBuilder();
             for (int i = offset; i < offset + len; ++i) {
-                sb.append((char) getData()[i]);
+                sb.append((char) getUnsignedByte(i));
             }
             name = sb.toString();
         } else {
@@ -0,0 +1,180 @@
+/*
+ * Typecast - The Font Development Environment
+ *
+ * Copyright (c) 2004-2016 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.java.dev.typecast.cff;
+
+import net.java.dev.typecast.ot.Point;
+
+/**
+ * Decoded outline of a charstring.
+ * 
+ * <p>
+ * An {@link Outline} is a compact stream of drawing commands with all
+ * subroutine calls, hint operators and blends resolved. Replaying it with
+ * {@link #writeTo(OutlineSink)} is much cheaper than interpreting the
+ * charstring again, which makes outlines suitable for caching, see
+ * {@link net.java.dev.typecast.ot.T2Font#setOutlineCache(net.java.dev.typecast.ot.table.GlyphCache)}.
+ * </p>
+ * 
+ * <p>
+ * An {@link Outline} is immutable.
+ * </p>
+ *
+ * @see T2Interpreter#createOutline(CharstringType2)
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public final class Outline {
+    
+    /**
+     * Command with the two coordinates of the new current point.
+     */
+    public static final byte MOVE_TO = 0;
+    
+    /**
+     * Command with the two coordinates of the line end point.
+     */
+    public static final byte LINE_TO = 1;
+    
+    /**
+     * Command with the six coordinates of the two control points and the end
+     * point of a cubic curve.
+     */
+    public static final byte CURVE_TO = 2;
+    
+    /**
+     * Command without coordinates closing the current contour.
+     */
+    public static final byte CLOSE_PATH = 3;
+    
+    private final byte[] _commands;
+    private final float[] _coords;
+    private final int[] _hstems;
+    private final int[] _vstems;
+
+    Outline(byte[] commands, float[] coords, int[] hstems, int[] vstems) {
+        _commands = commands;
+        _coords = coords;
+        _hstems = hstems;
+        _vstems = vstems;
+    }
+
+    /**
+     * The number of drawing commands.
+     */
+    public int getCommandCount() {
+        return _commands.length;
+    }
+
+    /**
+     * The drawing command with the given index, one of {@link #MOVE_TO},
+     * {@link #LINE_TO}, {@link #CURVE_TO}, {@link #CLOSE_PATH}.
+     */
+    public byte getCommand(int index) {
+        return _commands[index];
+    }
+
+    /**
+     * The number of coordinates of all commands.
+     */
+    public int getCoordinateCount() {
+        return _coords.length;
+    }
+
+    /**
+     * The coordinate with the given index, the coordinates of all commands
+     * are stored in sequence as x, y pairs.
+     */
+    public float getCoordinate(int index) {
+        return _coords[index];
+    }
+
+    /**
+     * The number of horizontal stem hint values.
+     */
+    public int getHStemCount() {
+        return _hstems.length;
+    }
+
+    /**
+     * @see T2Interpreter#getHStem(int)
+     */
+    public int getHStem(int index) {
+        return _hstems[index];
+    }
+
+    /**
+     * The number of vertical stem hint values.
+     */
+    public int getVStemCount() {
+        return _vstems.length;
+    }
+
+    /**
+     * @see T2Interpreter#getVStem(int)
+     */
+    public int getVStem(int index) {
+        return _vstems[index];
+    }
+
+    /**
+     * An estimate of the memory used by this outline in bytes.
+     */
+    public int getByteSize() {
+        return 64 + _commands.length + 4 * (_coords.length + _hstems.length + _vstems.length);
+    }
+
+    /**
+     * Reports this outline to the given sink.
+     */
+    public void writeTo(OutlineSink sink) {
+        float[] c = _coords;
+        int i = 0;
+        for (byte command : _commands) {
+            switch (command) {
+            case MOVE_TO:
+                sink.moveTo(c[i], c[i + 1]);
+                i += 2;
+                break;
+            case LINE_TO:
+                sink.lineTo(c[i], c[i + 1]);
+                i += 2;
+                break;
+            case CURVE_TO:
+                sink.curveTo(c[i], c[i + 1], c[i + 2], c[i + 3], c[i + 4], c[i + 5]);
+                i += 6;
+                break;
+            default:
+                sink.closePath();
+                break;
+            }
+        }
+    }
+
+    /**
+     * This outline as points with rounded coordinates.
+     * 
+     * @see T2Interpreter#execute(CharstringType2)
+     */
+    public Point[] toPoints() {
+        PointCollector collector = new PointCollector();
+        writeTo(collector);
+        return collector.getPoints();
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Typecast - The Font Development Environment
+ *
+ * Copyright (c) 2004-2016 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.java.dev.typecast.cff;
+
+import java.util.Arrays;
+
+/**
+ * {@link OutlineSink} recording the commands of an {@link Outline}.
+ * 
+ * <p>
+ * The recorder grows its buffers as required and can be reused after
+ * {@link #reset()}.
+ * </p>
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+class OutlineRecorder implements OutlineSink {
+    
+    private byte[] _commands = new byte[64];
+    private int _commandCount;
+    private float[] _coords = new float[256];
+    private int _coordCount;
+
+    /**
+     * Discards all recorded commands.
+     */
+    void reset() {
+        _commandCount = 0;
+        _coordCount = 0;
+    }
+
+    @Override
+    public void moveTo(float x, float y) {
+        add(Outline.MOVE_TO, 2);
+        _coords[_coordCount++] = x;
+        _coords[_coordCount++] = y;
+    }
+
+    @Override
+    public void lineTo(float x, float y) {
+        add(Outline.LINE_TO, 2);
+        _coords[_coordCount++] = x;
+        _coords[_coordCount++] = y;
+    }
+
+    @Override
+    public void curveTo(float x1, float y1, float x2, float y2, float x3, float y3) {
+        add(Outline.CURVE_TO, 6);
+        float[] c = _coords;
+        int i = _coordCount;
+        c[i] = x1;
+        c[i + 1] = y1;
+        c[i + 2] = x2;
+        c[i + 3] = y2;
+        c[i + 4] = x3;
+        c[i + 5] = y3;
+        _coordCount = i + 6;
+    }
+
+    @Override
+    public void closePath() {
+        add(Outline.CLOSE_PATH, 0);
+    }
+
+    private void add(byte command, int coordCount) {
+        if (_commandCount == _commands.length) {
+            _commands = Arrays.copyOf(_commands, 2 * _commands.length);
+        }
+        _commands[_commandCount++] = command;
+        if (_coordCount + coordCount > _coords.length) {
+            _coords = Arrays.copyOf(_coords, 2 * _coords.length);
+        }
+    }
+
+    /**
+     * Creates an {@link Outline} with the recorded commands and the given
+     * stem hints.
+     */
+    Outline toOutline(int[] hstems, int[] vstems) {
+        return new Outline(
+            Arrays.copyOf(_commands, _commandCount),
+            Arrays.copyOf(_coords, _coordCount),
+            hstems,
+            vstems);
+    }
+
+}
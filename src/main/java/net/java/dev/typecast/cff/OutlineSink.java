@@ -0,0 +1,55 @@
+/*
+ * Typecast - The Font Development Environment
+ *
+ * Copyright (c) 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.java.dev.typecast.cff;
+
+/**
+ * Receiver of the outline commands produced by a {@link T2Interpreter}.
+ *
+ * <p>
+ * All coordinates are absolute values in font design units.
+ * </p>
+ *
+ * @see T2Interpreter#execute(CharstringType2, OutlineSink)
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public interface OutlineSink {
+
+    /**
+     * Starts a new contour at the given point.
+     */
+    void moveTo(float x, float y);
+
+    /**
+     * Appends a straight line from the current point to the given point.
+     */
+    void lineTo(float x, float y);
+
+    /**
+     * Appends a cubic Bézier curve from the current point to
+     * <code>(x3, y3)</code> with the given control points.
+     */
+    void curveTo(float x1, float y1, float x2, float y2, float x3, float y3);
+
+    /**
+     * Closes the current contour.
+     */
+    void closePath();
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Typecast - The Font Development Environment
+ *
+ * Copyright (c) 2004-2016 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.java.dev.typecast.cff;
+
+import java.util.ArrayList;
+
+import net.java.dev.typecast.ot.Point;
+
+/**
+ * {@link OutlineSink} collecting the outline as {@link Point}s.
+ *
+ * @see T2Interpreter#execute(CharstringType2)
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+final class PointCollector implements OutlineSink {
+
+    private final ArrayList<Point> _points = new ArrayList<>();
+
+    @Override
+    public void moveTo(float x, float y) {
+        add(x, y, true);
+    }
+
+    @Override
+    public void lineTo(float x, float y) {
+        add(x, y, true);
+    }
+
+    @Override
+    public void curveTo(float x1, float y1, float x2, float y2, float x3, float y3) {
+        add(x1, y1, false);
+        add(x2, y2, false);
+        add(x3, y3, true);
+    }
+
+    @Override
+    public void closePath() {
+        int size = _points.size();
+        if (size > 0) {
+            _points.get(size - 1).endOfContour = true;
+        }
+    }
+
+    private void add(float x, float y, boolean onCurve) {
+        _points.add(new Point(Math.round(x), Math.round(y), onCurve, false));
+    }
+
+    Point[] getPoints() {
+        return _points.toArray(new Point[_points.size()]);
+    }
+
+}
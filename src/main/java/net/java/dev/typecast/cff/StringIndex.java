@@ -42,7 +42,7 @@ public class StringIndex extends Index {
             int len = getOffset(index + 1) - offset - 1;
             StringBuilder sb = new StringBuilder();
             for (int i = offset; i < offset + len; ++i) {
-                sb.append((char) getData()[i]);
+                sb.append((char) getUnsignedByte(i));
             }
             return sb.toString();
         }
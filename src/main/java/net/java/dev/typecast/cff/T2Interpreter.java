@@ -18,63 +18,146 @@
 
 package net.java.dev.typecast.cff;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import net.java.dev.typecast.ot.Point;
+import net.java.dev.typecast.ot.table.Cff2Table;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Type 2 Charstring Interpreter.  Operator descriptions are quoted from
  * Adobe's Type 2 Charstring Format document -- 5117.Type2.pdf.
+ * 
+ * <p>
+ * The interpreter keeps its argument stack, transient array, subroutine
+ * stack and stem hints in primitive arrays, and reports the outline to an
+ * {@link OutlineSink}. An instance can be reused for any number of
+ * charstrings without allocating, but is not safe for use by multiple
+ * threads.
+ * </p>
+ * 
+ * <p>
+ * CFF2 charstrings are interpreted for a given instance of a variable font,
+ * see {@link #execute(Cff2Table, int, float[], OutlineSink)}. The
+ * <code>blend</code> operator is evaluated while interpreting, so no
+ * intermediate outline with the deltas of all regions is built.
+ * </p>
+ * 
  * @author <a href="mailto:david.schweinsberg@gmail.com">David Schweinsberg</a>
  */
 public class T2Interpreter {
     
-    private static class SubrPair {
-        final CharstringType2 cs;
-        final int ip;
-        SubrPair(CharstringType2 cs, int ip) {
-            this.cs = cs;
-            this.ip = ip;
-        }
-    }
-    
     private static final int ARGUMENT_STACK_LIMIT = 48;
+    private static final int CFF2_ARGUMENT_STACK_LIMIT = 513;
     private static final int SUBR_STACK_LIMIT = 10;
     private static final int TRANSIENT_ARRAY_ELEMENT_COUNT = 32;
     
     private static final Logger logger = LoggerFactory.getLogger(T2Interpreter.class);
     
-    private final Number[] _argStack = new Number[ARGUMENT_STACK_LIMIT];
+    private final double[] _argStack = new double[CFF2_ARGUMENT_STACK_LIMIT];
     private int _argStackIndex = 0;
-    private final SubrPair[] _subrStack = new SubrPair[SUBR_STACK_LIMIT];
+    private int _argStackLimit = ARGUMENT_STACK_LIMIT;
+    
+    /**
+     * The data, instruction pointer and end index of the callers of the
+     * currently executing subroutine.
+     */
+    private final byte[][] _subrData = new byte[SUBR_STACK_LIMIT][];
+    private final int[] _subrIp = new int[SUBR_STACK_LIMIT];
+    private final int[] _subrEnd = new int[SUBR_STACK_LIMIT];
     private int _subrStackIndex = 0;
-    private final Number[] _transientArray = new Number[TRANSIENT_ARRAY_ELEMENT_COUNT];
+    
+    private final double[] _transientArray = new double[TRANSIENT_ARRAY_ELEMENT_COUNT];
     
     private int _stemCount = 0;
-    private ArrayList<Integer> _hstems;
-    private ArrayList<Integer> _vstems;
+    private int[] _hstems = new int[16];
+    private int _hstemCount;
+    private int[] _vstems = new int[16];
+    private int _vstemCount;
     
-    private ArrayList<Point> _points;
     private Index _localSubrIndex;
     private Index _globalSubrIndex;
-    private CharstringType2 _localSubrs;
-    private CharstringType2 _globalSubrs;
-    private CharstringType2 _cs;
+    
+    /**
+     * Whether a CFF2 charstring is interpreted.
+     */
+    private boolean _cff2;
+    private ItemVariationStore _variationStore;
+    private float[] _coords;
+    
+    /**
+     * The scalars of the regions of the current item variation data, the
+     * number of deltas for each blended value is <code>_scalarCount</code>.
+     */
+    private float[] _scalars = new float[16];
+    private int _scalarCount;
+    
+    private byte[] _data;
     private int _ip;
+    private int _end;
+    
+    private OutlineSink _sink;
+    private OutlineRecorder _recorder;
+    private double _x;
+    private double _y;
+    private boolean _open;
+    private boolean _widthSeen;
+    private boolean _done;
 
     /** Creates a new instance of T2Interpreter */
     public T2Interpreter() {
     }
     
+    /**
+     * The horizontal stem hints of the last executed charstring as pairs of
+     * relative edge coordinates.
+     */
     public Integer[] getHStems() {
-        Integer[] array = new Integer[_hstems.size()];
-        return _hstems.toArray(array);
+        return box(_hstems, _hstemCount);
     }
     
+    /**
+     * The vertical stem hints of the last executed charstring as pairs of
+     * relative edge coordinates.
+     */
     public Integer[] getVStems() {
-        Integer[] array = new Integer[_vstems.size()];
-        return _vstems.toArray(array);
+        return box(_vstems, _vstemCount);
+    }
+    
+    /**
+     * The number of values in {@link #getHStems()}.
+     */
+    public int getHStemCount() {
+        return _hstemCount;
+    }
+    
+    /**
+     * The horizontal stem hint value with the given index.
+     */
+    public int getHStem(int index) {
+        return _hstems[index];
+    }
+    
+    /**
+     * The number of values in {@link #getVStems()}.
+     */
+    public int getVStemCount() {
+        return _vstemCount;
+    }
+    
+    /**
+     * The vertical stem hint value with the given index.
+     */
+    public int getVStem(int index) {
+        return _vstems[index];
+    }
+    
+    private static Integer[] box(int[] values, int count) {
+        Integer[] result = new Integer[count];
+        for (int i = 0; i < count; ++i) {
+            result[i] = values[i];
+        }
+        return result;
     }
     
     /**
@@ -82,31 +165,27 @@ public class T2Interpreter {
      * (dx1, dy1).
      */
     private void _rmoveto() {
-        int dy1 = popArg().intValue();
-        int dx1 = popArg().intValue();
+        int first = skipWidth(2);
+        moveTo(_x + arg(first), _y + arg(first + 1));
         clearArg();
-        Point lastPoint = getLastPoint();
-        moveTo(lastPoint.x + dx1, lastPoint.y + dy1);
     }
 
     /**
      * Moves the current point dx1 units in the horizontal direction.
      */
     private void _hmoveto() {
-        int dx1 = popArg().intValue();
+        int first = skipWidth(1);
+        moveTo(_x + arg(first), _y);
         clearArg();
-        Point lastPoint = getLastPoint();
-        moveTo(lastPoint.x + dx1, lastPoint.y);
     }
     
     /**
      * Moves the current point dy1 units in the vertical direction.
      */
     private void _vmoveto() {
-        int dy1 = popArg().intValue();
+        int first = skipWidth(1);
+        moveTo(_x, _y + arg(first));
         clearArg();
-        Point lastPoint = getLastPoint();
-        moveTo(lastPoint.x, lastPoint.y + dy1);
     }
     
     /**
@@ -116,16 +195,8 @@ public class T2Interpreter {
      * lines is determined from the number of arguments on the stack.
      */
     private void _rlineto() {
-        int count = getArgCount() / 2;
-        int[] dx = new int[count];
-        int[] dy = new int[count];
-        for (int i = 0; i < count; ++i) {
-            dy[count - i - 1] = popArg().intValue();
-            dx[count - i - 1] = popArg().intValue();
-        }
-        for (int i = 0; i < count; ++i) {
-            Point lastPoint = getLastPoint();
-            lineTo(lastPoint.x + dx[i], lastPoint.y + dy[i]);
+        for (int i = 0, cnt = getArgCount() - 1; i < cnt; i += 2) {
+            lineTo(_x + arg(i), _y + arg(i + 1));
         }
         clearArg();
     }
@@ -141,20 +212,7 @@ public class T2Interpreter {
      * number of arguments on the stack.
      */
     private void _hlineto() {
-        int count = getArgCount();
-        Number[] nums = new Number[count];
-        for (int i = 0; i < count; ++i) {
-            nums[count - i - 1] = popArg();
-        }
-        for (int i = 0; i < count; ++i) {
-            Point lastPoint = getLastPoint();
-            if (i % 2 == 0) {
-                lineTo(lastPoint.x + nums[i].intValue(), lastPoint.y);
-            } else {
-                lineTo(lastPoint.x, lastPoint.y + nums[i].intValue());
-            }
-        }
-        clearArg();
+        alternatingLineTo(true);
     }
     
     /**
@@ -168,18 +226,17 @@ public class T2Interpreter {
      * number of arguments on the stack.
      */
     private void _vlineto() {
-        int count = getArgCount();
-        Number[] nums = new Number[count];
-        for (int i = 0; i < count; ++i) {
-            nums[count - i - 1] = popArg();
-        }
-        for (int i = 0; i < count; ++i) {
-            Point lastPoint = getLastPoint();
-            if (i % 2 == 0) {
-                lineTo(lastPoint.x, lastPoint.y + nums[i].intValue());
+        alternatingLineTo(false);
+    }
+    
+    private void alternatingLineTo(boolean horizontal) {
+        for (int i = 0, cnt = getArgCount(); i < cnt; ++i) {
+            if (horizontal) {
+                lineTo(_x + arg(i), _y);
             } else {
-                lineTo(lastPoint.x + nums[i].intValue(), lastPoint.y);
+                lineTo(_x, _y + arg(i));
             }
+            horizontal = !horizontal;
         }
         clearArg();
     }
@@ -193,30 +250,8 @@ public class T2Interpreter {
      * stack.
      */
     private void _rrcurveto() {
-        int count = getArgCount() / 6;
-        int[] dxa = new int[count];
-        int[] dya = new int[count];
-        int[] dxb = new int[count];
-        int[] dyb = new int[count];
-        int[] dxc = new int[count];
-        int[] dyc = new int[count];
-        for (int i = 0; i < count; ++i) {
-            dyc[count - i - 1] = popArg().intValue();
-            dxc[count - i - 1] = popArg().intValue();
-            dyb[count - i - 1] = popArg().intValue();
-            dxb[count - i - 1] = popArg().intValue();
-            dya[count - i - 1] = popArg().intValue();
-            dxa[count - i - 1] = popArg().intValue();
-        }
-        for (int i = 0; i < count; ++i) {
-            Point lastPoint = getLastPoint();
-            int xa = lastPoint.x + dxa[i];
-            int ya = lastPoint.y + dya[i];
-            int xb = xa + dxb[i];
-            int yb = ya + dyb[i];
-            int xc = xb + dxc[i];
-            int yc = yb + dyc[i];
-            curveTo(xa, ya, xb, yb, xc, yc);
+        for (int i = 0, cnt = getArgCount() - 5; i < cnt; i += 6) {
+            rrcurveTo(i);
         }
         clearArg();
     }
@@ -229,29 +264,15 @@ public class T2Interpreter {
      * case). Note the argument order for the odd argument case.
      */
     private void _hhcurveto() {
-        int count = getArgCount() / 4;
-        int dy1 = 0;
-        int[] dxa = new int[count];
-        int[] dxb = new int[count];
-        int[] dyb = new int[count];
-        int[] dxc = new int[count];
-        for (int i = 0; i < count; ++i) {
-            dxc[count - i - 1] = popArg().intValue();
-            dyb[count - i - 1] = popArg().intValue();
-            dxb[count - i - 1] = popArg().intValue();
-            dxa[count - i - 1] = popArg().intValue();
+        int i = 0;
+        int cnt = getArgCount();
+        double dy1 = 0;
+        if (cnt % 2 == 1) {
+            dy1 = arg(i++);
         }
-        if (getArgCount() == 1) {
-            dy1 = popArg().intValue();
-        }
-        for (int i = 0; i < count; ++i) {
-            Point lastPoint = getLastPoint();
-            int xa = lastPoint.x + dxa[i];
-            int ya = lastPoint.y + (i == 0 ? dy1 : 0);
-            int xb = xa + dxb[i];
-            int yb = ya + dyb[i];
-            int xc = xb + dxc[i];
-            curveTo(xa, ya, xb, yb, xc, yb);
+        for (; i + 3 < cnt; i += 4) {
+            relativeCurveTo(arg(i), dy1, arg(i + 1), arg(i + 2), arg(i + 3), 0);
+            dy1 = 0;
         }
         clearArg();
     }
@@ -267,98 +288,31 @@ public class T2Interpreter {
      * end horizontal/vertical.
      */
     private void _hvcurveto() {
-        if (getArgCount() % 8 <= 1) {
-            int count = getArgCount() / 8;
-            int[] dxa = new int[count];
-            int[] dxb = new int[count];
-            int[] dyb = new int[count];
-            int[] dyc = new int[count];
-            int[] dyd = new int[count];
-            int[] dxe = new int[count];
-            int[] dye = new int[count];
-            int[] dxf = new int[count];
-            int dyf = 0;
-            if (getArgCount() % 8 == 1) {
-                dyf = popArg().intValue();
-            }
-            for (int i = 0; i < count; ++i) {
-                dxf[count - i - 1] = popArg().intValue();
-                dye[count - i - 1] = popArg().intValue();
-                dxe[count - i - 1] = popArg().intValue();
-                dyd[count - i - 1] = popArg().intValue();
-                dyc[count - i - 1] = popArg().intValue();
-                dyb[count - i - 1] = popArg().intValue();
-                dxb[count - i - 1] = popArg().intValue();
-                dxa[count - i - 1] = popArg().intValue();
-            }
-            for (int i = 0; i < count; ++i) {
-                Point lastPoint = getLastPoint();
-                int xa = lastPoint.x + dxa[i];
-                int ya = lastPoint.y;
-                int xb = xa + dxb[i];
-                int yb = ya + dyb[i];
-                int yc = yb + dyc[i];
-                int yd = yc + dyd[i];
-                int xe = xb + dxe[i];
-                int ye = yd + dye[i];
-                int xf = xe + dxf[i];
-                int yf = ye + (i == count - 1 ? dyf : 0);
-                curveTo(xa, ya, xb, yb, xb, yc);
-                curveTo(xb, yd, xe, ye, xf, yf);
-            }
-        } else {
-            int count = getArgCount() / 8;
-            int[] dya = new int[count];
-            int[] dxb = new int[count];
-            int[] dyb = new int[count];
-            int[] dxc = new int[count];
-            int[] dxd = new int[count];
-            int[] dxe = new int[count];
-            int[] dye = new int[count];
-            int[] dyf = new int[count];
-            int dxf = 0;
-            if (getArgCount() % 4 == 1) {
-                dxf = popArg().intValue();
-            }
-            for (int i = 0; i < count; ++i) {
-                dyf[count - i - 1] = popArg().intValue();
-                dye[count - i - 1] = popArg().intValue();
-                dxe[count - i - 1] = popArg().intValue();
-                dxd[count - i - 1] = popArg().intValue();
-                dxc[count - i - 1] = popArg().intValue();
-                dyb[count - i - 1] = popArg().intValue();
-                dxb[count - i - 1] = popArg().intValue();
-                dya[count - i - 1] = popArg().intValue();
-            }
-            int dy3 = popArg().intValue();
-            int dy2 = popArg().intValue();
-            int dx2 = popArg().intValue();
-            int dx1 = popArg().intValue();
-            
-            Point lastPoint = getLastPoint();
-            int x1 = lastPoint.x + dx1;
-            int y1 = lastPoint.y;
-            int x2 = x1 + dx2;
-            int y2 = y1 + dy2;
-            int x3 = x2 + (count == 0 ? dxf : 0);
-            int y3 = y2 + dy3;
-            curveTo(x1, y1, x2, y2, x3, y3);
-
-            for (int i = 0; i < count; ++i) {
-                lastPoint = getLastPoint();
-                int xa = lastPoint.x;
-                int ya = lastPoint.y + dya[i];
-                int xb = xa + dxb[i];
-                int yb = ya + dyb[i];
-                int xc = xb + dxc[i];
-                int xd = xc + dxd[i];
-                int xe = xd + dxe[i];
-                int ye = yb + dye[i];
-                int xf = xe + (i == count - 1 ? dxf : 0);
-                int yf = ye + dyf[i];
-                curveTo(xa, ya, xb, yb, xc, yb);
-                curveTo(xd, yb, xe, ye, xf, yf);
+        alternatingCurveTo(true);
+    }
+    
+    /**
+     * Appends one or more Bezier curves to the current point, where
+     * the first tangent is vertical and the second tangent is horizontal.
+     * This command is the complement of hvcurveto; see the
+     * description of hvcurveto for more information.
+     */
+    private void _vhcurveto() {
+        alternatingCurveTo(false);
+    }
+    
+    private void alternatingCurveTo(boolean horizontal) {
+        int cnt = getArgCount();
+        boolean odd = cnt % 2 == 1;
+        int curves = cnt - (odd ? 1 : 0);
+        for (int i = 0; i + 3 < curves; i += 4) {
+            double last = odd && i + 4 >= curves ? arg(cnt - 1) : 0;
+            if (horizontal) {
+                relativeCurveTo(arg(i), 0, arg(i + 1), arg(i + 2), last, arg(i + 3));
+            } else {
+                relativeCurveTo(0, arg(i), arg(i + 1), arg(i + 2), arg(i + 3), last);
             }
+            horizontal = !horizontal;
         }
         clearArg();
     }
@@ -370,36 +324,14 @@ public class T2Interpreter {
      * on the argument stack.
      */
     private void _rcurveline() {
-        int count = (getArgCount() - 2) / 6;
-        int[] dxa = new int[count];
-        int[] dya = new int[count];
-        int[] dxb = new int[count];
-        int[] dyb = new int[count];
-        int[] dxc = new int[count];
-        int[] dyc = new int[count];
-        int dyd = popArg().intValue();
-        int dxd = popArg().intValue();
-        for (int i = 0; i < count; ++i) {
-            dyc[count - i - 1] = popArg().intValue();
-            dxc[count - i - 1] = popArg().intValue();
-            dyb[count - i - 1] = popArg().intValue();
-            dxb[count - i - 1] = popArg().intValue();
-            dya[count - i - 1] = popArg().intValue();
-            dxa[count - i - 1] = popArg().intValue();
+        int cnt = getArgCount() - 2;
+        int i = 0;
+        for (; i + 5 < cnt; i += 6) {
+            rrcurveTo(i);
         }
-        int xc = 0;
-        int yc = 0;
-        for (int i = 0; i < count; ++i) {
-            Point lastPoint = getLastPoint();
-            int xa = lastPoint.x + dxa[i];
-            int ya = lastPoint.y + dya[i];
-            int xb = xa + dxb[i];
-            int yb = ya + dyb[i];
-            xc = xb + dxc[i];
-            yc = yb + dyc[i];
-            curveTo(xa, ya, xb, yb, xc, yc);
+        if (i + 1 < getArgCount()) {
+            lineTo(_x + arg(i), _y + arg(i + 1));
         }
-        lineTo(xc + dxd, yc + dyd);
         clearArg();
     }
     
@@ -410,136 +342,13 @@ public class T2Interpreter {
      * items on the argument stack.
      */
     private void _rlinecurve() {
-        int count = (getArgCount() - 6) / 2;
-        int[] dxa = new int[count];
-        int[] dya = new int[count];
-        int dyd = popArg().intValue();
-        int dxd = popArg().intValue();
-        int dyc = popArg().intValue();
-        int dxc = popArg().intValue();
-        int dyb = popArg().intValue();
-        int dxb = popArg().intValue();
-        for (int i = 0; i < count; ++i) {
-            dya[count - i - 1] = popArg().intValue();
-            dxa[count - i - 1] = popArg().intValue();
+        int cnt = getArgCount() - 6;
+        int i = 0;
+        for (; i + 1 < cnt; i += 2) {
+            lineTo(_x + arg(i), _y + arg(i + 1));
         }
-        int xa = 0;
-        int ya = 0;
-        for (int i = 0; i < count; ++i) {
-            Point lastPoint = getLastPoint();
-            xa = lastPoint.x + dxa[i];
-            ya = lastPoint.y + dya[i];
-            lineTo(xa, ya);
-        }
-        int xb = xa + dxb;
-        int yb = ya + dyb;
-        int xc = xb + dxc;
-        int yc = yb + dyc;
-        int xd = xc + dxd;
-        int yd = yc + dyd;
-        curveTo(xb, yb, xc, yc, xd, yd);
-        clearArg();
-    }
-    
-    /**
-     * Appends one or more Bezier curves to the current point, where
-     * the first tangent is vertical and the second tangent is horizontal.
-     * This command is the complement of hvcurveto; see the
-     * description of hvcurveto for more information.
-     */
-    private void _vhcurveto() {
-        if (getArgCount() % 8 <= 1) {
-            int count = getArgCount() / 8;
-            int[] dya = new int[count];
-            int[] dxb = new int[count];
-            int[] dyb = new int[count];
-            int[] dxc = new int[count];
-            int[] dxd = new int[count];
-            int[] dxe = new int[count];
-            int[] dye = new int[count];
-            int[] dyf = new int[count];
-            int dxf = 0;
-            if (getArgCount() % 8 == 1) {
-                dxf = popArg().intValue();
-            }
-            for (int i = 0; i < count; ++i) {
-                dyf[count - i - 1] = popArg().intValue();
-                dye[count - i - 1] = popArg().intValue();
-                dxe[count - i - 1] = popArg().intValue();
-                dxd[count - i - 1] = popArg().intValue();
-                dxc[count - i - 1] = popArg().intValue();
-                dyb[count - i - 1] = popArg().intValue();
-                dxb[count - i - 1] = popArg().intValue();
-                dya[count - i - 1] = popArg().intValue();
-            }
-            for (int i = 0; i < count; ++i) {
-                Point lastPoint = getLastPoint();
-                int xa = lastPoint.x;
-                int ya = lastPoint.y + dya[i];
-                int xb = xa + dxb[i];
-                int yb = ya + dyb[i];
-                int xc = xb + dxc[i];
-                int xd = xc + dxd[i];
-                int xe = xd + dxe[i];
-                int ye = yb + dye[i];
-                int xf = xe + (i == count - 1 ? dxf : 0);
-                int yf = ye + dyf[i];
-                curveTo(xa, ya, xb, yb, xc, yb);
-                curveTo(xd, yb, xe, ye, xf, yf);
-            }
-        } else {
-            int count = getArgCount() / 8;
-            int[] dxa = new int[count];
-            int[] dxb = new int[count];
-            int[] dyb = new int[count];
-            int[] dyc = new int[count];
-            int[] dyd = new int[count];
-            int[] dxe = new int[count];
-            int[] dye = new int[count];
-            int[] dxf = new int[count];
-            int dyf = 0;
-            if (getArgCount() % 4 == 1) {
-                dyf = popArg().intValue();
-            }
-            for (int i = 0; i < count; ++i) {
-                dxf[count - i - 1] = popArg().intValue();
-                dye[count - i - 1] = popArg().intValue();
-                dxe[count - i - 1] = popArg().intValue();
-                dyd[count - i - 1] = popArg().intValue();
-                dyc[count - i - 1] = popArg().intValue();
-                dyb[count - i - 1] = popArg().intValue();
-                dxb[count - i - 1] = popArg().intValue();
-                dxa[count - i - 1] = popArg().intValue();
-            }
-            int dx3 = popArg().intValue();
-            int dy2 = popArg().intValue();
-            int dx2 = popArg().intValue();
-            int dy1 = popArg().intValue();
-
-            Point lastPoint = getLastPoint();
-            int x1 = lastPoint.x;
-            int y1 = lastPoint.y + dy1;
-            int x2 = x1 + dx2;
-            int y2 = y1 + dy2;
-            int x3 = x2 + dx3;
-            int y3 = y2 + (count == 0 ? dyf : 0);
-            curveTo(x1, y1, x2, y2, x3, y3);
-
-            for (int i = 0; i < count; ++i) {
-                lastPoint = getLastPoint();
-                int xa = lastPoint.x + dxa[i];
-                int ya = lastPoint.y;
-                int xb = xa + dxb[i];
-                int yb = ya + dyb[i];
-                int yc = yb + dyc[i];
-                int yd = yc + dyd[i];
-                int xe = xb + dxe[i];
-                int ye = yd + dye[i];
-                int xf = xe + dxf[i];
-                int yf = ye + (i == count - 1 ? dyf : 0);
-                curveTo(xa, ya, xb, yb, xb, yc);
-                curveTo(xb, yd, xe, ye, xf, yf);
-            }
+        if (i + 5 < getArgCount()) {
+            rrcurveTo(i);
         }
         clearArg();
     }
@@ -551,31 +360,16 @@ public class T2Interpreter {
      * vertical tangent.
      */
     private void _vvcurveto() {
-        int count = getArgCount() / 4;
-        int dx1 = 0;
-        int[] dya = new int[count];
-        int[] dxb = new int[count];
-        int[] dyb = new int[count];
-        int[] dyc = new int[count];
-        for (int i = 0; i < count; ++i) {
-            dyc[count - i - 1] = popArg().intValue();
-            dyb[count - i - 1] = popArg().intValue();
-            dxb[count - i - 1] = popArg().intValue();
-            dya[count - i - 1] = popArg().intValue();
+        int i = 0;
+        int cnt = getArgCount();
+        double dx1 = 0;
+        if (cnt % 2 == 1) {
+            dx1 = arg(i++);
         }
-        if (getArgCount() == 1) {
-            dx1 = popArg().intValue();
+        for (; i + 3 < cnt; i += 4) {
+            relativeCurveTo(dx1, arg(i), arg(i + 1), arg(i + 2), 0, arg(i + 3));
+            dx1 = 0;
         }
-        for (int i = 0; i < count; ++i) {
-            Point lastPoint = getLastPoint();
-            int xa = lastPoint.x + (i == 0 ? dx1 : 0);
-            int ya = lastPoint.y + dya[i];
-            int xb = xa + dxb[i];
-            int yb = ya + dyb[i];
-            int yc = yb + dyc[i];
-            curveTo(xa, ya, xb, yb, xb, yc);
-        }
-        
         clearArg();
     }
     
@@ -585,9 +379,16 @@ public class T2Interpreter {
      * the flex depth is less than fd /100 device pixels, and as curved lines
      * when the flex depth is greater than or equal to fd/100 device
      * pixels.
+     * 
+     * <p>
+     * Both curves are always reported to the {@link OutlineSink}.
+     * </p>
      */
     private void _flex() {
-        
+        if (getArgCount() >= 12) {
+            rrcurveTo(0);
+            rrcurveTo(6);
+        }
         clearArg();
     }
     
@@ -598,7 +399,11 @@ public class T2Interpreter {
      * flex depth is greater than or equal to 0.5 device pixels.
      */
     private void _hflex() {
-        
+        if (getArgCount() >= 7) {
+            double dy2 = arg(2);
+            relativeCurveTo(arg(0), 0, arg(1), dy2, arg(3), 0);
+            relativeCurveTo(arg(4), 0, arg(5), -dy2, arg(6), 0);
+        }
         clearArg();
     }
     
@@ -609,7 +414,13 @@ public class T2Interpreter {
      * than or equal to 0.5 device pixels.
      */
     private void _hflex1() {
-        
+        if (getArgCount() >= 9) {
+            double dy1 = arg(1);
+            double dy2 = arg(3);
+            double dy5 = arg(7);
+            relativeCurveTo(arg(0), dy1, arg(2), dy2, arg(4), 0);
+            relativeCurveTo(arg(5), 0, arg(6), dy5, arg(8), -(dy1 + dy2 + dy5));
+        }
         clearArg();
     }
     
@@ -620,7 +431,20 @@ public class T2Interpreter {
      * than or equal to 0.5 device pixels.
      */
     private void _flex1() {
-        
+        if (getArgCount() >= 11) {
+            double dx = 0;
+            double dy = 0;
+            for (int i = 0; i < 10; i += 2) {
+                dx += arg(i);
+                dy += arg(i + 1);
+            }
+            relativeCurveTo(arg(0), arg(1), arg(2), arg(3), arg(4), arg(5));
+            if (Math.abs(dx) > Math.abs(dy)) {
+                relativeCurveTo(arg(6), arg(7), arg(8), arg(9), arg(10), -dy);
+            } else {
+                relativeCurveTo(arg(6), arg(7), arg(8), arg(9), -dx, arg(10));
+            }
+        }
         clearArg();
     }
     
@@ -629,13 +453,9 @@ public class T2Interpreter {
      * last operator in a character's outline.
      */
     private void _endchar() {
-        endContour();
+        closePath();
         clearArg();
-        while (_subrStackIndex > 0) {
-            SubrPair sp = popSubr();
-            _cs = sp.cs;
-            _ip = sp.ip;
-        }
+        _done = true;
     }
     
     /**
@@ -644,17 +464,7 @@ public class T2Interpreter {
      * single hstem operator.
      */
     private void _hstem() {
-        int pairCount = getArgCount() / 2;
-        for (int i = 0; i < pairCount; ++i) {
-            _hstems.add(0, popArg().intValue());
-            _hstems.add(0, popArg().intValue());
-        }
-
-        if (getArgCount() > 0) {
-            
-            // This will be the width value
-            popArg();
-        }
+        addStems(true);
     }
     
     /**
@@ -662,17 +472,7 @@ public class T2Interpreter {
      * and x+dx, where x is relative to the origin of the coordinate axes.
      */
     private void _vstem() {
-        int pairCount = getArgCount() / 2;
-        for (int i = 0; i < pairCount; ++i) {
-            _vstems.add(0, popArg().intValue());
-            _vstems.add(0, popArg().intValue());
-        }
-
-        if (getArgCount() > 0) {
-            
-            // This will be the width value
-            popArg();
-        }
+        addStems(false);
     }
     
     /**
@@ -680,18 +480,7 @@ public class T2Interpreter {
      * of hstem if the charstring contains one or more hintmask operators.
      */
     private void _hstemhm() {
-        _stemCount += getArgCount() / 2;
-        int pairCount = getArgCount() / 2;
-        for (int i = 0; i < pairCount; ++i) {
-            _hstems.add(0, popArg().intValue());
-            _hstems.add(0, popArg().intValue());
-        }
-
-        if (getArgCount() > 0) {
-            
-            // This will be the width value
-            popArg();
-        }
+        addStems(true);
     }
     
     /**
@@ -699,27 +488,14 @@ public class T2Interpreter {
      * of vstem if the charstring contains one or more hintmask operators.
      */
     private void _vstemhm() {
-        _stemCount += getArgCount() / 2;
-        int pairCount = getArgCount() / 2;
-        for (int i = 0; i < pairCount; ++i) {
-            _vstems.add(0, popArg().intValue());
-            _vstems.add(0, popArg().intValue());
-        }
-
-        if (getArgCount() > 0) {
-            
-            // This will be the width value
-            popArg();
-        }
+        addStems(false);
     }
     
     /**
      * Specifies which hints are active and which are not active.
      */
     private void _hintmask() {
-        _stemCount += getArgCount() / 2;
-        _ip += (_stemCount - 1) / 8 + 1;
-        clearArg();
+        skipMask();
     }
     
     /**
@@ -727,16 +503,54 @@ public class T2Interpreter {
      * relative priority.
      */
     private void _cntrmask() {
-        _stemCount += getArgCount() / 2;
-        _ip += (_stemCount - 1) / 8 + 1;
+        skipMask();
+    }
+    
+    /**
+     * Adds the stem hints on the argument stack. The arguments of the
+     * first stack-clearing operator may start with the width.
+     */
+    private void addStems(boolean horizontal) {
+        int cnt = getArgCount();
+        int first = _widthSeen ? 0 : cnt % 2;
+        _widthSeen = true;
+        int pairs = (cnt - first) / 2;
+        _stemCount += pairs;
+        for (int i = first, end = first + 2 * pairs; i < end; ++i) {
+            if (horizontal) {
+                _hstems = add(_hstems, _hstemCount++, (int) arg(i));
+            } else {
+                _vstems = add(_vstems, _vstemCount++, (int) arg(i));
+            }
+        }
         clearArg();
     }
     
+    private static int[] add(int[] values, int index, int value) {
+        if (index == values.length) {
+            values = Arrays.copyOf(values, 2 * values.length);
+        }
+        values[index] = value;
+        return values;
+    }
+    
+    /**
+     * Skips the mask bytes following a hintmask or cntrmask operator. Values
+     * on the stack are an implicit vstem.
+     */
+    private void skipMask() {
+        if (getArgCount() > 0) {
+            addStems(false);
+        }
+        _widthSeen = true;
+        _ip += (_stemCount + 7) / 8;
+    }
+    
     /**
      * Returns the absolute value of num.
      */
     private void _abs() {
-        double num = popArg().doubleValue();
+        double num = popArg();
         pushArg(Math.abs(num));
     }
     
@@ -744,8 +558,8 @@ public class T2Interpreter {
      * Returns the sum of the two numbers num1 and num2.
      */
     private void _add() {
-        double num2 = popArg().doubleValue();
-        double num1 = popArg().doubleValue();
+        double num2 = popArg();
+        double num1 = popArg();
         pushArg(num1 + num2);
     }
     
@@ -753,8 +567,8 @@ public class T2Interpreter {
      * Returns the result of subtracting num2 from num1.
      */
     private void _sub() {
-        double num2 = popArg().doubleValue();
-        double num1 = popArg().doubleValue();
+        double num2 = popArg();
+        double num1 = popArg();
         pushArg(num1 - num2);
     }
     
@@ -763,8 +577,8 @@ public class T2Interpreter {
      * undefined if overflow occurs and is zero for underflow.
      */
     private void _div() {
-        double num2 = popArg().doubleValue();
-        double num1 = popArg().doubleValue();
+        double num2 = popArg();
+        double num1 = popArg();
         pushArg(num1 / num2);
     }
     
@@ -772,7 +586,7 @@ public class T2Interpreter {
      * Returns the negative of num.
      */
     private void _neg() {
-        double num = popArg().doubleValue();
+        double num = popArg();
         pushArg(-num);
     }
     
@@ -789,8 +603,8 @@ public class T2Interpreter {
      * result is undefined, and zero is returned for underflow.
      */
     private void _mul() {
-        double num2 = popArg().doubleValue();
-        double num1 = popArg().doubleValue();
+        double num2 = popArg();
+        double num1 = popArg();
         pushArg(num1 * num2);
     }
     
@@ -799,7 +613,7 @@ public class T2Interpreter {
      * undefined.
      */
     private void _sqrt() {
-        double num = popArg().doubleValue();
+        double num = popArg();
         pushArg(Math.sqrt(num));
     }
     
@@ -814,8 +628,8 @@ public class T2Interpreter {
      * Exchanges the top two elements on the argument stack.
      */
     private void _exch() {
-        Number num2 = popArg();
-        Number num1 = popArg();
+        double num2 = popArg();
+        double num1 = popArg();
         pushArg(num2);
         pushArg(num1);
     }
@@ -827,15 +641,10 @@ public class T2Interpreter {
      * undefined.
      */
     private void _index() {
-        int i = popArg().intValue();
-        Number[] nums = new Number[i];
-        for (int j = 0; j < i; ++j) {
-            nums[j] = popArg();
+        int i = Math.max(0, (int) popArg());
+        if (i < _argStackIndex) {
+            pushArg(_argStack[_argStackIndex - 1 - i]);
         }
-        for (int j = i - 1; j >= 0; --j) {
-            pushArg(nums[j]);
-        }
-        pushArg(nums[i]);
     }
     
     /**
@@ -846,14 +655,26 @@ public class T2Interpreter {
      * operation is undefined.
      */
     private void _roll() {
-        int j = popArg().intValue();
-        int n = popArg().intValue();
-        Number[] nums = new Number[n];
-        for (int i = 0; i < n; ++i) {
-            nums[i] = popArg();
+        int j = (int) popArg();
+        int n = (int) popArg();
+        if (n <= 0 || n > _argStackIndex) {
+            return;
+        }
+        j = ((j % n) + n) % n;
+        if (j == 0) {
+            return;
         }
-        for (int i = n - 1; i >= 0; --i) {
-            pushArg(nums[(n + i + j) % n]);
+        int start = _argStackIndex - n;
+        reverse(start, _argStackIndex);
+        reverse(start, start + j);
+        reverse(start + j, _argStackIndex);
+    }
+    
+    private void reverse(int from, int to) {
+        for (int i = from, k = to - 1; i < k; ++i, --k) {
+            double tmp = _argStack[i];
+            _argStack[i] = _argStack[k];
+            _argStack[k] = tmp;
         }
     }
     
@@ -861,7 +682,7 @@ public class T2Interpreter {
      * Duplicates the top element on the argument stack.
      */
     private void _dup() {
-        Number any = popArg();
+        double any = popArg();
         pushArg(any);
         pushArg(any);
     }
@@ -870,9 +691,11 @@ public class T2Interpreter {
      * Stores val into the transient array at the location given by i.
      */
     private void _put() {
-        int i = popArg().intValue();
-        Number val = popArg();
-        _transientArray[i] = val;
+        int i = (int) popArg();
+        double val = popArg();
+        if (0 <= i && i < TRANSIENT_ARRAY_ELEMENT_COUNT) {
+            _transientArray[i] = val;
+        }
     }
     
     /**
@@ -882,8 +705,8 @@ public class T2Interpreter {
      * charstring, the value returned is undefined.
      */
     private void _get() {
-        int i = popArg().intValue();
-        pushArg(_transientArray[i]);
+        int i = (int) popArg();
+        pushArg(0 <= i && i < TRANSIENT_ARRAY_ELEMENT_COUNT ? _transientArray[i] : 0);
     }
     
     /**
@@ -891,8 +714,8 @@ public class T2Interpreter {
      * puts a 0 on the stack if either argument is zero.
      */
     private void _and() {
-        double num2 = popArg().doubleValue();
-        double num1 = popArg().doubleValue();
+        double num2 = popArg();
+        double num1 = popArg();
         pushArg((num1!=0.0) && (num2!=0.0) ? 1 : 0);
     }
     
@@ -901,8 +724,8 @@ public class T2Interpreter {
      * puts a 0 on the stack if both arguments are zero.
      */
     private void _or() {
-        double num2 = popArg().doubleValue();
-        double num1 = popArg().doubleValue();
+        double num2 = popArg();
+        double num1 = popArg();
         pushArg((num1!=0.0) || (num2!=0.0) ? 1 : 0);
     }
     
@@ -910,7 +733,7 @@ public class T2Interpreter {
      * Returns a 0 if num1 is non-zero; returns a 1 if num1 is zero.
      */
     private void _not() {
-        double num1 = popArg().doubleValue();
+        double num1 = popArg();
         pushArg((num1!=0.0) ? 0 : 1);
     }
     
@@ -919,8 +742,8 @@ public class T2Interpreter {
      * is put on the stack.
      */
     private void _eq() {
-        double num2 = popArg().doubleValue();
-        double num1 = popArg().doubleValue();
+        double num2 = popArg();
+        double num1 = popArg();
         pushArg(num1 == num2 ? 1 : 0);
     }
     
@@ -930,13 +753,66 @@ public class T2Interpreter {
      * number of a subroutine.
      */
     private void _ifelse() {
-        double v2 = popArg().doubleValue();
-        double v1 = popArg().doubleValue();
-        Number s2 = popArg();
-        Number s1 = popArg();
+        double v2 = popArg();
+        double v1 = popArg();
+        double s2 = popArg();
+        double s1 = popArg();
         pushArg(v1 <= v2 ? s1 : s2);
     }
     
+    /**
+     * Selects the item variation data with the given index for the
+     * following <code>blend</code> operators. This is a CFF2 operator.
+     */
+    private boolean _vsindex() {
+        int ivd = (int) popArg();
+        clearArg();
+        return selectVariationData(ivd);
+    }
+    
+    private boolean selectVariationData(int ivd) {
+        ItemVariationStore store = _variationStore;
+        if (store == null) {
+            _scalarCount = 0;
+            return ivd == 0;
+        }
+        if (ivd < 0 || ivd >= store.getItemVariationDataCount()) {
+            return false;
+        }
+        int count = store.getRegionIndexCount(ivd);
+        if (count > _scalars.length) {
+            _scalars = new float[count];
+        }
+        store.getScalars(ivd, _coords, _scalars);
+        _scalarCount = count;
+        return true;
+    }
+    
+    /**
+     * Replaces n default values and the n * k deltas that follow them on the
+     * argument stack with the n values for the current instance, where k is
+     * the number of regions of the current item variation data. This is a
+     * CFF2 operator.
+     */
+    private boolean _blend() {
+        int n = (int) popArg();
+        int k = _scalarCount;
+        int base = _argStackIndex - n * (k + 1);
+        if (n < 0 || base < 0) {
+            return false;
+        }
+        float[] scalars = _scalars;
+        for (int i = 0; i < n; ++i) {
+            double value = _argStack[base + i];
+            for (int j = 0, delta = base + n + i * k; j < k; ++j, ++delta) {
+                value += _argStack[delta] * scalars[j];
+            }
+            _argStack[base + i] = value;
+        }
+        _argStackIndex = base + n;
+        return true;
+    }
+    
     /**
      * Calls a charstring subroutine with index subr# (actually the subr
      * number plus the subroutine bias number, as described in section
@@ -947,42 +823,50 @@ public class T2Interpreter {
      * act according to the manner in which the subroutine is coded.
      * Calling an undefined subr (gsubr) has undefined results.
      */
-    private void _callsubr() {
-        int bias;
-        int subrsCount = _localSubrIndex.getCount();
-        if (subrsCount < 1240) {
-            bias = 107;
-        } else if (subrsCount < 33900) {
-            bias = 1131;
-        } else {
-            bias = 32768;
-        }
-        int i = popArg().intValue();
-        int offset = _localSubrIndex.getOffset(i + bias) - 1;
-        pushSubr(new SubrPair(_cs, _ip));
-        _cs = _localSubrs;
-        _ip = offset;
+    private boolean _callsubr() {
+        return callSubr(_localSubrIndex);
     }
     
     /**
      * Operates in the same manner as callsubr except that it calls a
      * global subroutine.
      */
-    private void _callgsubr() {
-        int bias;
-        int subrsCount = _globalSubrIndex.getCount();
+    private boolean _callgsubr() {
+        return callSubr(_globalSubrIndex);
+    }
+    
+    private boolean callSubr(Index subrs) {
+        int i = (int) popArg();
+        if (subrs == null || _subrStackIndex == SUBR_STACK_LIMIT) {
+            return false;
+        }
+        int subr = i + bias(subrs.getCount());
+        if (subr < 0 || subr >= subrs.getCount()) {
+            return false;
+        }
+        _subrData[_subrStackIndex] = _data;
+        _subrIp[_subrStackIndex] = _ip;
+        _subrEnd[_subrStackIndex] = _end;
+        _subrStackIndex++;
+        
+        _data = subrs.getData();
+        _ip = subrs.getOffset(subr) - 1;
+        _end = subrs.getOffset(subr + 1) - 1;
+        return true;
+    }
+    
+    /**
+     * The number to add to a subroutine number to get the index into a
+     * subroutine INDEX with the given number of entries.
+     */
+    static int bias(int subrsCount) {
         if (subrsCount < 1240) {
-            bias = 107;
+            return 107;
         } else if (subrsCount < 33900) {
-            bias = 1131;
+            return 1131;
         } else {
-            bias = 32768;
+            return 32768;
         }
-        int i = popArg().intValue();
-        int offset = _globalSubrIndex.getOffset(i + bias) - 1;
-        pushSubr(new SubrPair(_cs, _ip));
-        _cs = _globalSubrs;
-        _ip = offset;
     }
     
     /**
@@ -990,46 +874,211 @@ public class T2Interpreter {
      * continues execution after the corresponding call(g)subr.
      */
     private void _return() {
-        SubrPair sp = popSubr();
-        _cs = sp.cs;
-        _ip = sp.ip;
+        if (_subrStackIndex == 0) {
+            _done = true;
+            return;
+        }
+        _subrStackIndex--;
+        _data = _subrData[_subrStackIndex];
+        _ip = _subrIp[_subrStackIndex];
+        _end = _subrEnd[_subrStackIndex];
+        _subrData[_subrStackIndex] = null;
     }
     
+    /**
+     * Executes the given charstring collecting its outline as points.
+     * 
+     * @return The points of the outline, or <code>null</code>, if the
+     *         charstring is malformed.
+     * 
+     * @see #execute(CharstringType2, OutlineSink)
+     */
     public Point[] execute(CharstringType2 cs) {
-        _localSubrIndex = cs.getFont().getLocalSubrIndex();
-        _globalSubrIndex = cs.getFont().getTable().getGlobalSubrIndex();
-        _localSubrs = new CharstringType2(
-                null,
-                0,
-                "Local subrs",
-                _localSubrIndex.getData(),
-                _localSubrIndex.getOffset(0) - 1,
-                _localSubrIndex.getDataLength());
-        _globalSubrs = new CharstringType2(
-                null,
-                0,
-                "Global subrs",
-                _globalSubrIndex.getData(),
-                _globalSubrIndex.getOffset(0) - 1,
-                _globalSubrIndex.getDataLength());
-        _cs = cs;
-
-        _hstems = new ArrayList<>();
-        _vstems = new ArrayList<>();
-
-        _points = new ArrayList<>();
-        _ip = _cs.getFirstIndex();
-        while (_cs.moreBytes(_ip)) {
-            while (_cs.isOperandAtIndex(_ip)) {
-                pushArg(_cs.operandAtIndex(_ip));
-                _ip = _cs.nextOperandIndex(_ip);
+        PointCollector collector = new PointCollector();
+        if (!execute(cs, collector)) {
+            return null;
+        }
+        return collector.getPoints();
+    }
+    
+    /**
+     * Executes the given charstring reporting its outline to the given sink.
+     * 
+     * @return Whether the charstring was executed successfully. If
+     *         <code>false</code>, the outline reported so far may be
+     *         incomplete.
+     */
+    public boolean execute(CharstringType2 cs, OutlineSink sink) {
+        CffFont font = cs.getFont();
+        _cff2 = false;
+        _argStackLimit = ARGUMENT_STACK_LIMIT;
+        _variationStore = null;
+        _scalarCount = 0;
+        return execute(cs,
+            font == null ? null : font.getLocalSubrIndex(font.getFontDictIndex(cs.getIndex())),
+            font == null ? null : font.getTable().getGlobalSubrIndex(),
+            sink);
+    }
+    
+    /**
+     * Executes the given charstring recording its outline and stem hints.
+     * 
+     * @return The decoded outline, or <code>null</code>, if the charstring
+     *         is malformed.
+     */
+    public Outline createOutline(CharstringType2 cs) {
+        OutlineRecorder recorder = recorder();
+        if (!execute(cs, recorder)) {
+            return null;
+        }
+        return toOutline(recorder);
+    }
+    
+    /**
+     * Executes the charstring of the given glyph of a CFF2 table recording
+     * the outline and stem hints of the given instance.
+     * 
+     * @return The decoded outline, or <code>null</code>, if the charstring
+     *         is malformed.
+     * 
+     * @see #execute(Cff2Table, int, float[], OutlineSink)
+     */
+    public Outline createOutline(Cff2Table table, int gid, float[] coords) {
+        OutlineRecorder recorder = recorder();
+        if (!execute(table, gid, coords, recorder)) {
+            return null;
+        }
+        return toOutline(recorder);
+    }
+    
+    private OutlineRecorder recorder() {
+        if (_recorder == null) {
+            _recorder = new OutlineRecorder();
+        } else {
+            _recorder.reset();
+        }
+        return _recorder;
+    }
+    
+    private Outline toOutline(OutlineRecorder recorder) {
+        return recorder.toOutline(
+            Arrays.copyOf(_hstems, _hstemCount), 
+            Arrays.copyOf(_vstems, _vstemCount));
+    }
+    
+    /**
+     * Executes the charstring of the given glyph of a CFF2 table collecting
+     * its outline as points.
+     * 
+     * @return The points of the outline, or <code>null</code>, if the
+     *         charstring is malformed.
+     * 
+     * @see #execute(Cff2Table, int, float[], OutlineSink)
+     */
+    public Point[] execute(Cff2Table table, int gid, float[] coords) {
+        PointCollector collector = new PointCollector();
+        if (!execute(table, gid, coords, collector)) {
+            return null;
+        }
+        return collector.getPoints();
+    }
+    
+    /**
+     * Executes the charstring of the given glyph of a CFF2 table reporting
+     * the outline of the given instance to the given sink.
+     * 
+     * @param table
+     *        The table with the charstrings, subroutines and variation regions.
+     * @param gid
+     *        The glyph to interpret.
+     * @param coords
+     *        The normalized coordinates of the instance in the range
+     *        <code>-1..1</code> in the order of the 'fvar' axes. An empty
+     *        array selects the default instance.
+     * @param sink
+     *        The receiver of the outline.
+     * @return Whether the charstring was executed successfully. If
+     *         <code>false</code>, the outline reported so far may be
+     *         incomplete.
+     */
+    public boolean execute(Cff2Table table, int gid, float[] coords, OutlineSink sink) {
+        int fd = table.getFontDictIndex(gid);
+        _cff2 = true;
+        _argStackLimit = CFF2_ARGUMENT_STACK_LIMIT;
+        _variationStore = table.getVariationStore();
+        _coords = coords;
+        try {
+            if (!selectVariationData(table.getVariationStoreIndex(fd))) {
+                return false;
             }
-            int operator = _cs.byteAtIndex(_ip++);
-            if (operator == 12) {
-                operator = _cs.byteAtIndex(_ip++);
+            return execute(table.getCharstring(gid), table.getLocalSubrIndex(fd),
+                table.getGlobalSubrIndex(), sink);
+        } finally {
+            _coords = null;
+            _variationStore = null;
+        }
+    }
+    
+    private boolean execute(CharstringType2 cs, Index localSubrIndex, Index globalSubrIndex, OutlineSink sink) {
+        _localSubrIndex = localSubrIndex;
+        _globalSubrIndex = globalSubrIndex;
+        _sink = sink;
+        _data = cs.getData();
+        _ip = cs.getFirstIndex();
+        _end = cs.getEndIndex();
+        
+        _argStackIndex = 0;
+        _subrStackIndex = 0;
+        _stemCount = 0;
+        _hstemCount = 0;
+        _vstemCount = 0;
+        _x = 0;
+        _y = 0;
+        _open = false;
+        
+        // CFF2 charstrings do not start with the advance width.
+        _widthSeen = _cff2;
+        _done = false;
+        try {
+            return run();
+        } finally {
+            _sink = null;
+            _data = null;
+            Arrays.fill(_subrData, null);
+        }
+    }
+    
+    private boolean run() {
+        while (!_done) {
+            if (_ip >= _end) {
+                if (_subrStackIndex == 0) {
+                    break;
+                }
+                
+                // Implicit return at the end of a subroutine.
+                _return();
+                continue;
+            }
+            
+            int b0 = _data[_ip] & 0xFF;
+            if (b0 >= 32 || b0 == 28) {
+                if (_argStackIndex == _argStackLimit) {
+                    logger.debug("Argument stack overflow.");
+                    return false;
+                }
+                pushArg(readOperand(b0));
+                continue;
+            }
+            
+            _ip++;
+            if (b0 == T2Mnemonic.ESCAPE) {
+                int operator = _data[_ip++] & 0xFF;
 
                 // Two-byte operators
                 switch (operator) {
+                case T2Mnemonic.DOTSECTION:
+                    clearArg();
+                    break;
                 case T2Mnemonic.AND:
                     _and();
                     break;
@@ -1103,13 +1152,13 @@ public class T2Interpreter {
                     _flex1();
                     break;
                 default:
-                    //throw new Exception();
-                    return null;
+                    logger.debug("Unknown operator 12 {}.", operator);
+                    return false;
                 }
             } else {
 
                 // One-byte operators
-                switch (operator) {
+                switch (b0) {
                 case T2Mnemonic.HSTEM:
                     _hstem();
                     break;
@@ -1132,7 +1181,9 @@ public class T2Interpreter {
                     _rrcurveto();
                     break;
                 case T2Mnemonic.CALLSUBR:
-                    _callsubr();
+                    if (!_callsubr()) {
+                        return false;
+                    }
                     break;
                 case T2Mnemonic.RETURN:
                     _return();
@@ -1140,6 +1191,16 @@ public class T2Interpreter {
                 case T2Mnemonic.ENDCHAR:
                     _endchar();
                     break;
+                case T2Mnemonic.VSINDEX:
+                    if (!_cff2 || !_vsindex()) {
+                        return false;
+                    }
+                    break;
+                case T2Mnemonic.BLEND:
+                    if (!_cff2 || !_blend()) {
+                        return false;
+                    }
+                    break;
                 case T2Mnemonic.HSTEMHM:
                     _hstemhm();
                     break;
@@ -1171,7 +1232,9 @@ public class T2Interpreter {
                     _hhcurveto();
                     break;
                 case T2Mnemonic.CALLGSUBR:
-                    _callgsubr();
+                    if (!_callgsubr()) {
+                        return false;
+                    }
                     break;
                 case T2Mnemonic.VHCURVETO:
                     _vhcurveto();
@@ -1180,14 +1243,51 @@ public class T2Interpreter {
                     _hvcurveto();
                     break;
                 default:
-                    //throw new Exception();
-                    return null;
+                    logger.debug("Unknown operator {}.", b0);
+                    return false;
                 }
             }
         }
-        Point[] pointArray = new Point[_points.size()];
-        _points.toArray(pointArray);
-        return pointArray;
+        closePath();
+        return true;
+    }
+    
+    /**
+     * Reads the operand starting with the given byte at the instruction
+     * pointer and advances the instruction pointer after the operand.
+     */
+    private double readOperand(int b0) {
+        byte[] data = _data;
+        int ip = _ip;
+        if (b0 <= 246) {
+            if (b0 == 28) {
+                
+                // 3 byte integer
+                _ip = ip + 3;
+                return (short) ((data[ip + 1] & 0xFF) << 8 | (data[ip + 2] & 0xFF));
+            }
+            
+            // 1 byte integer
+            _ip = ip + 1;
+            return b0 - 139;
+        } else if (b0 <= 250) {
+
+            // 2 byte integer
+            _ip = ip + 2;
+            return (b0 - 247) * 256 + (data[ip + 1] & 0xFF) + 108;
+        } else if (b0 <= 254) {
+
+            // 2 byte integer
+            _ip = ip + 2;
+            return -(b0 - 251) * 256 - (data[ip + 1] & 0xFF) - 108;
+        } else {
+
+            // 16-bit signed integer with 16 bits of fraction
+            _ip = ip + 5;
+            int value = data[ip + 1] << 24 | (data[ip + 2] & 0xFF) << 16
+                    | (data[ip + 3] & 0xFF) << 8 | (data[ip + 4] & 0xFF);
+            return value / 65536.0;
+        }
     }
 
     /**
@@ -1197,15 +1297,20 @@ public class T2Interpreter {
         return _argStackIndex;
     }
     
+    /**
+     * The argument with the given index counted from the bottom of the
+     * argument stack.
+     */
+    private double arg(int index) {
+        return _argStack[index];
+    }
+    
     /**
      * Pop a value off the argument stack
      */
-    private Number popArg() {
-        if (logger.isTraceEnabled()) {
-            logger.trace(
-                    "popArg: {} {}",
-                    _argStack[_argStackIndex - 1],
-                    java.util.Arrays.copyOfRange(_argStack, 0, _argStackIndex - 1));
+    private double popArg() {
+        if (_argStackIndex == 0) {
+            return 0;
         }
         return _argStack[--_argStackIndex];
     }
@@ -1213,66 +1318,68 @@ public class T2Interpreter {
     /**
      * Push a value on to the argument stack
      */
-    private void pushArg(Number n) {
-        _argStack[_argStackIndex++] = n;
-        if (logger.isTraceEnabled()) {
-            logger.trace(
-                    "pushArg: {} {}",
-                    n,
-                    java.util.Arrays.copyOfRange(_argStack, 0, _argStackIndex - 1));
+    private void pushArg(double n) {
+        if (_argStackIndex < _argStackLimit) {
+            _argStack[_argStackIndex++] = n;
         }
     }
     
     /**
-     * Pop a value off the subroutine stack
+     * Clear the argument stack
      */
-    private SubrPair popSubr() {
-        return _subrStack[--_subrStackIndex];
+    private void clearArg() {
+        _argStackIndex = 0;
     }
-
+    
     /**
-     * Push a value on to the subroutine stack
+     * The index of the first argument of a stack-clearing operator expecting
+     * the given number of arguments, skipping the width that may precede the
+     * arguments of the first such operator.
      */
-    private void pushSubr(SubrPair sp) {
-        _subrStack[_subrStackIndex] = sp;
-        _subrStackIndex++;
+    private int skipWidth(int argCount) {
+        int first = !_widthSeen && getArgCount() > argCount ? 1 : 0;
+        _widthSeen = true;
+        return first;
     }
     
     /**
-     * Clear the argument stack
+     * Appends a curve with the six arguments starting at the given index as
+     * relative coordinates.
      */
-    private void clearArg() {
-        _argStackIndex = 0;
-    }
-    
-    private Point getLastPoint() {
-        int size = _points.size();
-        if (size > 0) {
-            return _points.get(size - 1);
-        } else {
-            return new Point(0, 0, true, false);
-        }
+    private void rrcurveTo(int i) {
+        relativeCurveTo(arg(i), arg(i + 1), arg(i + 2), arg(i + 3), arg(i + 4), arg(i + 5));
     }
     
-    private void moveTo(int x, int y) {
-        endContour();
-        _points.add(new Point(x, y, true, false));
+    private void relativeCurveTo(double dxa, double dya, double dxb, double dyb, double dxc, double dyc) {
+        double xa = _x + dxa;
+        double ya = _y + dya;
+        double xb = xa + dxb;
+        double yb = ya + dyb;
+        double xc = xb + dxc;
+        double yc = yb + dyc;
+        _sink.curveTo((float) xa, (float) ya, (float) xb, (float) yb, (float) xc, (float) yc);
+        _x = xc;
+        _y = yc;
     }
     
-    private void lineTo(int x, int y) {
-        _points.add(new Point(x, y, true, false));
+    private void moveTo(double x, double y) {
+        closePath();
+        _sink.moveTo((float) x, (float) y);
+        _open = true;
+        _x = x;
+        _y = y;
     }
     
-    private void curveTo(int cx1, int cy1, int cx2, int cy2, int x, int y) {
-        _points.add(new Point(cx1, cy1, false, false));
-        _points.add(new Point(cx2, cy2, false, false));
-        _points.add(new Point(x, y, true, false));
+    private void lineTo(double x, double y) {
+        _sink.lineTo((float) x, (float) y);
+        _x = x;
+        _y = y;
     }
     
-    private void endContour() {
-        Point lastPoint = getLastPoint();
-        if (lastPoint != null) {
-            lastPoint.endOfContour = true;
+    private void closePath() {
+        if (_open) {
+            _sink.closePath();
+            _open = false;
         }
     }
 }
@@ -298,17 +298,9 @@ public class SVGExporter
                 ID.encodingRoman);
         } else {
             
-            // The default behaviour is to use the Unicode cmap encoding
-            cmapFmt = font.getCmapTable().getCmapFormat(
-                ID.platformMicrosoft,
-                ID.encodingUnicode);
-            if (cmapFmt == null) {
-
-                // This might be a symbol font
-                cmapFmt = font.getCmapTable().getCmapFormat(
-                    ID.platformMicrosoft,
-                    ID.encodingSymbol);
-            }
+            // The default behaviour is to use the Unicode cmap encoding (or
+            // the symbol encoding for a symbol font)
+            cmapFmt = font.getCmapTable().getUnicodeFormat();
         }
         if (cmapFmt == null) {
             throw new TableException("Cannot find a suitable cmap table");
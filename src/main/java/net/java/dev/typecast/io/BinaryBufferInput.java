@@ -0,0 +1,264 @@
+/*****************************************************************************
+ * Copyright (C) The Apache Software Foundation. All rights reserved.        *
+ * ------------------------------------------------------------------------- *
+ * This software is published under the terms of the Apache Software License *
+ * version 1.1, a copy of which has been included with this distribution in  *
+ * the LICENSE file.                                                         *
+ *****************************************************************************/
+
+package net.java.dev.typecast.io;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link BinaryInput} reading from a {@link ByteBuffer}.
+ * 
+ * <p>
+ * Positions are relative to the start of the buffer. In contrast to a
+ * {@link DataInputStream}, seeking is a constant time operation. Additionally,
+ * values can be read at absolute offsets without changing the current
+ * position, see e.g. {@link #getUnsignedShort(int)}.
+ * </p>
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class BinaryBufferInput implements BinaryInput {
+
+    private final ByteBuffer _buffer;
+
+    /**
+     * Creates a {@link BinaryBufferInput}.
+     *
+     * @param buffer
+     *        The big endian buffer to read. Reading starts at the current
+     *        position of the buffer. The buffer must not be shared with other
+     *        readers, since reading advances its position.
+     */
+    public BinaryBufferInput(ByteBuffer buffer) {
+        _buffer = buffer;
+    }
+    
+    /**
+     * Creates a {@link BinaryBufferInput} for the next given number of bytes
+     * of the given input.
+     * 
+     * <p>
+     * If the given input is a {@link BinaryBufferInput}, the result is a view
+     * of its buffer and no data is copied. Otherwise, the given number of
+     * bytes is read into a new buffer. In both cases, the given input is
+     * advanced by the given number of bytes.
+     * </p>
+     *
+     * @param in
+     *        The input to read from.
+     * @param length
+     *        The number of bytes to read.
+     */
+    public static BinaryBufferInput slice(DataInput in, int length) throws IOException {
+        if (in instanceof BinaryBufferInput) {
+            ByteBuffer buffer = ((BinaryBufferInput) in).require(length);
+            ByteBuffer result = buffer.slice();
+            ((Buffer) result).limit(length);
+            ((Buffer) buffer).position(buffer.position() + length);
+            return new BinaryBufferInput(result);
+        } else {
+            byte[] data = new byte[length];
+            in.readFully(data);
+            return new BinaryBufferInput(ByteBuffer.wrap(data));
+        }
+    }
+    
+    /**
+     * Creates a {@link BinaryBufferInput} for the given region of this input
+     * without copying and without changing the current position.
+     *
+     * @param offset
+     *        The absolute offset of the region in this input.
+     * @param length
+     *        The number of bytes in the region.
+     */
+    public BinaryBufferInput getInput(int offset, int length) throws IOException {
+        check(offset, length);
+        ByteBuffer result = _buffer.duplicate();
+        ((Buffer) result).limit(offset + length);
+        ((Buffer) result).position(offset);
+        return new BinaryBufferInput(result.slice());
+    }
+    
+    /**
+     * The underlying {@link ByteBuffer}.
+     */
+    public ByteBuffer getBuffer() {
+        return _buffer;
+    }
+    
+    /**
+     * The total number of bytes in this input.
+     */
+    public int getLength() {
+        return _buffer.limit();
+    }
+    
+    @Override
+    public long getPosition() {
+        return _buffer.position();
+    }
+
+    @Override
+    public void setPosition(long pos) throws IOException {
+        if (pos < 0 || pos > _buffer.limit()) {
+            throw new EOFException("Position " + pos + " outside of [0, " + _buffer.limit() + "].");
+        }
+        ((Buffer) _buffer).position((int) pos);
+    }
+
+    /**
+     * Reads an unsigned byte at the given absolute offset without changing
+     * the current position.
+     */
+    public int getUnsignedByte(int offset) throws IOException {
+        check(offset, 1);
+        return _buffer.get(offset) & 0xFF;
+    }
+
+    /**
+     * Reads a signed 16 bit value at the given absolute offset without
+     * changing the current position.
+     */
+    public short getShort(int offset) throws IOException {
+        check(offset, 2);
+        return _buffer.getShort(offset);
+    }
+
+    /**
+     * Reads an unsigned 16 bit value at the given absolute offset without
+     * changing the current position.
+     */
+    public int getUnsignedShort(int offset) throws IOException {
+        check(offset, 2);
+        return _buffer.getShort(offset) & 0xFFFF;
+    }
+
+    /**
+     * Reads a 32 bit value at the given absolute offset without changing the
+     * current position.
+     */
+    public int getInt(int offset) throws IOException {
+        check(offset, 4);
+        return _buffer.getInt(offset);
+    }
+
+    private void check(int offset, int length) throws EOFException {
+        if (offset < 0 || offset > _buffer.limit() - length) {
+            throw new EOFException("Reading " + length + " bytes at " + offset + 
+                " outside of [0, " + _buffer.limit() + "].");
+        }
+    }
+
+    private ByteBuffer require(int length) throws EOFException {
+        if (_buffer.remaining() < length) {
+            throw new EOFException();
+        }
+        return _buffer;
+    }
+
+    @Override
+    public void readFully(byte[] b) throws IOException {
+        readFully(b, 0, b.length);
+    }
+
+    @Override
+    public void readFully(byte[] b, int off, int len) throws IOException {
+        require(len).get(b, off, len);
+    }
+
+    @Override
+    public int skipBytes(int n) throws IOException {
+        int skip = Math.max(0, Math.min(n, _buffer.remaining()));
+        ((Buffer) _buffer).position(_buffer.position() + skip);
+        return skip;
+    }
+
+    @Override
+    public boolean readBoolean() throws IOException {
+        return require(1).get() != 0;
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+        return require(1).get();
+    }
+
+    @Override
+    public int readUnsignedByte() throws IOException {
+        return require(1).get() & 0xFF;
+    }
+
+    @Override
+    public short readShort() throws IOException {
+        return require(2).getShort();
+    }
+
+    @Override
+    public int readUnsignedShort() throws IOException {
+        return require(2).getShort() & 0xFFFF;
+    }
+
+    @Override
+    public char readChar() throws IOException {
+        return require(2).getChar();
+    }
+
+    @Override
+    public int readInt() throws IOException {
+        return require(4).getInt();
+    }
+
+    @Override
+    public long readLong() throws IOException {
+        return require(8).getLong();
+    }
+
+    @Override
+    public float readFloat() throws IOException {
+        return require(4).getFloat();
+    }
+
+    @Override
+    public double readDouble() throws IOException {
+        return require(8).getDouble();
+    }
+
+    @Override
+    public String readLine() throws IOException {
+        if (!_buffer.hasRemaining()) {
+            return null;
+        }
+        StringBuilder result = new StringBuilder();
+        while (_buffer.hasRemaining()) {
+            int c = _buffer.get() & 0xFF;
+            if (c == '\n') {
+                break;
+            }
+            if (c == '\r') {
+                if (_buffer.hasRemaining() && _buffer.get(_buffer.position()) == '\n') {
+                    _buffer.get();
+                }
+                break;
+            }
+            result.append((char) c);
+        }
+        return result.toString();
+    }
+
+    @Override
+    public String readUTF() throws IOException {
+        return DataInputStream.readUTF(this);
+    }
+
+}
@@ -0,0 +1,31 @@
+/*****************************************************************************
+ * Copyright (C) The Apache Software Foundation. All rights reserved.        *
+ * ------------------------------------------------------------------------- *
+ * This software is published under the terms of the Apache Software License *
+ * version 1.1, a copy of which has been included with this distribution in  *
+ * the LICENSE file.                                                         *
+ *****************************************************************************/
+
+package net.java.dev.typecast.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link FontSource} reading from font data in a byte array.
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class ByteArrayFontSource extends ByteBufferFontSource {
+
+    /**
+     * Creates a {@link ByteArrayFontSource}.
+     *
+     * @param fontData
+     *        OpenType/TrueType font file data. The array is not copied and
+     *        must not be modified while the source is in use.
+     */
+    public ByteArrayFontSource(byte[] fontData) {
+        super(ByteBuffer.wrap(fontData));
+    }
+
+}
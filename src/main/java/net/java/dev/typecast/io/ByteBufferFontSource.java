@@ -0,0 +1,57 @@
+/*****************************************************************************
+ * Copyright (C) The Apache Software Foundation. All rights reserved.        *
+ * ------------------------------------------------------------------------- *
+ * This software is published under the terms of the Apache Software License *
+ * version 1.1, a copy of which has been included with this distribution in  *
+ * the LICENSE file.                                                         *
+ *****************************************************************************/
+
+package net.java.dev.typecast.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * {@link FontSource} based on a {@link ByteBuffer}.
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class ByteBufferFontSource implements FontSource {
+
+    private final ByteBuffer _buffer;
+
+    /**
+     * Creates a {@link ByteBufferFontSource}.
+     *
+     * @param buffer
+     *        The font data. The data starts at position zero of the buffer
+     *        and ends at its limit. The buffer is not modified.
+     */
+    public ByteBufferFontSource(ByteBuffer buffer) {
+        _buffer = buffer.asReadOnlyBuffer().order(ByteOrder.BIG_ENDIAN);
+    }
+
+    @Override
+    public int getLength() {
+        return _buffer.limit();
+    }
+
+    @Override
+    public ByteBuffer getBuffer(int offset, int length) throws IOException {
+        if (offset < 0 || length < 0 || offset > getLength() - length) {
+            throw new EOFException("Region [" + offset + ", " + ((long) offset + length) + 
+                "] exceeds font data of length " + getLength() + ".");
+        }
+        ByteBuffer result = _buffer.duplicate();
+        
+        // Note: Cast required for running on Java 8, where ByteBuffer does not
+        // override the Buffer methods.
+        ((Buffer) result).limit(offset + length);
+        ((Buffer) result).position(offset);
+        return result.slice().order(ByteOrder.BIG_ENDIAN);
+    }
+
+}
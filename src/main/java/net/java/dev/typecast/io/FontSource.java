@@ -0,0 +1,71 @@
+/*****************************************************************************
+ * Copyright (C) The Apache Software Foundation. All rights reserved.        *
+ * ------------------------------------------------------------------------- *
+ * This software is published under the terms of the Apache Software License *
+ * version 1.1, a copy of which has been included with this distribution in  *
+ * the LICENSE file.                                                         *
+ *****************************************************************************/
+
+package net.java.dev.typecast.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Random access source of binary font file data.
+ *
+ * <p>
+ * Font tables are read from {@link #getBuffer(int, int) slices} of the font
+ * data without copying the whole file onto the heap.
+ * </p>
+ *
+ * @see ByteArrayFontSource
+ * @see MappedFontSource
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public interface FontSource {
+
+    /**
+     * The total number of bytes in this source.
+     */
+    int getLength();
+
+    /**
+     * A read-only view of the given region of the font data.
+     *
+     * <p>
+     * The returned buffer starts at position zero (corresponding to the given
+     * offset) and is limited to the given length. Its byte order is big endian.
+     * </p>
+     *
+     * @param offset
+     *        The offset of the region from the start of the font data.
+     * @param length
+     *        The number of bytes in the region.
+     * @throws EOFException
+     *         If the region is not completely contained in this source.
+     */
+    ByteBuffer getBuffer(int offset, int length) throws IOException;
+
+    /**
+     * A {@link BinaryInput} reading the given region of the font data.
+     *
+     * @see #getBuffer(int, int)
+     */
+    default BinaryInput getInput(int offset, int length) throws IOException {
+        return new BinaryBufferInput(getBuffer(offset, length));
+    }
+
+    /**
+     * A {@link BinaryInput} reading the font data from the given offset up to
+     * the end.
+     *
+     * @see #getBuffer(int, int)
+     */
+    default BinaryInput getInput(int offset) throws IOException {
+        return getInput(offset, getLength() - offset);
+    }
+
+}
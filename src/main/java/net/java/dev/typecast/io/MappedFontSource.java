@@ -0,0 +1,59 @@
+/*****************************************************************************
+ * Copyright (C) The Apache Software Foundation. All rights reserved.        *
+ * ------------------------------------------------------------------------- *
+ * This software is published under the terms of the Apache Software License *
+ * version 1.1, a copy of which has been included with this distribution in  *
+ * the LICENSE file.                                                         *
+ *****************************************************************************/
+
+package net.java.dev.typecast.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * {@link FontSource} reading from a memory-mapped font file.
+ *
+ * <p>
+ * The file is mapped read-only into memory. Tables are read from slices of the
+ * mapping, the file contents are never copied onto the heap as a whole. The
+ * mapping stays valid until this source is garbage collected, there is no need
+ * to close it explicitly.
+ * </p>
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class MappedFontSource extends ByteBufferFontSource {
+
+    /**
+     * Creates a {@link MappedFontSource}.
+     *
+     * @param file
+     *        The font file to map.
+     */
+    public MappedFontSource(File file) throws IOException {
+        this(file.toPath());
+    }
+
+    /**
+     * Creates a {@link MappedFontSource}.
+     *
+     * @param path
+     *        The font file to map.
+     */
+    public MappedFontSource(Path path) throws IOException {
+        super(map(path));
+    }
+
+    private static MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+}
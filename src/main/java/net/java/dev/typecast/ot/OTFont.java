@@ -18,13 +18,15 @@
 
 package net.java.dev.typecast.ot;
 
-import java.io.ByteArrayInputStream;
-import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.Writer;
 
 import net.java.dev.typecast.io.BinaryIO;
+import net.java.dev.typecast.io.ByteArrayFontSource;
+import net.java.dev.typecast.io.FontSource;
 import net.java.dev.typecast.ot.table.CmapTable;
+import net.java.dev.typecast.ot.table.GdefTable;
+import net.java.dev.typecast.ot.table.GposTable;
 import net.java.dev.typecast.ot.table.GsubTable;
 import net.java.dev.typecast.ot.table.HeadTable;
 import net.java.dev.typecast.ot.table.HheaTable;
@@ -59,10 +61,39 @@ public abstract class OTFont {
      * @see #read(byte[], int)
      */
     public OTFont(byte[] fontData, int tablesOrigin) throws IOException {
+        this(fontData, tablesOrigin, false);
+    }
+    
+    /**
+     * Creates a {@link OTFont} from the given binary font file data.
+     * 
+     * @param lazy
+     *        Whether to read tables only upon first access, see
+     *        {@link TableDirectory#isLazy()}.
+     * 
+     * @see #read(byte[], int)
+     */
+    public OTFont(byte[] fontData, int tablesOrigin, boolean lazy) throws IOException {
         this();
+        _tableDirectory.setLazy(lazy);
         read(fontData, tablesOrigin);
     }
     
+    /**
+     * Creates a {@link OTFont} from the given font data source.
+     * 
+     * @param lazy
+     *        Whether to read tables only upon first access, see
+     *        {@link TableDirectory#isLazy()}.
+     * 
+     * @see #read(FontSource, int)
+     */
+    public OTFont(FontSource source, int tablesOrigin, boolean lazy) throws IOException {
+        this();
+        _tableDirectory.setLazy(lazy);
+        read(source, tablesOrigin);
+    }
+    
     /**
      * @param fontData OpenType/TrueType font file data.
      * @param directoryOffset The Table Directory offset within the file.  For a
@@ -74,36 +105,56 @@ public abstract class OTFont {
      * also zero, but within a Mac resource, it is the beginning of the
      * individual font resource data.
      * @throws java.io.IOException
+     * 
+     * @see #read(FontSource, int, int)
      */
     public void read(byte[] fontData, int tablesOrigin) throws IOException {
-        _tableDirectory.read(fontData);
-
-        DataInputStream dis = new DataInputStream(new ByteArrayInputStream(fontData));
-        dis.mark(fontData.length);
-        dis.reset();
-
-        // Load some prerequisite tables
-        // (These are tables that are referenced by other tables, so we need to load
-        // them first)
-        initTable(dis, tablesOrigin, Table.head);
-
-        // 'hhea' is required by 'hmtx'
-        initTable(dis, tablesOrigin, Table.hhea);
-
-        // 'maxp' is required by 'glyf', 'hmtx', 'loca', and 'vmtx'
-        initTable(dis, tablesOrigin, Table.maxp);
+        read(new ByteArrayFontSource(fontData), tablesOrigin);
+    }
+    
+    /**
+     * Reads this font from the given source.
+     * 
+     * @param source OpenType/TrueType font file data.
+     * @param tablesOrigin The point the table offsets are calculated from. The
+     * table directory is expected at the same offset.
+     * 
+     * @see #read(byte[], int)
+     */
+    public final void read(FontSource source, int tablesOrigin) throws IOException {
+        read(source, tablesOrigin, tablesOrigin);
+    }
+    
+    /**
+     * Reads this font from the given source.
+     * 
+     * @param source OpenType/TrueType font file data.
+     * @param directoryOffset The Table Directory offset within the file. For a
+     * regular TTF/OTF file this will be zero, but for a TTC (Font Collection)
+     * the offset is retrieved from the TTC header.
+     * @param tablesOrigin The point the table offsets are calculated from.
+     * 
+     * @see #read(byte[], int)
+     */
+    public void read(FontSource source, int directoryOffset, int tablesOrigin) throws IOException {
+        _tableDirectory.read(source, directoryOffset, tablesOrigin);
         
-        // 'vhea' is required by 'vmtx'
-        initTable(dis, tablesOrigin, Table.vhea);
-
-        // 'post' is required by 'glyf'
-        initTable(dis, tablesOrigin, Table.post);
+        if (_tableDirectory.isLazy()) {
+            // Tables are read upon first access.
+            return;
+        }
 
-        // Load all the other required tables
-        initTable(dis, tablesOrigin, Table.cmap);
-        initTable(dis, tablesOrigin, Table.hmtx);
-        initTable(dis, tablesOrigin, Table.name);
-        initTable(dis, tablesOrigin, Table.OS_2);
+        // Load the required tables. Tables referenced by other tables (e.g.
+        // 'hhea' and 'maxp' by 'hmtx') are read on demand.
+        initTable(Table.head);
+        initTable(Table.hhea);
+        initTable(Table.maxp);
+        initTable(Table.vhea);
+        initTable(Table.post);
+        initTable(Table.cmap);
+        initTable(Table.hmtx);
+        initTable(Table.name);
+        initTable(Table.OS_2);
     }
     
     public void write(BinaryIO out) throws IOException {
@@ -177,6 +228,14 @@ public abstract class OTFont {
         return getTableDirectory().gsub();
     }
 
+    public GposTable getGposTable() {
+        return getTableDirectory().gpos();
+    }
+
+    public GdefTable getGdefTable() {
+        return getTableDirectory().gdef();
+    }
+
     public int getAscent() {
         return getHheaTable().getAscender();
     }
@@ -191,13 +250,16 @@ public abstract class OTFont {
 
     public abstract Glyph getGlyph(int i);
 
-    protected Table initTable(DataInputStream dis, int tablesOrigin, int tag) throws IOException {
-        TableDirectory directory = getTableDirectory();
-        TableDirectory.Entry entry = directory.getEntryByTag(tag);
-        if (entry == null) {
-            return null;
-        }
-        return entry.initTable(dis, tablesOrigin);
+    /**
+     * Creates a {@link Shaper} converting text to positioned glyphs of this
+     * font.
+     */
+    public Shaper createShaper() {
+        return new Shaper(this);
+    }
+
+    protected Table initTable(int tag) throws IOException {
+        return getTableDirectory().initTable(tag);
     }
 
     @Override
@@ -18,17 +18,17 @@
 
 package net.java.dev.typecast.ot;
 
-import java.io.BufferedInputStream;
-import java.io.DataInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.nio.file.Files;
+import net.java.dev.typecast.io.BinaryInput;
+import net.java.dev.typecast.io.FontSource;
+import net.java.dev.typecast.io.MappedFontSource;
 import net.java.dev.typecast.ot.mac.ResourceHeader;
 import net.java.dev.typecast.ot.mac.ResourceMap;
 import net.java.dev.typecast.ot.mac.ResourceReference;
 import net.java.dev.typecast.ot.mac.ResourceType;
 import net.java.dev.typecast.ot.table.TTCHeader;
+import net.java.dev.typecast.ot.table.TablePool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,6 +40,7 @@ class OTFontCollection {
 
     private TTCHeader _ttcHeader;
     private OTFont[] _fonts;
+    private final TablePool _tablePool = new TablePool();
 
     private static final Logger logger = LoggerFactory.getLogger(OTFontCollection.class);
 
@@ -55,10 +56,27 @@ class OTFontCollection {
         return _ttcHeader;
     }
 
+    /**
+     * The {@link TablePool} with the tables shared between the fonts of this
+     * collection.
+     */
+    public TablePool getTablePool() {
+        return _tablePool;
+    }
+
     /**
      * @param file The OpenType font file
      */
     public OTFontCollection(File file) throws IOException {
+        this(file, false);
+    }
+
+    /**
+     * @param file The OpenType font file
+     * @param lazy Whether font tables are read only upon first access, see
+     * {@link net.java.dev.typecast.ot.table.TableDirectory#isLazy()}.
+     */
+    public OTFontCollection(File file, boolean lazy) throws IOException {
         if (!file.exists()) {
             throw new IOException();
         }
@@ -74,10 +92,9 @@ class OTFontCollection {
             resourceFork = true;
         }
 
-        DataInputStream dis = new DataInputStream(
-            new BufferedInputStream(
-                new FileInputStream(file), (int) file.length()));
-        dis.mark((int) file.length());
+        // The file is mapped only once, all fonts share the same data.
+        FontSource source = new MappedFontSource(file);
+        BinaryInput dis = source.getInput(0);
 
         if (resourceFork || file.getPath().endsWith(".dfont")) {
 
@@ -85,8 +102,7 @@ class OTFontCollection {
             ResourceHeader resourceHeader = new ResourceHeader(dis);
 
             // Seek to the map offset and read the map
-            dis.reset();
-            dis.skip(resourceHeader.getMapOffset());
+            dis.setPosition(resourceHeader.getMapOffset());
             ResourceMap map = new ResourceMap(dis);
 
             // Dump some info about the font suitcase
@@ -109,29 +125,37 @@ class OTFontCollection {
                 ResourceReference resourceReference = resourceType.getReference(i);
                 int offset = resourceHeader.getDataOffset() +
                         resourceReference.getDataOffset() + 4;
-                byte[] fontData = Files.readAllBytes(file.toPath());
-                _fonts[i] = new TTFont(fontData, offset /*, offset*/);
+                _fonts[i] = createFont(source, offset, offset, lazy);
             }
 
         } else if (TTCHeader.isTTC(dis)) {
 
             // This is a TrueType font collection
-            dis.reset();
+            dis.setPosition(0);
             _ttcHeader = new TTCHeader(dis);
             _fonts = new OTFont[_ttcHeader.getDirectoryCount()];
             for (int i = 0; i < _ttcHeader.getDirectoryCount(); i++) {
-                byte[] fontData = Files.readAllBytes(file.toPath());
-                _fonts[i] = new TTFont(fontData, _ttcHeader.getTableDirectory(i));
+                // Table offsets in a TTC are measured from the beginning of
+                // the file.
+                _fonts[i] = createFont(source, _ttcHeader.getTableDirectory(i), 0, lazy);
             }
         } else {
 
             // This is a standalone font file
             _fonts = new OTFont[1];
-            byte[] fontData = Files.readAllBytes(file.toPath());
-            _fonts[0] = new TTFont(fontData, 0);
-
-            // TODO T2Fonts
+            _fonts[0] = createFont(source, 0, 0, lazy);
         }
-        dis.close();
+    }
+
+    /**
+     * Creates a {@link T2Font} for fonts with PostScript outlines and a
+     * {@link TTFont} otherwise.
+     */
+    private OTFont createFont(FontSource source, int directoryOffset, int tablesOrigin, boolean lazy) throws IOException {
+        OTFont font = T2Font.isT2Font(source, directoryOffset) ? new T2Font() : new TTFont();
+        font.getTableDirectory().setLazy(lazy);
+        font.getTableDirectory().setTablePool(_tablePool);
+        font.read(source, directoryOffset, tablesOrigin);
+        return font;
     }
 }
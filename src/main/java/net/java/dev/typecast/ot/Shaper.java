@@ -0,0 +1,352 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot;
+
+import java.util.Arrays;
+
+import net.java.dev.typecast.ot.table.CmapFormat;
+import net.java.dev.typecast.ot.table.CmapTable;
+import net.java.dev.typecast.ot.table.FeaturePlan;
+import net.java.dev.typecast.ot.table.GdefTable;
+import net.java.dev.typecast.ot.table.GlyphBuffer;
+import net.java.dev.typecast.ot.table.GposTable;
+import net.java.dev.typecast.ot.table.GsubTable;
+import net.java.dev.typecast.ot.table.HmtxTable;
+import net.java.dev.typecast.ot.table.KernTable;
+import net.java.dev.typecast.ot.table.LookupContext;
+
+/**
+ * Converts text to positioned glyphs of an {@link OTFont}.
+ *
+ * <p>
+ * Shaping maps the characters of the text to glyphs using the Unicode
+ * <code>cmap</code> subtable, applies the substitution features from the
+ * <code>GSUB</code> table, initializes the advances from the
+ * <code>hmtx</code> table, and applies the positioning features from the
+ * <code>GPOS</code> table. If the font has no <code>GPOS</code> kerning, the
+ * legacy <code>kern</code> table is used instead.
+ * </p>
+ *
+ * <p>
+ * A {@link Shaper} reuses its {@link GlyphBuffer} and all other internal
+ * state for each call to {@link #shape(CharSequence)}, so shaping does not
+ * allocate objects per glyph. A {@link Shaper} is not safe for use by
+ * multiple threads, create a separate instance for each thread instead.
+ * </p>
+ *
+ * @see OTFont#createShaper()
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class Shaper {
+
+    /**
+     * The substitution features applied by default.
+     */
+    public static final String[] DEFAULT_SUBSTITUTION_FEATURES = {
+        "ccmp", "locl", "rlig", "liga", "clig", "calt",
+    };
+
+    /**
+     * The positioning features applied by default.
+     */
+    public static final String[] DEFAULT_POSITIONING_FEATURES = {
+        "kern", "mark", "mkmk",
+    };
+
+    private static final String FEATURE_KERN = "kern";
+
+    private static final int[] NO_LOOKUPS = {};
+
+    private final CmapFormat _cmap;
+
+    private final HmtxTable _hmtx;
+
+    private final GsubTable _gsub;
+
+    private final GposTable _gpos;
+
+    private final GdefTable _gdef;
+
+    private final KernTable _kern;
+
+    private final LookupContext _gsubContext;
+
+    private final LookupContext _gposContext;
+
+    private final GlyphBuffer _buffer = new GlyphBuffer();
+
+    private String _script;
+
+    private String _language;
+
+    private String[] _substitutionFeatures = DEFAULT_SUBSTITUTION_FEATURES;
+
+    private String[] _positioningFeatures = DEFAULT_POSITIONING_FEATURES;
+
+    /**
+     * The lookups to apply, resolved upon first use after a change of the
+     * script, language, or features.
+     */
+    private int[] _substitutionLookups;
+
+    private int[] _positioningLookups;
+
+    private boolean _useKernTable;
+
+    /**
+     * Buffer for the code points of the text to shape.
+     */
+    private int[] _codePoints = new int[64];
+
+    /**
+     * Buffer for the index of each code point in the text to shape.
+     */
+    private int[] _clusters = new int[64];
+
+    /**
+     * Creates a {@link Shaper} for the given font.
+     */
+    public Shaper(OTFont font) {
+        CmapTable cmap = font.getCmapTable();
+        _cmap = cmap == null ? null : cmap.getUnicodeFormat();
+        _hmtx = font.getHmtxTable();
+        _gsub = font.getGsubTable();
+        _gpos = font.getGposTable();
+        _gdef = font.getGdefTable();
+        _kern = font.getTableDirectory().kern();
+
+        _gsubContext = createContext(_gsub == null ? null : new LookupContext(_gsub.getLookupList()));
+        _gposContext = createContext(_gpos == null ? null : new LookupContext(_gpos.getLookupList()));
+    }
+
+    private LookupContext createContext(LookupContext context) {
+        if (context != null) {
+            context.setGdefTable(_gdef);
+            context.setBuffer(_buffer);
+        }
+        return context;
+    }
+
+    /**
+     * The script tag to shape text for, <code>null</code> for the default
+     * script of the font.
+     */
+    public String getScript() {
+        return _script;
+    }
+
+    /**
+     * @see #getScript()
+     */
+    public void setScript(String script) {
+        _script = script;
+        invalidatePlans();
+    }
+
+    /**
+     * The language system tag to shape text for, <code>null</code> for the
+     * default language system of the script.
+     */
+    public String getLanguage() {
+        return _language;
+    }
+
+    /**
+     * @see #getLanguage()
+     */
+    public void setLanguage(String language) {
+        _language = language;
+        invalidatePlans();
+    }
+
+    /**
+     * The tags of the <code>GSUB</code> features to apply.
+     *
+     * @see #DEFAULT_SUBSTITUTION_FEATURES
+     */
+    public String[] getSubstitutionFeatures() {
+        return _substitutionFeatures.clone();
+    }
+
+    /**
+     * @see #getSubstitutionFeatures()
+     */
+    public void setSubstitutionFeatures(String... features) {
+        _substitutionFeatures = features.clone();
+        invalidatePlans();
+    }
+
+    /**
+     * The tags of the <code>GPOS</code> features to apply.
+     *
+     * <p>
+     * If this list contains <code>kern</code> and the font does not support
+     * kerning in its <code>GPOS</code> table, the <code>kern</code> table is
+     * applied instead.
+     * </p>
+     *
+     * @see #DEFAULT_POSITIONING_FEATURES
+     */
+    public String[] getPositioningFeatures() {
+        return _positioningFeatures.clone();
+    }
+
+    /**
+     * @see #getPositioningFeatures()
+     */
+    public void setPositioningFeatures(String... features) {
+        _positioningFeatures = features.clone();
+        invalidatePlans();
+    }
+
+    private void invalidatePlans() {
+        _substitutionLookups = null;
+        _positioningLookups = null;
+    }
+
+    private void resolvePlans() {
+        if (_substitutionLookups != null) {
+            return;
+        }
+
+        _substitutionLookups = lookups(_gsub == null ? null
+            : _gsub.getFeaturePlan(_script, _language, _substitutionFeatures));
+
+        FeaturePlan positioning = _gpos == null ? null
+            : _gpos.getFeaturePlan(_script, _language, _positioningFeatures);
+        _positioningLookups = lookups(positioning);
+
+        _useKernTable = _kern != null && Arrays.asList(_positioningFeatures).contains(FEATURE_KERN)
+            && (_gpos == null || _gpos.getFeaturePlan(_script, _language, FEATURE_KERN).isEmpty());
+    }
+
+    private static int[] lookups(FeaturePlan plan) {
+        return plan == null ? NO_LOOKUPS : plan.getLookupIndices();
+    }
+
+    /**
+     * Shapes the given text.
+     *
+     * @return The internal buffer of this {@link Shaper} with the positioned
+     *         glyphs. The clusters of the glyphs are the indices of the
+     *         characters in the given text they were created from. The buffer
+     *         is only valid until the next call to this {@link Shaper}.
+     */
+    public GlyphBuffer shape(CharSequence text) {
+        return shape(text, 0, text.length());
+    }
+
+    /**
+     * Shapes the characters of the given text from the given start index to
+     * the given end index (exclusive).
+     *
+     * @see #shape(CharSequence)
+     */
+    public GlyphBuffer shape(CharSequence text, int start, int end) {
+        int length = end - start;
+        if (_codePoints.length < length) {
+            _codePoints = new int[Math.max(length, 2 * _codePoints.length)];
+            _clusters = new int[_codePoints.length];
+        }
+
+        int[] codePoints = _codePoints;
+        int[] clusters = _clusters;
+        int cnt = 0;
+        for (int n = start; n < end; ) {
+            clusters[cnt] = n;
+            char ch = text.charAt(n++);
+            if (Character.isHighSurrogate(ch) && n < end) {
+                char low = text.charAt(n);
+                if (Character.isLowSurrogate(low)) {
+                    codePoints[cnt++] = Character.toCodePoint(ch, low);
+                    n++;
+                    continue;
+                }
+            }
+            codePoints[cnt++] = ch;
+        }
+        return shape(codePoints, clusters, cnt);
+    }
+
+    /**
+     * Shapes the given code points.
+     *
+     * @param codePoints
+     *        The Unicode code points to shape.
+     * @param clusters
+     *        The cluster of each code point, e.g. its index in the original
+     *        text.
+     * @param length
+     *        The number of code points to shape.
+     *
+     * @see #shape(CharSequence)
+     */
+    public GlyphBuffer shape(int[] codePoints, int[] clusters, int length) {
+        GlyphBuffer buffer = _buffer;
+        buffer.clear();
+        CmapFormat cmap = _cmap;
+        for (int n = 0; n < length; n++) {
+            buffer.add(cmap == null ? 0 : cmap.mapCharCode(codePoints[n]), clusters[n]);
+        }
+
+        resolvePlans();
+        if (_gsubContext != null && _substitutionLookups.length > 0) {
+            _gsub.apply(_gsubContext, _substitutionLookups);
+        }
+
+        if (_hmtx != null) {
+            buffer.initPositions(_hmtx);
+        }
+
+        if (_gposContext != null && _positioningLookups.length > 0) {
+            _gpos.apply(_gposContext, _positioningLookups);
+        }
+        if (_useKernTable) {
+            applyKernTable(buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * Adjusts the advances of all pairs of adjacent glyphs by the horizontal
+     * values from the <code>kern</code> table skipping marks.
+     * 
+     * @see KernTable#getKerning(int, int)
+     */
+    private void applyKernTable(GlyphBuffer buffer) {
+        KernTable kern = _kern;
+        GdefTable gdef = _gdef;
+        int[] glyphs = buffer.getGlyphs();
+        int previous = -1;
+        for (int n = 0, cnt = buffer.getLength(); n < cnt; n++) {
+            int glyph = glyphs[n];
+            if (gdef != null && gdef.isMark(glyph)) {
+                continue;
+            }
+            if (previous >= 0) {
+                int value = kern.getKerning(glyphs[previous], glyph);
+                if (value != 0) {
+                    buffer.adjust(previous, 0, 0, value, 0);
+                }
+            }
+            previous = n;
+        }
+    }
+
+}
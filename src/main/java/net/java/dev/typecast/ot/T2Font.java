@@ -0,0 +1,278 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot;
+
+import java.io.IOException;
+
+import net.java.dev.typecast.cff.CffFont;
+import net.java.dev.typecast.cff.CharstringType2;
+import net.java.dev.typecast.cff.Outline;
+import net.java.dev.typecast.cff.T2Interpreter;
+import net.java.dev.typecast.io.FontSource;
+import net.java.dev.typecast.ot.table.Cff2Table;
+import net.java.dev.typecast.ot.table.CffTable;
+import net.java.dev.typecast.ot.table.GlyphCache;
+import net.java.dev.typecast.ot.table.HmtxTable;
+import net.java.dev.typecast.ot.table.KernTable;
+import net.java.dev.typecast.ot.table.TableDirectory;
+
+/**
+ * OpenType font with PostScript outlines in a {@link CffTable} or a
+ * {@link Cff2Table}.
+ * 
+ * <p>
+ * Only the table records and the CFF INDEX structures are read when the font
+ * is loaded. Charstrings are decoded when the corresponding glyph is
+ * requested through {@link #getGlyph(int)}.
+ * </p>
+ * 
+ * <p>
+ * Glyphs of a variable font with a {@link Cff2Table} are created for the
+ * instance selected by {@link #setVariationCoordinates(float[])}.
+ * </p>
+ * 
+ * <p>
+ * With an {@link #setOutlineCache(GlyphCache) outline cache}, decoded
+ * outlines are kept, so that repeated requests for the same glyph do not
+ * interpret its charstring and subroutines again.
+ * </p>
+ *
+ * @see TTFont
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class T2Font extends OTFont {
+    
+    private static final float[] DEFAULT_INSTANCE = {};
+    
+    /**
+     * Replaced (never modified) when another instance is selected, see
+     * {@link #setVariationCoordinates(float[])}.
+     */
+    private volatile float[] _variationCoordinates = DEFAULT_INSTANCE;
+    
+    private GlyphCache<Outline> _outlineCache;
+    
+    /**
+     * Interpreter reused for decoding outlines, one per thread since an
+     * interpreter keeps its stacks and recorded outline as state.
+     */
+    private final ThreadLocal<T2Interpreter> _interpreter =
+        ThreadLocal.withInitial(T2Interpreter::new);
+
+    /** 
+     * Creates a {@link T2Font}.
+     */
+    public T2Font() {
+        super();
+    }
+
+    /**
+     * Creates a {@link T2Font} from the given binary font file data.
+     * 
+     * @see #read(byte[], int)
+     */
+    public T2Font(byte[] fontData, int tablesOrigin) throws IOException {
+        super(fontData, tablesOrigin);
+    }
+
+    /**
+     * Creates a {@link T2Font} from the given binary font file data.
+     * 
+     * @param lazy
+     *        Whether to read tables only upon first access, see
+     *        {@link TableDirectory#isLazy()}.
+     * 
+     * @see #read(byte[], int)
+     */
+    public T2Font(byte[] fontData, int tablesOrigin, boolean lazy) throws IOException {
+        super(fontData, tablesOrigin, lazy);
+    }
+
+    /**
+     * Creates a {@link T2Font} from the given font data source.
+     * 
+     * @param lazy
+     *        Whether to read tables only upon first access, see
+     *        {@link TableDirectory#isLazy()}.
+     * 
+     * @see #read(FontSource, int)
+     */
+    public T2Font(FontSource source, int tablesOrigin, boolean lazy) throws IOException {
+        super(source, tablesOrigin, lazy);
+    }
+
+    @Override
+    public void read(FontSource source, int directoryOffset, int tablesOrigin) throws IOException {
+        super.read(source, directoryOffset, tablesOrigin);
+        
+        if (!getTableDirectory().isLazy()) {
+            getTableDirectory().initTables();
+        }
+    }
+
+    public CffTable getCffTable() {
+        return getTableDirectory().cff();
+    }
+
+    /**
+     * The {@link Cff2Table} of a font with CFF2 outlines, <code>null</code>
+     * if the outlines are stored in a {@link CffTable}.
+     */
+    public Cff2Table getCff2Table() {
+        return getTableDirectory().cff2();
+    }
+
+    /**
+     * The normalized coordinates (in the range <code>-1..1</code>, in the
+     * order of the 'fvar' axes) of the instance created by
+     * {@link #getGlyph(int)} for a font with a {@link Cff2Table}.
+     * 
+     * <p>
+     * An empty array selects the default instance.
+     * </p>
+     */
+    public float[] getVariationCoordinates() {
+        return _variationCoordinates.clone();
+    }
+
+    /**
+     * @see #getVariationCoordinates()
+     */
+    public void setVariationCoordinates(float[] coords) {
+        float[] coordinates = coords.clone();
+        
+        GlyphCache<Outline> cache = _outlineCache;
+        if (cache != null && getCffTable() == null) {
+            // Cached outlines belong to the former instance. Switching while
+            // holding the cache's lock prevents getOutline() from adding an
+            // outline of the former instance after clearing.
+            synchronized (cache) {
+                _variationCoordinates = coordinates;
+                cache.clear();
+            }
+        } else {
+            _variationCoordinates = coordinates;
+        }
+    }
+
+    /**
+     * Optional cache for outlines created by {@link #getOutline(int)}.
+     * 
+     * <p>
+     * For a variable font, the cache holds outlines of the current
+     * {@link #getVariationCoordinates() instance} and is cleared when another
+     * instance is selected.
+     * </p>
+     * 
+     * @see #createOutlineCache(long)
+     */
+    public GlyphCache<Outline> getOutlineCache() {
+        return _outlineCache;
+    }
+
+    /**
+     * @see #getOutlineCache()
+     */
+    public void setOutlineCache(GlyphCache<Outline> outlineCache) {
+        _outlineCache = outlineCache;
+    }
+
+    /**
+     * Creates a {@link GlyphCache} for outlines limited by their estimated
+     * memory footprint.
+     * 
+     * @param maxBytes
+     *        The approximate number of bytes the cached outlines may occupy.
+     * 
+     * @see #setOutlineCache(GlyphCache)
+     */
+    public static GlyphCache<Outline> createOutlineCache(long maxBytes) {
+        return new GlyphCache<>(maxBytes, Outline::getByteSize);
+    }
+
+    /**
+     * The decoded outline of the given glyph.
+     * 
+     * @return The outline, or <code>null</code>, if the glyph's charstring
+     *         is malformed.
+     * 
+     * @see #getOutlineCache()
+     */
+    public Outline getOutline(int i) {
+        GlyphCache<Outline> cache = _outlineCache;
+        if (cache != null) {
+            Outline cached = cache.get(i);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        
+        T2Interpreter t2i = _interpreter.get();
+        Cff2Table cff2 = getCffTable() == null ? getCff2Table() : null;
+        Outline result;
+        if (cff2 != null) {
+            float[] coords = _variationCoordinates;
+            result = t2i.createOutline(cff2, i, coords);
+            if (cache != null) {
+                synchronized (cache) {
+                    // Another instance may have been selected in the meantime.
+                    if (coords == _variationCoordinates) {
+                        cache.put(i, result);
+                    }
+                }
+            }
+        } else {
+            result = t2i.createOutline((CharstringType2) getCffFont().getCharstring(i));
+            if (cache != null) {
+                cache.put(i, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The {@link CffFont} with the outlines of this font.
+     * 
+     * <p>
+     * The CFF data of an OpenType font contains exactly one font.
+     * </p>
+     */
+    public CffFont getCffFont() {
+        return getCffTable().getFont(0);
+    }
+
+    public KernTable getKernTable() {
+        return getTableDirectory().kern();
+    }
+
+    @Override
+    public Glyph getGlyph(int i) {
+        HmtxTable hmtxTable = getHmtxTable();
+        return new T2Glyph(getOutline(i), hmtxTable.getLeftSideBearing(i), hmtxTable.getAdvanceWidth(i));
+    }
+
+    /**
+     * Whether the font with the table directory at the given offset contains
+     * PostScript outlines and should be read as {@link T2Font}.
+     */
+    public static boolean isT2Font(FontSource source, int directoryOffset) throws IOException {
+        return source.getInput(directoryOffset).readInt() == TableDirectory.OPEN_TYPE;
+    }
+
+}
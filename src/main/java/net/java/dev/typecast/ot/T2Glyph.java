@@ -20,7 +20,9 @@ package net.java.dev.typecast.ot;
 import java.awt.Rectangle;
 import java.awt.geom.Rectangle2D;
 import net.java.dev.typecast.cff.CharstringType2;
+import net.java.dev.typecast.cff.Outline;
 import net.java.dev.typecast.cff.T2Interpreter;
+import net.java.dev.typecast.ot.table.Cff2Table;
 
 /**
  * An individual Type 2 Charstring glyph within a font.
@@ -43,12 +45,80 @@ public class T2Glyph extends Glyph {
             CharstringType2 cs,
             short lsb,
             int advance) {
+        this(new T2Interpreter(), cs, lsb, advance);
+    }
+
+    private T2Glyph(T2Interpreter t2i, CharstringType2 cs, short lsb, int advance) {
+        this(t2i, t2i.execute(cs), lsb, advance);
+    }
+
+    /**
+     * Construct a Glyph from the outline of a CFF2 charstring.
+     * @param cff2 The table containing the charstring.
+     * @param gid The glyph index.
+     * @param coords The normalized variation coordinates of the instance.
+     * @param lsb The Left Side Bearing.
+     * @param advance The advance width.
+     * 
+     * @see T2Interpreter#execute(Cff2Table, int, float[])
+     */
+    public T2Glyph(
+            Cff2Table cff2,
+            int gid,
+            float[] coords,
+            short lsb,
+            int advance) {
+        this(new T2Interpreter(), cff2, gid, coords, lsb, advance);
+    }
+
+    private T2Glyph(T2Interpreter t2i, Cff2Table cff2, int gid, float[] coords, short lsb, int advance) {
+        this(t2i, t2i.execute(cff2, gid, coords), lsb, advance);
+    }
+
+    /**
+     * Construct a Glyph from a decoded outline.
+     * @param outline The outline, or <code>null</code> for a malformed
+     *        charstring, which results in an empty glyph.
+     * @param lsb The Left Side Bearing.
+     * @param advance The advance width.
+     * 
+     * @see T2Interpreter#createOutline(CharstringType2)
+     */
+    public T2Glyph(
+            Outline outline,
+            short lsb,
+            int advance) {
         _leftSideBearing = lsb;
         _advanceWidth = advance;
-        T2Interpreter t2i = new T2Interpreter();
-        _points = t2i.execute(cs);
-        _hstems = t2i.getHStems();
-        _vstems = t2i.getVStems();
+        if (outline == null) {
+            _points = new Point[0];
+            _hstems = new Integer[0];
+            _vstems = new Integer[0];
+        } else {
+            _points = outline.toPoints();
+            _hstems = new Integer[outline.getHStemCount()];
+            for (int i = 0; i < _hstems.length; i++) {
+                _hstems[i] = outline.getHStem(i);
+            }
+            _vstems = new Integer[outline.getVStemCount()];
+            for (int i = 0; i < _vstems.length; i++) {
+                _vstems[i] = outline.getVStem(i);
+            }
+        }
+    }
+
+    private T2Glyph(T2Interpreter t2i, Point[] points, short lsb, int advance) {
+        _leftSideBearing = lsb;
+        _advanceWidth = advance;
+        if (points == null) {
+            _points = new Point[0];
+            _hstems = new Integer[0];
+            _vstems = new Integer[0];
+        } else {
+            _points = points;
+            _hstems = t2i.getHStems();
+            _vstems = t2i.getVStems();
+        }
     }
 
     @Override
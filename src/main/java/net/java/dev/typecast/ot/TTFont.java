@@ -18,18 +18,18 @@
 
 package net.java.dev.typecast.ot;
 
-import java.io.ByteArrayInputStream;
-import java.io.DataInputStream;
 import java.io.IOException;
 
+import net.java.dev.typecast.io.FontSource;
+
 import net.java.dev.typecast.ot.table.GaspTable;
 import net.java.dev.typecast.ot.table.GlyfTable;
+import net.java.dev.typecast.ot.table.GlyphCache;
 import net.java.dev.typecast.ot.table.HdmxTable;
 import net.java.dev.typecast.ot.table.HmtxTable;
 import net.java.dev.typecast.ot.table.KernTable;
-import net.java.dev.typecast.ot.table.LocaTable;
 import net.java.dev.typecast.ot.table.SVGTable;
-import net.java.dev.typecast.ot.table.Table;
+import net.java.dev.typecast.ot.table.TableDirectory;
 import net.java.dev.typecast.ot.table.VdmxTable;
 
 /**
@@ -39,6 +39,8 @@ import net.java.dev.typecast.ot.table.VdmxTable;
  */
 public class TTFont extends OTFont {
    
+    private GlyphCache<TTGlyph> _glyphCache;
+
     /** 
      * Creates a {@link TTFont}.
      */
@@ -55,29 +57,39 @@ public class TTFont extends OTFont {
         super(fontData, tablesOrigin);
     }
 
+    /**
+     * Creates a {@link TTFont} from the given binary font file data.
+     * 
+     * @param lazy
+     *        Whether to read tables only upon first access, see
+     *        {@link TableDirectory#isLazy()}.
+     * 
+     * @see #read(byte[], int)
+     */
+    public TTFont(byte[] fontData, int tablesOrigin, boolean lazy) throws IOException {
+        super(fontData, tablesOrigin, lazy);
+    }
+
+    /**
+     * Creates a {@link TTFont} from the given font data source.
+     * 
+     * @param lazy
+     *        Whether to read tables only upon first access, see
+     *        {@link TableDirectory#isLazy()}.
+     * 
+     * @see #read(FontSource, int)
+     */
+    public TTFont(FontSource source, int tablesOrigin, boolean lazy) throws IOException {
+        super(source, tablesOrigin, lazy);
+    }
+
     @Override
-    public void read(byte[] fontData, int tablesOrigin) throws IOException {
-        super.read(fontData, tablesOrigin);
-
-        DataInputStream dis = new DataInputStream(new ByteArrayInputStream(fontData));
-        dis.mark(fontData.length);
-        dis.reset();
-
-        // 'loca' is required by 'glyf'
-        LocaTable loca = (LocaTable) initTable(dis, tablesOrigin, Table.loca);
-        if (loca != null) {
-            // If this is a TrueType outline, then we'll have at least the
-            // 'glyf' table (along with the 'loca' table)
-            initTable(dis, tablesOrigin, Table.glyf);
-        }
-        
-        initTable(dis, tablesOrigin, Table.svg);
-        initTable(dis, tablesOrigin, Table.gasp);
-        initTable(dis, tablesOrigin, Table.kern);
-        initTable(dis, tablesOrigin, Table.hdmx);
-        initTable(dis, tablesOrigin, Table.VDMX);
+    public void read(FontSource source, int directoryOffset, int tablesOrigin) throws IOException {
+        super.read(source, directoryOffset, tablesOrigin);
         
-        getTableDirectory().initTables(dis, tablesOrigin);
+        if (!getTableDirectory().isLazy()) {
+            getTableDirectory().initTables();
+        }
     }
 
     public GlyfTable getGlyfTable() {
@@ -107,10 +119,58 @@ public class TTFont extends OTFont {
         return getTableDirectory().vdmx();
     }
 
+    /**
+     * Optional cache for glyphs created by {@link #getGlyph(int)}.
+     * 
+     * <p>
+     * Note: Glyphs retrieved from the cache are shared between all callers
+     * and must not be modified (e.g. by {@link TTGlyph#scale(int)}).
+     * </p>
+     * 
+     * @see #createGlyphCache(long)
+     * @see GlyfTable#setDescriptionCache(GlyphCache)
+     */
+    public GlyphCache<TTGlyph> getGlyphCache() {
+        return _glyphCache;
+    }
+
+    /**
+     * @see #getGlyphCache()
+     */
+    public void setGlyphCache(GlyphCache<TTGlyph> glyphCache) {
+        _glyphCache = glyphCache;
+    }
+
+    /**
+     * Creates a {@link GlyphCache} for glyphs limited by the estimated
+     * memory footprint of their point arrays.
+     * 
+     * @param maxBytes
+     *        The approximate number of bytes the cached glyphs may occupy.
+     * 
+     * @see #setGlyphCache(GlyphCache)
+     */
+    public static GlyphCache<TTGlyph> createGlyphCache(long maxBytes) {
+        return new GlyphCache<>(maxBytes, glyph -> 48 + 40 * glyph.getPointCount());
+    }
+
+    @Override
     public Glyph getGlyph(int i) {
+        GlyphCache<TTGlyph> cache = _glyphCache;
+        if (cache != null) {
+            TTGlyph cached = cache.get(i);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        
         HmtxTable hmtxTable = getHmtxTable();
-        return new TTGlyph(getGlyfTable().getDescription(i), 
+        TTGlyph result = new TTGlyph(getGlyfTable().getDescription(i), 
             hmtxTable.getLeftSideBearing(i), hmtxTable.getAdvanceWidth(i));
+        if (cache != null) {
+            cache.put(i, result);
+        }
+        return result;
     }
 
 }
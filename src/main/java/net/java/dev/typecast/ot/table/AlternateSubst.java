@@ -0,0 +1,46 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.io.IOException;
+
+import net.java.dev.typecast.io.BinaryInput;
+
+/**
+ * Alternate substitution subtable: Replaces a single glyph with one of
+ * several alternatives.
+ *
+ * @see LookupContext#setAlternate(int)
+ * @see "https://docs.microsoft.com/en-us/typography/opentype/spec/gsub#lookuptype-3-alternate-substitution-subtable"
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public abstract class AlternateSubst extends LookupSubtable {
+
+    public abstract int getFormat();
+
+    public static AlternateSubst read(BinaryInput in, int offset) throws IOException {
+        in.setPosition(offset);
+        int format = in.readUnsignedShort();
+        if (format == 1) {
+            return new AlternateSubstFormat1(in, offset);
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.io.IOException;
+
+import net.java.dev.typecast.io.BinaryInput;
+
+/**
+ * Alternate substitution format 1.
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class AlternateSubstFormat1 extends AlternateSubst {
+
+    private final Coverage _coverage;
+    
+    /**
+     * The alternate glyphs, indexed by coverage index.
+     */
+    private final int[][] _alternateSets;
+
+    /** Creates new AlternateSubstFormat1 */
+    AlternateSubstFormat1(BinaryInput in, int offset) throws IOException {
+        int coverageOffset = in.readUnsignedShort();
+        int alternateSetCount = in.readUnsignedShort();
+        int[] alternateSetOffsets = new int[alternateSetCount];
+        for (int i = 0; i < alternateSetCount; i++) {
+            alternateSetOffsets[i] = in.readUnsignedShort();
+        }
+        
+        in.setPosition(offset + coverageOffset);
+        _coverage = Coverage.read(in);
+        
+        _alternateSets = new int[alternateSetCount][];
+        for (int i = 0; i < alternateSetCount; i++) {
+            in.setPosition(offset + alternateSetOffsets[i]);
+            int glyphCount = in.readUnsignedShort();
+            int[] alternates = new int[glyphCount];
+            for (int n = 0; n < glyphCount; n++) {
+                alternates[n] = in.readUnsignedShort();
+            }
+            _alternateSets[i] = alternates;
+        }
+    }
+
+    @Override
+    public int getFormat() {
+        return 1;
+    }
+
+    /**
+     * The alternatives for the given glyph, or <code>null</code>, if the glyph
+     * is not covered.
+     */
+    public int[] getAlternates(int glyphId) {
+        int i = _coverage.findGlyph(glyphId);
+        if (i < 0 || i >= _alternateSets.length) {
+            return null;
+        }
+        return _alternateSets[i];
+    }
+
+    @Override
+    public boolean apply(LookupContext context) {
+        GlyphBuffer buffer = context.getBuffer();
+        int index = context.getPosition();
+        int[] alternates = getAlternates(buffer.getGlyph(index));
+        if (alternates == null || alternates.length == 0) {
+            return false;
+        }
+        int alternate = Math.min(Math.max(context.getAlternate(), 0), alternates.length - 1);
+        buffer.setGlyph(index, alternates[alternate]);
+        context.setPosition(index + 1);
+        return true;
+    }
+
+    @Override
+    public String getTypeAsString() {
+        return "AlternateSubstFormat1";
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("                alternateSetCount = " + _alternateSets.length + "\n");
+        for (int[] alternates : _alternateSets) {
+            sb.append("                alternates        = " + LangSys.toString(alternates) + "\n");
+        }
+        sb.append(_coverage.toString());
+        return sb.toString();
+    }
+}
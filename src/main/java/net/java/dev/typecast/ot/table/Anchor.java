@@ -0,0 +1,112 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.io.IOException;
+
+import net.java.dev.typecast.io.BinaryInput;
+
+/**
+ * Anchor point of a glyph used for attaching marks and cursive connections.
+ *
+ * <p>
+ * Contour points (format 2) and device tables (format 3) are not evaluated,
+ * only the design unit coordinates are used.
+ * </p>
+ *
+ * @see "https://docs.microsoft.com/en-us/typography/opentype/spec/gpos#anchor-tables"
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class Anchor {
+
+    private final int _x;
+
+    private final int _y;
+
+    /** Creates new Anchor */
+    public Anchor(int x, int y) {
+        _x = x;
+        _y = y;
+    }
+
+    /**
+     * The horizontal coordinate in design units.
+     */
+    public int getX() {
+        return _x;
+    }
+
+    /**
+     * The vertical coordinate in design units.
+     */
+    public int getY() {
+        return _y;
+    }
+
+    /**
+     * Reads the anchor table at the given offset.
+     *
+     * @return The anchor, or <code>null</code>, if the given offset is
+     *         <code>0</code>.
+     */
+    static Anchor read(BinaryInput in, int base, int offset) throws IOException {
+        if (offset == 0) {
+            return null;
+        }
+        in.setPosition(base + offset);
+        int format = in.readUnsignedShort();
+        if (format < 1 || format > 3) {
+            return null;
+        }
+        return new Anchor(in.readShort(), in.readShort());
+    }
+
+    /**
+     * Reads a table of anchor offsets with the given number of columns for
+     * each row.
+     *
+     * <p>
+     * Used for base arrays, mark2 arrays, and the anchors of ligature
+     * components. All anchor offsets are relative to the start of the table.
+     * </p>
+     */
+    static Anchor[][] readMatrix(BinaryInput in, int offset, int columns) throws IOException {
+        in.setPosition(offset);
+        int rows = in.readUnsignedShort();
+        int[][] offsets = new int[rows][columns];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                offsets[row][column] = in.readUnsignedShort();
+            }
+        }
+        Anchor[][] result = new Anchor[rows][columns];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                result[row][column] = read(in, offset, offsets[row][column]);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + _x + ", " + _y + ")";
+    }
+
+}
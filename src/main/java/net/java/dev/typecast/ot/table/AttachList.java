@@ -0,0 +1,82 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.io.IOException;
+
+import net.java.dev.typecast.io.BinaryInput;
+
+/**
+ * Attachment point list of the {@link GdefTable}: The contour points of glyphs
+ * that marks can be attached to.
+ *
+ * @see GdefTable#getAttachList()
+ * @see "https://docs.microsoft.com/en-us/typography/opentype/spec/gdef#attachment-point-list-table"
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class AttachList {
+
+    private static final int[] NO_POINTS = {};
+
+    private final Coverage _coverage;
+
+    /**
+     * The point indices of each glyph by coverage index.
+     */
+    private final int[][] _pointIndices;
+
+    /** Creates new AttachList */
+    AttachList(BinaryInput in, int offset) throws IOException {
+        in.setPosition(offset);
+        int coverageOffset = in.readUnsignedShort();
+        int glyphCount = in.readUnsignedShort();
+        int[] attachPointOffsets = SequenceRule.readArray(in, glyphCount);
+
+        in.setPosition(offset + coverageOffset);
+        _coverage = Coverage.read(in);
+
+        _pointIndices = new int[glyphCount][];
+        for (int i = 0; i < glyphCount; i++) {
+            in.setPosition(offset + attachPointOffsets[i]);
+            _pointIndices[i] = SequenceRule.readArray(in, in.readUnsignedShort());
+        }
+    }
+
+    /**
+     * The contour point indices of the attachment points of the given glyph
+     * in increasing order.
+     */
+    public int[] getPointIndices(int glyphId) {
+        int i = _coverage.findGlyph(glyphId);
+        if (i < 0 || i >= _pointIndices.length) {
+            return NO_POINTS;
+        }
+        return _pointIndices[i];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("    attachList\n");
+        sb.append("    ----------\n");
+        sb.append("        glyphCount = " + _pointIndices.length + "\n");
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,260 @@
+/*
+ * Typecast - The Font Development Environment
+ *
+ * Copyright (c) 2004-2015 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.List;
+
+import net.java.dev.typecast.cff.CharstringType2;
+import net.java.dev.typecast.cff.Dict;
+import net.java.dev.typecast.cff.FdSelect;
+import net.java.dev.typecast.cff.Index;
+import net.java.dev.typecast.cff.ItemVariationStore;
+
+/**
+ * Compact Font Format Version 2 Table
+ * 
+ * <p>
+ * This table contains the PostScript outlines of a variable OpenType font
+ * (or of a non-variable font using the CFF2 format). In contrast to version 1,
+ * the table contains exactly one font without a Name INDEX, String INDEX and
+ * charset (glyph names are taken from the 'post' table). Outline variations
+ * are encoded within the charstrings using the <code>blend</code> and
+ * <code>vsindex</code> operators and the regions of the
+ * {@link ItemVariationStore}.
+ * </p>
+ * 
+ * @see <a href="https://docs.microsoft.com/en-us/typography/opentype/spec/cff2">Spec: CFF2 — Compact Font Format (CFF) Version 2</a>
+ * 
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class Cff2Table implements Table {
+    
+    private static final int CHAR_STRINGS = 17;
+    private static final int PRIVATE = 18;
+    private static final int SUBRS = 19;
+    private static final int VSINDEX = 22;
+    private static final int VSTORE = 24;
+    private static final int FD_ARRAY = 12 << 8 | 36;
+    private static final int FD_SELECT = 12 << 8 | 37;
+    
+    private int _major;
+    private int _minor;
+    private int _hdrSize;
+    private int _topDictLength;
+    private Dict _topDict;
+    private Index _globalSubrIndex;
+    private Index _charStringsIndex;
+    private Dict[] _fontDicts;
+    private Dict[] _privateDicts;
+    private Index[] _localSubrIndexes;
+    private FdSelect _fdSelect;
+    private ItemVariationStore _variationStore;
+
+    @Override
+    public void read(DataInput di, int length) throws IOException {
+        byte[] buf = new byte[length];
+        di.readFully(buf);
+        DataInput di2 = CffTable.getDataInputForOffset(buf, 0);
+
+        // Header
+        _major = di2.readUnsignedByte();
+        _minor = di2.readUnsignedByte();
+        _hdrSize = di2.readUnsignedByte();
+        _topDictLength = di2.readUnsignedShort();
+        
+        // Top DICT
+        _topDict = new Dict(buf, _hdrSize, _topDictLength);
+        
+        // Global Subr INDEX
+        _globalSubrIndex = Index.readCff2Index(
+            CffTable.getDataInputForOffset(buf, _hdrSize + _topDictLength));
+        
+        // CharStrings INDEX
+        _charStringsIndex = Index.readCff2Index(
+            CffTable.getDataInputForOffset(buf, intValue(_topDict, CHAR_STRINGS, 0)));
+        
+        // Font DICT INDEX with the Private DICT and Local Subrs INDEX of each
+        // Font DICT.
+        Index fdArray = Index.readCff2Index(
+            CffTable.getDataInputForOffset(buf, intValue(_topDict, FD_ARRAY, 0)));
+        int fdCount = fdArray.getCount();
+        _fontDicts = new Dict[fdCount];
+        _privateDicts = new Dict[fdCount];
+        _localSubrIndexes = new Index[fdCount];
+        for (int i = 0; i < fdCount; ++i) {
+            int offset = fdArray.getOffset(i) - 1;
+            Dict fontDict = new Dict(fdArray.getData(), offset, fdArray.getOffset(i + 1) - 1 - offset);
+            _fontDicts[i] = fontDict;
+            
+            List<?> privateSizeAndOffset = (List<?>) fontDict.getValue(PRIVATE);
+            if (privateSizeAndOffset == null) {
+                continue;
+            }
+            int privateSize = ((Number) privateSizeAndOffset.get(0)).intValue();
+            int privateOffset = ((Number) privateSizeAndOffset.get(1)).intValue();
+            Dict privateDict = new Dict(buf, privateOffset, privateSize);
+            _privateDicts[i] = privateDict;
+            
+            Object subrsOffset = privateDict.getValue(SUBRS);
+            if (subrsOffset instanceof Number) {
+                _localSubrIndexes[i] = Index.readCff2Index(CffTable.getDataInputForOffset(
+                    buf, privateOffset + ((Number) subrsOffset).intValue()));
+            }
+        }
+        
+        // FDSelect, only present if there is more than one Font DICT.
+        Object fdSelectOffset = _topDict.getValue(FD_SELECT);
+        if (fdSelectOffset instanceof Number) {
+            _fdSelect = new FdSelect(
+                CffTable.getDataInputForOffset(buf, ((Number) fdSelectOffset).intValue()),
+                _charStringsIndex.getCount());
+        }
+        
+        // VariationStore, the store data is preceded by its length.
+        Object vstoreOffset = _topDict.getValue(VSTORE);
+        if (vstoreOffset instanceof Number) {
+            _variationStore = new ItemVariationStore(buf, ((Number) vstoreOffset).intValue() + 2);
+        }
+    }
+    
+    private static int intValue(Dict dict, int key, int defaultValue) {
+        Object value = dict.getValue(key);
+        return value instanceof Number ? ((Number) value).intValue() : defaultValue;
+    }
+    
+    @Override
+    public int getType() {
+        return CFF2;
+    }
+
+    public int getMajor() {
+        return _major;
+    }
+
+    public int getMinor() {
+        return _minor;
+    }
+
+    public Dict getTopDict() {
+        return _topDict;
+    }
+
+    public Index getGlobalSubrIndex() {
+        return _globalSubrIndex;
+    }
+
+    public Index getCharStringsIndex() {
+        return _charStringsIndex;
+    }
+
+    public int getCharstringCount() {
+        return _charStringsIndex.getCount();
+    }
+
+    /**
+     * The number of Font DICTs in the FDArray.
+     */
+    public int getFontDictCount() {
+        return _fontDicts.length;
+    }
+
+    public Dict getFontDict(int fd) {
+        return _fontDicts[fd];
+    }
+
+    public Dict getPrivateDict(int fd) {
+        return _privateDicts[fd];
+    }
+
+    /**
+     * The Local Subrs INDEX of the Font DICT with the given index,
+     * <code>null</code> if there are no local subroutines.
+     */
+    public Index getLocalSubrIndex(int fd) {
+        return _localSubrIndexes[fd];
+    }
+
+    /**
+     * The index of the Font DICT of the given glyph.
+     */
+    public int getFontDictIndex(int gid) {
+        return _fdSelect == null ? 0 : _fdSelect.getFd(gid);
+    }
+
+    /**
+     * The default item variation data index for charstrings using the Font
+     * DICT with the given index.
+     */
+    public int getVariationStoreIndex(int fd) {
+        Dict privateDict = _privateDicts[fd];
+        return privateDict == null ? 0 : intValue(privateDict, VSINDEX, 0);
+    }
+
+    /**
+     * The {@link ItemVariationStore} with the variation regions,
+     * <code>null</code> for a non-variable font.
+     */
+    public ItemVariationStore getVariationStore() {
+        return _variationStore;
+    }
+
+    /**
+     * Creates the {@link CharstringType2} of the given glyph.
+     * 
+     * <p>
+     * The charstring has no associated CFF font and name, use
+     * {@link net.java.dev.typecast.cff.T2Interpreter#execute(Cff2Table, int, float[], net.java.dev.typecast.cff.OutlineSink)}
+     * to interpret it with the subroutines and variations of this table.
+     * </p>
+     */
+    public CharstringType2 getCharstring(int gid) {
+        int offset = _charStringsIndex.getOffset(gid) - 1;
+        int len = _charStringsIndex.getOffset(gid + 1) - offset - 1;
+        return new CharstringType2(
+                null,
+                gid,
+                null,
+                _charStringsIndex.getData(),
+                offset,
+                len);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("'CFF2' Table - Compact Font Format Version 2\n--------------------------------------------\n");
+        sb.append("\nTop DICT\n");
+        sb.append(_topDict.toString());
+        sb.append("\nGlobal Subr INDEX\n");
+        sb.append(_globalSubrIndex.toString());
+        for (int i = 0; i < getFontDictCount(); ++i) {
+            sb.append("\nFont DICT ").append(i).append("\n");
+            sb.append(_fontDicts[i].toString());
+            if (_privateDicts[i] != null) {
+                sb.append("\nPrivate DICT ").append(i).append("\n");
+                sb.append(_privateDicts[i].toString());
+            }
+        }
+        sb.append("\nCharStrings INDEX\n");
+        sb.append(_charStringsIndex.toString());
+        return sb.toString();
+    }
+
+}
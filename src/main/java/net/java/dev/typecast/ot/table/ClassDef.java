@@ -8,8 +8,8 @@
 
 package net.java.dev.typecast.ot.table;
 
+import java.io.DataInput;
 import java.io.IOException;
-import java.io.RandomAccessFile;
 
 /**
  *
@@ -19,13 +19,25 @@ public abstract class ClassDef {
 
     public abstract int getFormat();
 
-    protected static ClassDef read(RandomAccessFile raf) throws IOException {
+    /**
+     * The class of the given glyph, <code>0</code> for glyphs not assigned
+     * to any class.
+     */
+    public abstract int getGlyphClass(int glyphId);
+
+    /**
+     * The highest glyph ID explicitly assigned to a class, or <code>-1</code>,
+     * if no glyph is assigned.
+     */
+    public abstract int getLastGlyph();
+
+    protected static ClassDef read(DataInput di) throws IOException {
         ClassDef c = null;
-        int format = raf.readUnsignedShort();
+        int format = di.readUnsignedShort();
         if (format == 1) {
-            c = new ClassDefFormat1(raf);
+            c = new ClassDefFormat1(di);
         } else if (format == 2) {
-            c = new ClassDefFormat2(raf);
+            c = new ClassDefFormat2(di);
         }
         return c;
     }
@@ -8,26 +8,28 @@
 
 package net.java.dev.typecast.ot.table;
 
+import java.io.DataInput;
 import java.io.IOException;
-import java.io.RandomAccessFile;
 
 /**
+ * Class definition format 1: Classes of a consecutive range of glyph IDs
+ * stored in an array indexed directly by glyph ID.
  *
  * @author <a href="mailto:david.schweinsberg@gmail.com">David Schweinsberg</a>
  */
 public class ClassDefFormat1 extends ClassDef {
 
-    private int startGlyph;
-    private int glyphCount;
-    private int[] classValues;
+    private final int startGlyph;
+    private final int glyphCount;
+    private final int[] classValues;
 
     /** Creates new ClassDefFormat1 */
-    public ClassDefFormat1(RandomAccessFile raf) throws IOException {
-        startGlyph = raf.readUnsignedShort();
-        glyphCount = raf.readUnsignedShort();
+    public ClassDefFormat1(DataInput di) throws IOException {
+        startGlyph = di.readUnsignedShort();
+        glyphCount = di.readUnsignedShort();
         classValues = new int[glyphCount];
         for (int i = 0; i < glyphCount; i++) {
-            classValues[i] = raf.readUnsignedShort();
+            classValues[i] = di.readUnsignedShort();
         }
     }
 
@@ -35,4 +37,36 @@ public class ClassDefFormat1 extends ClassDef {
         return 1;
     }
 
+    public int getStartGlyph() {
+        return startGlyph;
+    }
+
+    public int getGlyphCount() {
+        return glyphCount;
+    }
+
+    @Override
+    public int getGlyphClass(int glyphId) {
+        int index = glyphId - startGlyph;
+        if (index < 0 || index >= glyphCount) {
+            return 0;
+        }
+        return classValues[index];
+    }
+
+    @Override
+    public int getLastGlyph() {
+        return glyphCount == 0 ? -1 : startGlyph + glyphCount - 1;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("                classFormat     = " + getFormat() + "\n");
+        sb.append("                startGlyph      = " + startGlyph + "\n");
+        sb.append("                glyphCount      = " + glyphCount + "\n");
+        sb.append("                classValues     = " + LangSys.toString(classValues) + "\n");
+        return sb.toString();
+    }
+
 }
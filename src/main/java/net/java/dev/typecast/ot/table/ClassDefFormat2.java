@@ -8,29 +8,102 @@
 
 package net.java.dev.typecast.ot.table;
 
+import java.io.DataInput;
 import java.io.IOException;
-import java.io.RandomAccessFile;
 
 /**
+ * Class definition format 2: Classes assigned to ranges of glyph IDs.
+ *
+ * <p>
+ * Ranges are stored in primitive arrays and searched with binary search, if
+ * they are sorted and do not overlap as required by the specification.
+ * </p>
  *
  * @author <a href="mailto:david.schweinsberg@gmail.com">David Schweinsberg</a>
  */
 public class ClassDefFormat2 extends ClassDef {
 
-    private int classRangeCount;
-    private RangeRecord[] classRangeRecords;
+    private final int classRangeCount;
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] classValues;
+
+    /**
+     * Whether the ranges are sorted and do not overlap.
+     */
+    private final boolean sorted;
 
     /** Creates new ClassDefFormat2 */
-    public ClassDefFormat2(RandomAccessFile raf) throws IOException {
-        classRangeCount = raf.readUnsignedShort();
-        classRangeRecords = new RangeRecord[classRangeCount];
+    public ClassDefFormat2(DataInput di) throws IOException {
+        classRangeCount = di.readUnsignedShort();
+        starts = new int[classRangeCount];
+        ends = new int[classRangeCount];
+        classValues = new int[classRangeCount];
+        boolean isSorted = true;
         for (int i = 0; i < classRangeCount; i++) {
-            classRangeRecords[i] = new RangeRecord(raf);
+            starts[i] = di.readUnsignedShort();
+            ends[i] = di.readUnsignedShort();
+            classValues[i] = di.readUnsignedShort();
+            isSorted &= i == 0 || ends[i - 1] < starts[i];
         }
+        sorted = isSorted;
     }
 
     public int getFormat() {
         return 2;
     }
 
+    public int getClassRangeCount() {
+        return classRangeCount;
+    }
+
+    @Override
+    public int getGlyphClass(int glyphId) {
+        if (sorted) {
+            // Search the first range whose end is not less than the glyph ID.
+            int low = 0;
+            int high = classRangeCount;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (ends[mid] < glyphId) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low < classRangeCount && starts[low] <= glyphId ? classValues[low] : 0;
+        }
+
+        // Broken font, fall back to linear search.
+        for (int i = 0; i < classRangeCount; i++) {
+            if (starts[i] <= glyphId && glyphId <= ends[i]) {
+                return classValues[i];
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public int getLastGlyph() {
+        if (sorted) {
+            return classRangeCount == 0 ? -1 : ends[classRangeCount - 1];
+        }
+        int last = -1;
+        for (int i = 0; i < classRangeCount; i++) {
+            last = Math.max(last, ends[i]);
+        }
+        return last;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("                classFormat     = " + getFormat() + "\n");
+        sb.append("                classRangeCount = " + classRangeCount + "\n");
+        for (int i = 0; i < classRangeCount; i++) {
+            sb.append("                " + starts[i] + " - " + ends[i] + " = " + classValues[i] + "\n");
+        }
+        return sb.toString();
+    }
+
 }
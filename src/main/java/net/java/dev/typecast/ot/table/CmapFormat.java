@@ -99,6 +99,136 @@ public abstract class CmapFormat implements Writable {
      */
     public abstract int mapCharCode(int charCode);
     
+    /**
+     * Maps all given characters to the indices of the glyphs to use for these
+     * characters.
+     * 
+     * @param charCodes
+     *        The character codes to map.
+     * @param glyphIds
+     *        The array to store the glyph indices into. Must be at least as
+     *        long as the given character codes array. May be the same array
+     *        as the character codes array.
+     * 
+     * @see #mapCharCode(int)
+     */
+    public final void mapCharCodes(int[] charCodes, int[] glyphIds) {
+        mapCharCodes(charCodes, 0, glyphIds, 0, charCodes.length);
+    }
+    
+    /**
+     * Maps a range of the given characters to the indices of the glyphs to use
+     * for these characters.
+     * 
+     * <p>
+     * The same array may be passed as source and destination, if both offsets
+     * are equal.
+     * </p>
+     * 
+     * @param charCodes
+     *        The character codes to map.
+     * @param offset
+     *        The index of the first character code to map.
+     * @param glyphIds
+     *        The array to store the glyph indices into.
+     * @param glyphOffset
+     *        The index in the glyph indices array to store the first result
+     *        to.
+     * @param length
+     *        The number of character codes to map.
+     * 
+     * @see #mapCharCode(int)
+     */
+    public void mapCharCodes(int[] charCodes, int offset, int[] glyphIds, int glyphOffset, int length) {
+        for (int n = 0; n < length; n++) {
+            glyphIds[glyphOffset + n] = mapCharCode(charCodes[offset + n]);
+        }
+    }
+    
+    /**
+     * Maps all code points of the given text to the indices of the glyphs to
+     * use for these characters.
+     * 
+     * <p>
+     * Surrogate pairs in the given text are mapped as a single code point.
+     * </p>
+     * 
+     * @param text
+     *        The text to map.
+     * @param glyphIds
+     *        The array to store the glyph indices into. A length of
+     *        <code>text.length()</code> is always sufficient.
+     * @return The number of glyph indices stored, which is the number of code
+     *         points in the given text.
+     * 
+     * @see #mapCharCode(int)
+     */
+    public final int mapString(CharSequence text, int[] glyphIds) {
+        int cnt = codePoints(text, glyphIds);
+        mapCharCodes(glyphIds, 0, glyphIds, 0, cnt);
+        return cnt;
+    }
+
+    /**
+     * Stores the code points of the given text into the given array.
+     * 
+     * @return The number of code points stored.
+     */
+    static int codePoints(CharSequence text, int[] codePoints) {
+        int cnt = 0;
+        for (int n = 0, length = text.length(); n < length; ) {
+            char ch = text.charAt(n++);
+            if (Character.isHighSurrogate(ch) && n < length) {
+                char low = text.charAt(n);
+                if (Character.isLowSurrogate(low)) {
+                    codePoints[cnt++] = Character.toCodePoint(ch, low);
+                    n++;
+                    continue;
+                }
+            }
+            codePoints[cnt++] = ch;
+        }
+        return cnt;
+    }
+    
+    /**
+     * Creates a two-level table of the glyph IDs of all BMP characters indexed
+     * by the high and low byte of the character code.
+     * 
+     * <p>
+     * Pages without mapped characters are <code>null</code>.
+     * </p>
+     * 
+     * @throws IllegalStateException
+     *         If a BMP character is mapped to a glyph ID that does not fit
+     *         into 16 bits.
+     */
+    final char[][] createPageTable() {
+        char[][] pages = new char[256][];
+        for (int n = 0, cnt = getRangeCount(); n < cnt; n++) {
+            Range range = getRange(n);
+            int end = Math.min(range.getEndCode(), 0xFFFF);
+            for (int charCode = Math.max(range.getStartCode(), 0); charCode <= end; charCode++) {
+                int glyphId = mapCharCode(charCode);
+                if (glyphId == 0) {
+                    continue;
+                }
+                if (glyphId < 0 || glyphId > 0xFFFF) {
+                    throw new IllegalStateException(
+                        "Glyph ID of character " + charCode + " exceeds 16 bits: " + glyphId);
+                }
+                
+                char[] page = pages[charCode >>> 8];
+                if (page == null) {
+                    page = new char[256];
+                    pages[charCode >>> 8] = page;
+                }
+                page[charCode & 0xFF] = (char) glyphId;
+            }
+        }
+        return pages;
+    }
+    
     @Override
     public String toString() {
         return
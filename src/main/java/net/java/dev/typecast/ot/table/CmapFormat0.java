@@ -118,6 +118,16 @@ public class CmapFormat0 extends CmapFormat {
         }
     }
     
+    @Override
+    public void mapCharCodes(int[] charCodes, int offset, int[] glyphIds, int glyphOffset, int length) {
+        int[] glyphIdArray = _glyphIdArray;
+        for (int n = 0; n < length; n++) {
+            int charCode = charCodes[offset + n];
+            glyphIds[glyphOffset + n] = 
+                (0 <= charCode && charCode < 256) ? glyphIdArray[charCode] : 0;
+        }
+    }
+    
     @Override
     public String toString() {
         return super.toString() +
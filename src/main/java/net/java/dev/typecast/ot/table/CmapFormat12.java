@@ -49,6 +49,14 @@ public class CmapFormat12 extends CmapFormat {
     private final int[] _startCharCode;
     private final int[] _endCharCode;
     private final int[] _startGlyphId;
+    
+    /**
+     * Optional precomputed glyph IDs for the BMP indexed by the high and low
+     * byte of the character code.
+     * 
+     * @see #setDenseLookup(boolean)
+     */
+    private volatile char[][] _pages;
 
     CmapFormat12(DataInput di) throws IOException {
         di.readUnsignedShort(); // reserved
@@ -116,22 +124,98 @@ public class CmapFormat12 extends CmapFormat {
         return new Range(_startCharCode[index], _endCharCode[index]);
     }
 
+    /**
+     * Whether characters in the BMP are mapped using a precomputed page table
+     * instead of searching the groups.
+     */
+    public boolean isDenseLookup() {
+        return _pages != null;
+    }
+
+    /**
+     * Enables or disables mapping BMP characters using a precomputed page
+     * table.
+     * 
+     * <p>
+     * Characters outside the BMP are always mapped by searching the groups.
+     * Dense lookup cannot be enabled, if a BMP character is mapped to a glyph
+     * ID exceeding 16 bits.
+     * </p>
+     * 
+     * @see #isDenseLookup()
+     * @see CmapFormat4#setDenseLookup(boolean)
+     */
+    public void setDenseLookup(boolean dense) {
+        _pages = dense ? createPageTable() : null;
+    }
+
     @Override
     public int mapCharCode(int charCode) {
-        try {
-            for (int i = 0; i < _numGroups; i++) {
-                if (_endCharCode[i] >= charCode) {
-                    if (_startCharCode[i] <= charCode) {
-                        return charCode - _startCharCode[i] + _startGlyphId[i];
-                    } else {
-                        break;
-                    }
+        char[][] pages = _pages;
+        if (pages != null && charCode >= 0 && charCode <= 0xFFFF) {
+            char[] page = pages[charCode >>> 8];
+            return page == null ? 0 : page[charCode & 0xFF];
+        }
+        
+        int group = findGroup(charCode);
+        if (group < 0) {
+            return 0;
+        }
+        return charCode - _startCharCode[group] + _startGlyphId[group];
+    }
+
+    @Override
+    public void mapCharCodes(int[] charCodes, int offset, int[] glyphIds, int glyphOffset, int length) {
+        char[][] pages = _pages;
+        
+        // Text mostly consists of runs of characters from the same group.
+        int start = 0;
+        int end = -1;
+        int delta = 0;
+        for (int n = 0; n < length; n++) {
+            int charCode = charCodes[offset + n];
+            if (pages != null && charCode >= 0 && charCode <= 0xFFFF) {
+                char[] page = pages[charCode >>> 8];
+                glyphIds[glyphOffset + n] = page == null ? 0 : page[charCode & 0xFF];
+                continue;
+            }
+            if (charCode < start || charCode > end) {
+                int group = findGroup(charCode);
+                if (group < 0) {
+                    glyphIds[glyphOffset + n] = 0;
+                    continue;
                 }
+                start = _startCharCode[group];
+                end = _endCharCode[group];
+                delta = _startGlyphId[group] - start;
             }
-        } catch (ArrayIndexOutOfBoundsException e) {
-            System.err.println("error: Array out of bounds - " + e.getMessage());
+            glyphIds[glyphOffset + n] = charCode + delta;
+        }
+    }
+
+    /**
+     * Binary search for the group containing the given character code.
+     * 
+     * @return The index of the group, or <code>-1</code> if the character
+     *         code is not mapped.
+     */
+    private int findGroup(int charCode) {
+        // Search the first group whose end code is not less than the given
+        // character code.
+        int low = 0;
+        int high = _numGroups;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (_endCharCode[mid] < charCode) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (low == _numGroups || _startCharCode[low] > charCode) {
+            return -1;
         }
-        return 0;
+        return low;
     }
 
     @Override
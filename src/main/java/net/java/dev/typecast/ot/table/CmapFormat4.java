@@ -113,6 +113,14 @@ public class CmapFormat4 extends CmapFormat {
      * @see #_segCountX2
      */
     private final int _segCount;
+    
+    /**
+     * Optional precomputed glyph IDs indexed by the high and low byte of the
+     * character code.
+     * 
+     * @see #setDenseLookup(boolean)
+     */
+    private volatile char[][] _pages;
 
     CmapFormat4(DataInput di) throws IOException {
         _length = di.readUnsignedShort();
@@ -214,26 +222,130 @@ public class CmapFormat4 extends CmapFormat {
         return new Range(_startCode[index], _endCode[index]);
     }
 
+    /**
+     * Whether character codes are mapped using a precomputed page table
+     * instead of searching the segments.
+     */
+    public boolean isDenseLookup() {
+        return _pages != null;
+    }
+
+    /**
+     * Enables or disables mapping character codes using a precomputed page
+     * table.
+     * 
+     * <p>
+     * The page table is a two-level array of 256 pages of 256 glyph IDs each.
+     * Only pages containing mapped characters are allocated (512 bytes per
+     * page).
+     * </p>
+     * 
+     * @see #isDenseLookup()
+     */
+    public void setDenseLookup(boolean dense) {
+        _pages = dense ? createPageTable() : null;
+    }
+
     @Override
     public int mapCharCode(int charCode) {
-        try {
-            for (int i = 0; i < _segCount; i++) {
-                if (_endCode[i] >= charCode) {
-                    if (_startCode[i] <= charCode) {
-                        if (_idRangeOffset[i] > 0) {
-                            return _glyphIdArray[_idRangeOffset[i]/2 + (charCode - _startCode[i]) - (_segCount - i)];
-                        } else {
-                            return (_idDelta[i] + charCode) % 65536;
-                        }
-                    } else {
-                        break;
+        if (charCode < 0 || charCode > 0xFFFF) {
+            return 0;
+        }
+        
+        char[][] pages = _pages;
+        if (pages != null) {
+            char[] page = pages[charCode >>> 8];
+            return page == null ? 0 : page[charCode & 0xFF];
+        }
+        
+        int i = findSegment(charCode);
+        if (i < 0) {
+            return 0;
+        }
+        return mapInSegment(i, charCode);
+    }
+
+    @Override
+    public void mapCharCodes(int[] charCodes, int offset, int[] glyphIds, int glyphOffset, int length) {
+        char[][] pages = _pages;
+        if (pages != null) {
+            for (int n = 0; n < length; n++) {
+                int charCode = charCodes[offset + n];
+                int glyphId = 0;
+                if (charCode >= 0 && charCode <= 0xFFFF) {
+                    char[] page = pages[charCode >>> 8];
+                    if (page != null) {
+                        glyphId = page[charCode & 0xFF];
                     }
                 }
+                glyphIds[glyphOffset + n] = glyphId;
             }
-        } catch (ArrayIndexOutOfBoundsException e) {
-            System.err.println("error: Array out of bounds - " + e.getMessage());
+            return;
+        }
+        
+        // Text mostly consists of runs of characters from the same segment.
+        int segment = -1;
+        int start = 0;
+        int end = -1;
+        for (int n = 0; n < length; n++) {
+            int charCode = charCodes[offset + n];
+            if (charCode < start || charCode > end) {
+                if (charCode < 0 || charCode > 0xFFFF) {
+                    glyphIds[glyphOffset + n] = 0;
+                    continue;
+                }
+                int found = findSegment(charCode);
+                if (found < 0) {
+                    glyphIds[glyphOffset + n] = 0;
+                    continue;
+                }
+                segment = found;
+                start = _startCode[segment];
+                end = _endCode[segment];
+            }
+            glyphIds[glyphOffset + n] = mapInSegment(segment, charCode);
+        }
+    }
+
+    /**
+     * Maps the given character code that is contained in segment i.
+     */
+    private int mapInSegment(int i, int charCode) {
+        if (_idRangeOffset[i] == 0) {
+            return (_idDelta[i] + charCode) & 0xFFFF;
+        }
+        
+        int index = _idRangeOffset[i]/2 + (charCode - _startCode[i]) - (_segCount - i);
+        if (index < 0 || index >= _glyphIdArray.length) {
+            return 0;
+        }
+        int glyphId = _glyphIdArray[index];
+        return glyphId == 0 ? 0 : (glyphId + _idDelta[i]) & 0xFFFF;
+    }
+
+    /**
+     * Binary search for the segment containing the given character code.
+     * 
+     * @return The index of the segment, or <code>-1</code> if the character
+     *         code is not mapped.
+     */
+    private int findSegment(int charCode) {
+        // Search the first segment whose end code is not less than the given
+        // character code.
+        int low = 0;
+        int high = _segCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (_endCode[mid] < charCode) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (low == _segCount || _startCode[low] > charCode) {
+            return -1;
         }
-        return 0;
+        return low;
     }
 
     @Override
@@ -104,6 +104,16 @@ public class CmapFormat6 extends CmapFormat {
         }
     }
 
+    @Override
+    public void mapCharCodes(int[] charCodes, int offset, int[] glyphIds, int glyphOffset, int length) {
+        int[] glyphIdArray = _glyphIdArray;
+        for (int n = 0; n < length; n++) {
+            int index = charCodes[offset + n] - _firstCode;
+            glyphIds[glyphOffset + n] = 
+                (0 <= index && index < _entryCount) ? glyphIdArray[index] : 0;
+        }
+    }
+
     @Override
     public String toString() {
         return super.toString() +
@@ -0,0 +1,177 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.util.Arrays;
+
+/**
+ * Index mapping glyph IDs back to the character codes mapped to them by a
+ * {@link CmapFormat}.
+ *
+ * <p>
+ * The index is stored in two arrays: The character codes of all mapped
+ * characters sorted by glyph ID (and by character code for the same glyph),
+ * and the start index into this array for each glyph ID.
+ * </p>
+ *
+ * @see CmapTable#getReverseIndex()
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class CmapReverseIndex {
+
+    private static final int[] NO_CODES = {};
+
+    /**
+     * Number of character codes mapped in one bulk operation while building
+     * the index.
+     */
+    private static final int CHUNK_SIZE = 1024;
+
+    /**
+     * Index into {@link #_charCodes} for each glyph ID. The character codes of
+     * glyph ID <code>g</code> are stored from <code>_start[g]</code> to
+     * <code>_start[g + 1]</code> (exclusive).
+     */
+    private final int[] _start;
+
+    private final int[] _charCodes;
+
+    /**
+     * Creates a {@link CmapReverseIndex} for all characters mapped by the
+     * given {@link CmapFormat}.
+     */
+    public CmapReverseIndex(CmapFormat format) {
+        int size = 0;
+        int[] charCodes = new int[CHUNK_SIZE];
+        int[] glyphIds = new int[CHUNK_SIZE];
+        int maxGlyphId = 0;
+
+        int[] chunk = new int[CHUNK_SIZE];
+        int[] chunkGlyphs = new int[CHUNK_SIZE];
+        for (int n = 0, cnt = format.getRangeCount(); n < cnt; n++) {
+            CmapFormat.Range range = format.getRange(n);
+            int start = Math.max(range.getStartCode(), 0);
+            int end = range.getEndCode();
+
+            for (int first = start; first <= end && first >= 0; first += CHUNK_SIZE) {
+                int length = (int) Math.min(CHUNK_SIZE, (long) end - first + 1);
+                for (int k = 0; k < length; k++) {
+                    chunk[k] = first + k;
+                }
+                format.mapCharCodes(chunk, 0, chunkGlyphs, 0, length);
+
+                for (int k = 0; k < length; k++) {
+                    int glyphId = chunkGlyphs[k];
+                    if (glyphId <= 0) {
+                        continue;
+                    }
+                    if (size == charCodes.length) {
+                        charCodes = Arrays.copyOf(charCodes, size * 2);
+                        glyphIds = Arrays.copyOf(glyphIds, size * 2);
+                    }
+                    charCodes[size] = chunk[k];
+                    glyphIds[size] = glyphId;
+                    size++;
+                    maxGlyphId = Math.max(maxGlyphId, glyphId);
+                }
+            }
+        }
+
+        // Counting sort by glyph ID, stable with respect to the range order.
+        _start = new int[maxGlyphId + 2];
+        for (int n = 0; n < size; n++) {
+            _start[glyphIds[n] + 1]++;
+        }
+        for (int g = 1; g < _start.length; g++) {
+            _start[g] += _start[g - 1];
+        }
+
+        _charCodes = new int[size];
+        int[] next = Arrays.copyOf(_start, _start.length - 1);
+        for (int n = 0; n < size; n++) {
+            _charCodes[next[glyphIds[n]]++] = charCodes[n];
+        }
+
+        // Ranges are not required to be sorted.
+        for (int g = 0, cnt = _start.length - 1; g < cnt; g++) {
+            if (_start[g + 1] - _start[g] > 1) {
+                Arrays.sort(_charCodes, _start[g], _start[g + 1]);
+            }
+        }
+    }
+
+    /**
+     * The total number of mapped characters.
+     */
+    public int size() {
+        return _charCodes.length;
+    }
+
+    /**
+     * The number of characters mapped to the given glyph.
+     */
+    public int getCharCodeCount(int glyphId) {
+        if (glyphId < 0 || glyphId >= _start.length - 1) {
+            return 0;
+        }
+        return _start[glyphId + 1] - _start[glyphId];
+    }
+
+    /**
+     * The smallest character code mapped to the given glyph, or
+     * <code>-1</code>, if no character is mapped to the given glyph.
+     */
+    public int getCharCode(int glyphId) {
+        if (getCharCodeCount(glyphId) == 0) {
+            return -1;
+        }
+        return _charCodes[_start[glyphId]];
+    }
+
+    /**
+     * The character code with the given index mapped to the given glyph.
+     *
+     * @param glyphId
+     *        The glyph ID.
+     * @param index
+     *        The index of the character code in the range from
+     *        <code>0</code> to {@link #getCharCodeCount(int)} (exclusive).
+     *        Character codes are sorted in ascending order.
+     */
+    public int getCharCode(int glyphId, int index) {
+        if (index < 0 || index >= getCharCodeCount(glyphId)) {
+            throw new IndexOutOfBoundsException(
+                "No character code " + index + " for glyph " + glyphId + ".");
+        }
+        return _charCodes[_start[glyphId] + index];
+    }
+
+    /**
+     * All character codes mapped to the given glyph in ascending order.
+     */
+    public int[] getCharCodes(int glyphId) {
+        int cnt = getCharCodeCount(glyphId);
+        if (cnt == 0) {
+            return NO_CODES;
+        }
+        int start = _start[glyphId];
+        return Arrays.copyOfRange(_charCodes, start, start + cnt);
+    }
+
+}
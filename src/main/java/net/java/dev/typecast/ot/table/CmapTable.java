@@ -53,6 +53,7 @@ package net.java.dev.typecast.ot.table;
 import java.io.DataInput;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -116,6 +117,13 @@ public class CmapTable implements Table, Writable {
     private int _version = VERSION;
     
     private ArrayList<CmapIndexEntry> _entries = new ArrayList<>();
+    
+    /**
+     * @see #getUnicodeFormat()
+     */
+    private CmapFormat _unicodeFormat;
+    
+    private volatile CmapReverseIndex _reverseIndex;
 
     @Override
     public void read(DataInput di, int length) throws IOException {
@@ -162,6 +170,8 @@ public class CmapTable implements Table, Writable {
             entry.setFormat(lastFormat);
             bytesRead += lastFormat.getLength();
         }
+        
+        _unicodeFormat = selectUnicodeFormat();
     }
     
     @Override
@@ -238,6 +248,129 @@ public class CmapTable implements Table, Writable {
         }
         return null;
     }
+    
+    /**
+     * The subtable mapping Unicode code points to glyph IDs, or
+     * <code>null</code>, if this table has no Unicode subtable.
+     * 
+     * <p>
+     * The subtable is selected when the table is read. Microsoft UCS-4,
+     * Microsoft Unicode BMP, and Unicode platform subtables are considered.
+     * Among those, format 12 is preferred over format 4 over all other
+     * formats. If there is no Unicode subtable, the Microsoft Symbol subtable
+     * is used, which maps code points from the Unicode private use area.
+     * </p>
+     */
+    public CmapFormat getUnicodeFormat() {
+        return _unicodeFormat;
+    }
+    
+    private CmapFormat selectUnicodeFormat() {
+        CmapFormat result = null;
+        int resultRank = 0;
+        for (CmapIndexEntry entry : _entries) {
+            int rank = rankUnicode(entry);
+            if (rank > resultRank) {
+                result = entry.getFormat();
+                resultRank = rank;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Preference of the given entry as Unicode mapping, <code>0</code> for
+     * entries not mapping Unicode.
+     */
+    private static int rankUnicode(CmapIndexEntry entry) {
+        if (entry.getFormat() instanceof CmapFormatUnknown) {
+            // E.g. format 14 for Unicode variation sequences.
+            return 0;
+        }
+        
+        int formatRank;
+        switch (entry.getFormat().getFormat()) {
+            case 12: formatRank = 3; break;
+            case 4: formatRank = 2; break;
+            default: formatRank = 1; break;
+        }
+        
+        int platformId = entry.getPlatformId();
+        int encodingId = entry.getEncodingId();
+        if (platformId == ID.platformMicrosoft) {
+            switch (encodingId) {
+                case ID.encodingUCS4:
+                case ID.encodingUnicode:
+                    return 10 + formatRank;
+                case ID.encodingSymbol:
+                    return formatRank;
+            }
+        } else if (platformId == ID.platformUnicode) {
+            return 10 + formatRank;
+        }
+        return 0;
+    }
+    
+    /**
+     * Maps all given Unicode code points to glyph IDs using the
+     * {@link #getUnicodeFormat() Unicode subtable}.
+     * 
+     * <p>
+     * If there is no Unicode subtable, all code points are mapped to the
+     * missing glyph <code>0</code>.
+     * </p>
+     * 
+     * @see CmapFormat#mapCharCodes(int[], int[])
+     */
+    public void mapCharCodes(int[] codePoints, int[] glyphIds) {
+        CmapFormat format = getUnicodeFormat();
+        if (format == null) {
+            Arrays.fill(glyphIds, 0, codePoints.length, 0);
+        } else {
+            format.mapCharCodes(codePoints, glyphIds);
+        }
+    }
+
+    /**
+     * Maps the code points of the given text to glyph IDs using the
+     * {@link #getUnicodeFormat() Unicode subtable}.
+     * 
+     * @return The number of glyph IDs stored.
+     * 
+     * @see CmapFormat#mapString(CharSequence, int[])
+     */
+    public int mapString(CharSequence text, int[] glyphIds) {
+        CmapFormat format = getUnicodeFormat();
+        if (format == null) {
+            int cnt = CmapFormat.codePoints(text, glyphIds);
+            Arrays.fill(glyphIds, 0, cnt, 0);
+            return cnt;
+        } else {
+            return format.mapString(text, glyphIds);
+        }
+    }
+
+    /**
+     * Index mapping glyph IDs back to the Unicode code points mapped to them
+     * by the {@link #getUnicodeFormat() Unicode subtable}, or
+     * <code>null</code>, if there is no Unicode subtable.
+     * 
+     * <p>
+     * The index is built upon first access.
+     * </p>
+     */
+    public CmapReverseIndex getReverseIndex() {
+        CmapReverseIndex result = _reverseIndex;
+        if (result == null) {
+            CmapFormat format = getUnicodeFormat();
+            if (format == null) {
+                return null;
+            }
+            result = new CmapReverseIndex(format);
+            _reverseIndex = result;
+        }
+        return result;
+    }
 
     @Override
     public String toString() {
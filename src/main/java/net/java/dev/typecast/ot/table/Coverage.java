@@ -59,6 +59,28 @@ import java.io.IOException;
  */
 public abstract class Coverage {
 
+    /**
+     * Maximum number of direct index entries per covered glyph for building a
+     * {@link #isDense() dense} index.
+     */
+    private static final int MAX_DENSE_SPAN_PER_GLYPH = 8;
+    
+    /**
+     * Minimum number of covered glyphs for building a dense index.
+     */
+    private static final int MIN_DENSE_GLYPHS = 8;
+
+    /**
+     * The smallest covered glyph ID, if {@link #_dense} is set.
+     */
+    private int _denseFirst;
+    
+    /**
+     * Coverage index plus one for each glyph ID starting with
+     * {@link #_denseFirst}, <code>0</code> for glyphs not covered.
+     */
+    private char[] _dense;
+
     public abstract int getFormat();
 
     /**
@@ -66,10 +88,68 @@ public abstract class Coverage {
      * @return The index of the glyph within the coverage, or -1 if the glyph
      * can't be found.
      */
-    public abstract int findGlyph(int glyphId);
+    public final int findGlyph(int glyphId) {
+        char[] dense = _dense;
+        if (dense != null) {
+            int index = glyphId - _denseFirst;
+            if (index < 0 || index >= dense.length) {
+                return -1;
+            }
+            return dense[index] - 1;
+        }
+        return searchGlyph(glyphId);
+    }
+    
+    /**
+     * Searches the given glyph in the coverage data.
+     * 
+     * @see #findGlyph(int)
+     */
+    protected abstract int searchGlyph(int glyphId);
     
+    /**
+     * The number of glyphs in this coverage.
+     */
+    public abstract int getGlyphCount();
+    
+    /**
+     * All covered glyph IDs in the order of their coverage index.
+     */
     public abstract int[] getGlyphIds();
     
+    /**
+     * Whether glyphs are looked up by direct indexing.
+     * 
+     * <p>
+     * A dense index is built while reading, if the covered glyph IDs are
+     * not too sparse.
+     * </p>
+     */
+    public boolean isDense() {
+        return _dense != null;
+    }
+    
+    /**
+     * Builds a direct index, if the coverage is dense enough.
+     */
+    final void initDenseIndex(int first, int last) {
+        int glyphCount = getGlyphCount();
+        if (glyphCount < MIN_DENSE_GLYPHS || last < first) {
+            return;
+        }
+        long span = (long) last - first + 1;
+        if (span > (long) MAX_DENSE_SPAN_PER_GLYPH * glyphCount || glyphCount > 0xFFFF) {
+            return;
+        }
+        
+        char[] dense = new char[(int) span];
+        for (int glyphId = first; glyphId <= last; glyphId++) {
+            dense[glyphId - first] = (char) (searchGlyph(glyphId) + 1);
+        }
+        _denseFirst = first;
+        _dense = dense;
+    }
+    
     static Coverage read(DataInput di) throws IOException {
         Coverage c = null;
         int format = di.readUnsignedShort();
@@ -52,6 +52,7 @@ package net.java.dev.typecast.ot.table;
 
 import java.io.DataInput;
 import java.io.IOException;
+import java.util.Arrays;
 
 /**
  *
@@ -61,13 +62,25 @@ public class CoverageFormat1 extends Coverage {
 
     private final int _glyphCount;
     private final int[] _glyphIds;
+    
+    /**
+     * Whether {@link #_glyphIds} is sorted as required by the specification.
+     */
+    private final boolean _sorted;
 
     /** Creates new CoverageFormat1 */
     CoverageFormat1(DataInput di) throws IOException {
         _glyphCount = di.readUnsignedShort();
         _glyphIds = new int[_glyphCount];
+        boolean sorted = true;
         for (int i = 0; i < _glyphCount; i++) {
             _glyphIds[i] = di.readUnsignedShort();
+            sorted &= i == 0 || _glyphIds[i - 1] < _glyphIds[i];
+        }
+        _sorted = sorted;
+        
+        if (sorted && _glyphCount > 0) {
+            initDenseIndex(_glyphIds[0], _glyphIds[_glyphCount - 1]);
         }
     }
 
@@ -77,7 +90,13 @@ public class CoverageFormat1 extends Coverage {
     }
 
     @Override
-    public int findGlyph(int glyphId) {
+    protected int searchGlyph(int glyphId) {
+        if (_sorted) {
+            int index = Arrays.binarySearch(_glyphIds, glyphId);
+            return index < 0 ? -1 : index;
+        }
+        
+        // Broken font, fall back to linear search.
         for (int i = 0; i < _glyphCount; i++) {
             if (_glyphIds[i] == glyphId) {
                 return i;
@@ -85,6 +104,11 @@ public class CoverageFormat1 extends Coverage {
         }
         return -1;
     }
+    
+    @Override
+    public int getGlyphCount() {
+        return _glyphCount;
+    }
 
     @Override
     public int[] getGlyphIds() {
@@ -52,8 +52,6 @@ package net.java.dev.typecast.ot.table;
 
 import java.io.DataInput;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  *
@@ -63,13 +61,39 @@ public class CoverageFormat2 extends Coverage {
 
     private final int _rangeCount;
     private final RangeRecord[] _rangeRecords;
+    
+    /**
+     * The end glyph IDs of all ranges for binary search.
+     */
+    private final int[] _ends;
+    
+    /**
+     * Whether the ranges are sorted and do not overlap as required by the
+     * specification.
+     */
+    private final boolean _sorted;
+    
+    private final int _glyphCount;
 
     /** Creates new CoverageFormat2 */
     CoverageFormat2(DataInput di) throws IOException {
         _rangeCount = di.readUnsignedShort();
         _rangeRecords = new RangeRecord[_rangeCount];
+        _ends = new int[_rangeCount];
+        boolean sorted = true;
+        int glyphCount = 0;
         for (int i = 0; i < _rangeCount; i++) {
-            _rangeRecords[i] = new RangeRecord(di);
+            RangeRecord record = new RangeRecord(di);
+            _rangeRecords[i] = record;
+            _ends[i] = record.getEnd();
+            sorted &= i == 0 || _ends[i - 1] < record.getStart();
+            glyphCount += Math.max(0, record.getEnd() - record.getStart() + 1);
+        }
+        _sorted = sorted;
+        _glyphCount = glyphCount;
+        
+        if (sorted && _rangeCount > 0) {
+            initDenseIndex(_rangeRecords[0].getStart(), _ends[_rangeCount - 1]);
         }
     }
 
@@ -79,7 +103,23 @@ public class CoverageFormat2 extends Coverage {
     }
 
     @Override
-    public int findGlyph(int glyphId) {
+    protected int searchGlyph(int glyphId) {
+        if (_sorted) {
+            // Search the first range whose end is not less than the glyph ID.
+            int low = 0;
+            int high = _rangeCount;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (_ends[mid] < glyphId) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low == _rangeCount ? -1 : _rangeRecords[low].getCoverageIndex(glyphId);
+        }
+        
+        // Broken font, fall back to linear search.
         for (int i = 0; i < _rangeCount; i++) {
             int n = _rangeRecords[i].getCoverageIndex(glyphId);
             if (n > -1) {
@@ -89,15 +129,21 @@ public class CoverageFormat2 extends Coverage {
         return -1;
     }
 
+    @Override
+    public int getGlyphCount() {
+        return _glyphCount;
+    }
+
     @Override
     public int[] getGlyphIds() {
-        List<Integer> ids = new ArrayList<>();
+        int[] ids = new int[_glyphCount];
+        int n = 0;
         for (RangeRecord record : _rangeRecords) {
-            for (int i = record.getStart(); i < record.getEnd(); ++i) {
-                ids.add(i);
+            for (int i = record.getStart(); i <= record.getEnd(); ++i) {
+                ids[n++] = i;
             }
         }
-        return ids.stream().mapToInt(i->i).toArray();
+        return ids;
     }
     
     @Override
@@ -0,0 +1,133 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.io.IOException;
+
+import net.java.dev.typecast.io.BinaryInput;
+
+/**
+ * Cursive attachment positioning format 1.
+ *
+ * <p>
+ * The connection is applied in horizontal left-to-right direction: The
+ * advance of the exiting glyph ends at its exit anchor and the entering glyph
+ * is moved so that its entry anchor is at the pen position. The vertical
+ * offset is assigned to the glyph attached to its neighbor depending on the
+ * {@link Lookup#RIGHT_TO_LEFT} flag.
+ * </p>
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class CursivePosFormat1 extends CursivePos {
+
+    private final Coverage _coverage;
+
+    private final Anchor[] _entryAnchors;
+
+    private final Anchor[] _exitAnchors;
+
+    /** Creates new CursivePosFormat1 */
+    CursivePosFormat1(BinaryInput in, int offset) throws IOException {
+        int coverageOffset = in.readUnsignedShort();
+        int entryExitCount = in.readUnsignedShort();
+        int[] entryOffsets = new int[entryExitCount];
+        int[] exitOffsets = new int[entryExitCount];
+        for (int i = 0; i < entryExitCount; i++) {
+            entryOffsets[i] = in.readUnsignedShort();
+            exitOffsets[i] = in.readUnsignedShort();
+        }
+
+        in.setPosition(offset + coverageOffset);
+        _coverage = Coverage.read(in);
+
+        _entryAnchors = new Anchor[entryExitCount];
+        _exitAnchors = new Anchor[entryExitCount];
+        for (int i = 0; i < entryExitCount; i++) {
+            _entryAnchors[i] = Anchor.read(in, offset, entryOffsets[i]);
+            _exitAnchors[i] = Anchor.read(in, offset, exitOffsets[i]);
+        }
+    }
+
+    @Override
+    public int getFormat() {
+        return 1;
+    }
+
+    @Override
+    public boolean apply(LookupContext context) {
+        GlyphBuffer buffer = context.getBuffer();
+        int index = context.getPosition();
+        Anchor entry = anchor(_entryAnchors, buffer.getGlyph(index));
+        if (entry == null) {
+            return false;
+        }
+        int previous = context.previous(index);
+        if (previous < 0) {
+            return false;
+        }
+        Anchor exit = anchor(_exitAnchors, buffer.getGlyph(previous));
+        if (exit == null) {
+            return false;
+        }
+
+        buffer.setAdvance(previous, exit.getX() + buffer.getXOffset(previous), buffer.getYAdvance(previous));
+        int delta = entry.getX() + buffer.getXOffset(index);
+        buffer.adjust(index, -delta, 0, -delta, 0);
+
+        int child;
+        int parent;
+        int yOffset;
+        if ((context.getLookupFlag() & Lookup.RIGHT_TO_LEFT) != 0) {
+            child = previous;
+            parent = index;
+            yOffset = entry.getY() - exit.getY();
+        } else {
+            child = index;
+            parent = previous;
+            yOffset = exit.getY() - entry.getY();
+        }
+        buffer.setOffset(child, buffer.getXOffset(child), yOffset);
+        buffer.attach(child, parent, GlyphBuffer.ATTACH_CURSIVE);
+        return true;
+    }
+
+    private Anchor anchor(Anchor[] anchors, int glyphId) {
+        int i = _coverage.findGlyph(glyphId);
+        if (i < 0 || i >= anchors.length) {
+            return null;
+        }
+        return anchors[i];
+    }
+
+    @Override
+    public String getTypeAsString() {
+        return "CursivePosFormat1";
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < _entryAnchors.length; i++) {
+            sb.append("                entry " + _entryAnchors[i] + " exit " + _exitAnchors[i] + "\n");
+        }
+        sb.append(_coverage.toString());
+        return sb.toString();
+    }
+
+}
@@ -50,9 +50,10 @@
 
 package net.java.dev.typecast.ot.table;
 
-import java.io.DataInputStream;
 import java.io.IOException;
 
+import net.java.dev.typecast.io.BinaryInput;
+
 /**
  *
  * @author <a href="mailto:david.schweinsberg@gmail.com">David Schweinsberg</a>
@@ -64,23 +65,21 @@ public class FeatureList {
     private Feature[] _features;
 
     /** Creates new FeatureList */
-    public FeatureList(DataInputStream dis, int offset) throws IOException {
+    public FeatureList(BinaryInput in, int offset) throws IOException {
         
         // Ensure we're in the right place
-        dis.reset();
-        dis.skipBytes(offset);
+        in.setPosition(offset);
         
         // Start reading
-        _featureCount = dis.readUnsignedShort();
+        _featureCount = in.readUnsignedShort();
         _featureRecords = new FeatureRecord[_featureCount];
         _features = new Feature[_featureCount];
         for (int i = 0; i < _featureCount; i++) {
-            _featureRecords[i] = new FeatureRecord(dis);
+            _featureRecords[i] = new FeatureRecord(in);
         }
         for (int i = 0; i < _featureCount; i++) {
-            dis.reset();
-            dis.skipBytes(offset + _featureRecords[i].getOffset());
-            _features[i] = new Feature(dis);
+            in.setPosition(offset + _featureRecords[i].getOffset());
+            _features[i] = new Feature(in);
         }
     }
 
@@ -100,10 +99,7 @@ public class FeatureList {
         if (tag.length() != 4) {
             return null;
         }
-        int tagVal = ((tag.charAt(0)<<24)
-            | (tag.charAt(1)<<16)
-            | (tag.charAt(2)<<8)
-            | tag.charAt(3));
+        int tagVal = TableDirectory.fromStringTag(tag);
         for (int i = 0; i < _featureCount; i++) {
             if (_featureRecords[i].getTag() == tagVal) {
                 if (langSys.isFeatureIndexed(i)) {
@@ -0,0 +1,287 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The lookups to apply for a set of features in a script and language system,
+ * resolved from the script, feature, and lookup lists of a {@link GsubTable}
+ * or {@link GposTable}.
+ *
+ * <p>
+ * The lookup indices are sorted in lookup list order (which is the order in
+ * which lookups must be applied) and contain no duplicates. Plans are
+ * compiled once and cached by their table.
+ * </p>
+ *
+ * @see GsubTable#getFeaturePlan(String, String, String...)
+ * @see GposTable#getFeaturePlan(String, String, String...)
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public final class FeaturePlan {
+
+    /**
+     * Tags of the scripts to use, if a font does not support the requested
+     * script.
+     */
+    private static final int[] FALLBACK_SCRIPTS = {
+        TableDirectory.fromStringTag(ScriptTags.SCRIPT_TAG_DFLT),
+        TableDirectory.fromStringTag("dflt"),
+        TableDirectory.fromStringTag(ScriptTags.SCRIPT_TAG_LATN),
+    };
+
+    private static final int[] NO_LOOKUPS = {};
+
+    private final String _script;
+
+    private final String _language;
+
+    private final String[] _features;
+
+    private final int[] _lookupIndices;
+
+    private FeaturePlan(String script, String language, String[] features, int[] lookupIndices) {
+        _script = script;
+        _language = language;
+        _features = features;
+        _lookupIndices = lookupIndices;
+    }
+
+    /**
+     * The requested script tag.
+     */
+    public String getScript() {
+        return _script;
+    }
+
+    /**
+     * The requested language system tag, <code>null</code> for the default
+     * language system.
+     */
+    public String getLanguage() {
+        return _language;
+    }
+
+    /**
+     * The requested feature tags.
+     */
+    public String[] getFeatures() {
+        return _features.clone();
+    }
+
+    /**
+     * Whether this plan contains no lookups.
+     */
+    public boolean isEmpty() {
+        return _lookupIndices.length == 0;
+    }
+
+    public int getLookupCount() {
+        return _lookupIndices.length;
+    }
+
+    public int getLookupIndex(int i) {
+        return _lookupIndices[i];
+    }
+
+    /**
+     * The internal array of sorted lookup indices, which must not be
+     * modified.
+     *
+     * @see GsubTable#apply(GlyphBuffer, GdefTable, int...)
+     * @see GposTable#apply(GlyphBuffer, GdefTable, int...)
+     */
+    public int[] getLookupIndices() {
+        return _lookupIndices;
+    }
+
+    /**
+     * Resolves the lookups for the given features.
+     *
+     * <p>
+     * If the requested script is not present, the default script is used. If
+     * the requested language system is not present, the default language
+     * system of the script is used. The required feature of the language
+     * system is always included.
+     * </p>
+     *
+     * @param scriptList
+     *        The scripts of the table.
+     * @param featureList
+     *        The features of the table.
+     * @param script
+     *        The script tag, <code>null</code> for the default script.
+     * @param language
+     *        The language system tag, <code>null</code> for the default
+     *        language system.
+     * @param features
+     *        The feature tags to resolve.
+     */
+    public static FeaturePlan compile(ScriptList scriptList, FeatureList featureList,
+            String script, String language, String... features) {
+        String[] featureTags = features.clone();
+        LangSys langSys = findLangSys(scriptList, script, language);
+        if (langSys == null) {
+            return new FeaturePlan(script, language, featureTags, NO_LOOKUPS);
+        }
+
+        int[] tags = new int[featureTags.length];
+        for (int n = 0; n < tags.length; n++) {
+            tags[n] = toTag(featureTags[n]);
+        }
+        Arrays.sort(tags);
+
+        BitSet lookups = new BitSet();
+        int featureCount = featureList.getFeatureCount();
+        int required = langSys.getReqFeatureIndex();
+        if (required < featureCount) {
+            addLookups(lookups, featureList.getFeature(required));
+        }
+        for (int i = 0, cnt = langSys.getFeatureCount(); i < cnt; i++) {
+            int featureIndex = langSys.getFeatureIndex(i);
+            if (featureIndex >= featureCount) {
+                continue;
+            }
+            if (Arrays.binarySearch(tags, featureList.getFeatureRecord(featureIndex).getTag()) >= 0) {
+                addLookups(lookups, featureList.getFeature(featureIndex));
+            }
+        }
+        return new FeaturePlan(script, language, featureTags, lookups.stream().toArray());
+    }
+
+    private static LangSys findLangSys(ScriptList scriptList, String script, String language) {
+        if (scriptList == null) {
+            return null;
+        }
+        Script s = script == null ? null : scriptList.findScript(toTag(script));
+        for (int n = 0; s == null && n < FALLBACK_SCRIPTS.length; n++) {
+            s = scriptList.findScript(FALLBACK_SCRIPTS[n]);
+        }
+        if (s == null) {
+            return null;
+        }
+        LangSys result = language == null ? null : s.findLangSys(toTag(language));
+        return result == null ? s.getDefaultLangSys() : result;
+    }
+
+    private static void addLookups(BitSet lookups, Feature feature) {
+        for (int n = 0, cnt = feature.getLookupCount(); n < cnt; n++) {
+            lookups.set(feature.getLookupListIndex(n));
+        }
+    }
+
+    /**
+     * Converts a tag to its numeric value, padding short tags with spaces.
+     */
+    private static int toTag(String tag) {
+        if (tag.length() >= 4) {
+            return TableDirectory.fromStringTag(tag.substring(0, 4));
+        }
+        StringBuilder padded = new StringBuilder(tag);
+        while (padded.length() < 4) {
+            padded.append(' ');
+        }
+        return TableDirectory.fromStringTag(padded.toString());
+    }
+
+    @Override
+    public String toString() {
+        return "FeaturePlan(" + _script + ", " + _language + ", " + Arrays.toString(_features) + ": "
+            + Arrays.toString(_lookupIndices) + ")";
+    }
+
+    /**
+     * Cache of compiled plans for the lists of a single table.
+     */
+    static final class Cache {
+
+        private final ScriptList _scriptList;
+
+        private final FeatureList _featureList;
+
+        private final ConcurrentHashMap<Key, FeaturePlan> _plans = new ConcurrentHashMap<>();
+
+        Cache(ScriptList scriptList, FeatureList featureList) {
+            _scriptList = scriptList;
+            _featureList = featureList;
+        }
+
+        FeaturePlan get(String script, String language, String... features) {
+            Key key = new Key(script, language, features);
+            FeaturePlan result = _plans.get(key);
+            if (result == null) {
+                result = compile(_scriptList, _featureList, script, language, features);
+                FeaturePlan before = _plans.putIfAbsent(key, result);
+                if (before != null) {
+                    result = before;
+                }
+            }
+            return result;
+        }
+
+    }
+
+    private static final class Key {
+
+        private final String _script;
+
+        private final String _language;
+
+        private final String[] _features;
+
+        private final int _hash;
+
+        Key(String script, String language, String[] features) {
+            _script = script;
+            _language = language;
+            _features = features.clone();
+            _hash = 31 * (31 * Arrays.hashCode(_features) + hash(script)) + hash(language);
+        }
+
+        private static int hash(String value) {
+            return value == null ? 0 : value.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return _hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return _hash == other._hash
+                && equal(_script, other._script)
+                && equal(_language, other._language)
+                && Arrays.equals(_features, other._features);
+        }
+
+        private static boolean equal(String s1, String s2) {
+            return s1 == null ? s2 == null : s1.equals(s2);
+        }
+
+    }
+
+}
@@ -4,18 +4,135 @@ package net.java.dev.typecast.ot.table;
 import java.io.DataInput;
 import java.io.IOException;
 
+import net.java.dev.typecast.io.BinaryBufferInput;
+import net.java.dev.typecast.io.BinaryInput;
+
 /**
  * GDEF — Glyph Definition Table
  * 
+ * <p>
+ * Besides the parsed sub-tables, the glyph class and mark attachment class of
+ * each glyph are combined into a single array, so that lookups can decide
+ * whether to skip a glyph with a single array access.
+ * </p>
+ * 
  * @author <a href="mailto:david.schweinsberg@gmail.com">David Schweinsberg</a>
  * 
  * <a href="https://docs.microsoft.com/en-us/typography/opentype/spec/gdef">Spec: Glyph Definition Table</a>
  */
 public class GdefTable implements Table {
 
+    // Glyph class definitions
+    public static final int BASE_GLYPH = 1;
+    public static final int LIGATURE_GLYPH = 2;
+    public static final int MARK_GLYPH = 3;
+    public static final int COMPONENT_GLYPH = 4;
+
+    /**
+     * Version 1.2 of {@link GdefTable} adding mark glyph sets.
+     */
+    public static final int VERSION_1_2 = 0x00010002;
+
+    private static final int IGNORE_FLAGS =
+        Lookup.IGNORE_BASE_GLYPHS | Lookup.IGNORE_BASE_LIGATURES | Lookup.IGNORE_BASE_MARKS;
+
+    private static final char[] NO_PROPS = {};
+
+    private static final Coverage[] NO_SETS = {};
+
+    private int _version;
+    private ClassDef _glyphClassDef;
+    private AttachList _attachList;
+    private LigCaretList _ligCaretList;
+    private ClassDef _markAttachClassDef;
+    private Coverage[] _markGlyphSets = NO_SETS;
+
+    /**
+     * Properties of each glyph: The low byte holds the lookup flag bit that
+     * ignores the glyph's class, the high byte holds the glyph's mark
+     * attachment class (positioned like {@link Lookup#MARK_ATTACHMENT_TYPE}).
+     */
+    private char[] _glyphProps = NO_PROPS;
+
     @Override
     public void read(DataInput di, int length) throws IOException {
-        // TODO: Implement.
+        // Random access to the table data, offsets are relative to its start.
+        BinaryInput in = BinaryBufferInput.slice(di, length);
+
+        _version = in.readInt();
+        int glyphClassDefOffset = in.readUnsignedShort();
+        int attachListOffset = in.readUnsignedShort();
+        int ligCaretListOffset = in.readUnsignedShort();
+        int markAttachClassDefOffset = in.readUnsignedShort();
+        int markGlyphSetsDefOffset = 0;
+        if (_version >= VERSION_1_2) {
+            markGlyphSetsDefOffset = in.readUnsignedShort();
+        }
+
+        _glyphClassDef = SequenceContext.readClassDef(in, 0, glyphClassDefOffset);
+        if (attachListOffset != 0) {
+            _attachList = new AttachList(in, attachListOffset);
+        }
+        if (ligCaretListOffset != 0) {
+            _ligCaretList = new LigCaretList(in, ligCaretListOffset);
+        }
+        _markAttachClassDef = SequenceContext.readClassDef(in, 0, markAttachClassDefOffset);
+        if (markGlyphSetsDefOffset != 0) {
+            _markGlyphSets = readMarkGlyphSets(in, markGlyphSetsDefOffset);
+        }
+
+        _glyphProps = createGlyphProps();
+    }
+
+    private static Coverage[] readMarkGlyphSets(BinaryInput in, int offset) throws IOException {
+        in.setPosition(offset);
+        int format = in.readUnsignedShort();
+        if (format != 1) {
+            return NO_SETS;
+        }
+        int markGlyphSetCount = in.readUnsignedShort();
+        long[] coverageOffsets = new long[markGlyphSetCount];
+        for (int i = 0; i < markGlyphSetCount; i++) {
+            coverageOffsets[i] = in.readInt() & 0xFFFFFFFFL;
+        }
+        Coverage[] result = new Coverage[markGlyphSetCount];
+        for (int i = 0; i < markGlyphSetCount; i++) {
+            in.setPosition(offset + (int) coverageOffsets[i]);
+            result[i] = Coverage.read(in);
+        }
+        return result;
+    }
+
+    private char[] createGlyphProps() {
+        int last = Math.max(lastGlyph(_glyphClassDef), lastGlyph(_markAttachClassDef));
+        if (last < 0) {
+            return NO_PROPS;
+        }
+        char[] result = new char[Math.min(last, 0xFFFF) + 1];
+        for (int glyphId = 0; glyphId < result.length; glyphId++) {
+            int props = 0;
+            int glyphClass = _glyphClassDef == null ? 0 : _glyphClassDef.getGlyphClass(glyphId);
+            switch (glyphClass) {
+            case BASE_GLYPH:
+                props = Lookup.IGNORE_BASE_GLYPHS;
+                break;
+            case LIGATURE_GLYPH:
+                props = Lookup.IGNORE_BASE_LIGATURES;
+                break;
+            case MARK_GLYPH:
+                props = Lookup.IGNORE_BASE_MARKS;
+                break;
+            }
+            if (_markAttachClassDef != null) {
+                props |= (_markAttachClassDef.getGlyphClass(glyphId) & 0xFF) << 8;
+            }
+            result[glyphId] = (char) props;
+        }
+        return result;
+    }
+
+    private static int lastGlyph(ClassDef classDef) {
+        return classDef == null ? -1 : classDef.getLastGlyph();
     }
 
     @Override
@@ -23,4 +140,129 @@ public class GdefTable implements Table {
         return GDEF;
     }
 
+    /**
+     * Major, minor version as high and low word.
+     */
+    public int getVersion() {
+        return _version;
+    }
+
+    /**
+     * The glyph class definitions, or <code>null</code>, if not present.
+     */
+    public ClassDef getGlyphClassDef() {
+        return _glyphClassDef;
+    }
+
+    /**
+     * The attachment point list, or <code>null</code>, if not present.
+     */
+    public AttachList getAttachList() {
+        return _attachList;
+    }
+
+    /**
+     * The ligature caret list, or <code>null</code>, if not present.
+     */
+    public LigCaretList getLigCaretList() {
+        return _ligCaretList;
+    }
+
+    /**
+     * The mark attachment class definitions, or <code>null</code>, if not
+     * present.
+     */
+    public ClassDef getMarkAttachClassDef() {
+        return _markAttachClassDef;
+    }
+
+    /**
+     * The class of the given glyph.
+     * 
+     * @return One of {@link #BASE_GLYPH}, {@link #LIGATURE_GLYPH},
+     *         {@link #MARK_GLYPH}, {@link #COMPONENT_GLYPH}, or <code>0</code>
+     *         if the glyph has no class assigned.
+     */
+    public int getGlyphClass(int glyphId) {
+        return _glyphClassDef == null ? 0 : _glyphClassDef.getGlyphClass(glyphId);
+    }
+
+    /**
+     * Whether the given glyph is classified as mark.
+     */
+    public boolean isMark(int glyphId) {
+        return (props(glyphId) & Lookup.IGNORE_BASE_MARKS) != 0;
+    }
+
+    /**
+     * The mark attachment class of the given glyph.
+     */
+    public int getMarkAttachClass(int glyphId) {
+        return props(glyphId) >>> 8;
+    }
+
+    /**
+     * The number of mark glyph sets.
+     */
+    public int getMarkGlyphSetCount() {
+        return _markGlyphSets.length;
+    }
+
+    /**
+     * Whether the given glyph is in the mark glyph set with the given index.
+     */
+    public boolean isInMarkGlyphSet(int markGlyphSet, int glyphId) {
+        return markGlyphSet < _markGlyphSets.length && _markGlyphSets[markGlyphSet].findGlyph(glyphId) >= 0;
+    }
+
+    /**
+     * Whether a lookup with the given flags skips the given glyph.
+     * 
+     * @param glyphId
+     *        The glyph to test.
+     * @param lookupFlag
+     *        See {@link Lookup#getFlag()}.
+     * @param markFilteringSet
+     *        See {@link Lookup#getMarkFilteringSet()}.
+     */
+    public boolean isIgnored(int glyphId, int lookupFlag, int markFilteringSet) {
+        int props = props(glyphId);
+        if ((props & lookupFlag & IGNORE_FLAGS) != 0) {
+            return true;
+        }
+        if ((props & Lookup.IGNORE_BASE_MARKS) != 0) {
+            if ((lookupFlag & Lookup.USE_MARK_FILTERING_SET) != 0) {
+                return !isInMarkGlyphSet(markFilteringSet, glyphId);
+            }
+            int markAttachmentType = lookupFlag & Lookup.MARK_ATTACHMENT_TYPE;
+            if (markAttachmentType != 0) {
+                return markAttachmentType != (props & Lookup.MARK_ATTACHMENT_TYPE);
+            }
+        }
+        return false;
+    }
+
+    private int props(int glyphId) {
+        char[] glyphProps = _glyphProps;
+        return glyphId >= 0 && glyphId < glyphProps.length ? glyphProps[glyphId] : 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("'GDEF' Table - Glyph Definition Table\n");
+        sb.append("-------------------------------------\n");
+        sb.append("    version            = ").append(Integer.toHexString(_version)).append("\n");
+        sb.append("    glyphClassDef      = ").append(_glyphClassDef != null).append("\n");
+        sb.append("    markAttachClassDef = ").append(_markAttachClassDef != null).append("\n");
+        sb.append("    markGlyphSetCount  = ").append(_markGlyphSets.length).append("\n");
+        if (_attachList != null) {
+            sb.append(_attachList);
+        }
+        if (_ligCaretList != null) {
+            sb.append(_ligCaretList);
+        }
+        return sb.toString();
+    }
+
 }
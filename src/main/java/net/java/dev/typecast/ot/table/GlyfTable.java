@@ -50,14 +50,14 @@
 
 package net.java.dev.typecast.ot.table;
 
-import java.io.ByteArrayInputStream;
 import java.io.DataInput;
-import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.io.Writer;
-import java.util.ArrayList;
+import java.util.BitSet;
 
 import net.java.dev.typecast.io.BinUtils;
+import net.java.dev.typecast.io.BinaryBufferInput;
 import net.java.dev.typecast.io.BinaryOutput;
 import net.java.dev.typecast.io.Writable;
 
@@ -93,7 +93,35 @@ import net.java.dev.typecast.io.Writable;
  */
 public class GlyfTable extends AbstractTable implements Writable {
 
-    private final ArrayList<GlyfDescript> _descript = new ArrayList<>();
+    /**
+     * Decoded glyph descriptions indexed by glyph ID, <code>null</code> in
+     * lazy mode with caching disabled or a bounded
+     * {@link #getDescriptionCache() description cache}.
+     */
+    private GlyfDescript[] _descript = new GlyfDescript[0];
+    
+    /**
+     * The raw table data for decoding glyph descriptions on demand,
+     * <code>null</code> if all descriptions have been decoded.
+     * 
+     * <p>
+     * Cleared only after {@link #_descript} has been filled, so that a
+     * thread seeing <code>null</code> can read descriptions without locking.
+     * </p>
+     */
+    private volatile BinaryBufferInput _data;
+    
+    private int _numGlyphs;
+    
+    private boolean _cacheDescriptions = true;
+    
+    private GlyphCache<GlyfDescript> _descriptionCache;
+    
+    /**
+     * Glyphs currently being decoded for detecting cyclic component
+     * references, only accessed while holding the lock of this table.
+     */
+    private BitSet _decoding;
 
     /**
      * Creates a {@link GlyfTable}.
@@ -102,57 +130,166 @@ public class GlyfTable extends AbstractTable implements Writable {
         super(directory);
     }
     
+    /**
+     * Whether glyph descriptions decoded on demand are kept.
+     * 
+     * <p>
+     * Only relevant, if the font is read in
+     * {@link TableDirectory#isLazy() lazy mode}. Otherwise, all glyph
+     * descriptions are decoded when the table is read.
+     * </p>
+     */
+    public boolean isCacheDescriptions() {
+        return _cacheDescriptions;
+    }
+    
+    /**
+     * @see #isCacheDescriptions()
+     */
+    public synchronized void setCacheDescriptions(boolean cacheDescriptions) {
+        _cacheDescriptions = cacheDescriptions;
+        updateArrayCache();
+    }
+    
+    /**
+     * Optional bounded cache for glyph descriptions decoded on demand.
+     * 
+     * <p>
+     * If set, only the glyph descriptions that fit into the budget of the
+     * cache are kept instead of all descriptions decoded so far. Like
+     * {@link #isCacheDescriptions()}, only relevant, if the font is read in
+     * {@link TableDirectory#isLazy() lazy mode}.
+     * </p>
+     * 
+     * @see #estimateSize(GlyfDescript)
+     */
+    public GlyphCache<GlyfDescript> getDescriptionCache() {
+        return _descriptionCache;
+    }
+    
+    /**
+     * @see #getDescriptionCache()
+     */
+    public synchronized void setDescriptionCache(GlyphCache<GlyfDescript> descriptionCache) {
+        _descriptionCache = descriptionCache;
+        updateArrayCache();
+    }
+    
+    private boolean useArrayCache() {
+        return _cacheDescriptions && _descriptionCache == null;
+    }
+    
+    /**
+     * Allocates or drops the array of decoded descriptions after the caching
+     * mode has changed, while descriptions are still decoded on demand.
+     */
+    private void updateArrayCache() {
+        if (_data == null) {
+            return;
+        }
+        if (useArrayCache()) {
+            if (_descript == null) {
+                _descript = new GlyfDescript[_numGlyphs];
+            }
+        } else {
+            _descript = null;
+        }
+    }
+    
+    /**
+     * Creates a {@link GlyphCache} for glyph descriptions limited by their
+     * estimated memory footprint.
+     * 
+     * @param maxBytes
+     *        The approximate number of bytes the cached glyph descriptions
+     *        may occupy.
+     * 
+     * @see #setDescriptionCache(GlyphCache)
+     */
+    public static GlyphCache<GlyfDescript> createDescriptionCache(long maxBytes) {
+        return new GlyphCache<>(maxBytes, GlyfTable::estimateSize);
+    }
+    
+    /**
+     * Rough estimate of the number of bytes the given glyph description
+     * occupies on the heap.
+     */
+    public static int estimateSize(GlyfDescript glyph) {
+        int size = 64 + 2 * glyph.getInstructionLength();
+        if (glyph.isComposite()) {
+            size += 80 * ((GlyfCompositeDescript) glyph).getComponentCount();
+        } else {
+            // Flags, x and y coordinates and end points of contours.
+            size += 5 * glyph.getPointCount() + 4 * glyph.getContourCount();
+        }
+        return size;
+    }
+    
     @Override
     public void read(DataInput di, int length) throws IOException {
-        int numGlyphs = maxp().getNumGlyphs();
-        _descript.ensureCapacity(numGlyphs);
+        _numGlyphs = maxp().getNumGlyphs();
+        _descript = useArrayCache() ? new GlyfDescript[_numGlyphs] : null;
         
-        // Buffer the whole table so we can randomly access it
-        byte[] buf = new byte[length];
-        di.readFully(buf);
+        // Keep the table data for random access. Glyph descriptions are
+        // decoded on demand using the offsets from the 'loca' table.
+        _data = BinaryBufferInput.slice(di, length);
         
-        ByteArrayInputStream bais = new ByteArrayInputStream(buf);
+        if (!getDirectory().isLazy()) {
+            decodeAll();
+        }
+    }
+    
+    /**
+     * Decodes all glyph descriptions not decoded so far and releases the raw
+     * table data.
+     */
+    private synchronized void decodeAll() throws IOException {
+        if (_data == null) {
+            return;
+        }
         
-        // Process all the simple glyphs
-        LocaTable locaTable = loca();
-        for (int i = 0; i < numGlyphs; i++) {
-            int offset = locaTable.getOffset(i);
-            
-            int len = locaTable.getOffset(i + 1) - offset;
-            if (len > 0) {
-                bais.reset();
-                bais.skip(offset);
-                DataInputStream dis = new DataInputStream(bais);
-                short numberOfContours = dis.readShort();
-                if (numberOfContours >= 0) {
-                    _descript.add(new GlyfSimpleDescript(this, i, numberOfContours, dis));
-                } else {
-                    _descript.add(null);
-                }
-            } else {
-                _descript.add(null);
-            }
+        GlyfDescript[] descript = new GlyfDescript[_numGlyphs];
+        for (int i = 0; i < _numGlyphs; i++) {
+            GlyfDescript glyph = _descript == null ? null : _descript[i];
+            descript[i] = glyph != null ? glyph : decode(i);
         }
+        _descript = descript;
+        _data = null;
+    }
 
-        // Now do all the composite glyphs
-        for (int i = 0; i < numGlyphs; i++) {
-            int offset = locaTable.getOffset(i);
-            
-            int len = locaTable.getOffset(i + 1) - offset;
-            if (len > 0) {
-                bais.reset();
-                bais.skip(offset);
-                DataInputStream dis = new DataInputStream(bais);
-                short numberOfContours = dis.readShort();
-                if (numberOfContours < 0) {
-                    _descript.set(i, new GlyfCompositeDescript(this, i, dis));
-                }
+    private GlyfDescript decode(int i) throws IOException {
+        LocaTable locaTable = loca();
+        int offset = locaTable.getOffset(i);
+        int len = locaTable.getOffset(i + 1) - offset;
+        if (len <= 0) {
+            return null;
+        }
+        
+        if (_decoding == null) {
+            _decoding = new BitSet();
+        } else if (_decoding.get(i)) {
+            // Cyclic component reference in a broken font.
+            return null;
+        }
+        _decoding.set(i);
+        try {
+            BinaryBufferInput in = _data.getInput(offset, len);
+            short numberOfContours = in.readShort();
+            if (numberOfContours >= 0) {
+                return new GlyfSimpleDescript(this, i, numberOfContours, in);
+            } else {
+                return new GlyfCompositeDescript(this, i, in);
             }
+        } finally {
+            _decoding.clear(i);
         }
     }
     
     @Override
     public void write(BinaryOutput out) throws IOException {
+        // Writing updates the 'loca' offsets, which are required for decoding.
+        decodeAll();
+        
         long start = out.getPosition();
         int glyphId = 0;
         LocaTable locaTable = loca();
@@ -186,20 +323,56 @@ public class GlyfTable extends AbstractTable implements Writable {
      * @see #getDescription(int)
      */
     public int getNumGlyphs() {
-        return _descript.size();
+        return _data == null ? _descript.length : _numGlyphs;
     }
 
     /**
      * The glyph with the given index.
      * 
+     * <p>
+     * In {@link TableDirectory#isLazy() lazy mode}, the glyph description is
+     * decoded from the table data upon first access and kept according to
+     * {@link #isCacheDescriptions()} and {@link #getDescriptionCache()}.
+     * Decoding is synchronized on this table, so that a table shared between
+     * the fonts of a collection can be used from multiple threads.
+     * </p>
+     * 
      * @see #getNumGlyphs()
      */
     public GlyfDescript getDescription(int i) {
-        if (i < _descript.size()) {
-            return _descript.get(i);
-        } else {
+        if (i < 0 || i >= getNumGlyphs()) {
             return null;
         }
+        if (_data == null) {
+            return _descript[i];
+        }
+        return getLazyDescription(i);
+    }
+    
+    private synchronized GlyfDescript getLazyDescription(int i) {
+        if (_descript != null) {
+            GlyfDescript result = _descript[i];
+            if (result != null || _data == null) {
+                return result;
+            }
+        } else if (_cacheDescriptions && _descriptionCache != null) {
+            GlyfDescript result = _descriptionCache.get(i);
+            if (result != null) {
+                return result;
+            }
+        }
+        
+        try {
+            GlyfDescript result = decode(i);
+            if (_descript != null) {
+                _descript[i] = result;
+            } else if (_cacheDescriptions && _descriptionCache != null) {
+                _descriptionCache.put(i, result);
+            }
+            return result;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Decoding glyph " + i + " failed.", ex);
+        }
     }
     
     @Override
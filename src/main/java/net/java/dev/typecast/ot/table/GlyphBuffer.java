@@ -0,0 +1,449 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.util.Arrays;
+
+/**
+ * Sequence of glyphs that lookups are applied to.
+ *
+ * <p>
+ * For each glyph, the buffer stores its glyph ID, its cluster, which is the
+ * index of the character in the original text the glyph was created from, and
+ * its position (advance and offset in font design units). All data is stored
+ * in primitive arrays that are reused when the buffer is {@link #clear()
+ * cleared}.
+ * </p>
+ *
+ * @see LookupContext
+ * @see GsubTable#apply(GlyphBuffer, int...)
+ * @see GposTable#apply(GlyphBuffer, int...)
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class GlyphBuffer {
+
+    /**
+     * Attachment type of a glyph not attached to another glyph.
+     */
+    static final byte ATTACH_NONE = 0;
+
+    /**
+     * Attachment type of a mark attached to a base, ligature, or mark glyph.
+     */
+    static final byte ATTACH_MARK = 1;
+
+    /**
+     * Attachment type of a glyph attached to its neighbor by a cursive
+     * connection.
+     */
+    static final byte ATTACH_CURSIVE = 2;
+
+    private int[] _glyphs;
+
+    private int[] _clusters;
+
+    private int[] _xAdvances;
+
+    private int[] _yAdvances;
+
+    private int[] _xOffsets;
+
+    private int[] _yOffsets;
+
+    /**
+     * For each attached glyph, the distance to the index of the glyph it is
+     * attached to.
+     */
+    private int[] _attachments;
+
+    private byte[] _attachTypes;
+
+    private int _length;
+
+    /**
+     * Creates an empty {@link GlyphBuffer}.
+     */
+    public GlyphBuffer() {
+        this(64);
+    }
+
+    /**
+     * Creates an empty {@link GlyphBuffer} with the given initial capacity.
+     */
+    public GlyphBuffer(int capacity) {
+        _glyphs = new int[capacity];
+        _clusters = new int[capacity];
+        _xAdvances = new int[capacity];
+        _yAdvances = new int[capacity];
+        _xOffsets = new int[capacity];
+        _yOffsets = new int[capacity];
+        _attachments = new int[capacity];
+        _attachTypes = new byte[capacity];
+    }
+
+    /**
+     * The number of glyphs in this buffer.
+     */
+    public int getLength() {
+        return _length;
+    }
+
+    /**
+     * Removes all glyphs.
+     */
+    public void clear() {
+        _length = 0;
+    }
+
+    /**
+     * Appends a glyph.
+     *
+     * @param glyphId
+     *        The ID of the new glyph.
+     * @param cluster
+     *        The index of the character the glyph was created from.
+     */
+    public void add(int glyphId, int cluster) {
+        ensureCapacity(_length + 1);
+        _glyphs[_length] = glyphId;
+        _clusters[_length] = cluster;
+        clearPosition(_length);
+        _length++;
+    }
+
+    /**
+     * The ID of the glyph at the given index.
+     */
+    public int getGlyph(int index) {
+        return _glyphs[index];
+    }
+
+    /**
+     * Replaces the glyph at the given index.
+     */
+    public void setGlyph(int index, int glyphId) {
+        _glyphs[index] = glyphId;
+    }
+
+    /**
+     * The cluster of the glyph at the given index.
+     */
+    public int getCluster(int index) {
+        return _clusters[index];
+    }
+
+    /**
+     * The internal array of glyph IDs, valid up to {@link #getLength()}.
+     */
+    public int[] getGlyphs() {
+        return _glyphs;
+    }
+
+    /**
+     * The internal array of clusters, valid up to {@link #getLength()}.
+     */
+    public int[] getClusters() {
+        return _clusters;
+    }
+
+    /**
+     * The horizontal advance of the glyph at the given index.
+     */
+    public int getXAdvance(int index) {
+        return _xAdvances[index];
+    }
+
+    /**
+     * The vertical advance of the glyph at the given index.
+     */
+    public int getYAdvance(int index) {
+        return _yAdvances[index];
+    }
+
+    /**
+     * The horizontal offset of the glyph at the given index from its pen
+     * position.
+     */
+    public int getXOffset(int index) {
+        return _xOffsets[index];
+    }
+
+    /**
+     * The vertical offset of the glyph at the given index from its pen
+     * position.
+     */
+    public int getYOffset(int index) {
+        return _yOffsets[index];
+    }
+
+    /**
+     * Sets the advance of the glyph at the given index.
+     */
+    public void setAdvance(int index, int xAdvance, int yAdvance) {
+        _xAdvances[index] = xAdvance;
+        _yAdvances[index] = yAdvance;
+    }
+
+    /**
+     * Sets the offset of the glyph at the given index.
+     */
+    public void setOffset(int index, int xOffset, int yOffset) {
+        _xOffsets[index] = xOffset;
+        _yOffsets[index] = yOffset;
+    }
+
+    /**
+     * Adds the given adjustments to the position of the glyph at the given
+     * index.
+     */
+    public void adjust(int index, int xPlacement, int yPlacement, int xAdvance, int yAdvance) {
+        _xOffsets[index] += xPlacement;
+        _yOffsets[index] += yPlacement;
+        _xAdvances[index] += xAdvance;
+        _yAdvances[index] += yAdvance;
+    }
+
+    /**
+     * Sets the horizontal advances of all glyphs to their advance widths and
+     * resets all other position information.
+     */
+    public void initPositions(HmtxTable hmtx) {
+        for (int n = 0; n < _length; n++) {
+            clearPosition(n);
+            _xAdvances[n] = hmtx.getAdvanceWidth(_glyphs[n]);
+        }
+    }
+
+    /**
+     * The internal array of horizontal advances, valid up to
+     * {@link #getLength()}.
+     */
+    public int[] getXAdvances() {
+        return _xAdvances;
+    }
+
+    /**
+     * The internal array of vertical advances, valid up to
+     * {@link #getLength()}.
+     */
+    public int[] getYAdvances() {
+        return _yAdvances;
+    }
+
+    /**
+     * The internal array of horizontal offsets, valid up to
+     * {@link #getLength()}.
+     */
+    public int[] getXOffsets() {
+        return _xOffsets;
+    }
+
+    /**
+     * The internal array of vertical offsets, valid up to
+     * {@link #getLength()}.
+     */
+    public int[] getYOffsets() {
+        return _yOffsets;
+    }
+
+    /**
+     * Attaches the glyph at the given index to the glyph at the given parent
+     * index.
+     *
+     * <p>
+     * The offsets of an attached glyph are relative to its parent until
+     * {@link #resolveAttachments()} is called.
+     * </p>
+     */
+    void attach(int index, int parent, byte type) {
+        _attachments[index] = parent - index;
+        _attachTypes[index] = type;
+    }
+
+    /**
+     * Converts the offsets of attached glyphs to offsets relative to their
+     * own pen position.
+     */
+    void resolveAttachments() {
+        for (int n = 0; n < _length; n++) {
+            resolveAttachment(n);
+        }
+    }
+
+    private void resolveAttachment(int index) {
+        byte type = _attachTypes[index];
+        if (type == ATTACH_NONE) {
+            return;
+        }
+        // Resetting the type first stops cycles of attachments.
+        _attachTypes[index] = ATTACH_NONE;
+
+        int parent = index + _attachments[index];
+        if (parent < 0 || parent >= _length) {
+            return;
+        }
+        resolveAttachment(parent);
+
+        _yOffsets[index] += _yOffsets[parent];
+        if (type == ATTACH_MARK) {
+            _xOffsets[index] += _xOffsets[parent];
+            if (parent < index) {
+                for (int n = parent; n < index; n++) {
+                    _xOffsets[index] -= _xAdvances[n];
+                    _yOffsets[index] -= _yAdvances[n];
+                }
+            } else {
+                for (int n = index; n < parent; n++) {
+                    _xOffsets[index] += _xAdvances[n];
+                    _yOffsets[index] += _yAdvances[n];
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the glyph at the given index with the given sequence of glyphs.
+     *
+     * <p>
+     * All new glyphs belong to the cluster of the replaced glyph. If the given
+     * sequence is empty, the glyph is removed.
+     * </p>
+     */
+    public void replace(int index, int[] glyphIds) {
+        int count = glyphIds.length;
+        if (count == 0) {
+            remove(index);
+            return;
+        }
+
+        if (count > 1) {
+            openGap(index + 1, count - 1);
+        }
+        int cluster = _clusters[index];
+        for (int n = 0; n < count; n++) {
+            _glyphs[index + n] = glyphIds[n];
+            _clusters[index + n] = cluster;
+            clearPosition(index + n);
+        }
+    }
+
+    /**
+     * Removes the glyph at the given index.
+     */
+    public void remove(int index) {
+        int tail = _length - index - 1;
+        if (tail > 0) {
+            move(index + 1, index, tail);
+        }
+        _length--;
+    }
+
+    /**
+     * Replaces the glyphs at the given indices with a single ligature glyph.
+     *
+     * <p>
+     * The ligature glyph is stored at the first index, the glyphs at all
+     * other indices are removed. Glyphs between the given indices (e.g.
+     * skipped marks) are kept. All glyphs from the first to the last index
+     * are merged into a single cluster.
+     * </p>
+     *
+     * @param indices
+     *        The ascending indices of the ligature components.
+     * @param count
+     *        The number of ligature components.
+     * @param glyphId
+     *        The ID of the ligature glyph.
+     */
+    public void ligate(int[] indices, int count, int glyphId) {
+        int first = indices[0];
+        int last = indices[count - 1];
+
+        int cluster = _clusters[first];
+        for (int n = first + 1; n <= last; n++) {
+            cluster = Math.min(cluster, _clusters[n]);
+        }
+        for (int n = first; n <= last; n++) {
+            _clusters[n] = cluster;
+        }
+
+        _glyphs[first] = glyphId;
+        for (int n = count - 1; n > 0; n--) {
+            remove(indices[n]);
+        }
+    }
+
+    private void openGap(int index, int count) {
+        ensureCapacity(_length + count);
+        int tail = _length - index;
+        if (tail > 0) {
+            move(index, index + count, tail);
+        }
+        _length += count;
+    }
+
+    private void move(int from, int to, int count) {
+        System.arraycopy(_glyphs, from, _glyphs, to, count);
+        System.arraycopy(_clusters, from, _clusters, to, count);
+        System.arraycopy(_xAdvances, from, _xAdvances, to, count);
+        System.arraycopy(_yAdvances, from, _yAdvances, to, count);
+        System.arraycopy(_xOffsets, from, _xOffsets, to, count);
+        System.arraycopy(_yOffsets, from, _yOffsets, to, count);
+        System.arraycopy(_attachments, from, _attachments, to, count);
+        System.arraycopy(_attachTypes, from, _attachTypes, to, count);
+    }
+
+    private void clearPosition(int index) {
+        _xAdvances[index] = 0;
+        _yAdvances[index] = 0;
+        _xOffsets[index] = 0;
+        _yOffsets[index] = 0;
+        _attachments[index] = 0;
+        _attachTypes[index] = ATTACH_NONE;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > _glyphs.length) {
+            int newCapacity = Math.max(capacity, _glyphs.length * 2);
+            _glyphs = Arrays.copyOf(_glyphs, newCapacity);
+            _clusters = Arrays.copyOf(_clusters, newCapacity);
+            _xAdvances = Arrays.copyOf(_xAdvances, newCapacity);
+            _yAdvances = Arrays.copyOf(_yAdvances, newCapacity);
+            _xOffsets = Arrays.copyOf(_xOffsets, newCapacity);
+            _yOffsets = Arrays.copyOf(_yOffsets, newCapacity);
+            _attachments = Arrays.copyOf(_attachments, newCapacity);
+            _attachTypes = Arrays.copyOf(_attachTypes, newCapacity);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append('[');
+        for (int n = 0; n < _length; n++) {
+            if (n > 0) {
+                sb.append(", ");
+            }
+            sb.append(_glyphs[n]).append('@').append(_clusters[n]);
+        }
+        sb.append(']');
+        return sb.toString();
+    }
+
+}
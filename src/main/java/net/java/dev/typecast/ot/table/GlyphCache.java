@@ -0,0 +1,222 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * Bounded cache of decoded glyph data indexed by glyph ID.
+ *
+ * <p>
+ * The cache is limited by a budget. Each entry is charged with a weight, which
+ * is either 1 (limiting the number of entries) or computed by a custom weigher
+ * (e.g. an estimate of the memory used by the entry). If adding an entry
+ * exceeds the budget, the least recently used entries are evicted.
+ * </p>
+ *
+ * <p>
+ * A {@link GlyphCache} is safe for use by multiple threads.
+ * </p>
+ *
+ * @param <T>
+ *        The type of cached glyph data.
+ *
+ * @see GlyfTable#setDescriptionCache(GlyphCache)
+ * @see net.java.dev.typecast.ot.TTFont#setGlyphCache(GlyphCache)
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class GlyphCache<T> {
+
+    private final LinkedHashMap<Integer, Entry<T>> _entries =
+        new LinkedHashMap<>(16, 0.75f, true);
+
+    private final long _budget;
+
+    private final ToIntFunction<? super T> _weigher;
+
+    private long _weight;
+
+    private long _hits;
+
+    private long _misses;
+
+    private long _evictions;
+
+    /**
+     * Creates a {@link GlyphCache} holding at most the given number of
+     * entries.
+     */
+    public GlyphCache(int maxEntries) {
+        this(maxEntries, value -> 1);
+    }
+
+    /**
+     * Creates a {@link GlyphCache} limited by the total weight of its entries.
+     *
+     * @param budget
+     *        The maximum sum of the weights of all entries.
+     * @param weigher
+     *        Function computing the weight of an entry, e.g. an estimate of its
+     *        size in bytes.
+     */
+    public GlyphCache(long budget, ToIntFunction<? super T> weigher) {
+        if (budget < 0) {
+            throw new IllegalArgumentException("Negative cache budget: " + budget);
+        }
+        _budget = budget;
+        _weigher = weigher;
+    }
+
+    /**
+     * The maximum sum of the weights of all entries.
+     */
+    public long getBudget() {
+        return _budget;
+    }
+
+    /**
+     * The cached value for the given glyph, or <code>null</code>, if the
+     * glyph is not in this cache.
+     *
+     * <p>
+     * A successful lookup marks the entry as most recently used.
+     * </p>
+     */
+    public synchronized T get(int glyphId) {
+        Entry<T> entry = _entries.get(glyphId);
+        if (entry == null) {
+            _misses++;
+            return null;
+        }
+        _hits++;
+        return entry._value;
+    }
+
+    /**
+     * Adds the value for the given glyph evicting the least recently used
+     * entries, if the budget is exceeded.
+     *
+     * <p>
+     * A value whose weight alone exceeds the budget is not cached.
+     * </p>
+     */
+    public synchronized void put(int glyphId, T value) {
+        if (value == null) {
+            return;
+        }
+
+        int weight = _weigher.applyAsInt(value);
+        Entry<T> before = _entries.remove(glyphId);
+        if (before != null) {
+            _weight -= before._weight;
+        }
+        if (weight > _budget) {
+            return;
+        }
+
+        _entries.put(glyphId, new Entry<>(value, weight));
+        _weight += weight;
+
+        Iterator<Entry<T>> it = _entries.values().iterator();
+        while (_weight > _budget) {
+            Entry<T> eldest = it.next();
+            it.remove();
+            _weight -= eldest._weight;
+            _evictions++;
+        }
+    }
+
+    /**
+     * Removes all entries.
+     *
+     * <p>
+     * Statistics are not reset.
+     * </p>
+     *
+     * @see #resetStatistics()
+     */
+    public synchronized void clear() {
+        _entries.clear();
+        _weight = 0;
+    }
+
+    /**
+     * The number of entries currently in this cache.
+     */
+    public synchronized int size() {
+        return _entries.size();
+    }
+
+    /**
+     * The sum of the weights of all entries currently in this cache.
+     */
+    public synchronized long getWeight() {
+        return _weight;
+    }
+
+    /**
+     * The number of {@link #get(int)} calls that found an entry.
+     */
+    public synchronized long getHitCount() {
+        return _hits;
+    }
+
+    /**
+     * The number of {@link #get(int)} calls that found no entry.
+     */
+    public synchronized long getMissCount() {
+        return _misses;
+    }
+
+    /**
+     * The number of entries removed to keep the cache within its budget.
+     */
+    public synchronized long getEvictionCount() {
+        return _evictions;
+    }
+
+    /**
+     * Resets hit, miss, and eviction counters.
+     */
+    public synchronized void resetStatistics() {
+        _hits = 0;
+        _misses = 0;
+        _evictions = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "GlyphCache(size=" + _entries.size() + ", weight=" + _weight
+            + "/" + _budget + ", hits=" + _hits + ", misses=" + _misses
+            + ", evictions=" + _evictions + ")";
+    }
+
+    private static final class Entry<T> {
+        final T _value;
+        final int _weight;
+
+        Entry(T value, int weight) {
+            _value = value;
+            _weight = weight;
+        }
+    }
+
+}
@@ -21,30 +21,157 @@ package net.java.dev.typecast.ot.table;
 import java.io.DataInput;
 import java.io.IOException;
 
+import net.java.dev.typecast.io.BinaryBufferInput;
+import net.java.dev.typecast.io.BinaryInput;
+
 /**
  * GPOS — Glyph Positioning Table
  * 
- * TODO: To be implemented
- * 
  * @author <a href="mailto:david.schweinsberg@gmail.com">David Schweinsberg</a>
  * 
  * @see <a href="https://docs.microsoft.com/en-us/typography/opentype/spec/gpos">Spec: Glyph Positioning Table</a>
  */
-public class GposTable implements Table {
+public class GposTable implements Table, LookupSubtableFactory {
 
     private int _version;
-    private int _scriptList;
-    private int _featureList;
-    private int _lookupList;
+    private ScriptList _scriptList;
+    private FeatureList _featureList;
+    private LookupList _lookupList;
+    private FeaturePlan.Cache _plans;
 
     @Override
     public void read(DataInput di, int length) throws IOException {
-        _version = di.readInt();
-        _scriptList = di.readInt();
-        _featureList = di.readInt();
-        _lookupList = di.readInt();
-        
-        // TODO: Implement.
+        // Random access to the table data, offsets are relative to its start.
+        BinaryInput in = BinaryBufferInput.slice(di, length);
+
+        // GPOS Header
+        _version = in.readInt();
+        int scriptListOffset = in.readUnsignedShort();
+        int featureListOffset = in.readUnsignedShort();
+        int lookupListOffset = in.readUnsignedShort();
+
+        _scriptList = new ScriptList(in, scriptListOffset);
+        _featureList = new FeatureList(in, featureListOffset);
+        _lookupList = new LookupList(in, lookupListOffset, this);
+
+        _plans = new FeaturePlan.Cache(_scriptList, _featureList);
+    }
+
+    /**
+     * 1 - Single adjustment - Adjust position of a single glyph
+     * 2 - Pair adjustment - Adjust position of a pair of glyphs
+     * 3 - Cursive attachment - Attach cursive glyphs
+     * 4 - MarkToBase attachment - Attach a combining mark to a base glyph
+     * 5 - MarkToLigature attachment - Attach a combining mark to a ligature
+     * 6 - MarkToMark attachment - Attach a combining mark to another mark
+     * 7 - Context positioning - Position one or more glyphs in context
+     * 8 - Chained Context positioning - Position one or more glyphs in
+     *     chained context
+     * 9 - Extension positioning - Extension mechanism for other positionings
+     */
+    @Override
+    public LookupSubtable read(
+            int type,
+            BinaryInput in,
+            int offset) throws IOException {
+        LookupSubtable s = null;
+        switch (type) {
+        case 1:
+            s = SinglePos.read(in, offset);
+            break;
+        case 2:
+            s = PairPos.read(in, offset);
+            break;
+        case 3:
+            s = CursivePos.read(in, offset);
+            break;
+        case 4:
+            s = MarkBasePos.read(in, offset);
+            break;
+        case 5:
+            s = MarkLigPos.read(in, offset);
+            break;
+        case 6:
+            s = MarkMarkPos.read(in, offset);
+            break;
+        case 7:
+            s = SequenceContext.read(in, offset);
+            break;
+        case 8:
+            s = SequenceContext.readChained(in, offset);
+            break;
+        case 9:
+            // The extension subtable is replaced by the subtable it points to.
+            in.setPosition(offset);
+            int format = in.readUnsignedShort();
+            int extensionLookupType = in.readUnsignedShort();
+            long extensionOffset = in.readInt() & 0xFFFFFFFFL;
+            if (format == 1 && extensionLookupType != 9) {
+                s = read(extensionLookupType, in, offset + (int) extensionOffset);
+            }
+            break;
+        }
+        return s;
+    }
+
+    /**
+     * Applies the lookups with the given indices in the given order to the
+     * glyphs in the given buffer.
+     *
+     * <p>
+     * The advances of the glyphs must be initialized before, e.g. with
+     * {@link GlyphBuffer#initPositions(HmtxTable)}. Afterwards, the offsets
+     * of all glyphs are relative to their own pen position.
+     * </p>
+     *
+     * @param buffer
+     *        The glyphs to position.
+     * @param lookupIndices
+     *        Indices into the {@link #getLookupList() lookup list}, e.g. the
+     *        lookups of the features to apply.
+     */
+    public void apply(GlyphBuffer buffer, int... lookupIndices) {
+        apply(buffer, null, lookupIndices);
+    }
+
+    /**
+     * Applies the lookups with the given indices in the given order to the
+     * glyphs in the given buffer skipping glyphs according to the lookup
+     * flags.
+     *
+     * @param buffer
+     *        The glyphs to position.
+     * @param gdef
+     *        The glyph definitions of the font, <code>null</code> if not
+     *        available.
+     * @param lookupIndices
+     *        Indices into the {@link #getLookupList() lookup list}.
+     */
+    public void apply(GlyphBuffer buffer, GdefTable gdef, int... lookupIndices) {
+        LookupContext context = new LookupContext(_lookupList);
+        context.setGdefTable(gdef);
+        context.setBuffer(buffer);
+        apply(context, lookupIndices);
+    }
+
+    /**
+     * Applies the lookups with the given indices in the given order to the
+     * {@link LookupContext#getBuffer() buffer} of the given context.
+     *
+     * <p>
+     * A context can be reused for multiple buffers to avoid allocations when
+     * shaping many runs of text.
+     * </p>
+     *
+     * @param context
+     *        A context created for the {@link #getLookupList() lookup list} of
+     *        this table.
+     * @param lookupIndices
+     *        Indices into the {@link #getLookupList() lookup list}.
+     */
+    public void apply(LookupContext context, int... lookupIndices) {
+        context.applyLookups(lookupIndices);
+        context.getBuffer().resolveAttachments();
     }
 
     @Override
@@ -52,15 +179,80 @@ public class GposTable implements Table {
         return GPOS;
     }
 
+    /**
+     * Major, minor version as high and low word.
+     */
+    public int getVersion() {
+        return _version;
+    }
+
+    public ScriptList getScriptList() {
+        return _scriptList;
+    }
+
+    public FeatureList getFeatureList() {
+        return _featureList;
+    }
+
+    public LookupList getLookupList() {
+        return _lookupList;
+    }
+
+    /**
+     * The lookups to apply for the given features in the given script and
+     * language system.
+     * 
+     * <p>
+     * Plans are compiled on first request and cached with this table.
+     * </p>
+     *
+     * @param script
+     *        The script tag, <code>null</code> for the default script.
+     * @param language
+     *        The language system tag, <code>null</code> for the default
+     *        language system.
+     * @param features
+     *        The feature tags.
+     * 
+     * @see FeaturePlan#compile(ScriptList, FeatureList, String, String, String...)
+     */
+    public FeaturePlan getFeaturePlan(String script, String language, String... features) {
+        return _plans.get(script, language, features);
+    }
+
+    public static String lookupTypeAsString(int type) {
+        switch (type) {
+        case 1:
+            return "Single adjustment";
+        case 2:
+            return "Pair adjustment";
+        case 3:
+            return "Cursive attachment";
+        case 4:
+            return "MarkToBase attachment";
+        case 5:
+            return "MarkToLigature attachment";
+        case 6:
+            return "MarkToMark attachment";
+        case 7:
+            return "Context positioning";
+        case 8:
+            return "Chained context positioning";
+        case 9:
+            return "Extension positioning";
+        }
+        return "Unknown";
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append("'GPOS' Table - Glyph Positioning Table\n");
         sb.append("--------------------------------------\n");
         sb.append("    version      = ").append(_version).append("\n");
-        sb.append("    scriptList   = ").append(_scriptList).append("\n");
-        sb.append("    featureList  = ").append(_featureList).append("\n");
-        sb.append("    lookupList   = ").append(_lookupList).append("\n");
+        sb.append("    scriptCount  = ").append(_scriptList.getScriptCount()).append("\n");
+        sb.append("    featureCount = ").append(_featureList.getFeatureCount()).append("\n");
+        sb.append("    lookupCount  = ").append(_lookupList.getLookupCount()).append("\n");
         return sb.toString();
     }
 
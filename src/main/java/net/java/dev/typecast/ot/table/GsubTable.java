@@ -50,11 +50,12 @@
 
 package net.java.dev.typecast.ot.table;
 
-import java.io.ByteArrayInputStream;
 import java.io.DataInput;
-import java.io.DataInputStream;
 import java.io.IOException;
 
+import net.java.dev.typecast.io.BinaryBufferInput;
+import net.java.dev.typecast.io.BinaryInput;
+
 /**
  * Glyph Substitution Table
  *
@@ -72,28 +73,29 @@ public class GsubTable implements Table, LookupSubtableFactory {
     private ScriptList _scriptList;
     private FeatureList _featureList;
     private LookupList _lookupList;
+    private FeaturePlan.Cache _plans;
     
     @Override
     public void read(DataInput di, int length) throws IOException {
-        // Load into a temporary buffer, and create another input stream
-        byte[] buf = new byte[length];
-        di.readFully(buf);
-        DataInputStream dis = new DataInputStream(new ByteArrayInputStream(buf));
+        // Random access to the table data, offsets are relative to its start.
+        BinaryInput in = BinaryBufferInput.slice(di, length);
 
         // GSUB Header
-        _version = dis.readInt();
-        int scriptListOffset = dis.readUnsignedShort();
-        int featureListOffset = dis.readUnsignedShort();
-        int lookupListOffset = dis.readUnsignedShort();
+        _version = in.readInt();
+        int scriptListOffset = in.readUnsignedShort();
+        int featureListOffset = in.readUnsignedShort();
+        int lookupListOffset = in.readUnsignedShort();
 
         // Script List
-        _scriptList = new ScriptList(dis, scriptListOffset);
+        _scriptList = new ScriptList(in, scriptListOffset);
 
         // Feature List
-        _featureList = new FeatureList(dis, featureListOffset);
+        _featureList = new FeatureList(in, featureListOffset);
         
         // Lookup List
-        _lookupList = new LookupList(dis, lookupListOffset, this);
+        _lookupList = new LookupList(in, lookupListOffset, this);
+
+        _plans = new FeaturePlan.Cache(_scriptList, _featureList);
     }
 
     /**
@@ -103,35 +105,104 @@ public class GsubTable implements Table, LookupSubtableFactory {
      * 4 - Ligature - Replace multiple glyphs with one glyph 
      * 5 - Context - Replace one or more glyphs in context 
      * 6 - Chaining - Context Replace one or more glyphs in chained context
+     * 7 - Extension Substitution - Extension mechanism for other substitutions
+     * 8 - Reverse chaining context single - Applied in reverse order,
+     *     replace single glyph in chaining context
      */
     public LookupSubtable read(
             int type,
-            DataInputStream dis,
+            BinaryInput in,
             int offset) throws IOException {
         LookupSubtable s = null;
         switch (type) {
         case 1:
-            s = SingleSubst.read(dis, offset);
+            s = SingleSubst.read(in, offset);
             break;
         case 2:
-//            s = MultipleSubst.read(dis, offset);
+            s = MultipleSubst.read(in, offset);
             break;
         case 3:
-//            s = AlternateSubst.read(dis, offset);
+            s = AlternateSubst.read(in, offset);
             break;
         case 4:
-            s = LigatureSubst.read(dis, offset);
+            s = LigatureSubst.read(in, offset);
             break;
         case 5:
-//            s = ContextSubst.read(dis, offset);
+            s = SequenceContext.read(in, offset);
             break;
         case 6:
-//            s = ChainingSubst.read(dis, offset);
+            s = SequenceContext.readChained(in, offset);
+            break;
+        case 7:
+            // The extension subtable is replaced by the subtable it points to.
+            in.setPosition(offset);
+            int format = in.readUnsignedShort();
+            int extensionLookupType = in.readUnsignedShort();
+            long extensionOffset = in.readInt() & 0xFFFFFFFFL;
+            if (format == 1 && extensionLookupType != 7) {
+                s = read(extensionLookupType, in, offset + (int) extensionOffset);
+            }
+            break;
+        case 8:
+            s = ReverseChainSingleSubst.read(in, offset);
             break;
         }
         return s;
     }
 
+    /**
+     * Applies the lookups with the given indices in the given order to the
+     * glyphs in the given buffer.
+     *
+     * @param buffer
+     *        The glyphs to substitute.
+     * @param lookupIndices
+     *        Indices into the {@link #getLookupList() lookup list}, e.g. the
+     *        lookups of the features to apply.
+     */
+    public void apply(GlyphBuffer buffer, int... lookupIndices) {
+        apply(buffer, null, lookupIndices);
+    }
+
+    /**
+     * Applies the lookups with the given indices in the given order to the
+     * glyphs in the given buffer skipping glyphs according to the lookup
+     * flags.
+     *
+     * @param buffer
+     *        The glyphs to substitute.
+     * @param gdef
+     *        The glyph definitions of the font, <code>null</code> if not
+     *        available.
+     * @param lookupIndices
+     *        Indices into the {@link #getLookupList() lookup list}.
+     */
+    public void apply(GlyphBuffer buffer, GdefTable gdef, int... lookupIndices) {
+        LookupContext context = new LookupContext(_lookupList);
+        context.setGdefTable(gdef);
+        context.setBuffer(buffer);
+        apply(context, lookupIndices);
+    }
+
+    /**
+     * Applies the lookups with the given indices in the given order to the
+     * {@link LookupContext#getBuffer() buffer} of the given context.
+     *
+     * <p>
+     * A context can be reused for multiple buffers to avoid allocations when
+     * shaping many runs of text.
+     * </p>
+     *
+     * @param context
+     *        A context created for the {@link #getLookupList() lookup list} of
+     *        this table.
+     * @param lookupIndices
+     *        Indices into the {@link #getLookupList() lookup list}.
+     */
+    public void apply(LookupContext context, int... lookupIndices) {
+        context.applyLookups(lookupIndices);
+    }
+
     @Override
     public int getType() {
         return GSUB;
@@ -156,6 +227,28 @@ public class GsubTable implements Table, LookupSubtableFactory {
         return _lookupList;
     }
 
+    /**
+     * The lookups to apply for the given features in the given script and
+     * language system.
+     * 
+     * <p>
+     * Plans are compiled on first request and cached with this table.
+     * </p>
+     *
+     * @param script
+     *        The script tag, <code>null</code> for the default script.
+     * @param language
+     *        The language system tag, <code>null</code> for the default
+     *        language system.
+     * @param features
+     *        The feature tags.
+     * 
+     * @see FeaturePlan#compile(ScriptList, FeatureList, String, String, String...)
+     */
+    public FeaturePlan getFeaturePlan(String script, String language, String... features) {
+        return _plans.get(script, language, features);
+    }
+
     public static String lookupTypeAsString(int type) {
         switch (type) {
         case 1:
@@ -170,6 +263,10 @@ public class GsubTable implements Table, LookupSubtableFactory {
             return "Context";
         case 6:
             return "Chaining";
+        case 7:
+            return "Extension";
+        case 8:
+            return "Reverse chaining";
         }
         return "Unknown";
     }
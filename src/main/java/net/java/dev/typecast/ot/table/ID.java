@@ -49,7 +49,7 @@ public abstract class ID {
     private static final short encodingBig5 = 4;
     private static final short encodingWansung = 5;
     private static final short encodingJohab = 6;
-    private static final short encodingUCS4 = 10;
+    public static final short encodingUCS4 = 10;
 
     // Macintosh Encoding IDs
     public static final short encodingRoman = 0;
@@ -11,20 +11,83 @@ package net.java.dev.typecast.ot.table;
 import java.io.DataInput;
 import java.io.IOException;
 
+import net.java.dev.typecast.io.BinaryBufferInput;
+
 /**
  *
  * @author <a href="mailto:david.schweinsberg@gmail.com">David Schweinsberg</a>
  */
 public abstract class KernSubtable {
 
+    private static final int HORIZONTAL = 0x01;
+    private static final int MINIMUM = 0x02;
+    private static final int CROSS_STREAM = 0x04;
+    private static final int OVERRIDE = 0x08;
+
+    private int coverage;
+
     /** Creates new KernSubtable */
     KernSubtable() {
     }
+
+    /**
+     * The coverage word from the subtable header, the subtable format in
+     * the high byte and the coverage flags in the low byte.
+     */
+    public int getCoverage() {
+        return coverage;
+    }
+
+    /**
+     * Whether this subtable contains horizontal kerning values (as opposed
+     * to vertical ones).
+     */
+    public boolean isHorizontal() {
+        return (coverage & HORIZONTAL) != 0;
+    }
+
+    /**
+     * Whether this subtable contains minimum values (as opposed to kerning
+     * values).
+     */
+    public boolean isMinimum() {
+        return (coverage & MINIMUM) != 0;
+    }
+
+    /**
+     * Whether the values of this subtable are perpendicular to the flow of
+     * the text.
+     */
+    public boolean isCrossStream() {
+        return (coverage & CROSS_STREAM) != 0;
+    }
+
+    /**
+     * Whether the values of this subtable replace the value accumulated so
+     * far (as opposed to being added to it).
+     */
+    public boolean isOverride() {
+        return (coverage & OVERRIDE) != 0;
+    }
     
     public abstract int getKerningPairCount();
 
     public abstract KerningPair getKerningPair(int i);
 
+    /**
+     * The kerning value for the given pair of glyphs, or <code>0</code>, if
+     * the pair is not kerned.
+     */
+    public int getKerning(int left, int right) {
+        for (int i = 0, cnt = getKerningPairCount(); i < cnt; i++) {
+            KerningPair pair = getKerningPair(i);
+            if (pair.getLeft() == left && pair.getRight() == right) {
+                return pair.getValue();
+            }
+        }
+        return 0;
+    }
+
     public static KernSubtable read(DataInput di) throws IOException {
         KernSubtable table = null;
         int version = di.readUnsignedShort();
@@ -37,11 +100,14 @@ public abstract class KernSubtable {
             table = new KernSubtableFormat0(di);
             break;
         case 2:
-            table = new KernSubtableFormat2(di);
+            table = new KernSubtableFormat2(BinaryBufferInput.slice(di, length - 6));
             break;
         default:
             break;
         }
+        if (table != null) {
+            table.coverage = coverage;
+        }
         return table;
     }
 
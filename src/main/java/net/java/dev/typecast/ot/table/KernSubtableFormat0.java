@@ -10,6 +10,7 @@ package net.java.dev.typecast.ot.table;
 
 import java.io.DataInput;
 import java.io.IOException;
+import java.util.Arrays;
 
 /**
  *
@@ -21,7 +22,17 @@ public class KernSubtableFormat0 extends KernSubtable {
     private int searchRange;
     private int entrySelector;
     private int rangeShift;
-    private KerningPair[] kerningPairs;
+
+    /**
+     * The left and right glyph of each pair packed into a single key
+     * (<code>left &lt;&lt; 16 | right</code>), sorted as unsigned values.
+     */
+    private int[] keys;
+
+    /**
+     * The kerning value for each entry in {@link #keys}.
+     */
+    private short[] values;
 
     /** Creates new KernSubtableFormat0 */
     KernSubtableFormat0(DataInput di) throws IOException {
@@ -29,9 +40,34 @@ public class KernSubtableFormat0 extends KernSubtable {
         searchRange = di.readUnsignedShort();
         entrySelector = di.readUnsignedShort();
         rangeShift = di.readUnsignedShort();
-        kerningPairs = new KerningPair[nPairs];
+        keys = new int[nPairs];
+        values = new short[nPairs];
+        boolean sorted = true;
         for (int i = 0; i < nPairs; i++) {
-            kerningPairs[i] = new KerningPair(di);
+            keys[i] = di.readUnsignedShort() << 16 | di.readUnsignedShort();
+            values[i] = di.readShort();
+            if (i > 0 && Integer.compareUnsigned(keys[i - 1], keys[i]) > 0) {
+                sorted = false;
+            }
+        }
+        if (!sorted) {
+            sortPairs();
+        }
+    }
+
+    /**
+     * Sorts the pairs by key, if a font does not store them in the required
+     * order.
+     */
+    private void sortPairs() {
+        long[] pairs = new long[nPairs];
+        for (int i = 0; i < nPairs; i++) {
+            pairs[i] = (keys[i] & 0xFFFFFFFFL) << 16 | (values[i] & 0xFFFF);
+        }
+        Arrays.sort(pairs);
+        for (int i = 0; i < nPairs; i++) {
+            keys[i] = (int) (pairs[i] >>> 16);
+            values[i] = (short) pairs[i];
         }
     }
 
@@ -40,7 +76,34 @@ public class KernSubtableFormat0 extends KernSubtable {
     }
 
     public KerningPair getKerningPair(int i) {
-        return kerningPairs[i];
+        int key = keys[i];
+        return new KerningPair(key >>> 16, key & 0xFFFF, values[i]);
+    }
+
+    /**
+     * The kerning value for the given pair of glyphs found by binary search,
+     * or <code>0</code>, if the pair is not kerned.
+     */
+    @Override
+    public int getKerning(int left, int right) {
+        if ((left | right) >>> 16 != 0) {
+            return 0;
+        }
+        int key = left << 16 | right;
+        int low = 0;
+        int high = nPairs - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = Integer.compareUnsigned(keys[mid], key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return values[mid];
+            }
+        }
+        return 0;
     }
 
 }
@@ -8,28 +8,110 @@
 
 package net.java.dev.typecast.ot.table;
 
-import java.io.DataInput;
 import java.io.IOException;
 
+import net.java.dev.typecast.io.BinaryBufferInput;
+
 /**
+ * Class-based kerning subtable.
+ *
+ * <p>
+ * Glyphs are mapped to left and right classes, the kerning value of a pair is
+ * stored in a two-dimensional array indexed by both classes. The class values
+ * are byte offsets into this array: left class values are multiples of the
+ * row width, right class values are multiples of 2. Left class values are
+ * either relative to the start of the subtable (as in the Apple
+ * specification) or relative to the kerning array. The convention is
+ * detected while reading.
+ * </p>
  *
  * @author <a href="mailto:david.schweinsberg@gmail.com">David Schweinsberg</a>
  */
 public class KernSubtableFormat2 extends KernSubtable {
 
+    /**
+     * Size of the subtable header preceding the data passed to the
+     * constructor.
+     */
+    private static final int HEADER_SIZE = 6;
+
+    private static final char[] NO_CLASSES = {};
+
     private int rowWidth;
     private int leftClassTable;
     private int rightClassTable;
     private int array;
 
-    /** Creates new KernSubtableFormat2 */
-    KernSubtableFormat2(DataInput di) throws IOException {
-        rowWidth = di.readUnsignedShort();
-        leftClassTable = di.readUnsignedShort();
-        rightClassTable = di.readUnsignedShort();
-        array = di.readUnsignedShort();
+    private int leftFirstGlyph;
+    private char[] leftClasses;
+    private int rightFirstGlyph;
+    private char[] rightClasses;
+
+    /**
+     * Offset to subtract from the sum of the class values to get the byte
+     * offset into {@link #values}.
+     */
+    private int base;
+
+    private short[] values;
+
+    /**
+     * Creates new KernSubtableFormat2.
+     *
+     * @param in
+     *        The data of the subtable following the subtable header.
+     */
+    KernSubtableFormat2(BinaryBufferInput in) throws IOException {
+        rowWidth = in.readUnsignedShort();
+        leftClassTable = in.readUnsignedShort();
+        rightClassTable = in.readUnsignedShort();
+        array = in.readUnsignedShort();
+
+        leftFirstGlyph = in.getUnsignedShort(leftClassTable - HEADER_SIZE);
+        leftClasses = readClasses(in, leftClassTable);
+        rightFirstGlyph = in.getUnsignedShort(rightClassTable - HEADER_SIZE);
+        rightClasses = readClasses(in, rightClassTable);
+
+        int minLeft = Integer.MAX_VALUE;
+        int maxLeft = 0;
+        for (char leftClass : leftClasses) {
+            if (leftClass != 0) {
+                minLeft = Math.min(minLeft, leftClass);
+            }
+            maxLeft = Math.max(maxLeft, leftClass);
+        }
+        int maxRight = 0;
+        for (char rightClass : rightClasses) {
+            maxRight = Math.max(maxRight, rightClass);
+        }
+        base = minLeft >= array && minLeft != Integer.MAX_VALUE ? array : 0;
+
+        int start = array - HEADER_SIZE;
+        int available = Math.max(0, (in.getLength() - start) / 2);
+        int size = Math.min(available, (maxLeft + maxRight - base) / 2 + 1);
+        values = new short[Math.max(0, size)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.getShort(start + 2 * i);
+        }
+    }
+
+    private static char[] readClasses(BinaryBufferInput in, int offset) throws IOException {
+        int pos = offset - HEADER_SIZE;
+        int nGlyphs = in.getUnsignedShort(pos + 2);
+        if (nGlyphs == 0) {
+            return NO_CLASSES;
+        }
+        char[] result = new char[nGlyphs];
+        for (int i = 0; i < nGlyphs; i++) {
+            result[i] = (char) in.getUnsignedShort(pos + 4 + 2 * i);
+        }
+        return result;
     }
 
+    /**
+     * Pairs are not enumerated for class-based kerning, use
+     * {@link #getKerning(int, int)} instead.
+     */
     public int getKerningPairCount() {
         return 0;
     }
@@ -38,4 +120,44 @@ public class KernSubtableFormat2 extends KernSubtable {
         return null;
     }
 
+    /**
+     * The width of a row of the kerning array in bytes.
+     */
+    public int getRowWidth() {
+        return rowWidth;
+    }
+
+    /**
+     * The left class value of the given glyph, <code>0</code> if the glyph is
+     * not in the left class table.
+     */
+    public int getLeftClass(int glyphId) {
+        return classOf(leftClasses, leftFirstGlyph, glyphId);
+    }
+
+    /**
+     * The right class value of the given glyph, <code>0</code> if the glyph is
+     * not in the right class table.
+     */
+    public int getRightClass(int glyphId) {
+        return classOf(rightClasses, rightFirstGlyph, glyphId);
+    }
+
+    private static int classOf(char[] classes, int firstGlyph, int glyphId) {
+        int index = glyphId - firstGlyph;
+        if (index < 0 || index >= classes.length) {
+            return 0;
+        }
+        return classes[index];
+    }
+
+    @Override
+    public int getKerning(int left, int right) {
+        int index = (getLeftClass(left) + getRightClass(right) - base) >> 1;
+        if (index < 0 || index >= values.length) {
+            return 0;
+        }
+        return values[index];
+    }
+
 }
@@ -69,4 +69,35 @@ public class KernTable implements Table {
         return _tables.get(i);
     }
 
+    /**
+     * The horizontal kerning value for the given pair of glyphs.
+     * 
+     * <p>
+     * Only horizontal subtables with kerning values along the flow of the
+     * text contribute, vertical, minimum and cross-stream subtables are
+     * skipped. The values of these subtables are added up, an override
+     * subtable that kerns the pair replaces the value accumulated so far.
+     * </p>
+     * 
+     * @see KernSubtable#getKerning(int, int)
+     */
+    public int getKerning(int left, int right) {
+        int result = 0;
+        for (int i = 0, cnt = _tables.size(); i < cnt; i++) {
+            KernSubtable table = _tables.get(i);
+            if (table == null || !table.isHorizontal() || table.isMinimum() || table.isCrossStream()) {
+                continue;
+            }
+            int value = table.getKerning(left, right);
+            if (table.isOverride()) {
+                if (value != 0) {
+                    result = value;
+                }
+            } else {
+                result += value;
+            }
+        }
+        return result;
+    }
+
 }
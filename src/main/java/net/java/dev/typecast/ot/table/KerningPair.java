@@ -28,6 +28,12 @@ public class KerningPair {
         value = di.readShort();
     }
 
+    KerningPair(int left, int right, short value) {
+        this.left = left;
+        this.right = right;
+        this.value = value;
+    }
+
     public int getLeft() {
         return left;
     }
@@ -0,0 +1,136 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.io.IOException;
+
+import net.java.dev.typecast.io.BinaryInput;
+
+/**
+ * Ligature caret list of the {@link GdefTable}: The caret positions between
+ * the components of ligature glyphs.
+ *
+ * <p>
+ * A caret is either given as a coordinate in design units (caret value
+ * formats 1 and 3, device tables are ignored) or as a contour point index
+ * (caret value format 2).
+ * </p>
+ *
+ * @see GdefTable#getLigCaretList()
+ * @see "https://docs.microsoft.com/en-us/typography/opentype/spec/gdef#ligature-caret-list-table"
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class LigCaretList {
+
+    private final Coverage _coverage;
+
+    /**
+     * The caret formats of each ligature glyph by coverage index.
+     */
+    private final byte[][] _formats;
+
+    /**
+     * The coordinates or point indices of the carets of each ligature glyph
+     * by coverage index.
+     */
+    private final short[][] _values;
+
+    /** Creates new LigCaretList */
+    LigCaretList(BinaryInput in, int offset) throws IOException {
+        in.setPosition(offset);
+        int coverageOffset = in.readUnsignedShort();
+        int ligGlyphCount = in.readUnsignedShort();
+        int[] ligGlyphOffsets = SequenceRule.readArray(in, ligGlyphCount);
+
+        in.setPosition(offset + coverageOffset);
+        _coverage = Coverage.read(in);
+
+        _formats = new byte[ligGlyphCount][];
+        _values = new short[ligGlyphCount][];
+        for (int i = 0; i < ligGlyphCount; i++) {
+            int ligGlyph = offset + ligGlyphOffsets[i];
+            in.setPosition(ligGlyph);
+            int caretCount = in.readUnsignedShort();
+            int[] caretValueOffsets = SequenceRule.readArray(in, caretCount);
+
+            byte[] formats = new byte[caretCount];
+            short[] values = new short[caretCount];
+            for (int n = 0; n < caretCount; n++) {
+                in.setPosition(ligGlyph + caretValueOffsets[n]);
+                formats[n] = (byte) in.readUnsignedShort();
+                values[n] = in.readShort();
+            }
+            _formats[i] = formats;
+            _values[i] = values;
+        }
+    }
+
+    /**
+     * The number of carets of the given ligature glyph.
+     */
+    public int getCaretCount(int glyphId) {
+        int i = index(glyphId);
+        return i < 0 ? 0 : _values[i].length;
+    }
+
+    /**
+     * The format of the caret value with the given index.
+     *
+     * @return <code>2</code> if the caret is given as a contour point index,
+     *         <code>1</code> or <code>3</code> for a coordinate.
+     */
+    public int getCaretFormat(int glyphId, int caret) {
+        return _formats[checkIndex(glyphId, caret)][caret];
+    }
+
+    /**
+     * The coordinate (or contour point index for caret format 2) of the caret
+     * with the given index.
+     */
+    public int getCaretValue(int glyphId, int caret) {
+        int i = checkIndex(glyphId, caret);
+        if (_formats[i][caret] == 2) {
+            return _values[i][caret] & 0xFFFF;
+        }
+        return _values[i][caret];
+    }
+
+    private int index(int glyphId) {
+        int i = _coverage.findGlyph(glyphId);
+        return i < _values.length ? i : -1;
+    }
+
+    private int checkIndex(int glyphId, int caret) {
+        int i = index(glyphId);
+        if (i < 0 || caret < 0 || caret >= _values[i].length) {
+            throw new IndexOutOfBoundsException("No caret " + caret + " for glyph " + glyphId + ".");
+        }
+        return i;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("    ligCaretList\n");
+        sb.append("    ------------\n");
+        sb.append("        ligGlyphCount = " + _values.length + "\n");
+        return sb.toString();
+    }
+
+}
@@ -77,6 +77,13 @@ class Ligature {
         return _compCount;
     }
     
+    /**
+     * The glyph ID of the ligature to substitute.
+     */
+    public int getLigatureGlyph() {
+        return _ligGlyph;
+    }
+    
     public int getGlyphId(int i) {
         return (i == 0) ? _ligGlyph : _components[i-1];
     }
@@ -50,9 +50,10 @@
 
 package net.java.dev.typecast.ot.table;
 
-import java.io.DataInputStream;
 import java.io.IOException;
 
+import net.java.dev.typecast.io.BinaryInput;
+
 /**
  *
  * @author <a href="mailto:david.schweinsberg@gmail.com">David Schweinsberg</a>
@@ -64,22 +65,28 @@ class LigatureSet {
     private Ligature[] _ligatures;
 
     /** Creates new LigatureSet */
-    public LigatureSet(DataInputStream dis, int offset) throws IOException {
-        dis.reset();
-        dis.skipBytes(offset);
-        _ligatureCount = dis.readUnsignedShort();
+    public LigatureSet(BinaryInput in, int offset) throws IOException {
+        in.setPosition(offset);
+        _ligatureCount = in.readUnsignedShort();
         _ligatureOffsets = new int[_ligatureCount];
         _ligatures = new Ligature[_ligatureCount];
         for (int i = 0; i < _ligatureCount; i++) {
-            _ligatureOffsets[i] = dis.readUnsignedShort();
+            _ligatureOffsets[i] = in.readUnsignedShort();
         }
         for (int i = 0; i < _ligatureCount; i++) {
-            dis.reset();
-            dis.skipBytes(offset + _ligatureOffsets[i]);
-            _ligatures[i] = new Ligature(dis);
+            in.setPosition(offset + _ligatureOffsets[i]);
+            _ligatures[i] = new Ligature(in);
         }
     }
 
+    public int getLigatureCount() {
+        return _ligatureCount;
+    }
+    
+    public Ligature getLigature(int i) {
+        return _ligatures[i];
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -50,21 +50,21 @@
 
 package net.java.dev.typecast.ot.table;
 
-import java.io.DataInputStream;
 import java.io.IOException;
 
+import net.java.dev.typecast.io.BinaryInput;
+
 /**
  *
  * @author <a href="mailto:david.schweinsberg@gmail.com">David Schweinsberg</a>
  */
 public abstract class LigatureSubst extends LookupSubtable {
 
-    public static LigatureSubst read(DataInputStream dis, int offset) throws IOException {
-        dis.reset();
-        dis.skipBytes(offset);
-        int format = dis.readUnsignedShort();
+    public static LigatureSubst read(BinaryInput in, int offset) throws IOException {
+        in.setPosition(offset);
+        int format = in.readUnsignedShort();
         if (format == 1) {
-            return new LigatureSubstFormat1(dis, offset);
+            return new LigatureSubstFormat1(in, offset);
         }
         return null;
     }
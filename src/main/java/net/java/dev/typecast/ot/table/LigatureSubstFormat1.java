@@ -50,9 +50,10 @@
 
 package net.java.dev.typecast.ot.table;
 
-import java.io.DataInputStream;
 import java.io.IOException;
 
+import net.java.dev.typecast.io.BinaryInput;
+
 /**
  *
  * @author <a href="mailto:david.schweinsberg@gmail.com">David Schweinsberg</a>
@@ -67,20 +68,19 @@ public class LigatureSubstFormat1 extends LigatureSubst {
 
     /** Creates new LigatureSubstFormat1 */
     LigatureSubstFormat1(
-            DataInputStream dis,
+            BinaryInput in,
             int offset) throws IOException {
-        _coverageOffset = dis.readUnsignedShort();
-        _ligSetCount = dis.readUnsignedShort();
+        _coverageOffset = in.readUnsignedShort();
+        _ligSetCount = in.readUnsignedShort();
         _ligatureSetOffsets = new int[_ligSetCount];
         _ligatureSets = new LigatureSet[_ligSetCount];
         for (int i = 0; i < _ligSetCount; i++) {
-            _ligatureSetOffsets[i] = dis.readUnsignedShort();
+            _ligatureSetOffsets[i] = in.readUnsignedShort();
         }
-        dis.reset();
-        dis.skipBytes(offset + _coverageOffset);
-        _coverage = Coverage.read(dis);
+        in.setPosition(offset + _coverageOffset);
+        _coverage = Coverage.read(in);
         for (int i = 0; i < _ligSetCount; i++) {
-            _ligatureSets[i] = new LigatureSet(dis, offset + _ligatureSetOffsets[i]);
+            _ligatureSets[i] = new LigatureSet(in, offset + _ligatureSetOffsets[i]);
         }
     }
 
@@ -88,6 +88,41 @@ public class LigatureSubstFormat1 extends LigatureSubst {
         return 1;
     }
 
+    @Override
+    public boolean apply(LookupContext context) {
+        GlyphBuffer buffer = context.getBuffer();
+        int index = context.getPosition();
+        int i = _coverage.findGlyph(buffer.getGlyph(index));
+        if (i < 0 || i >= _ligSetCount) {
+            return false;
+        }
+        
+        // Ligatures are ordered by preference.
+        LigatureSet ligatureSet = _ligatureSets[i];
+        for (int n = 0, cnt = ligatureSet.getLigatureCount(); n < cnt; n++) {
+            Ligature ligature = ligatureSet.getLigature(n);
+            int count = ligature.getGlyphCount();
+            int[] match = context.matchBuffer(count);
+            match[0] = index;
+            
+            int component = 1;
+            int next = index;
+            for (; component < count; component++) {
+                next = context.next(next);
+                if (next < 0 || buffer.getGlyph(next) != ligature.getGlyphId(component)) {
+                    break;
+                }
+                match[component] = next;
+            }
+            if (component == count) {
+                buffer.ligate(match, count, ligature.getLigatureGlyph());
+                context.setPosition(index + 1);
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public String getTypeAsString() {
         return "LigatureSubstFormat1";
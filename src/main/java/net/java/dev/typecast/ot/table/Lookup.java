@@ -50,9 +50,10 @@
 
 package net.java.dev.typecast.ot.table;
 
-import java.io.DataInputStream;
 import java.io.IOException;
 
+import net.java.dev.typecast.io.BinaryInput;
+
 /**
  * Entry of the {@link LookupList}.
  *
@@ -61,9 +62,11 @@ import java.io.IOException;
 public class Lookup {
 
     // LookupFlag bit enumeration
+    public static final int RIGHT_TO_LEFT = 0x0001;
     public static final int IGNORE_BASE_GLYPHS = 0x0002;
     public static final int IGNORE_BASE_LIGATURES = 0x0004;
     public static final int IGNORE_BASE_MARKS = 0x0008;
+    public static final int USE_MARK_FILTERING_SET = 0x0010;
     public static final int MARK_ATTACHMENT_TYPE = 0xFF00;
 
     private int _type;
@@ -71,26 +74,29 @@ public class Lookup {
     private int _subTableCount;
     private int[] _subTableOffsets;
     private LookupSubtable[] _subTables;
+    private int _markFilteringSet;
 
     /** Creates new Lookup */
-    public Lookup(LookupSubtableFactory factory, DataInputStream dis, int offset)
+    public Lookup(LookupSubtableFactory factory, BinaryInput in, int offset)
     throws IOException {
 
         // Ensure we're in the right place
-        dis.reset();
-        dis.skipBytes(offset);
+        in.setPosition(offset);
         
         // Start reading
-        _type = dis.readUnsignedShort();
-        _flag = dis.readUnsignedShort();
-        _subTableCount = dis.readUnsignedShort();
+        _type = in.readUnsignedShort();
+        _flag = in.readUnsignedShort();
+        _subTableCount = in.readUnsignedShort();
         _subTableOffsets = new int[_subTableCount];
         _subTables = new LookupSubtable[_subTableCount];
         for (int i = 0; i < _subTableCount; i++) {
-            _subTableOffsets[i] = dis.readUnsignedShort();
+            _subTableOffsets[i] = in.readUnsignedShort();
+        }
+        if ((_flag & USE_MARK_FILTERING_SET) != 0) {
+            _markFilteringSet = in.readUnsignedShort();
         }
         for (int i = 0; i < _subTableCount; i++) {
-            _subTables[i] = factory.read(_type, dis, offset + _subTableOffsets[i]);
+            _subTables[i] = factory.read(_type, in, offset + _subTableOffsets[i]);
         }
     }
 
@@ -98,6 +104,40 @@ public class Lookup {
         return _type;
     }
 
+    /**
+     * The lookup flags.
+     * 
+     * @see #RIGHT_TO_LEFT
+     * @see #IGNORE_BASE_GLYPHS
+     * @see #IGNORE_BASE_LIGATURES
+     * @see #IGNORE_BASE_MARKS
+     * @see #USE_MARK_FILTERING_SET
+     * @see #MARK_ATTACHMENT_TYPE
+     */
+    public int getFlag() {
+        return _flag;
+    }
+
+    /**
+     * Index of the mark glyph set in the {@link GdefTable} of marks not to
+     * skip, if the {@link #USE_MARK_FILTERING_SET} flag is set.
+     * 
+     * @see GdefTable#isInMarkGlyphSet(int, int)
+     */
+    public int getMarkFilteringSet() {
+        return _markFilteringSet;
+    }
+
+    /**
+     * Whether this lookup is applied from the end to the start of the glyph
+     * sequence.
+     * 
+     * @see LookupSubtable#isReverse()
+     */
+    public boolean isReverse() {
+        return _subTableCount > 0 && _subTables[0] != null && _subTables[0].isReverse();
+    }
+
     public int getSubtableCount() {
         return _subTableCount;
     }
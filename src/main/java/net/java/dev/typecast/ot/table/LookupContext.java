@@ -0,0 +1,412 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+/**
+ * State of applying the lookups of a {@link LookupList} to a
+ * {@link GlyphBuffer}.
+ *
+ * <p>
+ * A {@link LookupContext} can be reused for applying lookups to multiple
+ * buffers. It is not safe for use by multiple threads.
+ * </p>
+ *
+ * @see GsubTable#apply(GlyphBuffer, int...)
+ * @see GposTable#apply(GlyphBuffer, int...)
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class LookupContext {
+
+    /**
+     * Maximum nesting of lookups applied from contextual lookups.
+     */
+    private static final int MAX_NESTING = 64;
+
+    private final LookupList _lookupList;
+
+    private GdefTable _gdef;
+
+    private GlyphBuffer _buffer;
+
+    private int _position;
+
+    private int _flag;
+
+    private int _markFilteringSet;
+
+    private int _depth;
+
+    private int _alternate;
+
+    /**
+     * Buffers for matched glyph indices, one for each nesting level.
+     */
+    private final int[][] _matches = new int[MAX_NESTING + 1][];
+
+    /**
+     * Creates a {@link LookupContext}.
+     *
+     * @param lookupList
+     *        The lookups to apply.
+     */
+    public LookupContext(LookupList lookupList) {
+        _lookupList = lookupList;
+    }
+
+    /**
+     * The lookups to apply.
+     */
+    public LookupList getLookupList() {
+        return _lookupList;
+    }
+
+    /**
+     * The glyph definitions used to skip glyphs according to the lookup
+     * flags, or <code>null</code>, if no glyphs are skipped.
+     */
+    public GdefTable getGdefTable() {
+        return _gdef;
+    }
+
+    /**
+     * @see #getGdefTable()
+     */
+    public void setGdefTable(GdefTable gdef) {
+        _gdef = gdef;
+    }
+
+    /**
+     * The glyphs to apply lookups to.
+     */
+    public GlyphBuffer getBuffer() {
+        return _buffer;
+    }
+
+    /**
+     * @see #getBuffer()
+     */
+    public void setBuffer(GlyphBuffer buffer) {
+        _buffer = buffer;
+    }
+
+    /**
+     * The index of the glyph in the {@link #getBuffer() buffer} a lookup
+     * subtable is currently applied to.
+     *
+     * <p>
+     * After a subtable has been applied, the position points to the next
+     * glyph to process.
+     * </p>
+     */
+    public int getPosition() {
+        return _position;
+    }
+
+    /**
+     * @see #getPosition()
+     */
+    public void setPosition(int position) {
+        _position = position;
+    }
+
+    /**
+     * The flags of the lookup currently applied.
+     *
+     * @see Lookup#getFlag()
+     */
+    public int getLookupFlag() {
+        return _flag;
+    }
+
+    /**
+     * The index of the alternate glyph to choose when applying an alternate
+     * substitution.
+     */
+    public int getAlternate() {
+        return _alternate;
+    }
+
+    /**
+     * @see #getAlternate()
+     */
+    public void setAlternate(int alternate) {
+        _alternate = alternate;
+    }
+
+    /**
+     * Applies the lookups with the given indices in the given order to all
+     * glyphs of the {@link #getBuffer() buffer}.
+     */
+    public void applyLookups(int... lookupIndices) {
+        for (int lookupIndex : lookupIndices) {
+            applyLookup(lookupIndex);
+        }
+    }
+
+    /**
+     * Applies the lookup with the given index to all glyphs of the
+     * {@link #getBuffer() buffer}.
+     */
+    public void applyLookup(int lookupIndex) {
+        Lookup lookup = _lookupList.getLookup(lookupIndex);
+        if (lookup == null) {
+            return;
+        }
+        _flag = lookup.getFlag();
+        _markFilteringSet = lookup.getMarkFilteringSet();
+
+        GlyphBuffer buffer = _buffer;
+        if (lookup.isReverse()) {
+            for (int index = buffer.getLength() - 1; index >= 0; index--) {
+                if (!isIgnored(index)) {
+                    applyAt(lookup, index);
+                }
+            }
+        } else {
+            int index = 0;
+            while (index < buffer.getLength()) {
+                int length = buffer.getLength();
+                if (!isIgnored(index) && applyAt(lookup, index)) {
+                    if (_position > index || buffer.getLength() != length) {
+                        index = _position;
+                        continue;
+                    }
+                }
+                index++;
+            }
+        }
+    }
+
+    private boolean applyAt(Lookup lookup, int index) {
+        for (int n = 0, cnt = lookup.getSubtableCount(); n < cnt; n++) {
+            LookupSubtable subtable = lookup.getSubtable(n);
+            if (subtable == null) {
+                continue;
+            }
+            _position = index;
+            if (subtable.apply(this)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Applies the lookup with the given index at a single position, as
+     * requested by a contextual lookup.
+     */
+    private void applyNested(int lookupIndex, int index) {
+        if (_depth >= MAX_NESTING || lookupIndex >= _lookupList.getLookupCount()) {
+            return;
+        }
+        Lookup lookup = _lookupList.getLookup(lookupIndex);
+
+        int flag = _flag;
+        int markFilteringSet = _markFilteringSet;
+        _depth++;
+        try {
+            _flag = lookup.getFlag();
+            _markFilteringSet = lookup.getMarkFilteringSet();
+            if (!isIgnored(index)) {
+                applyAt(lookup, index);
+            }
+        } finally {
+            _depth--;
+            _flag = flag;
+            _markFilteringSet = markFilteringSet;
+        }
+    }
+
+    /**
+     * Whether the glyph at the given index is skipped by the current lookup.
+     */
+    public boolean isIgnored(int index) {
+        GdefTable gdef = _gdef;
+        return gdef != null && _flag != 0 && gdef.isIgnored(_buffer.getGlyph(index), _flag, _markFilteringSet);
+    }
+
+    /**
+     * Whether the glyph at the given index is known to be a mark glyph.
+     */
+    public boolean isMark(int index) {
+        GdefTable gdef = _gdef;
+        return gdef != null && gdef.isMark(_buffer.getGlyph(index));
+    }
+
+    /**
+     * The index of the next glyph after the given index that is not
+     * {@link #isIgnored(int) ignored}, or <code>-1</code>, if there is no such
+     * glyph.
+     */
+    public int next(int index) {
+        for (int n = index + 1, length = _buffer.getLength(); n < length; n++) {
+            if (!isIgnored(n)) {
+                return n;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The index of the previous glyph before the given index that is not
+     * {@link #isIgnored(int) ignored}, or <code>-1</code>, if there is no such
+     * glyph.
+     */
+    public int previous(int index) {
+        for (int n = index - 1; n >= 0; n--) {
+            if (!isIgnored(n)) {
+                return n;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * A buffer for matched glyph indices with at least the given size.
+     *
+     * <p>
+     * The buffer is reused for all matches on the current nesting level.
+     * </p>
+     */
+    int[] matchBuffer(int size) {
+        int[] result = _matches[_depth];
+        if (result == null || result.length < size) {
+            result = new int[Math.max(size, 16)];
+            _matches[_depth] = result;
+        }
+        return result;
+    }
+
+    /**
+     * Matches the input sequence following the glyph at the current position.
+     *
+     * @param values
+     *        The values to match with the glyphs following the current
+     *        position.
+     * @param matcher
+     *        Function checking a glyph against a value.
+     * @param match
+     *        Array receiving the indices of the matched glyphs starting at
+     *        index 1 (index 0 is the current position).
+     * @return The index after the last matched glyph, or <code>-1</code>, if
+     *         the sequence does not match.
+     */
+    int matchInput(int[] values, GlyphMatcher matcher, int[] match) {
+        int index = _position;
+        match[0] = index;
+        for (int n = 0, cnt = values.length; n < cnt; n++) {
+            index = next(index);
+            if (index < 0 || !matcher.matches(_buffer.getGlyph(index), values[n])) {
+                return -1;
+            }
+            match[n + 1] = index;
+        }
+        return index + 1;
+    }
+
+    /**
+     * Whether the glyphs before the given index match the given backtrack
+     * sequence (in reverse order).
+     */
+    boolean matchBacktrack(int start, int[] values, GlyphMatcher matcher) {
+        int index = start;
+        for (int n = 0, cnt = values.length; n < cnt; n++) {
+            index = previous(index);
+            if (index < 0 || !matcher.matches(_buffer.getGlyph(index), values[n])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether the glyphs starting at the given index match the given
+     * lookahead sequence.
+     */
+    boolean matchLookahead(int end, int[] values, GlyphMatcher matcher) {
+        int index = end - 1;
+        for (int n = 0, cnt = values.length; n < cnt; n++) {
+            index = next(index);
+            if (index < 0 || !matcher.matches(_buffer.getGlyph(index), values[n])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Applies the lookups of a matched sequence rule.
+     *
+     * @param match
+     *        The indices of the matched input glyphs.
+     * @param count
+     *        The number of matched input glyphs.
+     * @param end
+     *        The index after the last matched input glyph.
+     * @param sequenceIndices
+     *        The indices into the input sequence to apply lookups at.
+     * @param lookupIndices
+     *        The lookups to apply for each entry in the sequence indices.
+     */
+    void applySequenceLookups(int[] match, int count, int end, int[] sequenceIndices, int[] lookupIndices) {
+        GlyphBuffer buffer = _buffer;
+        for (int n = 0, cnt = sequenceIndices.length; n < cnt; n++) {
+            int sequenceIndex = sequenceIndices[n];
+            if (sequenceIndex >= count) {
+                continue;
+            }
+            int index = match[sequenceIndex];
+            if (index >= buffer.getLength()) {
+                continue;
+            }
+
+            int length = buffer.getLength();
+            applyNested(lookupIndices[n], index);
+
+            // Adjust the indices of the remaining matched glyphs, if the
+            // nested lookup has changed the number of glyphs.
+            int delta = buffer.getLength() - length;
+            if (delta != 0) {
+                end += delta;
+                for (int k = sequenceIndex + 1; k < count; k++) {
+                    match[k] = Math.max(match[k] + delta, index + 1);
+                }
+            }
+        }
+        _position = Math.max(end, 0);
+    }
+
+    /**
+     * Checks a glyph against a value of a lookup sequence.
+     */
+    interface GlyphMatcher {
+
+        /**
+         * Matches glyph IDs literally.
+         */
+        GlyphMatcher GLYPH = (glyphId, value) -> glyphId == value;
+
+        /**
+         * Whether the given glyph matches the given value.
+         */
+        boolean matches(int glyphId, int value);
+
+    }
+
+}
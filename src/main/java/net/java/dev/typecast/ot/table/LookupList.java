@@ -50,13 +50,15 @@
 
 package net.java.dev.typecast.ot.table;
 
-import java.io.DataInputStream;
 import java.io.IOException;
 
+import net.java.dev.typecast.io.BinaryInput;
+
 /**
- * Lookup list in the {@link GsubTable}.
+ * Lookup list in the {@link GsubTable} or {@link GposTable}.
  * 
  * @see GsubTable#getLookupList()
+ * @see GposTable#getLookupList()
  *
  * @author <a href="mailto:david.schweinsberg@gmail.com">David Schweinsberg</a>
  */
@@ -67,22 +69,21 @@ public class LookupList {
     private Lookup[] _lookups;
 
     /** Creates new LookupList */
-    public LookupList(DataInputStream dis, int offset, LookupSubtableFactory factory)
+    public LookupList(BinaryInput in, int offset, LookupSubtableFactory factory)
     throws IOException {
         
         // Ensure we're in the right place
-        dis.reset();
-        dis.skipBytes(offset);
+        in.setPosition(offset);
         
         // Start reading
-        _lookupCount = dis.readUnsignedShort();
+        _lookupCount = in.readUnsignedShort();
         _lookupOffsets = new int[_lookupCount];
         _lookups = new Lookup[_lookupCount];
         for (int i = 0; i < _lookupCount; i++) {
-            _lookupOffsets[i] = dis.readUnsignedShort();
+            _lookupOffsets[i] = in.readUnsignedShort();
         }
         for (int i = 0; i < _lookupCount; i++) {
-            _lookups[i] = new Lookup(factory, dis, offset + _lookupOffsets[i]);
+            _lookups[i] = new Lookup(factory, in, offset + _lookupOffsets[i]);
         }
     }
 
@@ -56,4 +56,24 @@ package net.java.dev.typecast.ot.table;
  */
 public abstract class LookupSubtable {
     public abstract String getTypeAsString();
+
+    /**
+     * Applies this subtable to the glyph at the current
+     * {@link LookupContext#getPosition() position} of the given context.
+     * 
+     * @return Whether this subtable matched and has been applied. If so, the
+     *         position of the context has been advanced to the next glyph to
+     *         process.
+     */
+    public boolean apply(LookupContext context) {
+        return false;
+    }
+
+    /**
+     * Whether this subtable must be applied from the end to the start of the
+     * glyph sequence.
+     */
+    public boolean isReverse() {
+        return false;
+    }
 }
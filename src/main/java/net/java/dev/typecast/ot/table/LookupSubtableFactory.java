@@ -50,14 +50,15 @@
  
 package net.java.dev.typecast.ot.table;
 
-import java.io.DataInputStream;
 import java.io.IOException;
 
+import net.java.dev.typecast.io.BinaryInput;
+
 /** 
  *
  * @author <a href="mailto:david.schweinsberg@gmail.com">David Schweinsberg</a>
  */
 interface LookupSubtableFactory {
-    LookupSubtable read(int type, DataInputStream dis, int offset)
+    LookupSubtable read(int type, BinaryInput in, int offset)
     throws IOException;
 }
@@ -0,0 +1,100 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.io.IOException;
+
+import net.java.dev.typecast.io.BinaryInput;
+
+/**
+ * The classes and anchors of the marks of a mark attachment subtable, indexed
+ * by the coverage index of the mark.
+ *
+ * @see "https://docs.microsoft.com/en-us/typography/opentype/spec/gpos#mark-array-table"
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class MarkArray {
+
+    private final int[] _classes;
+
+    private final Anchor[] _anchors;
+
+    /** Creates new MarkArray */
+    MarkArray(BinaryInput in, int offset) throws IOException {
+        in.setPosition(offset);
+        int markCount = in.readUnsignedShort();
+        _classes = new int[markCount];
+        int[] anchorOffsets = new int[markCount];
+        for (int i = 0; i < markCount; i++) {
+            _classes[i] = in.readUnsignedShort();
+            anchorOffsets[i] = in.readUnsignedShort();
+        }
+        _anchors = new Anchor[markCount];
+        for (int i = 0; i < markCount; i++) {
+            _anchors[i] = Anchor.read(in, offset, anchorOffsets[i]);
+        }
+    }
+
+    public int getMarkCount() {
+        return _classes.length;
+    }
+
+    /**
+     * The mark class of the mark with the given coverage index.
+     */
+    public int getMarkClass(int index) {
+        return _classes[index];
+    }
+
+    /**
+     * The anchor of the mark with the given coverage index.
+     */
+    public Anchor getAnchor(int index) {
+        return _anchors[index];
+    }
+
+    /**
+     * Attaches the mark at the given buffer index to the glyph at the given
+     * parent index by aligning the mark's anchor with the given parent anchor.
+     *
+     * @return Whether the mark was attached.
+     */
+    boolean attach(GlyphBuffer buffer, int markIndex, int mark, Anchor parentAnchor, int parent) {
+        Anchor markAnchor = _anchors[markIndex];
+        if (markAnchor == null || parentAnchor == null) {
+            return false;
+        }
+        buffer.setOffset(mark,
+            parentAnchor.getX() - markAnchor.getX(),
+            parentAnchor.getY() - markAnchor.getY());
+        buffer.attach(mark, parent, GlyphBuffer.ATTACH_MARK);
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("                markCount = " + _classes.length + "\n");
+        for (int i = 0; i < _classes.length; i++) {
+            sb.append("                mark " + i + " class " + _classes[i] + " at " + _anchors[i] + "\n");
+        }
+        return sb.toString();
+    }
+
+}
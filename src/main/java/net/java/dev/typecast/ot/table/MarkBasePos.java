@@ -0,0 +1,45 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.io.IOException;
+
+import net.java.dev.typecast.io.BinaryInput;
+
+/**
+ * Mark-to-base attachment positioning subtable: Attaches marks to the
+ * preceding base glyph.
+ *
+ * @see "https://docs.microsoft.com/en-us/typography/opentype/spec/gpos#lookup-type-4-mark-to-base-attachment-positioning-subtable"
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public abstract class MarkBasePos extends LookupSubtable {
+
+    public abstract int getFormat();
+
+    public static MarkBasePos read(BinaryInput in, int offset) throws IOException {
+        in.setPosition(offset);
+        int format = in.readUnsignedShort();
+        if (format == 1) {
+            return new MarkBasePosFormat1(in, offset);
+        }
+        return null;
+    }
+
+}
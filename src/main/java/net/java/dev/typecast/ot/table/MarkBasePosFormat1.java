@@ -0,0 +1,108 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.io.IOException;
+
+import net.java.dev.typecast.io.BinaryInput;
+
+/**
+ * Mark-to-base attachment positioning format 1.
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class MarkBasePosFormat1 extends MarkBasePos {
+
+    private final Coverage _markCoverage;
+
+    private final Coverage _baseCoverage;
+
+    private final int _markClassCount;
+
+    private final MarkArray _markArray;
+
+    /**
+     * The anchors of each base glyph (by coverage index) for each mark class.
+     */
+    private final Anchor[][] _baseAnchors;
+
+    /** Creates new MarkBasePosFormat1 */
+    MarkBasePosFormat1(BinaryInput in, int offset) throws IOException {
+        int markCoverageOffset = in.readUnsignedShort();
+        int baseCoverageOffset = in.readUnsignedShort();
+        _markClassCount = in.readUnsignedShort();
+        int markArrayOffset = in.readUnsignedShort();
+        int baseArrayOffset = in.readUnsignedShort();
+
+        in.setPosition(offset + markCoverageOffset);
+        _markCoverage = Coverage.read(in);
+        in.setPosition(offset + baseCoverageOffset);
+        _baseCoverage = Coverage.read(in);
+        _markArray = new MarkArray(in, offset + markArrayOffset);
+        _baseAnchors = Anchor.readMatrix(in, offset + baseArrayOffset, _markClassCount);
+    }
+
+    @Override
+    public int getFormat() {
+        return 1;
+    }
+
+    @Override
+    public boolean apply(LookupContext context) {
+        GlyphBuffer buffer = context.getBuffer();
+        int index = context.getPosition();
+        int markIndex = _markCoverage.findGlyph(buffer.getGlyph(index));
+        if (markIndex < 0 || markIndex >= _markArray.getMarkCount()) {
+            return false;
+        }
+
+        // Search the base skipping all preceding marks.
+        int base = context.previous(index);
+        while (base >= 0 && (context.isMark(base) || _markCoverage.findGlyph(buffer.getGlyph(base)) >= 0)) {
+            base = context.previous(base);
+        }
+        if (base < 0) {
+            return false;
+        }
+        int baseIndex = _baseCoverage.findGlyph(buffer.getGlyph(base));
+        if (baseIndex < 0 || baseIndex >= _baseAnchors.length) {
+            return false;
+        }
+
+        int markClass = _markArray.getMarkClass(markIndex);
+        if (markClass >= _markClassCount) {
+            return false;
+        }
+        return _markArray.attach(buffer, markIndex, index, _baseAnchors[baseIndex][markClass], base);
+    }
+
+    @Override
+    public String getTypeAsString() {
+        return "MarkBasePosFormat1";
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("                markClassCount = " + _markClassCount + "\n");
+        sb.append("                baseCount      = " + _baseAnchors.length + "\n");
+        sb.append(_markArray.toString());
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.io.IOException;
+
+import net.java.dev.typecast.io.BinaryInput;
+
+/**
+ * Mark-to-ligature attachment positioning format 1.
+ *
+ * <p>
+ * Since the glyph buffer does not record which ligature component a mark
+ * belongs to, marks are attached to the last component of the ligature.
+ * </p>
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class MarkLigPosFormat1 extends MarkLigPos {
+
+    private final Coverage _markCoverage;
+
+    private final Coverage _ligatureCoverage;
+
+    private final int _markClassCount;
+
+    private final MarkArray _markArray;
+
+    /**
+     * For each ligature glyph (by coverage index), the anchors of each
+     * component for each mark class.
+     */
+    private final Anchor[][][] _ligatureAnchors;
+
+    /** Creates new MarkLigPosFormat1 */
+    MarkLigPosFormat1(BinaryInput in, int offset) throws IOException {
+        int markCoverageOffset = in.readUnsignedShort();
+        int ligatureCoverageOffset = in.readUnsignedShort();
+        _markClassCount = in.readUnsignedShort();
+        int markArrayOffset = in.readUnsignedShort();
+        int ligatureArrayOffset = in.readUnsignedShort();
+
+        in.setPosition(offset + markCoverageOffset);
+        _markCoverage = Coverage.read(in);
+        in.setPosition(offset + ligatureCoverageOffset);
+        _ligatureCoverage = Coverage.read(in);
+        _markArray = new MarkArray(in, offset + markArrayOffset);
+
+        int ligatureArray = offset + ligatureArrayOffset;
+        in.setPosition(ligatureArray);
+        int ligatureCount = in.readUnsignedShort();
+        int[] ligatureAttachOffsets = SequenceRule.readArray(in, ligatureCount);
+        _ligatureAnchors = new Anchor[ligatureCount][][];
+        for (int i = 0; i < ligatureCount; i++) {
+            _ligatureAnchors[i] = Anchor.readMatrix(in, ligatureArray + ligatureAttachOffsets[i], _markClassCount);
+        }
+    }
+
+    @Override
+    public int getFormat() {
+        return 1;
+    }
+
+    @Override
+    public boolean apply(LookupContext context) {
+        GlyphBuffer buffer = context.getBuffer();
+        int index = context.getPosition();
+        int markIndex = _markCoverage.findGlyph(buffer.getGlyph(index));
+        if (markIndex < 0 || markIndex >= _markArray.getMarkCount()) {
+            return false;
+        }
+
+        // Search the ligature skipping all preceding marks.
+        int ligature = context.previous(index);
+        while (ligature >= 0
+                && (context.isMark(ligature) || _markCoverage.findGlyph(buffer.getGlyph(ligature)) >= 0)) {
+            ligature = context.previous(ligature);
+        }
+        if (ligature < 0) {
+            return false;
+        }
+        int ligatureIndex = _ligatureCoverage.findGlyph(buffer.getGlyph(ligature));
+        if (ligatureIndex < 0 || ligatureIndex >= _ligatureAnchors.length) {
+            return false;
+        }
+        Anchor[][] components = _ligatureAnchors[ligatureIndex];
+        if (components.length == 0) {
+            return false;
+        }
+
+        int markClass = _markArray.getMarkClass(markIndex);
+        if (markClass >= _markClassCount) {
+            return false;
+        }
+        Anchor anchor = components[components.length - 1][markClass];
+        return _markArray.attach(buffer, markIndex, index, anchor, ligature);
+    }
+
+    @Override
+    public String getTypeAsString() {
+        return "MarkLigPosFormat1";
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("                markClassCount = " + _markClassCount + "\n");
+        sb.append("                ligatureCount  = " + _ligatureAnchors.length + "\n");
+        sb.append(_markArray.toString());
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.io.IOException;
+
+import net.java.dev.typecast.io.BinaryInput;
+
+/**
+ * Mark-to-mark attachment positioning format 1.
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class MarkMarkPosFormat1 extends MarkMarkPos {
+
+    private final Coverage _mark1Coverage;
+
+    private final Coverage _mark2Coverage;
+
+    private final int _markClassCount;
+
+    private final MarkArray _mark1Array;
+
+    /**
+     * The anchors of each mark2 glyph (by coverage index) for each mark class.
+     */
+    private final Anchor[][] _mark2Anchors;
+
+    /** Creates new MarkMarkPosFormat1 */
+    MarkMarkPosFormat1(BinaryInput in, int offset) throws IOException {
+        int mark1CoverageOffset = in.readUnsignedShort();
+        int mark2CoverageOffset = in.readUnsignedShort();
+        _markClassCount = in.readUnsignedShort();
+        int mark1ArrayOffset = in.readUnsignedShort();
+        int mark2ArrayOffset = in.readUnsignedShort();
+
+        in.setPosition(offset + mark1CoverageOffset);
+        _mark1Coverage = Coverage.read(in);
+        in.setPosition(offset + mark2CoverageOffset);
+        _mark2Coverage = Coverage.read(in);
+        _mark1Array = new MarkArray(in, offset + mark1ArrayOffset);
+        _mark2Anchors = Anchor.readMatrix(in, offset + mark2ArrayOffset, _markClassCount);
+    }
+
+    @Override
+    public int getFormat() {
+        return 1;
+    }
+
+    @Override
+    public boolean apply(LookupContext context) {
+        GlyphBuffer buffer = context.getBuffer();
+        int index = context.getPosition();
+        int mark1Index = _mark1Coverage.findGlyph(buffer.getGlyph(index));
+        if (mark1Index < 0 || mark1Index >= _mark1Array.getMarkCount()) {
+            return false;
+        }
+
+        // The mark to attach to must directly precede.
+        int mark2 = context.previous(index);
+        if (mark2 < 0) {
+            return false;
+        }
+        int mark2Index = _mark2Coverage.findGlyph(buffer.getGlyph(mark2));
+        if (mark2Index < 0 || mark2Index >= _mark2Anchors.length) {
+            return false;
+        }
+
+        int markClass = _mark1Array.getMarkClass(mark1Index);
+        if (markClass >= _markClassCount) {
+            return false;
+        }
+        return _mark1Array.attach(buffer, mark1Index, index, _mark2Anchors[mark2Index][markClass], mark2);
+    }
+
+    @Override
+    public String getTypeAsString() {
+        return "MarkMarkPosFormat1";
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("                markClassCount = " + _markClassCount + "\n");
+        sb.append("                mark2Count     = " + _mark2Anchors.length + "\n");
+        sb.append(_mark1Array.toString());
+        return sb.toString();
+    }
+
+}
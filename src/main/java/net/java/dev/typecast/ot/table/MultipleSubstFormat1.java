@@ -0,0 +1,107 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.io.IOException;
+
+import net.java.dev.typecast.io.BinaryInput;
+
+/**
+ * Multiple substitution format 1.
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class MultipleSubstFormat1 extends MultipleSubst {
+
+    private final Coverage _coverage;
+    
+    /**
+     * The glyph sequence to substitute, indexed by coverage index.
+     */
+    private final int[][] _sequences;
+
+    /** Creates new MultipleSubstFormat1 */
+    MultipleSubstFormat1(BinaryInput in, int offset) throws IOException {
+        int coverageOffset = in.readUnsignedShort();
+        int sequenceCount = in.readUnsignedShort();
+        int[] sequenceOffsets = new int[sequenceCount];
+        for (int i = 0; i < sequenceCount; i++) {
+            sequenceOffsets[i] = in.readUnsignedShort();
+        }
+        
+        in.setPosition(offset + coverageOffset);
+        _coverage = Coverage.read(in);
+        
+        _sequences = new int[sequenceCount][];
+        for (int i = 0; i < sequenceCount; i++) {
+            in.setPosition(offset + sequenceOffsets[i]);
+            int glyphCount = in.readUnsignedShort();
+            int[] sequence = new int[glyphCount];
+            for (int n = 0; n < glyphCount; n++) {
+                sequence[n] = in.readUnsignedShort();
+            }
+            _sequences[i] = sequence;
+        }
+    }
+
+    @Override
+    public int getFormat() {
+        return 1;
+    }
+
+    /**
+     * The glyph sequence to substitute for the given glyph, or
+     * <code>null</code>, if the glyph is not covered.
+     */
+    public int[] getSequence(int glyphId) {
+        int i = _coverage.findGlyph(glyphId);
+        if (i < 0 || i >= _sequences.length) {
+            return null;
+        }
+        return _sequences[i];
+    }
+
+    @Override
+    public boolean apply(LookupContext context) {
+        GlyphBuffer buffer = context.getBuffer();
+        int index = context.getPosition();
+        int[] sequence = getSequence(buffer.getGlyph(index));
+        if (sequence == null) {
+            return false;
+        }
+        buffer.replace(index, sequence);
+        context.setPosition(index + sequence.length);
+        return true;
+    }
+
+    @Override
+    public String getTypeAsString() {
+        return "MultipleSubstFormat1";
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("                sequenceCount = " + _sequences.length + "\n");
+        for (int[] sequence : _sequences) {
+            sb.append("                sequence      = " + LangSys.toString(sequence) + "\n");
+        }
+        sb.append(_coverage.toString());
+        return sb.toString();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import net.java.dev.typecast.io.BinaryInput;
+
+/**
+ * Pair adjustment positioning format 1: Adjustments for pairs of individual
+ * glyphs.
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class PairPosFormat1 extends PairPos {
+
+    private static final int[] NO_GLYPHS = {};
+
+    private static final short[] NO_VALUES = {};
+
+    private final Coverage _coverage;
+
+    private final int _valueFormat1;
+
+    private final int _valueFormat2;
+
+    /**
+     * For each first glyph (by coverage index), the sorted second glyphs of
+     * its pairs.
+     */
+    private final int[][] _secondGlyphs;
+
+    /**
+     * For each first glyph (by coverage index), the values of its pairs in
+     * the order of {@link #_secondGlyphs}.
+     */
+    private final short[][] _values;
+
+    /** Creates new PairPosFormat1 */
+    PairPosFormat1(BinaryInput in, int offset) throws IOException {
+        int coverageOffset = in.readUnsignedShort();
+        _valueFormat1 = in.readUnsignedShort();
+        _valueFormat2 = in.readUnsignedShort();
+        int pairSetCount = in.readUnsignedShort();
+        int[] pairSetOffsets = SequenceRule.readArray(in, pairSetCount);
+
+        in.setPosition(offset + coverageOffset);
+        _coverage = Coverage.read(in);
+
+        int size = ValueFormat.size(_valueFormat1) + ValueFormat.size(_valueFormat2);
+        _secondGlyphs = new int[pairSetCount][];
+        _values = new short[pairSetCount][];
+        for (int i = 0; i < pairSetCount; i++) {
+            if (pairSetOffsets[i] == 0) {
+                _secondGlyphs[i] = NO_GLYPHS;
+                _values[i] = NO_VALUES;
+                continue;
+            }
+            in.setPosition(offset + pairSetOffsets[i]);
+            int pairValueCount = in.readUnsignedShort();
+            int[] secondGlyphs = new int[pairValueCount];
+            short[] values = new short[pairValueCount * size];
+            for (int n = 0, pos = 0; n < pairValueCount; n++) {
+                secondGlyphs[n] = in.readUnsignedShort();
+                pos = ValueFormat.read(in, _valueFormat1, values, pos);
+                pos = ValueFormat.read(in, _valueFormat2, values, pos);
+            }
+            _secondGlyphs[i] = secondGlyphs;
+            _values[i] = values;
+        }
+    }
+
+    @Override
+    public int getFormat() {
+        return 1;
+    }
+
+    @Override
+    public boolean apply(LookupContext context) {
+        GlyphBuffer buffer = context.getBuffer();
+        int index = context.getPosition();
+        int i = _coverage.findGlyph(buffer.getGlyph(index));
+        if (i < 0 || i >= _secondGlyphs.length) {
+            return false;
+        }
+        int second = context.next(index);
+        if (second < 0) {
+            return false;
+        }
+        int n = Arrays.binarySearch(_secondGlyphs[i], buffer.getGlyph(second));
+        if (n < 0) {
+            return false;
+        }
+
+        int size1 = ValueFormat.size(_valueFormat1);
+        int pos = n * (size1 + ValueFormat.size(_valueFormat2));
+        ValueFormat.apply(_valueFormat1, _values[i], pos, buffer, index);
+        ValueFormat.apply(_valueFormat2, _values[i], pos + size1, buffer, second);
+
+        // A second glyph that has been adjusted is not the first of a pair.
+        context.setPosition(_valueFormat2 == 0 ? second : second + 1);
+        return true;
+    }
+
+    @Override
+    public String getTypeAsString() {
+        return "PairPosFormat1";
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("                valueFormat1 = " + _valueFormat1 + "\n");
+        sb.append("                valueFormat2 = " + _valueFormat2 + "\n");
+        sb.append("                pairSetCount = " + _secondGlyphs.length + "\n");
+        sb.append(_coverage.toString());
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.io.IOException;
+
+import net.java.dev.typecast.io.BinaryInput;
+
+/**
+ * Pair adjustment positioning format 2: Adjustments for pairs of glyph
+ * classes.
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class PairPosFormat2 extends PairPos {
+
+    private final Coverage _coverage;
+
+    private final int _valueFormat1;
+
+    private final int _valueFormat2;
+
+    private final ClassDef _classDef1;
+
+    private final ClassDef _classDef2;
+
+    private final int _class1Count;
+
+    private final int _class2Count;
+
+    /**
+     * The values of all class pairs, the record of the class pair
+     * <code>(c1, c2)</code> is at index <code>c1 * class2Count + c2</code>.
+     */
+    private final short[] _values;
+
+    /** Creates new PairPosFormat2 */
+    PairPosFormat2(BinaryInput in, int offset) throws IOException {
+        int coverageOffset = in.readUnsignedShort();
+        _valueFormat1 = in.readUnsignedShort();
+        _valueFormat2 = in.readUnsignedShort();
+        int classDef1Offset = in.readUnsignedShort();
+        int classDef2Offset = in.readUnsignedShort();
+        _class1Count = in.readUnsignedShort();
+        _class2Count = in.readUnsignedShort();
+
+        int size = ValueFormat.size(_valueFormat1) + ValueFormat.size(_valueFormat2);
+        _values = new short[_class1Count * _class2Count * size];
+        for (int i = 0, cnt = _class1Count * _class2Count, pos = 0; i < cnt; i++) {
+            pos = ValueFormat.read(in, _valueFormat1, _values, pos);
+            pos = ValueFormat.read(in, _valueFormat2, _values, pos);
+        }
+
+        in.setPosition(offset + coverageOffset);
+        _coverage = Coverage.read(in);
+        _classDef1 = SequenceContext.readClassDef(in, offset, classDef1Offset);
+        _classDef2 = SequenceContext.readClassDef(in, offset, classDef2Offset);
+    }
+
+    @Override
+    public int getFormat() {
+        return 2;
+    }
+
+    @Override
+    public boolean apply(LookupContext context) {
+        GlyphBuffer buffer = context.getBuffer();
+        int index = context.getPosition();
+        int glyphId = buffer.getGlyph(index);
+        if (_coverage.findGlyph(glyphId) < 0) {
+            return false;
+        }
+        int second = context.next(index);
+        if (second < 0) {
+            return false;
+        }
+        int class1 = _classDef1 == null ? 0 : _classDef1.getGlyphClass(glyphId);
+        int class2 = _classDef2 == null ? 0 : _classDef2.getGlyphClass(buffer.getGlyph(second));
+        if (class1 >= _class1Count || class2 >= _class2Count) {
+            return false;
+        }
+
+        int size1 = ValueFormat.size(_valueFormat1);
+        int pos = (class1 * _class2Count + class2) * (size1 + ValueFormat.size(_valueFormat2));
+        ValueFormat.apply(_valueFormat1, _values, pos, buffer, index);
+        ValueFormat.apply(_valueFormat2, _values, pos + size1, buffer, second);
+
+        // A second glyph that has been adjusted is not the first of a pair.
+        context.setPosition(_valueFormat2 == 0 ? second : second + 1);
+        return true;
+    }
+
+    @Override
+    public String getTypeAsString() {
+        return "PairPosFormat2";
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("                valueFormat1 = " + _valueFormat1 + "\n");
+        sb.append("                valueFormat2 = " + _valueFormat2 + "\n");
+        sb.append("                class1Count  = " + _class1Count + "\n");
+        sb.append("                class2Count  = " + _class2Count + "\n");
+        sb.append(_coverage.toString());
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.io.IOException;
+
+import net.java.dev.typecast.io.BinaryInput;
+import net.java.dev.typecast.ot.table.LookupContext.GlyphMatcher;
+
+/**
+ * Reverse chaining contextual single substitution format 1.
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class ReverseChainSingleSubstFormat1 extends ReverseChainSingleSubst {
+
+    private final Coverage _coverage;
+
+    private final Coverage[] _backtrackCoverages;
+
+    private final Coverage[] _lookaheadCoverages;
+
+    private final int[] _backtrack;
+
+    private final int[] _lookahead;
+
+    /**
+     * The substitute glyphs indexed by coverage index.
+     */
+    private final int[] _substitutes;
+
+    private final GlyphMatcher _backtrackMatcher;
+
+    private final GlyphMatcher _lookaheadMatcher;
+
+    /** Creates new ReverseChainSingleSubstFormat1 */
+    ReverseChainSingleSubstFormat1(BinaryInput in, int offset) throws IOException {
+        int coverageOffset = in.readUnsignedShort();
+        int[] backtrackOffsets = SequenceRule.readArray(in, in.readUnsignedShort());
+        int[] lookaheadOffsets = SequenceRule.readArray(in, in.readUnsignedShort());
+        _substitutes = SequenceRule.readArray(in, in.readUnsignedShort());
+
+        _coverage = SequenceContext.readCoverage(in, offset + coverageOffset);
+        _backtrackCoverages = new Coverage[backtrackOffsets.length];
+        for (int i = 0; i < backtrackOffsets.length; i++) {
+            _backtrackCoverages[i] = SequenceContext.readCoverage(in, offset + backtrackOffsets[i]);
+        }
+        _lookaheadCoverages = new Coverage[lookaheadOffsets.length];
+        for (int i = 0; i < lookaheadOffsets.length; i++) {
+            _lookaheadCoverages[i] = SequenceContext.readCoverage(in, offset + lookaheadOffsets[i]);
+        }
+
+        _backtrack = SequenceRule.indices(0, _backtrackCoverages.length);
+        _lookahead = SequenceRule.indices(0, _lookaheadCoverages.length);
+        _backtrackMatcher = (glyphId, value) -> _backtrackCoverages[value].findGlyph(glyphId) >= 0;
+        _lookaheadMatcher = (glyphId, value) -> _lookaheadCoverages[value].findGlyph(glyphId) >= 0;
+    }
+
+    @Override
+    public int getFormat() {
+        return 1;
+    }
+
+    @Override
+    public boolean apply(LookupContext context) {
+        GlyphBuffer buffer = context.getBuffer();
+        int index = context.getPosition();
+        int i = _coverage.findGlyph(buffer.getGlyph(index));
+        if (i < 0 || i >= _substitutes.length) {
+            return false;
+        }
+        if (!context.matchBacktrack(index, _backtrack, _backtrackMatcher)) {
+            return false;
+        }
+        if (!context.matchLookahead(index + 1, _lookahead, _lookaheadMatcher)) {
+            return false;
+        }
+        buffer.setGlyph(index, _substitutes[i]);
+        context.setPosition(index - 1);
+        return true;
+    }
+
+    @Override
+    public String getTypeAsString() {
+        return "ReverseChainSingleSubstFormat1";
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("                backtrackCount = " + _backtrackCoverages.length + "\n");
+        sb.append("                lookaheadCount = " + _lookaheadCoverages.length + "\n");
+        sb.append("                substitutes    = " + LangSys.toString(_substitutes) + "\n");
+        sb.append(_coverage.toString());
+        return sb.toString();
+    }
+
+}
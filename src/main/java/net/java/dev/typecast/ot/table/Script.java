@@ -50,9 +50,10 @@
 
 package net.java.dev.typecast.ot.table;
 
-import java.io.DataInputStream;
 import java.io.IOException;
 
+import net.java.dev.typecast.io.BinaryInput;
+
 /**
  *
  * @author <a href="mailto:david.schweinsberg@gmail.com">David Schweinsberg</a>
@@ -66,19 +67,18 @@ public class Script {
     private LangSys[] _langSys;
     
     /** Creates new ScriptTable */
-    Script(DataInputStream dis, int offset) throws IOException {
+    Script(BinaryInput in, int offset) throws IOException {
 
         // Ensure we're in the right place
-        dis.reset();
-        dis.skipBytes(offset);
+        in.setPosition(offset);
         
         // Start reading
-        _defaultLangSysOffset = dis.readUnsignedShort();
-        _langSysCount = dis.readUnsignedShort();
+        _defaultLangSysOffset = in.readUnsignedShort();
+        _langSysCount = in.readUnsignedShort();
         if (_langSysCount > 0) {
             _langSysRecords = new LangSysRecord[_langSysCount];
             for (int i = 0; i < _langSysCount; i++) {
-                _langSysRecords[i] = new LangSysRecord(dis);
+                _langSysRecords[i] = new LangSysRecord(in);
             }
         }
 
@@ -86,15 +86,13 @@ public class Script {
         if (_langSysCount > 0) {
             _langSys = new LangSys[_langSysCount];
             for (int i = 0; i < _langSysCount; i++) {
-                dis.reset();
-                dis.skipBytes(offset + _langSysRecords[i].getOffset());
-                _langSys[i] = new LangSys(dis);
+                in.setPosition(offset + _langSysRecords[i].getOffset());
+                _langSys[i] = new LangSys(in);
             }
         }
         if (_defaultLangSysOffset > 0) {
-            dis.reset();
-            dis.skipBytes(offset + _defaultLangSysOffset);
-            _defaultLangSys = new LangSys(dis);
+            in.setPosition(offset + _defaultLangSysOffset);
+            _defaultLangSys = new LangSys(in);
         }
     }
 
@@ -113,6 +111,19 @@ public class Script {
     public LangSys getLangSys(int i) {
         return _langSys[i];
     }
+
+    /**
+     * The {@link LangSys} with the given language tag, or <code>null</code>,
+     * if this script has no such language system.
+     */
+    public LangSys findLangSys(int tag) {
+        for (int i = 0; i < _langSysCount; i++) {
+            if (_langSysRecords[i].getTag() == tag) {
+                return _langSys[i];
+            }
+        }
+        return null;
+    }
     
     @Override
     public String toString() {
@@ -50,9 +50,10 @@
 
 package net.java.dev.typecast.ot.table;
 
-import java.io.DataInputStream;
 import java.io.IOException;
 
+import net.java.dev.typecast.io.BinaryInput;
+
 /**
  *
  * @author <a href="mailto:david.schweinsberg@gmail.com">David Schweinsberg</a>
@@ -64,21 +65,20 @@ public class ScriptList {
     private Script[] _scripts;
     
     /** Creates new ScriptList */
-    ScriptList(DataInputStream dis, int offset) throws IOException {
+    ScriptList(BinaryInput in, int offset) throws IOException {
         
         // Ensure we're in the right place
-        dis.reset();
-        dis.skipBytes(offset);
+        in.setPosition(offset);
         
         // Start reading
-        _scriptCount = dis.readUnsignedShort();
+        _scriptCount = in.readUnsignedShort();
         _scriptRecords = new ScriptRecord[_scriptCount];
         _scripts = new Script[_scriptCount];
         for (int i = 0; i < _scriptCount; i++) {
-            _scriptRecords[i] = new ScriptRecord(dis);
+            _scriptRecords[i] = new ScriptRecord(in);
         }
         for (int i = 0; i < _scriptCount; i++) {
-            _scripts[i] = new Script(dis, offset + _scriptRecords[i].getOffset());
+            _scripts[i] = new Script(in, offset + _scriptRecords[i].getOffset());
         }
     }
 
@@ -98,12 +98,16 @@ public class ScriptList {
         if (tag.length() != 4) {
             return null;
         }
-        int tagVal = ((tag.charAt(0)<<24)
-            | (tag.charAt(1)<<16)
-            | (tag.charAt(2)<<8)
-            | tag.charAt(3));
+        return findScript(TableDirectory.fromStringTag(tag));
+    }
+
+    /**
+     * The {@link Script} with the given tag, or <code>null</code>, if this
+     * list has no such script.
+     */
+    public Script findScript(int tag) {
         for (int i = 0; i < _scriptCount; i++) {
-            if (_scriptRecords[i].getTag() == tagVal) {
+            if (_scriptRecords[i].getTag() == tag) {
                 return _scripts[i];
             }
         }
@@ -57,4 +57,6 @@ package net.java.dev.typecast.ot.table;
  */
 public interface ScriptTags {
     String SCRIPT_TAG_ARAB = "arab";
+    String SCRIPT_TAG_DFLT = "DFLT";
+    String SCRIPT_TAG_LATN = "latn";
 }
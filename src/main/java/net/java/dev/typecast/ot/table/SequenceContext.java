@@ -0,0 +1,101 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.io.IOException;
+
+import net.java.dev.typecast.io.BinaryInput;
+
+/**
+ * Sequence context subtable (GSUB lookup type 5, GPOS lookup type 7) and
+ * chained sequence context subtable (GSUB lookup type 6, GPOS lookup type 8).
+ *
+ * <p>
+ * Applies other lookups to a glyph sequence, if the sequence (and for chained
+ * contexts also the glyphs before and after it) matches one of its rules.
+ * </p>
+ *
+ * @see "https://docs.microsoft.com/en-us/typography/opentype/spec/chapter2#sequence-context-format-1-simple-glyph-contexts"
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public abstract class SequenceContext extends LookupSubtable {
+
+    private final boolean _chained;
+
+    SequenceContext(boolean chained) {
+        _chained = chained;
+    }
+
+    public abstract int getFormat();
+
+    /**
+     * Whether this is a chained sequence context with backtrack and lookahead
+     * sequences.
+     */
+    public boolean isChained() {
+        return _chained;
+    }
+
+    @Override
+    public String getTypeAsString() {
+        return (_chained ? "ChainedSequenceContextFormat" : "SequenceContextFormat") + getFormat();
+    }
+
+    /**
+     * Reads a sequence context subtable.
+     */
+    public static SequenceContext read(BinaryInput in, int offset) throws IOException {
+        return read(in, offset, false);
+    }
+
+    /**
+     * Reads a chained sequence context subtable.
+     */
+    public static SequenceContext readChained(BinaryInput in, int offset) throws IOException {
+        return read(in, offset, true);
+    }
+
+    private static SequenceContext read(BinaryInput in, int offset, boolean chained) throws IOException {
+        in.setPosition(offset);
+        int format = in.readUnsignedShort();
+        switch (format) {
+            case 1:
+                return new SequenceContextFormat1(in, offset, chained);
+            case 2:
+                return new SequenceContextFormat2(in, offset, chained);
+            case 3:
+                return new SequenceContextFormat3(in, offset, chained);
+        }
+        return null;
+    }
+
+    static Coverage readCoverage(BinaryInput in, int offset) throws IOException {
+        in.setPosition(offset);
+        return Coverage.read(in);
+    }
+
+    static ClassDef readClassDef(BinaryInput in, int base, int offset) throws IOException {
+        if (offset == 0) {
+            return null;
+        }
+        in.setPosition(base + offset);
+        return ClassDef.read(in);
+    }
+
+}
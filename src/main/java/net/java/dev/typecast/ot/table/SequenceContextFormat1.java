@@ -0,0 +1,88 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.io.IOException;
+
+import net.java.dev.typecast.io.BinaryInput;
+import net.java.dev.typecast.ot.table.LookupContext.GlyphMatcher;
+
+/**
+ * Sequence context format 1: Rules with glyph sequences.
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class SequenceContextFormat1 extends SequenceContext {
+
+    private final Coverage _coverage;
+
+    /**
+     * Rule sets indexed by the coverage index of the first glyph.
+     */
+    private final SequenceRule[][] _ruleSets;
+
+    /** Creates new SequenceContextFormat1 */
+    SequenceContextFormat1(BinaryInput in, int offset, boolean chained) throws IOException {
+        super(chained);
+        int coverageOffset = in.readUnsignedShort();
+        int ruleSetCount = in.readUnsignedShort();
+        int[] ruleSetOffsets = SequenceRule.readArray(in, ruleSetCount);
+
+        _coverage = readCoverage(in, offset + coverageOffset);
+        _ruleSets = new SequenceRule[ruleSetCount][];
+        for (int i = 0; i < ruleSetCount; i++) {
+            if (ruleSetOffsets[i] != 0) {
+                _ruleSets[i] = SequenceRule.readSet(in, offset + ruleSetOffsets[i], chained);
+            }
+        }
+    }
+
+    @Override
+    public int getFormat() {
+        return 1;
+    }
+
+    @Override
+    public boolean apply(LookupContext context) {
+        int i = _coverage.findGlyph(context.getBuffer().getGlyph(context.getPosition()));
+        if (i < 0 || i >= _ruleSets.length || _ruleSets[i] == null) {
+            return false;
+        }
+        for (SequenceRule rule : _ruleSets[i]) {
+            if (rule.apply(context, GlyphMatcher.GLYPH, GlyphMatcher.GLYPH, GlyphMatcher.GLYPH)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(_coverage.toString());
+        for (SequenceRule[] ruleSet : _ruleSets) {
+            if (ruleSet != null) {
+                for (SequenceRule rule : ruleSet) {
+                    sb.append(rule.toString());
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.io.IOException;
+
+import net.java.dev.typecast.io.BinaryInput;
+import net.java.dev.typecast.ot.table.LookupContext.GlyphMatcher;
+
+/**
+ * Sequence context format 2: Rules with glyph class sequences.
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class SequenceContextFormat2 extends SequenceContext {
+
+    private final Coverage _coverage;
+
+    private final ClassDef _backtrackClassDef;
+
+    private final ClassDef _inputClassDef;
+
+    private final ClassDef _lookaheadClassDef;
+
+    /**
+     * Rule sets indexed by the class of the first glyph.
+     */
+    private final SequenceRule[][] _ruleSets;
+
+    private final GlyphMatcher _backtrackMatcher;
+
+    private final GlyphMatcher _inputMatcher;
+
+    private final GlyphMatcher _lookaheadMatcher;
+
+    /** Creates new SequenceContextFormat2 */
+    SequenceContextFormat2(BinaryInput in, int offset, boolean chained) throws IOException {
+        super(chained);
+        int coverageOffset = in.readUnsignedShort();
+        int backtrackClassDefOffset = 0;
+        int inputClassDefOffset;
+        int lookaheadClassDefOffset = 0;
+        if (chained) {
+            backtrackClassDefOffset = in.readUnsignedShort();
+            inputClassDefOffset = in.readUnsignedShort();
+            lookaheadClassDefOffset = in.readUnsignedShort();
+        } else {
+            inputClassDefOffset = in.readUnsignedShort();
+        }
+        int ruleSetCount = in.readUnsignedShort();
+        int[] ruleSetOffsets = SequenceRule.readArray(in, ruleSetCount);
+
+        _coverage = readCoverage(in, offset + coverageOffset);
+        _backtrackClassDef = readClassDef(in, offset, backtrackClassDefOffset);
+        _inputClassDef = readClassDef(in, offset, inputClassDefOffset);
+        _lookaheadClassDef = readClassDef(in, offset, lookaheadClassDefOffset);
+
+        _ruleSets = new SequenceRule[ruleSetCount][];
+        for (int i = 0; i < ruleSetCount; i++) {
+            if (ruleSetOffsets[i] != 0) {
+                _ruleSets[i] = SequenceRule.readSet(in, offset + ruleSetOffsets[i], chained);
+            }
+        }
+
+        _backtrackMatcher = classMatcher(_backtrackClassDef);
+        _inputMatcher = classMatcher(_inputClassDef);
+        _lookaheadMatcher = classMatcher(_lookaheadClassDef);
+    }
+
+    private static GlyphMatcher classMatcher(ClassDef classDef) {
+        if (classDef == null) {
+            return (glyphId, value) -> value == 0;
+        }
+        return (glyphId, value) -> classDef.getGlyphClass(glyphId) == value;
+    }
+
+    @Override
+    public int getFormat() {
+        return 2;
+    }
+
+    @Override
+    public boolean apply(LookupContext context) {
+        int glyphId = context.getBuffer().getGlyph(context.getPosition());
+        if (_coverage.findGlyph(glyphId) < 0) {
+            return false;
+        }
+        int glyphClass = _inputClassDef == null ? 0 : _inputClassDef.getGlyphClass(glyphId);
+        if (glyphClass >= _ruleSets.length || _ruleSets[glyphClass] == null) {
+            return false;
+        }
+        for (SequenceRule rule : _ruleSets[glyphClass]) {
+            if (rule.apply(context, _backtrackMatcher, _inputMatcher, _lookaheadMatcher)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(_coverage.toString());
+        for (int i = 0; i < _ruleSets.length; i++) {
+            if (_ruleSets[i] != null) {
+                sb.append("                class " + i + "\n");
+                for (SequenceRule rule : _ruleSets[i]) {
+                    sb.append(rule.toString());
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+}
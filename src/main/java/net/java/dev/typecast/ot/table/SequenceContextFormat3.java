@@ -0,0 +1,121 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.io.IOException;
+
+import net.java.dev.typecast.io.BinaryInput;
+import net.java.dev.typecast.ot.table.LookupContext.GlyphMatcher;
+
+/**
+ * Sequence context format 3: A single rule with a sequence of coverage tables.
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class SequenceContextFormat3 extends SequenceContext {
+
+    private final Coverage[] _backtrackCoverages;
+
+    private final Coverage[] _inputCoverages;
+
+    private final Coverage[] _lookaheadCoverages;
+
+    private final SequenceRule _rule;
+
+    private final GlyphMatcher _backtrackMatcher;
+
+    private final GlyphMatcher _inputMatcher;
+
+    private final GlyphMatcher _lookaheadMatcher;
+
+    /** Creates new SequenceContextFormat3 */
+    SequenceContextFormat3(BinaryInput in, int offset, boolean chained) throws IOException {
+        super(chained);
+        int[] backtrackOffsets = SequenceRule.NONE;
+        int[] inputOffsets;
+        int[] lookaheadOffsets = SequenceRule.NONE;
+        int lookupCount;
+        if (chained) {
+            backtrackOffsets = SequenceRule.readArray(in, in.readUnsignedShort());
+            inputOffsets = SequenceRule.readArray(in, in.readUnsignedShort());
+            lookaheadOffsets = SequenceRule.readArray(in, in.readUnsignedShort());
+            lookupCount = in.readUnsignedShort();
+        } else {
+            int glyphCount = in.readUnsignedShort();
+            lookupCount = in.readUnsignedShort();
+            inputOffsets = SequenceRule.readArray(in, glyphCount);
+        }
+        int[] sequenceIndices = new int[lookupCount];
+        int[] lookupIndices = new int[lookupCount];
+        SequenceRule.readLookupRecords(in, sequenceIndices, lookupIndices);
+
+        _backtrackCoverages = readCoverages(in, offset, backtrackOffsets);
+        _inputCoverages = readCoverages(in, offset, inputOffsets);
+        _lookaheadCoverages = readCoverages(in, offset, lookaheadOffsets);
+
+        _rule = new SequenceRule(
+            SequenceRule.indices(0, _backtrackCoverages.length),
+            SequenceRule.indices(1, _inputCoverages.length - 1),
+            SequenceRule.indices(0, _lookaheadCoverages.length),
+            sequenceIndices, lookupIndices);
+
+        _backtrackMatcher = coverageMatcher(_backtrackCoverages);
+        _inputMatcher = coverageMatcher(_inputCoverages);
+        _lookaheadMatcher = coverageMatcher(_lookaheadCoverages);
+    }
+
+    private static Coverage[] readCoverages(BinaryInput in, int offset, int[] coverageOffsets) throws IOException {
+        Coverage[] result = new Coverage[coverageOffsets.length];
+        for (int i = 0; i < coverageOffsets.length; i++) {
+            result[i] = readCoverage(in, offset + coverageOffsets[i]);
+        }
+        return result;
+    }
+
+    private static GlyphMatcher coverageMatcher(Coverage[] coverages) {
+        return (glyphId, value) -> coverages[value] != null && coverages[value].findGlyph(glyphId) >= 0;
+    }
+
+    @Override
+    public int getFormat() {
+        return 3;
+    }
+
+    @Override
+    public boolean apply(LookupContext context) {
+        if (_inputCoverages.length == 0) {
+            return false;
+        }
+        int glyphId = context.getBuffer().getGlyph(context.getPosition());
+        if (!_inputMatcher.matches(glyphId, 0)) {
+            return false;
+        }
+        return _rule.apply(context, _backtrackMatcher, _inputMatcher, _lookaheadMatcher);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("                backtrackCount = " + _backtrackCoverages.length + "\n");
+        sb.append("                inputCount     = " + _inputCoverages.length + "\n");
+        sb.append("                lookaheadCount = " + _lookaheadCoverages.length + "\n");
+        sb.append(_rule.toString());
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,188 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.io.IOException;
+
+import net.java.dev.typecast.io.BinaryInput;
+import net.java.dev.typecast.ot.table.LookupContext.GlyphMatcher;
+
+/**
+ * A rule of a {@link SequenceContext} subtable: A glyph sequence with an
+ * optional backtrack and lookahead sequence, and the lookups to apply to the
+ * glyphs of a matching sequence.
+ *
+ * <p>
+ * Depending on the subtable format, the values of the sequences are glyph
+ * IDs, glyph classes, or indices of coverage tables.
+ * </p>
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+final class SequenceRule {
+
+    static final int[] NONE = {};
+
+    /**
+     * The backtrack sequence, starting with the glyph before the input
+     * sequence.
+     */
+    private final int[] _backtrack;
+
+    /**
+     * The input sequence starting with the second glyph.
+     */
+    private final int[] _input;
+
+    private final int[] _lookahead;
+
+    private final int[] _sequenceIndices;
+
+    private final int[] _lookupIndices;
+
+    SequenceRule(int[] backtrack, int[] input, int[] lookahead, int[] sequenceIndices, int[] lookupIndices) {
+        _backtrack = backtrack;
+        _input = input;
+        _lookahead = lookahead;
+        _sequenceIndices = sequenceIndices;
+        _lookupIndices = lookupIndices;
+    }
+
+    /**
+     * Reads the rules of a rule set of format 1 or 2.
+     *
+     * @return The rules, or <code>null</code>, if the given offset is
+     *         <code>0</code>.
+     */
+    static SequenceRule[] readSet(BinaryInput in, int offset, boolean chained) throws IOException {
+        if (offset == 0) {
+            return null;
+        }
+        in.setPosition(offset);
+        int ruleCount = in.readUnsignedShort();
+        int[] ruleOffsets = readArray(in, ruleCount);
+        SequenceRule[] rules = new SequenceRule[ruleCount];
+        for (int i = 0; i < ruleCount; i++) {
+            rules[i] = read(in, offset + ruleOffsets[i], chained);
+        }
+        return rules;
+    }
+
+    /**
+     * Reads a rule of format 1 or 2.
+     */
+    static SequenceRule read(BinaryInput in, int offset, boolean chained) throws IOException {
+        in.setPosition(offset);
+        int[] backtrack = NONE;
+        int[] lookahead = NONE;
+        int[] input;
+        int lookupCount;
+        if (chained) {
+            backtrack = readArray(in, in.readUnsignedShort());
+            input = readArray(in, in.readUnsignedShort() - 1);
+            lookahead = readArray(in, in.readUnsignedShort());
+            lookupCount = in.readUnsignedShort();
+        } else {
+            int glyphCount = in.readUnsignedShort();
+            lookupCount = in.readUnsignedShort();
+            input = readArray(in, glyphCount - 1);
+        }
+        
+        int[] sequenceIndices = new int[lookupCount];
+        int[] lookupIndices = new int[lookupCount];
+        readLookupRecords(in, sequenceIndices, lookupIndices);
+        return new SequenceRule(backtrack, input, lookahead, sequenceIndices, lookupIndices);
+    }
+
+    /**
+     * Reads sequence lookup records into the given arrays.
+     */
+    static void readLookupRecords(BinaryInput in, int[] sequenceIndices, int[] lookupIndices) throws IOException {
+        for (int i = 0; i < sequenceIndices.length; i++) {
+            sequenceIndices[i] = in.readUnsignedShort();
+            lookupIndices[i] = in.readUnsignedShort();
+        }
+    }
+
+    static int[] readArray(BinaryInput in, int count) throws IOException {
+        if (count <= 0) {
+            return NONE;
+        }
+        int[] result = new int[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = in.readUnsignedShort();
+        }
+        return result;
+    }
+
+    /**
+     * Creates an array of the values <code>start</code> to
+     * <code>start + count - 1</code> for referencing coverage tables.
+     */
+    static int[] indices(int start, int count) {
+        if (count <= 0) {
+            return NONE;
+        }
+        int[] result = new int[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = start + i;
+        }
+        return result;
+    }
+
+    /**
+     * Applies this rule at the current position of the given context, if its
+     * sequences match.
+     *
+     * @return Whether the rule matched.
+     */
+    boolean apply(LookupContext context, GlyphMatcher backtrackMatcher, GlyphMatcher inputMatcher,
+            GlyphMatcher lookaheadMatcher) {
+        int count = _input.length + 1;
+        int[] match = context.matchBuffer(count);
+        int end = context.matchInput(_input, inputMatcher, match);
+        if (end < 0) {
+            return false;
+        }
+        if (!context.matchBacktrack(match[0], _backtrack, backtrackMatcher)) {
+            return false;
+        }
+        if (!context.matchLookahead(end, _lookahead, lookaheadMatcher)) {
+            return false;
+        }
+        context.applySequenceLookups(match, count, end, _sequenceIndices, _lookupIndices);
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        if (_backtrack.length > 0) {
+            sb.append("                    backtrack = " + LangSys.toString(_backtrack) + "\n");
+        }
+        sb.append("                    input     = " + LangSys.toString(_input) + "\n");
+        if (_lookahead.length > 0) {
+            sb.append("                    lookahead = " + LangSys.toString(_lookahead) + "\n");
+        }
+        for (int i = 0; i < _sequenceIndices.length; i++) {
+            sb.append("                    lookup    = " + _lookupIndices[i] + " at " + _sequenceIndices[i] + "\n");
+        }
+        return sb.toString();
+    }
+
+}
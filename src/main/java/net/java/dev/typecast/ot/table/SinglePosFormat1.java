@@ -0,0 +1,78 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.io.IOException;
+
+import net.java.dev.typecast.io.BinaryInput;
+
+/**
+ * Single adjustment positioning format 1: The same adjustment for all covered
+ * glyphs.
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class SinglePosFormat1 extends SinglePos {
+
+    private final Coverage _coverage;
+
+    private final int _valueFormat;
+
+    private final short[] _values;
+
+    /** Creates new SinglePosFormat1 */
+    SinglePosFormat1(BinaryInput in, int offset) throws IOException {
+        int coverageOffset = in.readUnsignedShort();
+        _valueFormat = in.readUnsignedShort();
+        _values = new short[ValueFormat.size(_valueFormat)];
+        ValueFormat.read(in, _valueFormat, _values, 0);
+
+        in.setPosition(offset + coverageOffset);
+        _coverage = Coverage.read(in);
+    }
+
+    @Override
+    public int getFormat() {
+        return 1;
+    }
+
+    @Override
+    public boolean apply(LookupContext context) {
+        int index = context.getPosition();
+        GlyphBuffer buffer = context.getBuffer();
+        if (_coverage.findGlyph(buffer.getGlyph(index)) < 0) {
+            return false;
+        }
+        ValueFormat.apply(_valueFormat, _values, 0, buffer, index);
+        return true;
+    }
+
+    @Override
+    public String getTypeAsString() {
+        return "SinglePosFormat1";
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("                value = " + ValueFormat.toString(_valueFormat, _values, 0) + "\n");
+        sb.append(_coverage.toString());
+        return sb.toString();
+    }
+
+}
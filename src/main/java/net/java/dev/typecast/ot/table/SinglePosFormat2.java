@@ -0,0 +1,90 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.io.IOException;
+
+import net.java.dev.typecast.io.BinaryInput;
+
+/**
+ * Single adjustment positioning format 2: An adjustment for each covered
+ * glyph.
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class SinglePosFormat2 extends SinglePos {
+
+    private final Coverage _coverage;
+
+    private final int _valueFormat;
+
+    private final int _valueCount;
+
+    /**
+     * The values of all records indexed by coverage index.
+     */
+    private final short[] _values;
+
+    /** Creates new SinglePosFormat2 */
+    SinglePosFormat2(BinaryInput in, int offset) throws IOException {
+        int coverageOffset = in.readUnsignedShort();
+        _valueFormat = in.readUnsignedShort();
+        _valueCount = in.readUnsignedShort();
+        _values = new short[_valueCount * ValueFormat.size(_valueFormat)];
+        for (int i = 0, pos = 0; i < _valueCount; i++) {
+            pos = ValueFormat.read(in, _valueFormat, _values, pos);
+        }
+
+        in.setPosition(offset + coverageOffset);
+        _coverage = Coverage.read(in);
+    }
+
+    @Override
+    public int getFormat() {
+        return 2;
+    }
+
+    @Override
+    public boolean apply(LookupContext context) {
+        int index = context.getPosition();
+        GlyphBuffer buffer = context.getBuffer();
+        int i = _coverage.findGlyph(buffer.getGlyph(index));
+        if (i < 0 || i >= _valueCount) {
+            return false;
+        }
+        ValueFormat.apply(_valueFormat, _values, i * ValueFormat.size(_valueFormat), buffer, index);
+        return true;
+    }
+
+    @Override
+    public String getTypeAsString() {
+        return "SinglePosFormat2";
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        int size = ValueFormat.size(_valueFormat);
+        for (int i = 0; i < _valueCount; i++) {
+            sb.append("                value " + i + " = " + ValueFormat.toString(_valueFormat, _values, i * size) + "\n");
+        }
+        sb.append(_coverage.toString());
+        return sb.toString();
+    }
+
+}
@@ -50,9 +50,10 @@
 
 package net.java.dev.typecast.ot.table;
 
-import java.io.DataInputStream;
 import java.io.IOException;
 
+import net.java.dev.typecast.io.BinaryInput;
+
 /**
  *
  * @author <a href="mailto:david.schweinsberg@gmail.com">David Schweinsberg</a>
@@ -63,15 +64,14 @@ public abstract class SingleSubst extends LookupSubtable {
 
     public abstract int substitute(int glyphId);
     
-    public static SingleSubst read(DataInputStream dis, int offset) throws IOException {
+    public static SingleSubst read(BinaryInput in, int offset) throws IOException {
         SingleSubst s = null;
-        dis.reset();
-        dis.skipBytes(offset);
-        int format = dis.readUnsignedShort();
+        in.setPosition(offset);
+        int format = in.readUnsignedShort();
         if (format == 1) {
-            s = new SingleSubstFormat1(dis, offset);
+            s = new SingleSubstFormat1(in, offset);
         } else if (format == 2) {
-            s = new SingleSubstFormat2(dis, offset);
+            s = new SingleSubstFormat2(in, offset);
         }
         return s;
     }
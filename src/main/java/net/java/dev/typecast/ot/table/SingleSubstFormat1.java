@@ -50,9 +50,10 @@
 
 package net.java.dev.typecast.ot.table;
 
-import java.io.DataInputStream;
 import java.io.IOException;
 
+import net.java.dev.typecast.io.BinaryInput;
+
 /**
  *
  * @author <a href="mailto:david.schweinsberg@gmail.com">David Schweinsberg</a>
@@ -64,12 +65,11 @@ public class SingleSubstFormat1 extends SingleSubst {
     private Coverage _coverage;
 
     /** Creates new SingleSubstFormat1 */
-    SingleSubstFormat1(DataInputStream dis, int offset) throws IOException {
-        _coverageOffset = dis.readUnsignedShort();
-        _deltaGlyphID = dis.readShort();
-        dis.reset();
-        dis.skipBytes(offset + _coverageOffset);
-        _coverage = Coverage.read(dis);
+    SingleSubstFormat1(BinaryInput in, int offset) throws IOException {
+        _coverageOffset = in.readUnsignedShort();
+        _deltaGlyphID = in.readShort();
+        in.setPosition(offset + _coverageOffset);
+        _coverage = Coverage.read(in);
     }
 
     public int getFormat() {
@@ -84,6 +84,19 @@ public class SingleSubstFormat1 extends SingleSubst {
         return glyphId;
     }
     
+    @Override
+    public boolean apply(LookupContext context) {
+        GlyphBuffer buffer = context.getBuffer();
+        int index = context.getPosition();
+        int glyphId = buffer.getGlyph(index);
+        if (_coverage.findGlyph(glyphId) < 0) {
+            return false;
+        }
+        buffer.setGlyph(index, (glyphId + _deltaGlyphID) & 0xFFFF);
+        context.setPosition(index + 1);
+        return true;
+    }
+    
     public String getTypeAsString() {
         return "SingleSubstFormat1";
     }
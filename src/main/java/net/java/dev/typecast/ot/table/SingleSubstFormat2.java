@@ -50,9 +50,10 @@
 
 package net.java.dev.typecast.ot.table;
 
-import java.io.DataInputStream;
 import java.io.IOException;
 
+import net.java.dev.typecast.io.BinaryInput;
+
 /**
  *
  * @author <a href="mailto:david.schweinsberg@gmail.com">David Schweinsberg</a>
@@ -65,16 +66,15 @@ public class SingleSubstFormat2 extends SingleSubst {
     private final Coverage _coverage;
 
     /** Creates new SingleSubstFormat2 */
-    SingleSubstFormat2(DataInputStream dis, int offset) throws IOException {
-        _coverageOffset = dis.readUnsignedShort();
-        _glyphCount = dis.readUnsignedShort();
+    SingleSubstFormat2(BinaryInput in, int offset) throws IOException {
+        _coverageOffset = in.readUnsignedShort();
+        _glyphCount = in.readUnsignedShort();
         _substitutes = new int[_glyphCount];
         for (int i = 0; i < _glyphCount; i++) {
-            _substitutes[i] = dis.readUnsignedShort();
+            _substitutes[i] = in.readUnsignedShort();
         }
-        dis.reset();
-        dis.skipBytes(offset + _coverageOffset);
-        _coverage = Coverage.read(dis);
+        in.setPosition(offset + _coverageOffset);
+        _coverage = Coverage.read(in);
     }
 
     @Override
@@ -91,6 +91,19 @@ public class SingleSubstFormat2 extends SingleSubst {
         return glyphId;
     }
 
+    @Override
+    public boolean apply(LookupContext context) {
+        GlyphBuffer buffer = context.getBuffer();
+        int index = context.getPosition();
+        int i = _coverage.findGlyph(buffer.getGlyph(index));
+        if (i < 0 || i >= _glyphCount) {
+            return false;
+        }
+        buffer.setGlyph(index, _substitutes[i]);
+        context.setPosition(index + 1);
+        return true;
+    }
+
     @Override
     public String getTypeAsString() {
         return "SingleSubstFormat2";
@@ -31,6 +31,7 @@ public interface Table {
     // Table constants
     int BASE = 0x42415345; // Baseline data [OpenType]
     int CFF  = 0x43464620; // PostScript font program (compact font format) [PostScript]
+    int CFF2 = 0x43464632; // Compact font format version 2 [OpenType]
     int COLR = 0x434f4c52; // Color Table
     int CPAL = 0x4350414c; // Color Palette Table
     int DSIG = 0x44534947; // Digital signature
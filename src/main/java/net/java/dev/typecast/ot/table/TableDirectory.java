@@ -50,10 +50,9 @@
 
 package net.java.dev.typecast.ot.table;
 
-import java.io.ByteArrayInputStream;
 import java.io.DataInput;
-import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
@@ -63,6 +62,8 @@ import net.java.dev.typecast.io.BinUtils;
 import net.java.dev.typecast.io.BinaryIO;
 import net.java.dev.typecast.io.BinaryInput;
 import net.java.dev.typecast.io.BinaryOutput;
+import net.java.dev.typecast.io.ByteArrayFontSource;
+import net.java.dev.typecast.io.FontSource;
 import net.java.dev.typecast.io.Writable;
 import net.java.dev.typecast.ot.Fixed;
 import net.java.dev.typecast.ot.OTFont;
@@ -84,6 +85,23 @@ public class TableDirectory {
         private int _length;
         private Table _table;
         
+        /**
+         * Whether {@link #_table} has not yet been read from the font data.
+         * 
+         * <p>
+         * Written after {@link #_table} and the directory's table accessor
+         * field, so that a thread seeing <code>false</code> also sees the
+         * table.
+         * </p>
+         */
+        private volatile boolean _pending;
+        
+        /**
+         * Whether {@link #_table} is currently being read, used to detect
+         * cyclic dependencies in broken fonts.
+         */
+        private boolean _loading;
+        
         long _checkSumPos;
         
         /** 
@@ -109,6 +127,7 @@ public class TableDirectory {
             _checksum = di.readInt();
             _offset = di.readInt();
             _length = di.readInt();
+            _pending = true;
         }
         
         /**
@@ -220,19 +239,46 @@ public class TableDirectory {
 
         /**
          * The {@link Table} corresponding to this {@link Entry}.
+         * 
+         * <p>
+         * If the table has not been read so far, it is read from the font data
+         * upon the first call.
+         * </p>
+         * 
+         * @see #initTable()
          */
         public Table getTable() {
+            if (_pending) {
+                try {
+                    initTable();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(
+                        "Reading table '" + getTagAsString() + "' failed.", ex);
+                }
+            }
             return _table;
         }
         
+        /**
+         * Whether the {@link #getTable() table} of this {@link Entry} has
+         * already been read (or was explicitly set).
+         */
+        public boolean isLoaded() {
+            return !_pending;
+        }
+        
         Table setTable(Table table) {
             Table before = _table;
             _table = table;
+            
+            // Publish the table to the directory's accessors before
+            // marking it as read, see #_pending.
             getDirectory().cacheTable(getTag(), table);
+            _pending = false;
             return before;
         }
 
-        Table readTable(DataInputStream di) throws IOException {
+        Table readTable(DataInput di) throws IOException {
             Table table = createTable();
             if (table != null) {
                 table.read(di, getLength());
@@ -243,9 +289,9 @@ public class TableDirectory {
         private Table createTable() {
             switch (getTag()) {
                 case Table.CFF:
-                    // TODO: Implemented but does not work.
-                    // return new CffTable(di, getLength());
-                    return null;
+                    return new CffTable();
+                case Table.CFF2:
+                    return new Cff2Table();
                 case Table.cmap:
                     return new CmapTable();
                 case Table.COLR:
@@ -326,20 +372,54 @@ public class TableDirectory {
             }
         }
 
-        public Table initTable(DataInputStream di, int tablesOrigin) throws IOException {
-            Table table = getTable();
-            if (table == null) {
-                seekTable(di, tablesOrigin, this);
-                table = readTable(di);
-                setTable(table);
+        /**
+         * Reads the {@link Table} of this {@link Entry}, if this has not been
+         * done before.
+         * 
+         * <p>
+         * Tables this table depends on (e.g. 'maxp' and 'loca' for 'glyf') are
+         * read on demand while reading this table.
+         * </p>
+         * 
+         * <p>
+         * Reading tables is synchronized on the {@link TableDirectory}, so a
+         * lazy directory can be accessed by multiple threads. If reading
+         * fails, the table stays pending and the next access tries again.
+         * </p>
+         * 
+         * @return The {@link Table} of this {@link Entry}, <code>null</code> if
+         *         the table type is not supported.
+         */
+        public Table initTable() throws IOException {
+            if (_pending) {
+                synchronized (getDirectory()) {
+                    if (_pending && !_loading) {
+                        // Prevent endless recursion in case of cyclic
+                        // dependencies in broken fonts.
+                        _loading = true;
+                        try {
+                            loadTable();
+                        } finally {
+                            _loading = false;
+                        }
+                    }
+                }
             }
-            return table;
+            return _table;
         }
 
-        private Entry seekTable(DataInputStream dis, int tablesOrigin, Entry entry) throws IOException {
-            dis.reset();
-            dis.skip(tablesOrigin + entry.getOffset());
-            return entry;
+        private void loadTable() throws IOException {
+            TablePool pool = getDirectory().getTablePool();
+            Table table = pool == null ? null : pool.lookup(this);
+            if (table == null) {
+                table = readTable(getDirectory().openTable(this));
+                setTable(table);
+                if (pool != null) {
+                    pool.register(this);
+                }
+            } else {
+                setTable(table);
+            }
         }
 
         /**
@@ -355,6 +435,18 @@ public class TableDirectory {
 
     private final OTFont _font;
     
+    private boolean _lazy;
+    
+    /**
+     * The font data tables are read from, <code>null</code> if all tables
+     * have been read.
+     */
+    private FontSource _source;
+    
+    private int _tablesOrigin;
+    
+    private TablePool _tablePool;
+    
     private int _sfntVersion = TRUE_TYPE;
     private short _searchRange;
     private short _entrySelector;
@@ -362,39 +454,53 @@ public class TableDirectory {
     
     private final ArrayList<Entry> _entries = new ArrayList<>();
 
-    private HeadTable _head;
+    /*
+     * The tables returned by the table accessors. The fields are volatile,
+     * since a lazy directory sets them while reading a table on first
+     * access, see Entry#initTable().
+     */
+    
+    private volatile HeadTable _head;
+
+    private volatile MaxpTable _maxp;
 
-    private MaxpTable _maxp;
+    private volatile LocaTable _loca;
 
-    private LocaTable _loca;
+    private volatile GlyfTable _glyf;
 
-    private GlyfTable _glyf;
+    private volatile NameTable _name;
 
-    private NameTable _name;
+    private volatile HmtxTable _hmtx;
 
-    private HmtxTable _hmtx;
+    private volatile GsubTable _gsub;
 
-    private GsubTable _gsub;
+    private volatile GposTable _gpos;
 
-    private CmapTable _cmap;
+    private volatile GdefTable _gdef;
 
-    private PostTable _post;
+    private volatile CmapTable _cmap;
 
-    private Os2Table _os2;
+    private volatile PostTable _post;
 
-    private HheaTable _hhea;
+    private volatile Os2Table _os2;
 
-    private VheaTable _vhea;
+    private volatile HheaTable _hhea;
 
-    private SVGTable _svg;
+    private volatile VheaTable _vhea;
 
-    private HdmxTable _hdmx;
+    private volatile SVGTable _svg;
 
-    private VdmxTable _vdmx;
+    private volatile HdmxTable _hdmx;
 
-    private KernTable _kern;
+    private volatile VdmxTable _vdmx;
 
-    private GaspTable _gasp;
+    private volatile KernTable _kern;
+
+    private volatile GaspTable _gasp;
+
+    private volatile CffTable _cff;
+
+    private volatile Cff2Table _cff2;
 
     /**
      * Creates a {@link TableDirectory}.
@@ -412,8 +518,88 @@ public class TableDirectory {
         return _font;
     }
     
-    public void read(byte[] fontData) throws IOException {
-        DataInputStream dis = new DataInputStream(new ByteArrayInputStream(fontData));
+    /**
+     * Whether tables are only read upon first access.
+     * 
+     * <p>
+     * In lazy mode, {@link #read(FontSource, int, int)} only reads the table records.
+     * Each {@link Table} is read on first access through {@link Entry#getTable()}
+     * or one of the table accessors like {@link #glyf()}.
+     * </p>
+     * 
+     * <p>
+     * Reading a table on first access is synchronized on this directory, see
+     * {@link Entry#initTable()}.
+     * </p>
+     */
+    public boolean isLazy() {
+        return _lazy;
+    }
+    
+    /**
+     * @see #isLazy()
+     */
+    public void setLazy(boolean lazy) {
+        _lazy = lazy;
+    }
+    
+    /**
+     * Reads the table records from the given font data.
+     * 
+     * <p>
+     * No {@link Table} is read by this method, see {@link #initTables()} and
+     * {@link Entry#getTable()}.
+     * </p>
+     *
+     * @param fontData
+     *        OpenType/TrueType font file data.
+     * @param tablesOrigin
+     *        The point the table offsets are calculated from.
+     */
+    public void read(byte[] fontData, int tablesOrigin) throws IOException {
+        read(new ByteArrayFontSource(fontData), tablesOrigin, tablesOrigin);
+    }
+    
+    /**
+     * The {@link TablePool} to share tables with other fonts of the same
+     * collection, <code>null</code> if tables are not shared.
+     */
+    public TablePool getTablePool() {
+        return _tablePool;
+    }
+    
+    /**
+     * @see #getTablePool()
+     */
+    public void setTablePool(TablePool tablePool) {
+        _tablePool = tablePool;
+    }
+    
+    /**
+     * Reads the table records from the given font data.
+     * 
+     * <p>
+     * No {@link Table} is read by this method, see {@link #initTables()} and
+     * {@link Entry#getTable()}. Tables are read from slices of the given
+     * source, see {@link FontSource#getBuffer(int, int)}. If a
+     * {@link #getTablePool() table pool} is set, tables already read by other
+     * fonts of the same collection are shared.
+     * </p>
+     *
+     * @param source
+     *        OpenType/TrueType font file data.
+     * @param directoryOffset
+     *        The offset of the table directory in the font data. For a
+     *        regular TTF/OTF file this will be zero, for a TTC (font
+     *        collection) the offset is retrieved from the TTC header.
+     * @param tablesOrigin
+     *        The point the table offsets are calculated from.
+     */
+    public void read(FontSource source, int directoryOffset, int tablesOrigin) throws IOException {
+        _source = source;
+        _tablesOrigin = tablesOrigin;
+        
+        DataInput dis = source.getInput(directoryOffset);
         _sfntVersion = dis.readInt();
         short numTables = dis.readShort();
         _searchRange = dis.readShort();
@@ -428,14 +614,59 @@ public class TableDirectory {
     /**
      * Reads all supported table not read so far.
      */
-    public void initTables(DataInputStream di, int tablesOrigin) throws IOException {
-        // Initialize tables in reverse order of occurrence, since the format is
-        // constructed so that information derived from former tables is stored
-        // in later ones. While reading this information from latter tables is
-        // required for reading former tables.
-        for (int n = _entries.size() - 1; n >= 0; n--) {
-            Entry entry = getEntry(n);
-            entry.initTable(di, tablesOrigin);
+    public void initTables() throws IOException {
+        for (int n = 0, cnt = _entries.size(); n < cnt; n++) {
+            getEntry(n).initTable();
+        }
+        
+        // All tables are read, the font data is no longer required.
+        _source = null;
+    }
+    
+    /**
+     * Reads the {@link Table} with the given tag, if present.
+     * 
+     * @return The {@link Table} with the given tag, or <code>null</code>, if
+     *         there is no such table in this font.
+     */
+    public Table initTable(int tag) throws IOException {
+        Entry entry = getEntryByTag(tag);
+        if (entry == null) {
+            return null;
+        }
+        return entry.initTable();
+    }
+    
+    /**
+     * The {@link FontSource} tables not yet read are read from,
+     * <code>null</code> if all tables have been read.
+     */
+    public FontSource getSource() {
+        return _source;
+    }
+    
+    /**
+     * The offset in the {@link #getSource() font data}, table offsets are
+     * measured from.
+     */
+    public int getTablesOrigin() {
+        return _tablesOrigin;
+    }
+    
+    BinaryInput openTable(Entry entry) throws IOException {
+        if (_source == null) {
+            throw new IOException("No font data to read table '" + entry.getTagAsString() + "' from.");
+        }
+        return _source.getInput(_tablesOrigin + entry.getOffset(), entry.getLength());
+    }
+    
+    /**
+     * Makes sure that the table with the given tag is read, if present.
+     */
+    private void resolve(int tag) {
+        Entry entry = getEntryByTag(tag);
+        if (entry != null) {
+            entry.getTable();
         }
     }
     
@@ -487,6 +718,12 @@ public class TableDirectory {
         case Table.GSUB:
             _gsub = (GsubTable) table;
             break;
+        case Table.GPOS:
+            _gpos = (GposTable) table;
+            break;
+        case Table.GDEF:
+            _gdef = (GdefTable) table;
+            break;
         case Table.cmap:
             _cmap = (CmapTable) table;
             break;
@@ -517,6 +754,12 @@ public class TableDirectory {
         case Table.gasp:
             _gasp = (GaspTable) table;
             break;
+        case Table.CFF:
+            _cff = (CffTable) table;
+            break;
+        case Table.CFF2:
+            _cff2 = (Cff2Table) table;
+            break;
         }
     }
 
@@ -524,6 +767,9 @@ public class TableDirectory {
      * @see HeadTable
      */
     public HeadTable head() {
+        if (_head == null) {
+            resolve(Table.head);
+        }
         return _head;
     }
     
@@ -531,6 +777,9 @@ public class TableDirectory {
      * @see MaxpTable
      */
     public MaxpTable maxp() {
+        if (_maxp == null) {
+            resolve(Table.maxp);
+        }
         return _maxp;
     }
     
@@ -538,6 +787,9 @@ public class TableDirectory {
      * @see LocaTable
      */
     public LocaTable loca() {
+        if (_loca == null) {
+            resolve(Table.loca);
+        }
         return _loca;
     }
 
@@ -545,6 +797,9 @@ public class TableDirectory {
      * @see GlyfTable
      */
     public GlyfTable glyf() {
+        if (_glyf == null) {
+            resolve(Table.glyf);
+        }
         return _glyf;
     }
     
@@ -552,6 +807,9 @@ public class TableDirectory {
      * @see NameTable
      */
     public NameTable name() {
+        if (_name == null) {
+            resolve(Table.name);
+        }
         return _name;
     }
     
@@ -559,6 +817,9 @@ public class TableDirectory {
      * @see HmtxTable
      */
     public HmtxTable hmtx() {
+        if (_hmtx == null) {
+            resolve(Table.hmtx);
+        }
         return _hmtx;
     }
     
@@ -566,13 +827,39 @@ public class TableDirectory {
      * @see GsubTable
      */
     public GsubTable gsub() {
+        if (_gsub == null) {
+            resolve(Table.GSUB);
+        }
         return _gsub;
     }
     
+    /**
+     * @see GposTable
+     */
+    public GposTable gpos() {
+        if (_gpos == null) {
+            resolve(Table.GPOS);
+        }
+        return _gpos;
+    }
+    
+    /**
+     * @see GdefTable
+     */
+    public GdefTable gdef() {
+        if (_gdef == null) {
+            resolve(Table.GDEF);
+        }
+        return _gdef;
+    }
+    
     /**
      * @see CmapTable
      */
     public CmapTable cmap() {
+        if (_cmap == null) {
+            resolve(Table.cmap);
+        }
         return _cmap;
     }
     
@@ -580,6 +867,9 @@ public class TableDirectory {
      * @see PostTable
      */
     public PostTable post() {
+        if (_post == null) {
+            resolve(Table.post);
+        }
         return _post;
     }
     
@@ -587,6 +877,9 @@ public class TableDirectory {
      * @see Os2Table
      */
     public Os2Table os2() {
+        if (_os2 == null) {
+            resolve(Table.OS_2);
+        }
         return _os2;
     }
     
@@ -594,6 +887,9 @@ public class TableDirectory {
      * @see HheaTable
      */
     public HheaTable hhea() {
+        if (_hhea == null) {
+            resolve(Table.hhea);
+        }
         return _hhea;
     }
 
@@ -601,6 +897,9 @@ public class TableDirectory {
      * @see VheaTable
      */
     public VheaTable vhea() {
+        if (_vhea == null) {
+            resolve(Table.vhea);
+        }
         return _vhea;
     }
     
@@ -608,6 +907,9 @@ public class TableDirectory {
      * @see SVGTable
      */
     public SVGTable svg() {
+        if (_svg == null) {
+            resolve(Table.svg);
+        }
         return _svg;
     }
     
@@ -615,6 +917,9 @@ public class TableDirectory {
      * @see HdmxTable
      */
     public HdmxTable hdmx() {
+        if (_hdmx == null) {
+            resolve(Table.hdmx);
+        }
         return _hdmx;
     }
     
@@ -622,6 +927,9 @@ public class TableDirectory {
      * @see VdmxTable
      */
     public VdmxTable vdmx() {
+        if (_vdmx == null) {
+            resolve(Table.VDMX);
+        }
         return _vdmx;
     }
     
@@ -629,6 +937,9 @@ public class TableDirectory {
      * @see KernTable
      */
     public KernTable kern() {
+        if (_kern == null) {
+            resolve(Table.kern);
+        }
         return _kern;
     }
     
@@ -636,9 +947,32 @@ public class TableDirectory {
      * @see GaspTable
      */
     public GaspTable gasp() {
+        if (_gasp == null) {
+            resolve(Table.gasp);
+        }
         return _gasp;
     }
     
+    /**
+     * @see CffTable
+     */
+    public CffTable cff() {
+        if (_cff == null) {
+            resolve(Table.CFF);
+        }
+        return _cff;
+    }
+    
+    /**
+     * @see Cff2Table
+     */
+    public Cff2Table cff2() {
+        if (_cff2 == null) {
+            resolve(Table.CFF2);
+        }
+        return _cff2;
+    }
+    
     /**
      * Writes this {@link TableDirectory} and all of its {@link Entry entries}
      * to the given output.
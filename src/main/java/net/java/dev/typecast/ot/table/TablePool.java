@@ -0,0 +1,131 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pool of {@link Table}s shared between the fonts of a font collection.
+ * 
+ * <p>
+ * In a TrueType collection, several fonts may reference the same table data
+ * (e.g. 'glyf', 'loca' and 'cmap' are commonly shared). A {@link TablePool}
+ * makes sure that such tables are read only once, all fonts using the same
+ * data at the same offset share a single {@link Table} instance.
+ * </p>
+ * 
+ * <p>
+ * An {@link AbstractTable} is read in the context of other tables of its font
+ * (see e.g. {@link AbstractTable#maxp()}). Such table is only shared, if the
+ * fonts also share the tables it is read with.
+ * </p>
+ * 
+ * <p>
+ * Note: Since tables are shared, modifying a table of one font modifies the
+ * corresponding table of all other fonts sharing it.
+ * </p>
+ * 
+ * <p>
+ * A {@link TablePool} is safe for use by fonts read lazily in multiple
+ * threads.
+ * </p>
+ * 
+ * @see TableDirectory#setTablePool(TablePool)
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class TablePool {
+    
+    /**
+     * The tables an {@link AbstractTable} may use while reading.
+     */
+    private static final int[] CONTEXT_TABLES = {
+        Table.head, Table.maxp, Table.loca, Table.hhea, Table.vhea
+    };
+
+    /**
+     * The {@link TableDirectory.Entry} that has read a table indexed by its
+     * tag and its absolute offset in the font data.
+     */
+    private final Map<Long, TableDirectory.Entry> _entries = new HashMap<>();
+
+    /**
+     * The number of tables in this pool.
+     */
+    public synchronized int size() {
+        return _entries.size();
+    }
+
+    /**
+     * Looks up a table that was already read for an {@link TableDirectory.Entry}
+     * with the same data.
+     *
+     * @param entry
+     *        The entry to read the table for.
+     * @return The already read {@link Table}, or <code>null</code>, if the
+     *         table must be read.
+     */
+    synchronized Table lookup(TableDirectory.Entry entry) {
+        TableDirectory.Entry shared = _entries.get(key(entry));
+        if (shared == null || shared.getLength() != entry.getLength()) {
+            return null;
+        }
+        
+        Table table = shared.getTable();
+        if (table instanceof AbstractTable && !sameContext(shared.getDirectory(), entry.getDirectory())) {
+            return null;
+        }
+        return table;
+    }
+
+    /**
+     * Registers the table read by the given {@link TableDirectory.Entry} for
+     * sharing with other fonts.
+     */
+    synchronized void register(TableDirectory.Entry entry) {
+        if (entry.getTable() == null) {
+            return;
+        }
+        _entries.putIfAbsent(key(entry), entry);
+    }
+
+    private static boolean sameContext(TableDirectory directory1, TableDirectory directory2) {
+        for (int tag : CONTEXT_TABLES) {
+            TableDirectory.Entry entry1 = directory1.getEntryByTag(tag);
+            TableDirectory.Entry entry2 = directory2.getEntryByTag(tag);
+            if (entry1 == null || entry2 == null) {
+                if (entry1 != entry2) {
+                    return false;
+                }
+            } else if (absoluteOffset(entry1) != absoluteOffset(entry2) || entry1.getLength() != entry2.getLength()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long key(TableDirectory.Entry entry) {
+        return ((long) entry.getTag() << 32) | (absoluteOffset(entry) & 0xFFFFFFFFL);
+    }
+
+    private static int absoluteOffset(TableDirectory.Entry entry) {
+        return entry.getDirectory().getTablesOrigin() + entry.getOffset();
+    }
+
+}
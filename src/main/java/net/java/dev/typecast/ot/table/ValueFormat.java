@@ -0,0 +1,128 @@
+/*
+ * Typecast
+ *
+ * Copyright © 2004-2019 David Schweinsberg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.java.dev.typecast.ot.table;
+
+import java.io.IOException;
+
+import net.java.dev.typecast.io.BinaryInput;
+
+/**
+ * Utilities for reading and applying GPOS value records.
+ *
+ * <p>
+ * Value records are stored in <code>short</code> arrays holding only the
+ * placement and advance fields present in the record's value format. Device
+ * and variation table offsets are skipped.
+ * </p>
+ *
+ * @see "https://docs.microsoft.com/en-us/typography/opentype/spec/gpos#value-record"
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+final class ValueFormat {
+
+    static final int X_PLACEMENT = 0x0001;
+    static final int Y_PLACEMENT = 0x0002;
+    static final int X_ADVANCE = 0x0004;
+    static final int Y_ADVANCE = 0x0008;
+
+    /**
+     * Bits of a value format describing values stored by
+     * {@link #read(BinaryInput, int, short[], int)}.
+     */
+    private static final int VALUES = X_PLACEMENT | Y_PLACEMENT | X_ADVANCE | Y_ADVANCE;
+
+    private ValueFormat() {
+        // Utility class.
+    }
+
+    /**
+     * The number of <code>short</code> values stored for a record of the
+     * given format.
+     */
+    static int size(int format) {
+        return Integer.bitCount(format & VALUES);
+    }
+
+    /**
+     * Reads a value record of the given format.
+     *
+     * @return The position in the given array after the stored values.
+     */
+    static int read(BinaryInput in, int format, short[] values, int pos) throws IOException {
+        for (int bit = 1; bit <= 0x80; bit <<= 1) {
+            if ((format & bit) == 0) {
+                continue;
+            }
+            short value = in.readShort();
+            if ((bit & VALUES) != 0) {
+                values[pos++] = value;
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Adds the values of a value record to the position of the glyph at the
+     * given index.
+     *
+     * @param format
+     *        The value format of the record.
+     * @param values
+     *        The values as stored by
+     *        {@link #read(BinaryInput, int, short[], int)}.
+     * @param pos
+     *        The start of the record in the given values.
+     */
+    static void apply(int format, short[] values, int pos, GlyphBuffer buffer, int index) {
+        int xPlacement = 0;
+        int yPlacement = 0;
+        int xAdvance = 0;
+        int yAdvance = 0;
+        if ((format & X_PLACEMENT) != 0) {
+            xPlacement = values[pos++];
+        }
+        if ((format & Y_PLACEMENT) != 0) {
+            yPlacement = values[pos++];
+        }
+        if ((format & X_ADVANCE) != 0) {
+            xAdvance = values[pos++];
+        }
+        if ((format & Y_ADVANCE) != 0) {
+            yAdvance = values[pos];
+        }
+        buffer.adjust(index, xPlacement, yPlacement, xAdvance, yAdvance);
+    }
+
+    static String toString(int format, short[] values, int pos) {
+        StringBuilder sb = new StringBuilder();
+        sb.append('(');
+        String[] names = {"xPlacement", "yPlacement", "xAdvance", "yAdvance"};
+        for (int n = 0; n < names.length; n++) {
+            if ((format & (1 << n)) != 0) {
+                if (sb.length() > 1) {
+                    sb.append(", ");
+                }
+                sb.append(names[n]).append('=').append(values[pos++]);
+            }
+        }
+        sb.append(')');
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,266 @@
+package net.java.dev.typecast.cff;
+
+import java.io.ByteArrayOutputStream;
+
+import junit.framework.TestCase;
+import net.java.dev.typecast.ot.Point;
+import net.java.dev.typecast.ot.T2Glyph;
+
+import static net.java.dev.typecast.cff.T2Mnemonic.*;
+
+/**
+ * Test case for {@link T2Interpreter}.
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class T2InterpreterTest extends TestCase {
+
+    public void testLines() {
+        // width 500, 10 20 rmoveto, 100 hlineto 50 vlineto -100 0 rlineto, endchar
+        String outline = run(new Code()
+            .n(500, 10, 20).op(RMOVETO)
+            .n(100, 50).op(HLINETO)
+            .n(-100, 0).op(RLINETO).op(ENDCHAR));
+        assertEquals("M10,20 L110,20 L110,70 L10,70 Z ", outline);
+    }
+
+    public void testWidthBeforeHMoveTo() {
+        assertEquals("M30,0 L30,40 Z ", run(new Code()
+            .n(500, 30).op(HMOVETO)
+            .n(40).op(VLINETO).op(ENDCHAR)));
+        assertEquals("M30,0 L30,40 Z ", run(new Code()
+            .n(30).op(HMOVETO)
+            .n(40).op(VLINETO).op(ENDCHAR)));
+    }
+
+    public void testHvCurveTo() {
+        // Two curves, the last one with a final odd argument.
+        String outline = run(new Code()
+            .n(0, 0).op(RMOVETO)
+            .n(10, 10, 10, 10, 20, 20, 20, 20, 5).op(HVCURVETO).op(ENDCHAR));
+        assertEquals("M0,0 C10,0 20,10 20,20 C20,40 40,60 60,65 Z ", outline);
+    }
+
+    public void testVhCurveTo() {
+        String outline = run(new Code()
+            .n(0, 0).op(RMOVETO)
+            .n(10, 10, 10, 10).op(VHCURVETO).op(ENDCHAR));
+        assertEquals("M0,0 C0,10 10,20 20,20 Z ", outline);
+    }
+
+    public void testHhAndVvCurveTo() {
+        String outline = run(new Code()
+            .n(0, 0).op(RMOVETO)
+            .n(5, 10, 10, 10, 10).op(HHCURVETO)
+            .n(5, 10, 10, 10, 10).op(VVCURVETO).op(ENDCHAR));
+        assertEquals("M0,0 C10,5 20,15 30,15 C35,25 45,35 45,45 Z ", outline);
+    }
+
+    public void testFlex() {
+        String outline = run(new Code()
+            .n(0, 0).op(RMOVETO)
+            .n(10, 0, 10, 5, 10, 0, 10, 0, 10, -5, 10, 0, 50).op2(FLEX).op(ENDCHAR));
+        assertEquals("M0,0 C10,0 20,5 30,5 C40,5 50,0 60,0 Z ", outline);
+    }
+
+    public void testHFlex() {
+        String outline = run(new Code()
+            .n(0, 0).op(RMOVETO)
+            .n(10, 10, 5, 10, 10, 10, 10).op2(HFLEX).op(ENDCHAR));
+        assertEquals("M0,0 C10,0 20,5 30,5 C40,5 50,0 60,0 Z ", outline);
+    }
+
+    public void testContoursAreClosed() {
+        String outline = run(new Code()
+            .n(0, 0).op(RMOVETO)
+            .n(10).op(HLINETO)
+            .n(0, 20).op(RMOVETO)
+            .n(10).op(VLINETO).op(ENDCHAR));
+        assertEquals("M0,0 L10,0 Z M10,20 L10,30 Z ", outline);
+    }
+
+    public void testStems() {
+        T2Interpreter interpreter = new T2Interpreter();
+        CharstringType2 cs = charstring(new Code()
+            .n(500, 0, 20, 100, 20).op(HSTEMHM)
+            .n(30, 40).op(HINTMASK).raw(0xC0)
+            .n(0, 0).op(RMOVETO).op(ENDCHAR));
+        assertTrue(interpreter.execute(cs, new Recorder()));
+        assertEquals(4, interpreter.getHStemCount());
+        assertEquals(100, interpreter.getHStem(2));
+        assertEquals(2, interpreter.getVStemCount());
+        assertEquals(Integer.valueOf(30), interpreter.getVStems()[0]);
+    }
+
+    public void testStackOperators() {
+        // 1 2 3 3 1 roll -> 3 1 2; 2 index -> 3 1 2 3; add -> 3 1 5; drop, exch -> 1 3
+        String outline = run(new Code()
+            .n(1, 2, 3, 3, 1).op2(ROLL)
+            .n(2).op2(INDEX).op2(ADD).op2(DROP).op2(EXCH).op(RMOVETO).op(ENDCHAR));
+        assertEquals("M1,3 Z ", outline);
+    }
+
+    public void testMissingSubrs() {
+        T2Interpreter interpreter = new T2Interpreter();
+        CharstringType2 cs = charstring(new Code()
+            .n(0, 0).op(RMOVETO)
+            .n(0).op(CALLSUBR));
+        assertFalse(interpreter.execute(cs, new Recorder()));
+    }
+
+    public void testLegacyPoints() {
+        Point[] points = new T2Interpreter().execute(charstring(new Code()
+            .n(10, 20).op(RMOVETO)
+            .n(10, 10, 10, 10).op(VHCURVETO).op(ENDCHAR)));
+        assertEquals(4, points.length);
+        assertTrue(points[0].onCurve);
+        assertFalse(points[1].onCurve);
+        assertEquals(30, points[3].x);
+        assertEquals(40, points[3].y);
+        assertTrue(points[3].endOfContour);
+    }
+
+    public void testCreateOutline() {
+        CharstringType2 cs = charstring(new Code()
+            .n(500, 0, 20).op(HSTEM)
+            .n(10, 20).op(RMOVETO)
+            .n(100).op(HLINETO)
+            .n(10, 10, 10, 10).op(VHCURVETO)
+            .n(0, 20).op(RMOVETO)
+            .n(10).op(VLINETO).op(ENDCHAR));
+        Outline outline = new T2Interpreter().createOutline(cs);
+        assertEquals(7, outline.getCommandCount());
+        assertEquals(Outline.CURVE_TO, outline.getCommand(2));
+        assertEquals(2 + 2 + 6 + 2 + 2, outline.getCoordinateCount());
+        assertEquals(2, outline.getHStemCount());
+        assertEquals(20, outline.getHStem(1));
+
+        Recorder expected = new Recorder();
+        assertTrue(new T2Interpreter().execute(cs, expected));
+        Recorder replayed = new Recorder();
+        outline.writeTo(replayed);
+        assertEquals(expected.toString(), replayed.toString());
+
+        Point[] points = outline.toPoints();
+        assertEquals(toString(new T2Interpreter().execute(cs)), toString(points));
+    }
+
+    public void testCreateOutlineMalformed() {
+        CharstringType2 cs = charstring(new Code().n(0, 0).op(RMOVETO).n(0).op(CALLSUBR));
+        assertNull(new T2Interpreter().createOutline(cs));
+    }
+
+    public void testGlyphMalformed() {
+        CharstringType2 cs = charstring(new Code().n(0, 0).op(RMOVETO).n(0).op(CALLSUBR));
+        T2Glyph glyph = new T2Glyph(cs, (short) 0, 500);
+        assertEquals(0, glyph.getPointCount());
+        assertEquals(500, glyph.getAdvanceWidth());
+        assertEquals(0, glyph.getHStems().length);
+    }
+
+    private static String toString(Point[] points) {
+        StringBuilder result = new StringBuilder();
+        for (Point point : points) {
+            result.append(point.x).append(',').append(point.y)
+                .append(point.onCurve ? "" : "c").append(point.endOfContour ? "e " : " ");
+        }
+        return result.toString();
+    }
+
+    private static String run(Code code) {
+        Recorder recorder = new Recorder();
+        assertTrue(new T2Interpreter().execute(charstring(code), recorder));
+        return recorder.toString();
+    }
+
+    private static CharstringType2 charstring(Code code) {
+        byte[] data = code.toByteArray();
+        return new CharstringType2(null, 0, "test", data, 0, data.length);
+    }
+
+    /**
+     * Builder for an encoded charstring.
+     */
+    private static class Code {
+
+        private final ByteArrayOutputStream _out = new ByteArrayOutputStream();
+
+        /**
+         * Appends operands in the range -1131..1131.
+         */
+        Code n(int... values) {
+            for (int value : values) {
+                if (value >= -107 && value <= 107) {
+                    _out.write(value + 139);
+                } else if (value > 0) {
+                    value -= 108;
+                    _out.write((value >> 8) + 247);
+                    _out.write(value & 0xFF);
+                } else {
+                    value = -value - 108;
+                    _out.write((value >> 8) + 251);
+                    _out.write(value & 0xFF);
+                }
+            }
+            return this;
+        }
+
+        Code op(int operator) {
+            _out.write(operator);
+            return this;
+        }
+
+        Code op2(int operator) {
+            _out.write(ESCAPE);
+            _out.write(operator);
+            return this;
+        }
+
+        Code raw(int value) {
+            _out.write(value);
+            return this;
+        }
+
+        byte[] toByteArray() {
+            return _out.toByteArray();
+        }
+    }
+    /**
+     * {@link OutlineSink} recording the outline in an SVG path like notation.
+     */
+    private static class Recorder implements OutlineSink {
+
+        private final StringBuilder _buffer = new StringBuilder();
+
+        @Override
+        public void moveTo(float x, float y) {
+            _buffer.append('M').append(coord(x, y)).append(' ');
+        }
+
+        @Override
+        public void lineTo(float x, float y) {
+            _buffer.append('L').append(coord(x, y)).append(' ');
+        }
+
+        @Override
+        public void curveTo(float x1, float y1, float x2, float y2, float x3, float y3) {
+            _buffer.append('C').append(coord(x1, y1)).append(' ')
+                .append(coord(x2, y2)).append(' ').append(coord(x3, y3)).append(' ');
+        }
+
+        @Override
+        public void closePath() {
+            _buffer.append("Z ");
+        }
+
+        private static String coord(float x, float y) {
+            return Math.round(x) + "," + Math.round(y);
+        }
+
+        @Override
+        public String toString() {
+            return _buffer.toString();
+        }
+    }
+
+}
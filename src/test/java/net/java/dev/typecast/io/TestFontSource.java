@@ -0,0 +1,111 @@
+package net.java.dev.typecast.io;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.ByteBuffer;
+
+import junit.framework.TestCase;
+import net.java.dev.typecast.ot.TTFont;
+import net.java.dev.typecast.ot.table.ID;
+
+/**
+ * Test case for {@link FontSource} and {@link BinaryBufferInput}.
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class TestFontSource extends TestCase {
+
+    /**
+     * Tests reading slices of a {@link MappedFontSource}.
+     */
+    public void testMapped() throws IOException {
+        File testFile = new File("target/tmp/source.bin");
+        testFile.getParentFile().mkdirs();
+        try (FileOutputStream out = new FileOutputStream(testFile)) {
+            for (int n = 0, cnt = 40; n < cnt; n++) {
+                out.write(n);
+            }
+        }
+        
+        FontSource source = new MappedFontSource(testFile);
+        assertEquals(40, source.getLength());
+        
+        BinaryInput in = source.getInput(4, 8);
+        assertEquals(0, in.getPosition());
+        assertEquals(0x04050607, in.readInt());
+        assertEquals(0x0809, in.readUnsignedShort());
+        
+        in.setPosition(1);
+        assertEquals(0x0506, in.readShort());
+        assertEquals(5, in.skipBytes(10));
+        try {
+            in.readByte();
+            fail("Must fail.");
+        } catch (EOFException ex) {
+            // Expected.
+        }
+        
+        try {
+            source.getBuffer(36, 5);
+            fail("Must fail.");
+        } catch (EOFException ex) {
+            // Expected.
+        }
+    }
+    
+    /**
+     * Tests absolute reads and slicing of a {@link BinaryBufferInput}.
+     */
+    public void testAbsoluteRead() throws IOException {
+        byte[] data = new byte[16];
+        for (int n = 0; n < data.length; n++) {
+            data[n] = (byte) (0xF0 + n);
+        }
+        BinaryBufferInput in = new BinaryBufferInput(ByteBuffer.wrap(data));
+        assertEquals(0xF2F3, in.getUnsignedShort(2));
+        assertEquals((short) 0xF2F3, in.getShort(2));
+        assertEquals(0xFF, in.getUnsignedByte(15));
+        assertEquals(0, in.getPosition());
+        
+        in.skipBytes(4);
+        BinaryBufferInput slice = BinaryBufferInput.slice(in, 8);
+        assertEquals(12, in.getPosition());
+        assertEquals(8, slice.getLength());
+        assertEquals(0xF4F5F6F7, slice.getInt(0));
+        try {
+            slice.getInt(6);
+            fail("Must fail.");
+        } catch (EOFException ex) {
+            // Expected.
+        }
+    }
+    
+    /**
+     * Tests loading a font from a {@link MappedFontSource} in comparison to
+     * loading it from a byte array.
+     */
+    public void testMappedFont() throws URISyntaxException, IOException {
+        URL url = ClassLoader.getSystemResource("Lato-Regular.ttf");
+        File file = new File(url.toURI());
+        
+        TTFont expected = new TTFont(Files.readAllBytes(file.toPath()), 0);
+        for (boolean lazy : new boolean[] {false, true}) {
+            TTFont font = new TTFont(new MappedFontSource(file), 0, lazy);
+            assertEquals(expected.getNumGlyphs(), font.getNumGlyphs());
+            assertEquals(expected.getTableDirectory().getNumTables(), font.getTableDirectory().getNumTables());
+            assertEquals(expected.getNameTable().getRecordString(ID.nameFontFamilyName),
+                font.getNameTable().getRecordString(ID.nameFontFamilyName));
+            
+            int gid = expected.getCmapTable().getCmapFormat(ID.platformMicrosoft, ID.encodingUnicode)
+                .mapCharCode('A');
+            assertEquals(expected.getGlyph(gid).getPointCount(), font.getGlyph(gid).getPointCount());
+            assertEquals(expected.getHmtxTable().getAdvanceWidth(gid), font.getHmtxTable().getAdvanceWidth(gid));
+        }
+    }
+    
+}
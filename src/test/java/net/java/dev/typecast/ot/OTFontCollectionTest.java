@@ -22,6 +22,9 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
 import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
@@ -51,4 +54,48 @@ public class OTFontCollectionTest extends TestCase {
         OTFont font = fontCollection.getFont(0);
         assertNotNull(font);
     }
+
+    public void testLoadCollection() throws URISyntaxException, IOException {
+        URL url = ClassLoader.getSystemResource("Lato-Regular.ttf");
+        byte[] fontData = Files.readAllBytes(new File(url.toURI()).toPath());
+        
+        // Build a collection with two fonts sharing all table data.
+        int headerLength = 12 + 2 * 4 + 2 * 4;
+        ByteBuffer ttc = ByteBuffer.allocate(headerLength + fontData.length);
+        ttc.putInt(0x74746366); // 'ttcf'
+        ttc.putInt(0x00010000);
+        ttc.putInt(2);
+        ttc.putInt(headerLength);
+        ttc.putInt(headerLength);
+        ttc.putInt(0);
+        ttc.putInt(0);
+        ttc.put(fontData);
+        
+        // Table offsets in a collection are relative to the file start.
+        int numTables = ttc.getShort(headerLength + 4);
+        for (int n = 0; n < numTables; n++) {
+            int offsetPos = headerLength + 12 + n * 16 + 8;
+            ttc.putInt(offsetPos, ttc.getInt(offsetPos) + headerLength);
+        }
+        
+        File file = new File("target/tmp/Lato-Regular.ttc");
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), ttc.array());
+        
+        OTFontCollection fontCollection = new OTFontCollection(file);
+        assertEquals(2, fontCollection.getFontCount());
+        TTFont font0 = (TTFont) fontCollection.getFont(0);
+        TTFont font1 = (TTFont) fontCollection.getFont(1);
+        
+        assertSame(font0.getGlyfTable(), font1.getGlyfTable());
+        assertSame(font0.getCmapTable(), font1.getCmapTable());
+        assertEquals(font0.getTableDirectory().getNumTables(), fontCollection.getTablePool().size());
+        
+        TTFont font = new TTFont(fontData, 0);
+        int numGlyphs = font.getNumGlyphs();
+        assertEquals(numGlyphs, font1.getNumGlyphs());
+        assertEquals(
+            font.getGlyfTable().getDescription(numGlyphs - 1).toString(), 
+            font1.getGlyfTable().getDescription(numGlyphs - 1).toString());
+    }
 }
@@ -24,10 +24,18 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
 import java.io.Writer;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import junit.framework.Test;
 import junit.framework.TestCase;
@@ -35,7 +43,26 @@ import junit.framework.TestSuite;
 import net.java.dev.typecast.io.BinaryFileInput;
 import net.java.dev.typecast.io.BinaryFileOutput;
 import net.java.dev.typecast.io.BinaryIO;
+import net.java.dev.typecast.io.MappedFontSource;
+import net.java.dev.typecast.cff.Outline;
+import net.java.dev.typecast.ot.table.CmapFormat;
+import net.java.dev.typecast.ot.table.CmapFormat4;
+import net.java.dev.typecast.ot.table.CmapReverseIndex;
+import net.java.dev.typecast.ot.table.CmapTable;
+import net.java.dev.typecast.ot.table.GlyfDescript;
+import net.java.dev.typecast.ot.table.Feature;
+import net.java.dev.typecast.ot.table.FeaturePlan;
+import net.java.dev.typecast.ot.table.GlyfTable;
+import net.java.dev.typecast.ot.table.GlyphBuffer;
+import net.java.dev.typecast.ot.table.GlyphCache;
+import net.java.dev.typecast.ot.table.GposTable;
+import net.java.dev.typecast.ot.table.GsubTable;
 import net.java.dev.typecast.ot.table.HeadTable;
+import net.java.dev.typecast.ot.table.HmtxTable;
+import net.java.dev.typecast.ot.table.ID;
+import net.java.dev.typecast.ot.table.LangSys;
+import net.java.dev.typecast.ot.table.Table;
+import net.java.dev.typecast.ot.table.TableDirectory;
 
 /**
  * Test case loading and writing fonts.
@@ -65,6 +92,438 @@ public class TTFontTest extends TestCase {
         dumpFont("Lato-Regular", font);
     }
 
+    public void testLoadFontLazy() throws URISyntaxException, IOException {
+        URL url = ClassLoader.getSystemResource("Lato-Regular.ttf");
+        byte[] fontData = Files.readAllBytes(new File(url.toURI()).toPath());
+        TTFont font = new TTFont(fontData, 0, true);
+        
+        TableDirectory directory = font.getTableDirectory();
+        for (int n = 0, cnt = directory.getNumTables(); n < cnt; n++) {
+            assertFalse(directory.getEntry(n).isLoaded());
+        }
+        
+        assertNotNull(font.getNameTable());
+        assertTrue(directory.getEntryByTag(Table.name).isLoaded());
+        assertFalse(directory.getEntryByTag(Table.glyf).isLoaded());
+        
+        // Reading 'glyf' resolves 'maxp' on demand.
+        TTFont eagerFont = new TTFont(fontData, 0);
+        int numGlyphs = eagerFont.getGlyfTable().getNumGlyphs();
+        assertEquals(numGlyphs, font.getGlyfTable().getNumGlyphs());
+        assertTrue(directory.getEntryByTag(Table.maxp).isLoaded());
+        assertFalse(directory.getEntryByTag(Table.loca).isLoaded());
+        
+        // Decoding a glyph resolves 'loca' on demand.
+        GlyfDescript glyph = font.getGlyfTable().getDescription(numGlyphs - 1);
+        assertTrue(directory.getEntryByTag(Table.loca).isLoaded());
+        assertEquals(
+            eagerFont.getGlyfTable().getDescription(numGlyphs - 1).toString(), 
+            glyph.toString());
+        assertSame(glyph, font.getGlyfTable().getDescription(numGlyphs - 1));
+        
+        for (int n = 0; n < numGlyphs; n++) {
+            GlyfDescript expected = eagerFont.getGlyfTable().getDescription(n);
+            GlyfDescript actual = font.getGlyfTable().getDescription(n);
+            assertEquals(String.valueOf(expected), String.valueOf(actual));
+        }
+    }
+
+    public void testReadByteArrayOverride() throws URISyntaxException, IOException {
+        URL url = ClassLoader.getSystemResource("Lato-Regular.ttf");
+        byte[] fontData = Files.readAllBytes(new File(url.toURI()).toPath());
+        
+        int[] calls = {0};
+        TTFont font = new TTFont(fontData, 0) {
+            @Override
+            public void read(byte[] data, int tablesOrigin) throws IOException {
+                calls[0]++;
+                super.read(data, tablesOrigin);
+            }
+        };
+        assertEquals(1, calls[0]);
+        assertNotNull(font.getGlyfTable());
+    }
+
+    public void testLoadFontLazyConcurrent() throws Exception {
+        URL url = ClassLoader.getSystemResource("Lato-Regular.ttf");
+        byte[] fontData = Files.readAllBytes(new File(url.toURI()).toPath());
+        
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 20; round++) {
+                TableDirectory directory = new TTFont(fontData, 0, true).getTableDirectory();
+                CyclicBarrier start = new CyclicBarrier(threads);
+                List<Future<?>> results = new ArrayList<>();
+                for (int n = 0; n < threads; n++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        assertNotNull(directory.glyf());
+                        assertNotNull(directory.head());
+                        assertNotNull(directory.hmtx());
+                        assertNotNull(directory.cmap());
+                        assertNotNull(directory.name());
+                        return null;
+                    }));
+                }
+                for (Future<?> result : results) {
+                    result.get();
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public void testDecodeGlyphsConcurrent() throws Exception {
+        URL url = ClassLoader.getSystemResource("Lato-Regular.ttf");
+        byte[] fontData = Files.readAllBytes(new File(url.toURI()).toPath());
+        GlyfTable expected = new TTFont(fontData, 0).getTableDirectory().glyf();
+        
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 5; round++) {
+                GlyfTable glyf = new TTFont(fontData, 0, true).getTableDirectory().glyf();
+                CyclicBarrier start = new CyclicBarrier(threads);
+                List<Future<?>> results = new ArrayList<>();
+                for (int n = 0; n < threads; n++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        for (int i = 0, cnt = expected.getNumGlyphs(); i < cnt; i++) {
+                            GlyfDescript glyph = glyf.getDescription(i);
+                            GlyfDescript expectedGlyph = expected.getDescription(i);
+                            if (expectedGlyph == null) {
+                                assertNull(glyph);
+                            } else {
+                                assertNotNull("Glyph " + i, glyph);
+                                assertEquals(expectedGlyph.getPointCount(), glyph.getPointCount());
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> result : results) {
+                    result.get();
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public void testLoadFontLazyFailure() throws URISyntaxException, IOException {
+        URL url = ClassLoader.getSystemResource("Lato-Regular.ttf");
+        byte[] fontData = Files.readAllBytes(new File(url.toURI()).toPath());
+        
+        // Truncate the 'name' table in its table record.
+        TableDirectory original = new TTFont(fontData, 0, true).getTableDirectory();
+        for (int n = 0, cnt = original.getNumTables(); n < cnt; n++) {
+            if (original.getEntry(n).getTag() == Table.name) {
+                int lengthPos = 12 + 16 * n + 12;
+                fontData[lengthPos] = 0;
+                fontData[lengthPos + 1] = 0;
+                fontData[lengthPos + 2] = 0;
+                fontData[lengthPos + 3] = 2;
+            }
+        }
+        
+        TTFont font = new TTFont(fontData, 0, true);
+        TableDirectory.Entry entry = font.getTableDirectory().getEntryByTag(Table.name);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                font.getNameTable();
+                fail("Reading a truncated table must fail.");
+            } catch (UncheckedIOException ex) {
+                // Expected, the table stays pending and fails again.
+                assertFalse(entry.isLoaded());
+            }
+        }
+    }
+
+    public void testGlyphCache() throws URISyntaxException, IOException {
+        URL url = ClassLoader.getSystemResource("Lato-Regular.ttf");
+        byte[] fontData = Files.readAllBytes(new File(url.toURI()).toPath());
+        TTFont font = new TTFont(fontData, 0, true);
+        
+        GlyfTable glyf = font.getGlyfTable();
+        GlyphCache<GlyfDescript> descriptionCache = new GlyphCache<>(2);
+        glyf.setDescriptionCache(descriptionCache);
+        
+        // Glyphs with outlines (empty glyphs are not cached).
+        int id1 = 10, id2 = 11, id3 = 12;
+        GlyfDescript glyph1 = glyf.getDescription(id1);
+        assertSame(glyph1, glyf.getDescription(id1));
+        assertNotNull(glyf.getDescription(id2));
+        assertNotNull(glyf.getDescription(id3));
+        
+        // The first glyph was evicted as least recently used.
+        assertEquals(2, descriptionCache.size());
+        assertEquals(1, descriptionCache.getEvictionCount());
+        assertEquals(1, descriptionCache.getHitCount());
+        assertNotSame(glyph1, glyf.getDescription(id1));
+        assertEquals(glyph1.toString(), glyf.getDescription(id1).toString());
+        
+        GlyphCache<TTGlyph> glyphCache = TTFont.createGlyphCache(100000);
+        font.setGlyphCache(glyphCache);
+        for (int n = 0, cnt = glyf.getNumGlyphs(); n < cnt; n++) {
+            font.getGlyph(n);
+        }
+        assertTrue(glyphCache.getWeight() <= 100000);
+        assertTrue(glyphCache.getEvictionCount() > 0);
+        
+        Glyph last = font.getGlyph(glyf.getNumGlyphs() - 1);
+        assertSame(last, font.getGlyph(glyf.getNumGlyphs() - 1));
+    }
+
+    public void testToggleDescriptionCache() throws URISyntaxException, IOException {
+        URL url = ClassLoader.getSystemResource("Lato-Regular.ttf");
+        byte[] fontData = Files.readAllBytes(new File(url.toURI()).toPath());
+        GlyfTable glyf = new TTFont(fontData, 0, true).getGlyfTable();
+        
+        int id = 10;
+        assertSame(glyf.getDescription(id), glyf.getDescription(id));
+        
+        glyf.setDescriptionCache(new GlyphCache<>(2));
+        glyf.setDescriptionCache(null);
+        GlyfDescript glyph = glyf.getDescription(id);
+        assertNotNull(glyph);
+        assertSame(glyph, glyf.getDescription(id));
+        
+        glyf.setCacheDescriptions(false);
+        assertNotSame(glyf.getDescription(id), glyf.getDescription(id));
+        
+        glyf.setCacheDescriptions(true);
+        glyph = glyf.getDescription(id);
+        assertSame(glyph, glyf.getDescription(id));
+    }
+
+    public void testCmapDenseLookup() throws URISyntaxException, IOException {
+        TTFont font = loadFontResource("Lato-Regular.ttf");
+        CmapTable cmap = font.getCmapTable();
+        for (int n = 0, cnt = cmap.getNumTables(); n < cnt; n++) {
+            CmapFormat format = cmap.getCmapIndexEntry(n).getFormat();
+            if (!(format instanceof CmapFormat4)) {
+                continue;
+            }
+            CmapFormat4 format4 = (CmapFormat4) format;
+            
+            int[] expected = new int[0x10000];
+            for (int charCode = 0; charCode <= 0xFFFF; charCode++) {
+                expected[charCode] = format4.mapCharCode(charCode);
+            }
+            assertTrue(expected['A'] > 0);
+            
+            format4.setDenseLookup(true);
+            assertTrue(format4.isDenseLookup());
+            for (int charCode = 0; charCode <= 0xFFFF; charCode++) {
+                assertEquals(expected[charCode], format4.mapCharCode(charCode));
+            }
+            assertEquals(0, format4.mapCharCode(0x10000));
+            assertEquals(0, format4.mapCharCode(-1));
+        }
+    }
+
+    public void testCmapMapString() throws URISyntaxException, IOException {
+        TTFont font = loadFontResource("Lato-Regular.ttf");
+        CmapTable cmap = font.getCmapTable();
+        CmapFormat format = cmap.getUnicodeFormat();
+        assertNotNull(format);
+        assertSame(cmap.getCmapFormat(ID.platformMicrosoft, ID.encodingUnicode), format);
+        
+        String text = "Hello \ud83d\ude00 W\u00f6rld \u20ac\ud800";
+        int[] glyphIds = new int[text.length()];
+        int cnt = cmap.mapString(text, glyphIds);
+        assertEquals(text.codePointCount(0, text.length()), cnt);
+        
+        int[] codePoints = text.codePoints().toArray();
+        for (int n = 0; n < cnt; n++) {
+            assertEquals(format.mapCharCode(codePoints[n]), glyphIds[n]);
+        }
+        assertTrue(glyphIds[0] > 0);
+        
+        int[] bulk = new int[codePoints.length];
+        cmap.mapCharCodes(codePoints, bulk);
+        assertEquals(Arrays.toString(Arrays.copyOf(glyphIds, cnt)), Arrays.toString(bulk));
+        
+        ((CmapFormat4) format).setDenseLookup(true);
+        int[] dense = new int[text.length()];
+        assertEquals(cnt, format.mapString(text, dense));
+        assertEquals(Arrays.toString(glyphIds), Arrays.toString(dense));
+    }
+
+    public void testCmapReverseIndex() throws URISyntaxException, IOException {
+        TTFont font = loadFontResource("Lato-Regular.ttf");
+        CmapTable cmap = font.getCmapTable();
+        CmapFormat format = cmap.getUnicodeFormat();
+        CmapReverseIndex index = cmap.getReverseIndex();
+        assertSame(index, cmap.getReverseIndex());
+        
+        int mapped = 0;
+        for (int charCode = 0; charCode <= 0xFFFF; charCode++) {
+            int glyphId = format.mapCharCode(charCode);
+            if (glyphId > 0) {
+                mapped++;
+                int[] charCodes = index.getCharCodes(glyphId);
+                assertTrue(Arrays.binarySearch(charCodes, charCode) >= 0);
+                assertTrue(index.getCharCode(glyphId) <= charCode);
+            }
+        }
+        assertEquals(mapped, index.size());
+        
+        int glyphA = format.mapCharCode('A');
+        assertEquals('A', index.getCharCode(glyphA));
+        assertEquals(-1, index.getCharCode(0));
+        assertEquals(0, index.getCharCodes(-1).length);
+    }
+
+    public void testGsubApply() throws URISyntaxException, IOException {
+        TTFont font = loadFontResource("Lato-Regular.ttf");
+        GsubTable gsub = font.getGsubTable();
+        CmapFormat format = font.getCmapTable().getUnicodeFormat();
+
+        // Ligatures are stored in extension lookups.
+        GlyphBuffer buffer = shape(gsub, format, "ffi f", "liga");
+        assertEquals(3, buffer.getLength());
+        assertEquals(0, buffer.getCluster(0));
+        assertEquals(format.mapCharCode(' '), buffer.getGlyph(1));
+        assertEquals(3, buffer.getCluster(1));
+        assertEquals(format.mapCharCode('f'), buffer.getGlyph(2));
+        assertEquals(4, buffer.getCluster(2));
+        int ffi = buffer.getGlyph(0);
+        assertTrue(ffi != format.mapCharCode('f'));
+
+        // Fractions use chained contexts.
+        buffer = shape(gsub, format, "1/2 x", "frac");
+        assertEquals(5, buffer.getLength());
+        assertTrue(buffer.getGlyph(0) != format.mapCharCode('1'));
+        assertTrue(buffer.getGlyph(1) != format.mapCharCode('/'));
+        assertTrue(buffer.getGlyph(2) != format.mapCharCode('2'));
+        assertEquals(format.mapCharCode('x'), buffer.getGlyph(4));
+
+        // Reusing the buffer.
+        buffer.clear();
+        buffer.add(format.mapCharCode('f'), 0);
+        buffer.add(format.mapCharCode('f'), 1);
+        buffer.add(format.mapCharCode('i'), 2);
+        gsub.apply(buffer, lookups(gsub, "liga"));
+        assertEquals(1, buffer.getLength());
+        assertEquals(ffi, buffer.getGlyph(0));
+    }
+
+    public void testGposApply() throws URISyntaxException, IOException {
+        TTFont font = loadFontResource("Lato-Regular.ttf");
+        GposTable gpos = font.getGposTable();
+        assertNotNull(gpos);
+        HmtxTable hmtx = font.getHmtxTable();
+        CmapFormat format = font.getCmapTable().getUnicodeFormat();
+        LangSys langSys = gpos.getScriptList().findScript("latn").getDefaultLangSys();
+
+        // Kerning with pair adjustments.
+        GlyphBuffer buffer = new GlyphBuffer();
+        int a = format.mapCharCode('A');
+        int v = format.mapCharCode('V');
+        buffer.add(a, 0);
+        buffer.add(v, 1);
+        buffer.add(a, 2);
+        buffer.initPositions(hmtx);
+        gpos.apply(buffer, lookups(gpos.getFeatureList().findFeature(langSys, "kern")));
+        assertTrue(buffer.getXAdvance(0) < hmtx.getAdvanceWidth(a));
+        assertTrue(buffer.getXAdvance(1) < hmtx.getAdvanceWidth(v));
+        assertEquals(hmtx.getAdvanceWidth(a), buffer.getXAdvance(2));
+
+        // Mark to base attachment.
+        buffer.clear();
+        int base = format.mapCharCode('a');
+        buffer.add(base, 0);
+        buffer.add(format.mapCharCode(0x0301), 1);
+        buffer.add(format.mapCharCode('x'), 2);
+        buffer.initPositions(hmtx);
+        gpos.apply(buffer, lookups(gpos.getFeatureList().findFeature(langSys, "mark")));
+        assertEquals(0, buffer.getXOffset(0));
+        assertTrue(buffer.getXOffset(1) != 0);
+        // The offset is relative to the pen position after the base.
+        assertTrue(buffer.getXOffset(1) + hmtx.getAdvanceWidth(base) > 0);
+        assertEquals(0, buffer.getXOffset(2));
+    }
+
+    public void testFeaturePlan() throws URISyntaxException, IOException {
+        TTFont font = loadFontResource("Lato-Regular.ttf");
+        GsubTable gsub = font.getGsubTable();
+
+        FeaturePlan liga = gsub.getFeaturePlan("latn", null, "liga");
+        assertSame(liga, gsub.getFeaturePlan("latn", null, "liga"));
+        assertTrue(Arrays.equals(lookups(gsub, "liga"), liga.getLookupIndices()));
+
+        // Unknown scripts and languages fall back to the default.
+        FeaturePlan fallback = gsub.getFeaturePlan("xxxx", "XXX ", "liga");
+        assertFalse(fallback.isEmpty());
+
+        // Lookups of multiple features are merged in lookup list order.
+        FeaturePlan combined = gsub.getFeaturePlan("latn", null, "liga", "frac");
+        int[] indices = combined.getLookupIndices();
+        for (int n = 1; n < indices.length; n++) {
+            assertTrue(indices[n - 1] < indices[n]);
+        }
+        assertTrue(indices.length >= liga.getLookupCount());
+
+        assertTrue(gsub.getFeaturePlan("latn", null, "zzzz").isEmpty());
+    }
+
+    public void testShaper() throws URISyntaxException, IOException {
+        TTFont font = loadFontResource("Lato-Regular.ttf");
+        HmtxTable hmtx = font.getHmtxTable();
+        CmapFormat format = font.getCmapTable().getUnicodeFormat();
+        Shaper shaper = font.createShaper();
+
+        GlyphBuffer buffer = shaper.shape("office AV");
+        assertEquals(7, buffer.getLength());
+        assertEquals(format.mapCharCode('o'), buffer.getGlyph(0));
+        assertEquals(1, buffer.getCluster(1));
+        assertEquals(4, buffer.getCluster(2));
+        assertEquals(format.mapCharCode('A'), buffer.getGlyph(5));
+        assertEquals(7, buffer.getCluster(5));
+        assertTrue(buffer.getXAdvance(5) < hmtx.getAdvanceWidth(buffer.getGlyph(5)));
+        assertEquals(hmtx.getAdvanceWidth(buffer.getGlyph(6)), buffer.getXAdvance(6));
+
+        // The buffer is reused.
+        assertSame(buffer, shaper.shape("xa\u0301", 1, 3));
+        assertEquals(2, buffer.getLength());
+        assertEquals(1, buffer.getCluster(0));
+        assertTrue(buffer.getXOffset(1) != 0);
+
+        shaper.setSubstitutionFeatures();
+        shaper.setPositioningFeatures();
+        buffer = shaper.shape("ffAV");
+        assertEquals(4, buffer.getLength());
+        assertEquals(hmtx.getAdvanceWidth(buffer.getGlyph(2)), buffer.getXAdvance(2));
+    }
+
+    private static GlyphBuffer shape(GsubTable gsub, CmapFormat format, String text, String feature) {
+        GlyphBuffer buffer = new GlyphBuffer(4);
+        int[] codePoints = text.codePoints().toArray();
+        for (int n = 0; n < codePoints.length; n++) {
+            buffer.add(format.mapCharCode(codePoints[n]), n);
+        }
+        gsub.apply(buffer, lookups(gsub, feature));
+        return buffer;
+    }
+
+    private static int[] lookups(GsubTable gsub, String tag) {
+        LangSys langSys = gsub.getScriptList().findScript("latn").getDefaultLangSys();
+        return lookups(gsub.getFeatureList().findFeature(langSys, tag));
+    }
+
+    private static int[] lookups(Feature feature) {
+        assertNotNull(feature);
+        int[] result = new int[feature.getLookupCount()];
+        for (int n = 0; n < result.length; n++) {
+            result[n] = feature.getLookupListIndex(n);
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
     public void testLoadColorFont() throws URISyntaxException, IOException {
         TTFont font = loadFontResource("NotoColorEmoji.ttf");
         dumpFont("NotoColorEmoji", font);
@@ -75,12 +534,70 @@ public class TTFontTest extends TestCase {
         dumpFont("Gilbert-Color Bold Preview5", font);
     }
     
+    public void testT2Font() throws URISyntaxException, IOException {
+        URL url = ClassLoader.getSystemResource("Gilbert-Color Bold Preview5.otf");
+        OTFontCollection collection = new OTFontCollection(new File(url.toURI()), true);
+        assertEquals(T2Font.class, collection.getFont(0).getClass());
+        
+        T2Font font = (T2Font) collection.getFont(0);
+        TableDirectory directory = font.getTableDirectory();
+        assertEquals(TableDirectory.OPEN_TYPE, directory.getVersion());
+        assertFalse(directory.getEntryByTag(Table.CFF).isLoaded());
+        
+        int numGlyphs = font.getNumGlyphs();
+        assertEquals(numGlyphs, font.getCffFont().getCharstringCount());
+        assertTrue(directory.getEntryByTag(Table.CFF).isLoaded());
+        
+        int glyphId = font.getCmapTable().getCmapFormat(ID.platformMicrosoft, ID.encodingUnicode).mapCharCode('H');
+        T2Glyph glyph = (T2Glyph) font.getGlyph(glyphId);
+        assertEquals("H", font.getCffFont().getGlyphName(glyphId));
+        assertEquals(font.getHmtxTable().getAdvanceWidth(glyphId), glyph.getAdvanceWidth());
+        assertTrue(glyph.getPointCount() > 0);
+        assertTrue(glyph.getPoint(glyph.getPointCount() - 1).endOfContour);
+        assertTrue(glyph.getBounds().getHeight() > 0);
+        
+        for (int n = 0; n < numGlyphs; n++) {
+            assertNotNull(font.getGlyph(n));
+        }
+    }
+    
+    public void testOutlineCache() throws URISyntaxException, IOException {
+        URL url = ClassLoader.getSystemResource("Gilbert-Color Bold Preview5.otf");
+        T2Font font = new T2Font(new MappedFontSource(new File(url.toURI())), 0, true);
+        int numGlyphs = font.getNumGlyphs();
+        
+        T2Font uncached = new T2Font(new MappedFontSource(new File(url.toURI())), 0, true);
+        GlyphCache<Outline> cache = T2Font.createOutlineCache(1000000);
+        font.setOutlineCache(cache);
+        for (int n = 0; n < numGlyphs; n++) {
+            Outline outline = font.getOutline(n);
+            assertSame(outline, font.getOutline(n));
+            assertEquals(
+                toString(uncached.getOutline(n).toPoints()), 
+                toString(outline.toPoints()));
+        }
+        assertEquals(numGlyphs, cache.getHitCount());
+        assertTrue(cache.getWeight() <= 1000000);
+        
+        T2Glyph glyph = (T2Glyph) font.getGlyph(numGlyphs - 1);
+        assertEquals(font.getOutline(numGlyphs - 1).toPoints().length, glyph.getPointCount());
+    }
+    
     public void testCreateFont() throws IOException {
         TTFont font = new TTFont();
         font.addTable(new HeadTable());
         dumpFont("created-font", font);
     }
     
+    private static String toString(Point[] points) {
+        StringBuilder result = new StringBuilder();
+        for (Point point : points) {
+            result.append(point.x).append(',').append(point.y)
+                .append(point.onCurve ? "" : "c").append(point.endOfContour ? "e " : " ");
+        }
+        return result.toString();
+    }
+
     private void dumpFont(String name, TTFont font)
             throws IOException, FileNotFoundException {
         new File("target/tmp").mkdirs();
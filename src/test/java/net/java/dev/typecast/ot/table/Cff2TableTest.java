@@ -0,0 +1,185 @@
+package net.java.dev.typecast.ot.table;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+import net.java.dev.typecast.cff.T2Interpreter;
+import net.java.dev.typecast.ot.Point;
+
+/**
+ * Test case for {@link Cff2Table}.
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class Cff2TableTest extends TestCase {
+
+    private static final int RLINETO = 5;
+    private static final int CALLSUBR = 10;
+    private static final int VSINDEX = 15;
+    private static final int BLEND = 16;
+    private static final int RMOVETO = 21;
+    private static final int HLINETO = 6;
+
+    public void testRead() throws IOException {
+        Cff2Table cff2 = createTable();
+        assertEquals(2, cff2.getMajor());
+        assertEquals(1, cff2.getCharstringCount());
+        assertEquals(1, cff2.getFontDictCount());
+        assertEquals(0, cff2.getFontDictIndex(0));
+        assertEquals(0, cff2.getGlobalSubrIndex().getCount());
+        assertEquals(1, cff2.getLocalSubrIndex(0).getCount());
+        assertEquals(1, cff2.getVariationStore().getAxisCount());
+        assertEquals(1, cff2.getVariationStore().getRegionIndexCount(0));
+    }
+
+    public void testRegionScalar() throws IOException {
+        Cff2Table cff2 = createTable();
+        assertEquals(1f, cff2.getVariationStore().getRegionScalar(0, new float[] {1}));
+        assertEquals(0.5f, cff2.getVariationStore().getRegionScalar(0, new float[] {0.5f}));
+        assertEquals(0f, cff2.getVariationStore().getRegionScalar(0, new float[] {-0.5f}));
+        assertEquals(0f, cff2.getVariationStore().getRegionScalar(0, new float[0]));
+    }
+
+    public void testBlend() throws IOException {
+        Cff2Table cff2 = createTable();
+        assertOutline(cff2, new float[0], 0);
+        assertOutline(cff2, new float[] {-1}, 0);
+        assertOutline(cff2, new float[] {0.5f}, 0.5f);
+        assertOutline(cff2, new float[] {1}, 1);
+    }
+
+    private static void assertOutline(Cff2Table cff2, float[] coords, float scalar) {
+        Point[] points = new T2Interpreter().execute(cff2, 0, coords);
+        assertEquals(3, points.length);
+        assertPoint(10 + 20 * scalar, 20, points[0]);
+        assertPoint(110 + 60 * scalar, 20, points[1]);
+        assertPoint(110 + 60 * scalar, 70, points[2]);
+        assertTrue(points[2].endOfContour);
+    }
+
+    private static void assertPoint(float x, float y, Point point) {
+        assertEquals(Math.round(x), point.x);
+        assertEquals(Math.round(y), point.y);
+    }
+
+    /**
+     * Builds a CFF2 table with one axis, one region peaking at 1 and one
+     * glyph: <code>0 vsindex 10 20 20 0 2 blend rmoveto 100 40 1 blend
+     * hlineto -107 callsubr</code> with a local subroutine
+     * <code>0 50 rlineto</code> ending without return.
+     */
+    private static Cff2Table createTable() throws IOException {
+        byte[] charstring = bytes(
+            num(0), VSINDEX,
+            num(10), num(20), num(20), num(0), num(2), BLEND, RMOVETO,
+            num(100), num(40), num(1), BLEND, HLINETO,
+            num(-107), CALLSUBR);
+        byte[] subr = bytes(num(0), num(50), RLINETO);
+        
+        int hdrSize = 5;
+        int topDictLength = 3 * 5 + 4;
+        int globalSubrs = hdrSize + topDictLength;
+        int vstore = globalSubrs + 4;
+        int vstoreLength = 30;
+        int charStrings = vstore + 2 + vstoreLength;
+        int fdArray = charStrings + 7 + charstring.length;
+        int privateDict = fdArray + 7 + 11;
+        int privateLength = 6;
+        
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        
+        // Header
+        out.writeByte(2);
+        out.writeByte(0);
+        out.writeByte(hdrSize);
+        out.writeShort(topDictLength);
+        
+        // Top DICT
+        writeInt(out, charStrings);
+        out.writeByte(17);
+        writeInt(out, fdArray);
+        out.writeByte(12);
+        out.writeByte(36);
+        writeInt(out, vstore);
+        out.writeByte(24);
+        
+        // Global Subr INDEX
+        out.writeInt(0);
+        
+        // VariationStore
+        out.writeShort(vstoreLength);
+        out.writeShort(1);
+        out.writeInt(12);
+        out.writeShort(1);
+        out.writeInt(22);
+        
+        // VariationRegionList
+        out.writeShort(1);
+        out.writeShort(1);
+        out.writeShort(0);
+        out.writeShort(0x4000);
+        out.writeShort(0x4000);
+        
+        // ItemVariationData
+        out.writeShort(0);
+        out.writeShort(0);
+        out.writeShort(1);
+        out.writeShort(0);
+        
+        // CharStrings INDEX
+        writeIndex(out, charstring);
+        
+        // Font DICT INDEX
+        ByteArrayOutputStream fontDict = new ByteArrayOutputStream();
+        DataOutputStream fontDictOut = new DataOutputStream(fontDict);
+        writeInt(fontDictOut, privateLength);
+        writeInt(fontDictOut, privateDict);
+        fontDictOut.writeByte(18);
+        writeIndex(out, fontDict.toByteArray());
+        
+        // Private DICT
+        writeInt(out, privateLength);
+        out.writeByte(19);
+        
+        // Local Subr INDEX
+        writeIndex(out, subr);
+        
+        byte[] data = buffer.toByteArray();
+        assertEquals(privateDict + privateLength + 7 + subr.length, data.length);
+        
+        Cff2Table table = new Cff2Table();
+        table.read(new DataInputStream(new ByteArrayInputStream(data)), data.length);
+        return table;
+    }
+
+    private static void writeInt(DataOutputStream out, int value) throws IOException {
+        out.writeByte(29);
+        out.writeInt(value);
+    }
+
+    private static void writeIndex(DataOutputStream out, byte[] data) throws IOException {
+        out.writeInt(1);
+        out.writeByte(1);
+        out.writeByte(1);
+        out.writeByte(1 + data.length);
+        out.write(data);
+    }
+
+    private static int num(int value) {
+        return value + 139;
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] result = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (byte) values[i];
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,221 @@
+package net.java.dev.typecast.ot.table;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+import net.java.dev.typecast.cff.CffFont;
+import net.java.dev.typecast.cff.CharstringType2;
+import net.java.dev.typecast.cff.T2Interpreter;
+import net.java.dev.typecast.ot.Point;
+
+/**
+ * Test case for {@link CffTable}.
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class CffTableTest extends TestCase {
+
+    private static final int RLINETO = 5;
+    private static final int CALLSUBR = 10;
+    private static final int RETURN = 11;
+    private static final int ENDCHAR = 14;
+    private static final int RMOVETO = 21;
+
+    public void testCidFont() throws IOException {
+        CffFont font = createCidTable(true).getFont(0);
+        assertTrue(font.isCidFont());
+        assertEquals(3, font.getCharstringCount());
+        assertEquals(2, font.getFontDictCount());
+        assertEquals(0, font.getFontDictIndex(1));
+        assertEquals(1, font.getFontDictIndex(2));
+        assertNotSame(font.getLocalSubrIndex(0), font.getLocalSubrIndex(1));
+        
+        // Each glyph calls the local subroutine of its own Font DICT.
+        assertEndPoint(0, 10, font, 1);
+        assertEndPoint(0, 20, font, 2);
+    }
+
+    public void testCidGlyphNames() throws IOException {
+        CffFont font = createCidTable(true).getFont(0);
+        assertEquals(0, font.getCid(0));
+        assertEquals(200, font.getCid(2));
+        assertEquals("cid00000", font.getGlyphName(0));
+        assertEquals("cid00100", font.getGlyphName(1));
+        assertEquals("cid00100", font.getCharstring(1).getName());
+    }
+
+    public void testCidFontWithoutPrivateDict() {
+        try {
+            createCidTable(false);
+            fail("Missing Private DICT not detected.");
+        } catch (IOException ex) {
+            assertTrue(ex.getMessage().contains("Private DICT"));
+        }
+    }
+
+    private static void assertEndPoint(int x, int y, CffFont font, int gid) {
+        Point[] points = new T2Interpreter().execute((CharstringType2) font.getCharstring(gid));
+        Point last = points[points.length - 1];
+        assertEquals(x, last.x);
+        assertEquals(y, last.y);
+    }
+
+    /**
+     * Builds a CID-keyed CFF table with three glyphs (CIDs 0, 100, 200) and
+     * two Font DICTs. Glyphs 1 and 2 call the local subroutine -107 of their
+     * Font DICT, which draws a line of length 10 and 20 respectively.
+     */
+    private static CffTable createCidTable(boolean withPrivate) throws IOException {
+        byte[][] charstrings = {
+            bytes(ENDCHAR),
+            bytes(num(0), num(0), RMOVETO, num(-107), CALLSUBR, ENDCHAR),
+            bytes(num(0), num(0), RMOVETO, num(-107), CALLSUBR, ENDCHAR),
+        };
+        byte[][] subrs = {
+            bytes(num(0), num(10), RLINETO, RETURN),
+            bytes(num(0), num(20), RLINETO, RETURN),
+        };
+        
+        int hdrSize = 4;
+        int nameIndex = hdrSize;
+        int topDictIndex = nameIndex + indexSize(4);
+        int topDictLength = (3 * 5 + 2) + 6 + 6 + 7 + 7;
+        int stringIndex = topDictIndex + indexSize(topDictLength);
+        int globalSubrs = stringIndex + indexSize(5, 8);
+        int charset = globalSubrs + 2;
+        int fdSelect = charset + 1 + 2 * 2;
+        int charStrings = fdSelect + 1 + 3;
+        int fdArray = charStrings + indexSize(charstrings[0].length, charstrings[1].length, charstrings[2].length);
+        int fontDictLength = withPrivate ? 11 : 0;
+        int privateDict = fdArray + indexSize(fontDictLength, fontDictLength);
+        int privateLength = 6;
+        int localSubrs = privateDict + privateLength;
+        int localSubrsSize = indexSize(subrs[0].length);
+        int[] privateOffsets = {privateDict, localSubrs + localSubrsSize};
+        
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        
+        // Header
+        out.writeByte(1);
+        out.writeByte(0);
+        out.writeByte(hdrSize);
+        out.writeByte(1);
+        
+        // Name INDEX
+        writeIndex(out, "Test".getBytes("US-ASCII"));
+        
+        // Top DICT INDEX
+        ByteArrayOutputStream topDict = new ByteArrayOutputStream();
+        DataOutputStream topDictOut = new DataOutputStream(topDict);
+        writeInt(topDictOut, 391);
+        writeInt(topDictOut, 392);
+        writeInt(topDictOut, 0);
+        topDictOut.writeByte(12);
+        topDictOut.writeByte(30);
+        writeInt(topDictOut, charStrings);
+        topDictOut.writeByte(17);
+        writeInt(topDictOut, charset);
+        topDictOut.writeByte(15);
+        writeInt(topDictOut, fdArray);
+        topDictOut.writeByte(12);
+        topDictOut.writeByte(36);
+        writeInt(topDictOut, fdSelect);
+        topDictOut.writeByte(12);
+        topDictOut.writeByte(37);
+        assertEquals(topDictLength, topDict.size());
+        writeIndex(out, topDict.toByteArray());
+        
+        // String INDEX
+        writeIndex(out, "Adobe".getBytes("US-ASCII"), "Identity".getBytes("US-ASCII"));
+        
+        // Global Subr INDEX
+        out.writeShort(0);
+        
+        // Charset format 0 with the CIDs of glyphs 1 and 2.
+        out.writeByte(0);
+        out.writeShort(100);
+        out.writeShort(200);
+        
+        // FDSelect format 0
+        out.writeByte(0);
+        out.writeByte(0);
+        out.writeByte(0);
+        out.writeByte(1);
+        
+        // CharStrings INDEX
+        writeIndex(out, charstrings);
+        
+        // Font DICT INDEX
+        byte[][] fontDicts = new byte[2][];
+        for (int fd = 0; fd < 2; fd++) {
+            ByteArrayOutputStream fontDict = new ByteArrayOutputStream();
+            if (withPrivate) {
+                DataOutputStream fontDictOut = new DataOutputStream(fontDict);
+                writeInt(fontDictOut, privateLength);
+                writeInt(fontDictOut, privateOffsets[fd]);
+                fontDictOut.writeByte(18);
+            }
+            fontDicts[fd] = fontDict.toByteArray();
+        }
+        writeIndex(out, fontDicts);
+        
+        // Private DICT and Local Subrs INDEX of each Font DICT
+        for (int fd = 0; fd < 2; fd++) {
+            writeInt(out, privateLength);
+            out.writeByte(19);
+            writeIndex(out, subrs[fd]);
+        }
+        
+        byte[] data = buffer.toByteArray();
+        assertEquals(privateOffsets[1] + privateLength + localSubrsSize, data.length);
+        
+        CffTable table = new CffTable();
+        table.read(new DataInputStream(new ByteArrayInputStream(data)), data.length);
+        return table;
+    }
+
+    private static int indexSize(int... lengths) {
+        int size = 2 + 1 + lengths.length + 1;
+        for (int length : lengths) {
+            size += length;
+        }
+        return size;
+    }
+
+    private static void writeInt(DataOutputStream out, int value) throws IOException {
+        out.writeByte(29);
+        out.writeInt(value);
+    }
+
+    private static void writeIndex(DataOutputStream out, byte[]... objects) throws IOException {
+        out.writeShort(objects.length);
+        out.writeByte(1);
+        int offset = 1;
+        out.writeByte(offset);
+        for (byte[] object : objects) {
+            offset += object.length;
+            out.writeByte(offset);
+        }
+        for (byte[] object : objects) {
+            out.write(object);
+        }
+    }
+
+    private static int num(int value) {
+        return value + 139;
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] result = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (byte) values[i];
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,94 @@
+package net.java.dev.typecast.ot.table;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+/**
+ * Test case for {@link ClassDef}.
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class ClassDefTest extends TestCase {
+
+    public void testFormat1() throws IOException {
+        ClassDef classDef = format1(100, 3, 0, 1, 2);
+        assertEquals(1, classDef.getFormat());
+        assertEquals(103, classDef.getLastGlyph());
+        assertEquals(0, classDef.getGlyphClass(99));
+        assertEquals(3, classDef.getGlyphClass(100));
+        assertEquals(0, classDef.getGlyphClass(101));
+        assertEquals(2, classDef.getGlyphClass(103));
+        assertEquals(0, classDef.getGlyphClass(104));
+        assertEquals(0, classDef.getGlyphClass(-1));
+
+        assertEquals(-1, format1(7).getLastGlyph());
+    }
+
+    public void testFormat2() throws IOException {
+        int[][] ranges = {{5, 7, 1}, {10, 10, 2}, {12, 20, 3}, {1000, 40000, 4}};
+        ClassDef classDef = format2(ranges);
+        assertEquals(2, classDef.getFormat());
+        assertEquals(40000, classDef.getLastGlyph());
+        assertClasses(ranges, classDef);
+    }
+
+    public void testFormat2Unsorted() throws IOException {
+        int[][] ranges = {{12, 20, 3}, {5, 7, 1}, {10, 10, 2}};
+        ClassDef classDef = format2(ranges);
+        assertEquals(20, classDef.getLastGlyph());
+        assertClasses(ranges, classDef);
+    }
+
+    public void testFormat2Empty() throws IOException {
+        ClassDef classDef = format2(new int[0][]);
+        assertEquals(-1, classDef.getLastGlyph());
+        assertEquals(0, classDef.getGlyphClass(0));
+    }
+
+    private static void assertClasses(int[][] ranges, ClassDef classDef) {
+        for (int glyphId = 0; glyphId < 41000; glyphId++) {
+            int expected = 0;
+            for (int[] range : ranges) {
+                if (range[0] <= glyphId && glyphId <= range[1]) {
+                    expected = range[2];
+                }
+            }
+            assertEquals(expected, classDef.getGlyphClass(glyphId));
+        }
+    }
+
+    private static ClassDef format1(int startGlyph, int... classValues) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeShort(1);
+        out.writeShort(startGlyph);
+        out.writeShort(classValues.length);
+        for (int classValue : classValues) {
+            out.writeShort(classValue);
+        }
+        return read(buffer);
+    }
+
+    private static ClassDef format2(int[][] ranges) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeShort(2);
+        out.writeShort(ranges.length);
+        for (int[] range : ranges) {
+            out.writeShort(range[0]);
+            out.writeShort(range[1]);
+            out.writeShort(range[2]);
+        }
+        return read(buffer);
+    }
+
+    private static ClassDef read(ByteArrayOutputStream buffer) throws IOException {
+        return ClassDef.read(new DataInputStream(new ByteArrayInputStream(buffer.toByteArray())));
+    }
+
+}
@@ -0,0 +1,88 @@
+package net.java.dev.typecast.ot.table;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+/**
+ * Test case for {@link Coverage}.
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class CoverageTest extends TestCase {
+
+    public void testFormat1() throws IOException {
+        int[] sparse = {3, 100, 2000, 30000};
+        Coverage coverage = format1(sparse);
+        assertFalse(coverage.isDense());
+        assertCoverage(sparse, coverage);
+        
+        int[] dense = {10, 11, 12, 14, 15, 17, 18, 19, 20, 22};
+        coverage = format1(dense);
+        assertTrue(coverage.isDense());
+        assertCoverage(dense, coverage);
+    }
+
+    public void testFormat2() throws IOException {
+        int[][] sparse = {{5, 7}, {1000, 1001}, {40000, 40003}};
+        Coverage coverage = format2(sparse);
+        assertFalse(coverage.isDense());
+        assertCoverage(new int[] {5, 6, 7, 1000, 1001, 40000, 40001, 40002, 40003}, coverage);
+        
+        int[][] dense = {{20, 29}, {31, 40}};
+        coverage = format2(dense);
+        assertTrue(coverage.isDense());
+        int[] expected = new int[20];
+        for (int n = 0; n < 10; n++) {
+            expected[n] = 20 + n;
+            expected[10 + n] = 31 + n;
+        }
+        assertCoverage(expected, coverage);
+    }
+
+    private static void assertCoverage(int[] glyphIds, Coverage coverage) {
+        assertEquals(glyphIds.length, coverage.getGlyphCount());
+        assertEquals(Arrays.toString(glyphIds), Arrays.toString(coverage.getGlyphIds()));
+        for (int glyphId = -1, last = glyphIds[glyphIds.length - 1] + 2; glyphId < last; glyphId++) {
+            int expected = Arrays.binarySearch(glyphIds, glyphId);
+            assertEquals(expected < 0 ? -1 : expected, coverage.findGlyph(glyphId));
+        }
+        assertEquals(-1, coverage.findGlyph(65535));
+    }
+
+    private static Coverage format1(int[] glyphIds) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeShort(1);
+        out.writeShort(glyphIds.length);
+        for (int glyphId : glyphIds) {
+            out.writeShort(glyphId);
+        }
+        return read(buffer);
+    }
+
+    private static Coverage format2(int[][] ranges) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeShort(2);
+        out.writeShort(ranges.length);
+        int index = 0;
+        for (int[] range : ranges) {
+            out.writeShort(range[0]);
+            out.writeShort(range[1]);
+            out.writeShort(index);
+            index += range[1] - range[0] + 1;
+        }
+        return read(buffer);
+    }
+
+    private static Coverage read(ByteArrayOutputStream buffer) throws IOException {
+        return Coverage.read(new DataInputStream(new ByteArrayInputStream(buffer.toByteArray())));
+    }
+
+}
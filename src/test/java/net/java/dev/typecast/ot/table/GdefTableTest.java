@@ -0,0 +1,145 @@
+package net.java.dev.typecast.ot.table;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+/**
+ * Test case for {@link GdefTable}.
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class GdefTableTest extends TestCase {
+
+    private static final int BASE = 15;
+    private static final int LIGATURE = 20;
+    private static final int MARK_1 = 30;
+    private static final int MARK_2 = 32;
+
+    public void testGlyphClasses() throws IOException {
+        GdefTable gdef = createTable();
+        assertEquals(GdefTable.VERSION_1_2, gdef.getVersion());
+        assertEquals(GdefTable.BASE_GLYPH, gdef.getGlyphClass(BASE));
+        assertEquals(GdefTable.LIGATURE_GLYPH, gdef.getGlyphClass(LIGATURE));
+        assertEquals(GdefTable.MARK_GLYPH, gdef.getGlyphClass(MARK_1));
+        assertEquals(0, gdef.getGlyphClass(5));
+        assertEquals(0, gdef.getGlyphClass(60000));
+
+        assertTrue(gdef.isMark(MARK_1));
+        assertFalse(gdef.isMark(BASE));
+        assertEquals(1, gdef.getMarkAttachClass(MARK_1));
+        assertEquals(2, gdef.getMarkAttachClass(MARK_2));
+        assertEquals(0, gdef.getMarkAttachClass(BASE));
+
+        assertEquals(1, gdef.getMarkGlyphSetCount());
+        assertTrue(gdef.isInMarkGlyphSet(0, MARK_2));
+        assertFalse(gdef.isInMarkGlyphSet(0, MARK_1));
+        assertFalse(gdef.isInMarkGlyphSet(1, MARK_2));
+        assertNull(gdef.getAttachList());
+    }
+
+    public void testIgnored() throws IOException {
+        GdefTable gdef = createTable();
+        assertFalse(gdef.isIgnored(BASE, 0, 0));
+        assertTrue(gdef.isIgnored(BASE, Lookup.IGNORE_BASE_GLYPHS, 0));
+        assertTrue(gdef.isIgnored(LIGATURE, Lookup.IGNORE_BASE_LIGATURES, 0));
+        assertTrue(gdef.isIgnored(MARK_1, Lookup.IGNORE_BASE_MARKS, 0));
+        assertFalse(gdef.isIgnored(BASE, Lookup.IGNORE_BASE_MARKS, 0));
+        assertFalse(gdef.isIgnored(5, Lookup.IGNORE_BASE_GLYPHS | Lookup.IGNORE_BASE_MARKS, 0));
+
+        int markAttachmentType1 = 1 << 8;
+        assertFalse(gdef.isIgnored(MARK_1, markAttachmentType1, 0));
+        assertTrue(gdef.isIgnored(MARK_2, markAttachmentType1, 0));
+        assertFalse(gdef.isIgnored(BASE, markAttachmentType1, 0));
+
+        assertFalse(gdef.isIgnored(MARK_2, Lookup.USE_MARK_FILTERING_SET, 0));
+        assertTrue(gdef.isIgnored(MARK_1, Lookup.USE_MARK_FILTERING_SET, 0));
+        assertFalse(gdef.isIgnored(BASE, Lookup.USE_MARK_FILTERING_SET, 0));
+    }
+
+    public void testLigatureCarets() throws IOException {
+        LigCaretList carets = createTable().getLigCaretList();
+        assertEquals(2, carets.getCaretCount(LIGATURE));
+        assertEquals(1, carets.getCaretFormat(LIGATURE, 0));
+        assertEquals(-500, carets.getCaretValue(LIGATURE, 0));
+        assertEquals(2, carets.getCaretFormat(LIGATURE, 1));
+        assertEquals(7, carets.getCaretValue(LIGATURE, 1));
+        assertEquals(0, carets.getCaretCount(BASE));
+        try {
+            carets.getCaretValue(LIGATURE, 2);
+            fail("Index check expected.");
+        } catch (IndexOutOfBoundsException ex) {
+            // Expected.
+        }
+    }
+
+    private static GdefTable createTable() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+
+        // Header
+        out.writeInt(GdefTable.VERSION_1_2);
+        out.writeShort(14); // glyphClassDef
+        out.writeShort(0); // attachList
+        out.writeShort(50); // ligCaretList
+        out.writeShort(36); // markAttachClassDef
+        out.writeShort(76); // markGlyphSetsDef
+
+        // Glyph classes, format 2
+        out.writeShort(2);
+        out.writeShort(3);
+        writeRange(out, 10, 19, GdefTable.BASE_GLYPH);
+        writeRange(out, LIGATURE, LIGATURE, GdefTable.LIGATURE_GLYPH);
+        writeRange(out, MARK_1, 33, GdefTable.MARK_GLYPH);
+
+        // Mark attachment classes, format 1
+        assertEquals(36, out.size());
+        out.writeShort(1);
+        out.writeShort(MARK_1);
+        out.writeShort(4);
+        out.writeShort(1);
+        out.writeShort(1);
+        out.writeShort(2);
+        out.writeShort(2);
+
+        // Ligature caret list
+        assertEquals(50, out.size());
+        out.writeShort(6); // coverage
+        out.writeShort(1);
+        out.writeShort(12); // ligGlyph
+        out.writeShort(1);
+        out.writeShort(1);
+        out.writeShort(LIGATURE);
+        out.writeShort(2);
+        out.writeShort(6);
+        out.writeShort(10);
+        out.writeShort(1);
+        out.writeShort(-500);
+        out.writeShort(2);
+        out.writeShort(7);
+
+        // Mark glyph sets
+        assertEquals(76, out.size());
+        out.writeShort(1);
+        out.writeShort(1);
+        out.writeInt(8);
+        out.writeShort(1);
+        out.writeShort(1);
+        out.writeShort(MARK_2);
+
+        GdefTable gdef = new GdefTable();
+        gdef.read(new DataInputStream(new ByteArrayInputStream(buffer.toByteArray())), buffer.size());
+        return gdef;
+    }
+
+    private static void writeRange(DataOutputStream out, int start, int end, int glyphClass) throws IOException {
+        out.writeShort(start);
+        out.writeShort(end);
+        out.writeShort(glyphClass);
+    }
+
+}
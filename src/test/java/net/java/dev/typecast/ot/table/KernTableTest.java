@@ -0,0 +1,173 @@
+package net.java.dev.typecast.ot.table;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+/**
+ * Test case for {@link KernTable}.
+ *
+ * @author <a href="mailto:haui@haumacher.de">Bernhard Haumacher</a>
+ */
+public class KernTableTest extends TestCase {
+
+    public void testFormat0() throws IOException {
+        int[][] pairs = {{1, 2, -50}, {1, 40000, 30}, {3, 1, 7}, {40000, 2, -1}, {40000, 40001, 12}};
+        KernTable kern = format0(pairs);
+        assertEquals(1, kern.getSubtableCount());
+        assertEquals(pairs.length, kern.getSubtable(0).getKerningPairCount());
+        assertKerning(pairs, kern);
+
+        KerningPair pair = kern.getSubtable(0).getKerningPair(1);
+        assertEquals(1, pair.getLeft());
+        assertEquals(40000, pair.getRight());
+        assertEquals(30, pair.getValue());
+    }
+
+    public void testFormat0Unsorted() throws IOException {
+        int[][] pairs = {{40000, 2, -1}, {3, 1, 7}, {1, 40000, 30}, {1, 2, -50}};
+        KernTable kern = format0(pairs);
+        assertKerning(pairs, kern);
+        assertEquals(1, kern.getSubtable(0).getKerningPair(0).getLeft());
+    }
+
+    public void testFormat0Empty() throws IOException {
+        KernTable kern = format0(new int[0][]);
+        assertEquals(0, kern.getKerning(1, 2));
+    }
+
+    public void testFormat2() throws IOException {
+        for (boolean relativeToSubtable : new boolean[] {true, false}) {
+            // Left glyphs 10..12 with classes 1, 0, 2; right glyphs 20..21
+            // with classes 1, 2.
+            KernTable kern = format2(relativeToSubtable, 10, new int[] {1, 0, 2}, 20, new int[] {1, 2},
+                new int[][] {{0, 0, 0}, {0, -10, -20}, {0, 30, 40}});
+            assertEquals(0, kern.getSubtable(0).getKerningPairCount());
+            assertEquals(-10, kern.getKerning(10, 20));
+            assertEquals(-20, kern.getKerning(10, 21));
+            assertEquals(0, kern.getKerning(11, 20));
+            assertEquals(30, kern.getKerning(12, 20));
+            assertEquals(40, kern.getKerning(12, 21));
+            assertEquals(0, kern.getKerning(12, 22));
+            assertEquals(0, kern.getKerning(9, 20));
+            assertEquals(0, kern.getKerning(13, 21));
+        }
+    }
+
+    public void testCoverage() throws IOException {
+        KernTable kern = format0(new int[] {0x0001, 0x0001, 0x0003, 0x0000, 0x0005, 0x0009},
+            new int[][] {{1, 2, -50}, {3, 4, 10}},
+            new int[][] {{1, 2, -20}, {3, 4, 5}},
+            new int[][] {{1, 2, -1000}},
+            new int[][] {{1, 2, 300}},
+            new int[][] {{1, 2, 40}},
+            new int[][] {{3, 4, 7}});
+        assertEquals(6, kern.getSubtableCount());
+
+        KernSubtable minimum = kern.getSubtable(2);
+        assertTrue(minimum.isHorizontal());
+        assertTrue(minimum.isMinimum());
+        assertFalse(minimum.isCrossStream());
+        assertFalse(kern.getSubtable(3).isHorizontal());
+        assertTrue(kern.getSubtable(4).isCrossStream());
+        assertTrue(kern.getSubtable(5).isOverride());
+        assertEquals(0x0009, kern.getSubtable(5).getCoverage());
+
+        // Minimum, vertical and cross-stream subtables are skipped.
+        assertEquals(-70, kern.getKerning(1, 2));
+
+        // The override subtable replaces the sum of previous values.
+        assertEquals(7, kern.getKerning(3, 4));
+    }
+
+    private static void assertKerning(int[][] pairs, KernTable kern) {
+        for (int[] pair : pairs) {
+            assertEquals(pair[2], kern.getKerning(pair[0], pair[1]));
+        }
+        assertEquals(0, kern.getKerning(2, 1));
+        assertEquals(0, kern.getKerning(1, 3));
+        assertEquals(0, kern.getKerning(40001, 40000));
+        assertEquals(0, kern.getKerning(-1, 2));
+        assertEquals(0, kern.getKerning(0x10001, 2));
+    }
+
+    private static KernTable format0(int[][] pairs) throws IOException {
+        return format0(new int[] {0x0001}, pairs);
+    }
+
+    private static KernTable format0(int[] coverages, int[][]... subtables) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeShort(0);
+        out.writeShort(subtables.length);
+
+        for (int n = 0; n < subtables.length; n++) {
+            int[][] pairs = subtables[n];
+            out.writeShort(0);
+            out.writeShort(14 + 6 * pairs.length);
+            out.writeShort(coverages[n]);
+            out.writeShort(pairs.length);
+            out.writeShort(0);
+            out.writeShort(0);
+            out.writeShort(0);
+            for (int[] pair : pairs) {
+                out.writeShort(pair[0]);
+                out.writeShort(pair[1]);
+                out.writeShort(pair[2]);
+            }
+        }
+        return read(buffer);
+    }
+
+    private static KernTable format2(boolean relativeToSubtable, int leftFirst, int[] leftClasses,
+            int rightFirst, int[] rightClasses, int[][] rows) throws IOException {
+        int columns = rows[0].length;
+        int rowWidth = 2 * columns;
+        int leftTable = 14;
+        int rightTable = leftTable + 4 + 2 * leftClasses.length;
+        int array = rightTable + 4 + 2 * rightClasses.length;
+        int length = array + rowWidth * rows.length;
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeShort(0);
+        out.writeShort(1);
+
+        out.writeShort(0);
+        out.writeShort(length);
+        out.writeShort(0x0201);
+        out.writeShort(rowWidth);
+        out.writeShort(leftTable);
+        out.writeShort(rightTable);
+        out.writeShort(array);
+
+        out.writeShort(leftFirst);
+        out.writeShort(leftClasses.length);
+        for (int leftClass : leftClasses) {
+            out.writeShort(leftClass * rowWidth + (relativeToSubtable ? array : 0));
+        }
+        out.writeShort(rightFirst);
+        out.writeShort(rightClasses.length);
+        for (int rightClass : rightClasses) {
+            out.writeShort(rightClass * 2);
+        }
+        for (int[] row : rows) {
+            for (int value : row) {
+                out.writeShort(value);
+            }
+        }
+        return read(buffer);
+    }
+
+    private static KernTable read(ByteArrayOutputStream buffer) throws IOException {
+        byte[] data = buffer.toByteArray();
+        KernTable result = new KernTable();
+        result.read(new DataInputStream(new ByteArrayInputStream(data)), data.length);
+        return result;
+    }
+
+}